@@ -0,0 +1,129 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Замер размера и времени кодирования/декодирования снимка справочника на синтетических данных.
+ * Размер сравнивается с JSON-представлением тех же контактов. Запуск:
+ * {@code ./gradlew snapshotBenchmark --args="200000"} (аргумент — количество контактов).
+ */
+public final class DirectorySnapshotBenchmark {
+
+    private static final int DEFAULT_CONTACTS = 200_000;
+    private static final int DEPARTMENTS = 300;
+    private static final int POSITIONS = 150;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final String[] LAST_NAMES = {"Иванов", "Петров", "Сидоров", "Смирнов",
+        "Кузнецов", "Попов", "Васильев", "Соколов", "Михайлов", "Новиков", "Федоров", "Морозов"};
+    private static final String[] FIRST_NAMES = {"Александр", "Дмитрий", "Максим", "Сергей",
+        "Андрей", "Алексей", "Артем", "Илья", "Кирилл", "Михаил", "Никита", "Иван"};
+    private static final String[] PATRONYMICS = {"Александрович", "Дмитриевич", "Сергеевич",
+        "Андреевич", "Алексеевич", "Иванович", "Петрович", "Николаевич"};
+
+    private DirectorySnapshotBenchmark() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Точка входа замера.
+     *
+     * @param args количество контактов (необязательно)
+     */
+    public static void main(String[] args) {
+        int contactCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CONTACTS;
+        Random random = new Random(42);
+        List<SnapshotDepartment> departments = generateDepartments(random);
+        List<SnapshotContact> contacts = generateContacts(random, contactCount);
+
+        byte[] snapshot = DirectorySnapshotEncoder.encode(departments, contacts);
+        long jsonBytes = jsonSize(contacts);
+        DirectorySnapshot decoded = DirectorySnapshotDecoder.decode(snapshot);
+        if (!decoded.contacts().equals(contacts) || !decoded.departments().equals(departments)) {
+            throw new IllegalStateException("Snapshot round trip mismatch");
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            DirectorySnapshotEncoder.encode(departments, contacts);
+            DirectorySnapshotDecoder.decode(snapshot);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            DirectorySnapshotEncoder.encode(departments, contacts);
+            encodeNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            DirectorySnapshotDecoder.decode(snapshot);
+            decodeNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("contacts:          %d%n", contactCount);
+        System.out.printf("snapshot size:     %d bytes (%.1f bytes/contact)%n",
+            snapshot.length, (double) snapshot.length / contactCount);
+        System.out.printf("json size:         %d bytes (%.1fx larger)%n",
+            jsonBytes, (double) jsonBytes / snapshot.length);
+        System.out.printf("encode time (avg): %.1f ms%n", encodeNanos / 1e6 / MEASURED_ROUNDS);
+        System.out.printf("decode time (avg): %.1f ms%n", decodeNanos / 1e6 / MEASURED_ROUNDS);
+    }
+
+    private static List<SnapshotDepartment> generateDepartments(Random random) {
+        List<SnapshotDepartment> departments = new ArrayList<>(DEPARTMENTS);
+        for (int i = 1; i <= DEPARTMENTS; i++) {
+            Long parentId = i <= 10 ? null : (long) (1 + random.nextInt(i - 1));
+            departments.add(new SnapshotDepartment((long) i, "Отдел " + i, parentId));
+        }
+        return departments;
+    }
+
+    private static List<SnapshotContact> generateContacts(Random random, int count) {
+        List<SnapshotContact> contacts = new ArrayList<>(count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += 1 + (random.nextInt(10) == 0 ? random.nextInt(5) : 0);
+            String fullName = pick(random, LAST_NAMES) + " " + pick(random, FIRST_NAMES) + " "
+                              + pick(random, PATRONYMICS);
+            contacts.add(new SnapshotContact(id, fullName, "Должность " + random.nextInt(POSITIONS),
+                random.nextInt(20) == 0 ? null : 1L + random.nextInt(DEPARTMENTS),
+                phones(random, "+7 (495) ", 1 + random.nextInt(2)),
+                phones(random, "+7 (9", random.nextInt(2)),
+                phones(random, "8-9", random.nextInt(2))));
+        }
+        return contacts;
+    }
+
+    private static List<String> phones(Random random, String prefix, int count) {
+        List<String> phones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            phones.add(String.format("%s%03d-%02d-%02d", prefix, random.nextInt(1000),
+                random.nextInt(100), random.nextInt(100)));
+        }
+        return phones;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static long jsonSize(List<SnapshotContact> contacts) {
+        long size = 2;
+        for (SnapshotContact contact : contacts) {
+            String json = "{\"id\":" + contact.id()
+                          + ",\"fullName\":\"" + contact.fullName()
+                          + "\",\"position\":\"" + contact.position()
+                          + "\",\"departmentId\":" + contact.departmentId()
+                          + ",\"workPhones\":" + jsonArray(contact.workPhones())
+                          + ",\"workMobilePhones\":" + jsonArray(contact.workMobilePhones())
+                          + ",\"personalPhones\":" + jsonArray(contact.personalPhones()) + "},";
+            size += json.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size;
+    }
+
+    private static String jsonArray(List<String> values) {
+        return values.isEmpty() ? "[]" : "[\"" + String.join("\",\"", values) + "\"]";
+    }
+}
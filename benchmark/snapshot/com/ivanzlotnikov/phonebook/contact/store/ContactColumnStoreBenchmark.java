@@ -0,0 +1,165 @@
+package com.ivanzlotnikov.phonebook.contact.store;
+
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotContact;
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotDepartment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Замер объема кучи, занимаемого колоночным хранилищем контактов, в сравнении с хранением
+ * контактов объектами. Контакты генерируются потоком прямо в построитель, поэтому замер
+ * укладывается в -Xmx1g. Запуск: {@code ./gradlew contactStoreBenchmark --args="5000000"}
+ * (аргумент — количество контактов).
+ */
+public final class ContactColumnStoreBenchmark {
+
+    private static final int DEFAULT_CONTACTS = 5_000_000;
+    private static final int OBJECT_SAMPLE = 200_000;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int DEPARTMENTS = 300;
+    private static final int POSITIONS = 150;
+    private static final long SEED = 42;
+    private static final String[] LAST_NAMES = {"Иванов", "Петров", "Сидоров", "Смирнов",
+        "Кузнецов", "Попов", "Васильев", "Соколов", "Михайлов", "Новиков", "Федоров", "Морозов"};
+    private static final String[] FIRST_NAMES = {"Александр", "Дмитрий", "Максим", "Сергей",
+        "Андрей", "Алексей", "Артем", "Илья", "Кирилл", "Михаил", "Никита", "Иван"};
+    private static final String[] PATRONYMICS = {"Александрович", "Дмитриевич", "Сергеевич",
+        "Андреевич", "Алексеевич", "Иванович", "Петрович", "Николаевич"};
+
+    private ContactColumnStoreBenchmark() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Точка входа замера.
+     *
+     * @param args количество контактов (необязательно)
+     */
+    public static void main(String[] args) {
+        int contactCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CONTACTS;
+        List<SnapshotDepartment> departments = generateDepartments();
+
+        long objectBytes = measureObjects(departments);
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        ContactColumnStore.Builder builder = ContactColumnStore.builder(departments, contactCount);
+        ContactGenerator generator = new ContactGenerator();
+        for (int i = 0; i < contactCount; i++) {
+            builder.add(generator.next());
+        }
+        ContactColumnStore store = builder.build();
+        long buildNanos = System.nanoTime() - start;
+        long storeBytes = usedHeap() - before;
+
+        verify(store);
+        long lookupNanos = measureLookups(store);
+
+        System.out.printf("contacts:            %d%n", contactCount);
+        System.out.printf("store heap:          %.1f MB (%.1f bytes/contact)%n",
+            storeBytes / 1e6, (double) storeBytes / contactCount);
+        System.out.printf("store columns:       %.1f MB%n", store.footprintBytes() / 1e6);
+        System.out.printf("objects heap:        %.1f bytes/contact (%.1fx larger, ~%.1f GB "
+                + "for %d contacts)%n", (double) objectBytes / OBJECT_SAMPLE,
+            (double) objectBytes / OBJECT_SAMPLE / storeBytes * contactCount,
+            (double) objectBytes / OBJECT_SAMPLE * contactCount / 1e9, contactCount);
+        System.out.printf("build time (with generation): %.1f ms%n", buildNanos / 1e6);
+        System.out.printf("lookup + materialize: %.0f ns/contact%n", (double) lookupNanos / LOOKUPS);
+        System.out.printf("max heap:            %.1f MB%n", Runtime.getRuntime().maxMemory() / 1e6);
+    }
+
+    private static long measureObjects(List<SnapshotDepartment> departments) {
+        long before = usedHeap();
+        List<SnapshotContact> contacts = new ArrayList<>(OBJECT_SAMPLE);
+        ContactGenerator generator = new ContactGenerator();
+        for (int i = 0; i < OBJECT_SAMPLE; i++) {
+            contacts.add(generator.next());
+        }
+        long bytes = usedHeap() - before;
+        if (contacts.size() != OBJECT_SAMPLE || departments.isEmpty()) {
+            throw new IllegalStateException();
+        }
+        return bytes;
+    }
+
+    private static void verify(ContactColumnStore store) {
+        ContactGenerator generator = new ContactGenerator();
+        for (int i = 0; i < store.size(); i++) {
+            SnapshotContact expected = generator.next();
+            if (!store.record(i).toSnapshotContact().equals(expected)) {
+                throw new IllegalStateException("Store mismatch for contact " + expected.id());
+            }
+        }
+    }
+
+    private static long measureLookups(ContactColumnStore store) {
+        Random random = new Random(SEED);
+        long maxId = store.record(store.size() - 1).id();
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            found += store.find(1 + (long) (random.nextDouble() * maxId))
+                .map(record -> record.fullName().length() + record.workPhones().size())
+                .orElse(0);
+        }
+        long nanos = System.nanoTime() - start;
+        if (found == 0) {
+            throw new IllegalStateException("No contacts found");
+        }
+        return nanos;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<SnapshotDepartment> generateDepartments() {
+        Random random = new Random(SEED);
+        List<SnapshotDepartment> departments = new ArrayList<>(DEPARTMENTS);
+        for (int i = 1; i <= DEPARTMENTS; i++) {
+            Long parentId = i <= 10 ? null : (long) (1 + random.nextInt(i - 1));
+            departments.add(new SnapshotDepartment((long) i, "Отдел " + i, parentId));
+        }
+        return departments;
+    }
+
+    /**
+     * Детерминированный генератор синтетических контактов по возрастанию идентификатора.
+     */
+    private static final class ContactGenerator {
+
+        private final Random random = new Random(SEED);
+        private long id;
+
+        private SnapshotContact next() {
+            id += 1 + (random.nextInt(10) == 0 ? random.nextInt(5) : 0);
+            String fullName = pick(LAST_NAMES) + " " + pick(FIRST_NAMES) + " " + pick(PATRONYMICS);
+            return new SnapshotContact(id, fullName, "Должность " + random.nextInt(POSITIONS),
+                random.nextInt(20) == 0 ? null : 1L + random.nextInt(DEPARTMENTS),
+                phones("+7 (495) ", 1 + random.nextInt(2)),
+                phones("+7 (9", random.nextInt(2)),
+                phones("8-9", random.nextInt(2)));
+        }
+
+        private List<String> phones(String prefix, int count) {
+            if (count == 0) {
+                return List.of();
+            }
+            List<String> phones = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                phones.add(String.format("%s%03d-%02d-%02d", prefix, random.nextInt(1000),
+                    random.nextInt(100), random.nextInt(100)));
+            }
+            return phones;
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ivanzlotnikov.phonebook.department.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Сравнение итеративного построения дерева департаментов ({@link DepartmentHierarchy}) с
+ * прежним рекурсивным построением по карте дочерних департаментов. Проверяются широкая
+ * иерархия, глубокая цепочка и потеря департаментов при прежнем ограничении глубины 5.
+ * Запуск: {@code ./gradlew departmentTreeBenchmark --args="100000"} (аргумент — количество
+ * департаментов в широкой иерархии).
+ */
+public final class DepartmentTreeBenchmark {
+
+    private static final int DEFAULT_DEPARTMENTS = 100_000;
+    private static final int CHAIN_DEPTH = 200_000;
+    private static final int LEGACY_MAX_TREE_DEPTH = 5;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private DepartmentTreeBenchmark() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Точка входа замера.
+     *
+     * @param args количество департаментов (необязательно)
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPARTMENTS;
+        Random random = new Random(42);
+        long[] ids = new long[count];
+        long[] parentIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            // Каждый департамент подчинен одному из предыдущих: лес из 20 корней
+            parentIds[i] = i < 20 ? DepartmentHierarchy.NO_PARENT : 1 + random.nextInt(i);
+        }
+
+        int legacyNodes = countNodes(buildRecursive(ids, parentIds, LEGACY_MAX_TREE_DEPTH));
+        int fullNodes = countNodes(buildIterative(ids, parentIds));
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            buildRecursive(ids, parentIds, Integer.MAX_VALUE);
+            buildIterative(ids, parentIds);
+        }
+        long recursiveNanos = 0;
+        long iterativeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            buildRecursive(ids, parentIds, Integer.MAX_VALUE);
+            recursiveNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            buildIterative(ids, parentIds);
+            iterativeNanos += System.nanoTime() - start;
+        }
+
+        long[] chainIds = new long[CHAIN_DEPTH];
+        long[] chainParents = new long[CHAIN_DEPTH];
+        for (int i = 0; i < CHAIN_DEPTH; i++) {
+            chainIds[i] = i + 1;
+            chainParents[i] = i == 0 ? DepartmentHierarchy.NO_PARENT : i;
+        }
+        String recursiveChain;
+        try {
+            recursiveChain = countNodes(buildRecursive(chainIds, chainParents, Integer.MAX_VALUE))
+                             + " departments";
+        } catch (StackOverflowError e) {
+            recursiveChain = "StackOverflowError";
+        }
+        int iterativeChain = countNodes(buildIterative(chainIds, chainParents));
+
+        long[] cycleIds = {1, 2, 3, 4};
+        long[] cycleParents = {DepartmentHierarchy.NO_PARENT, 3, 4, 2};
+        long[] cyclic = DepartmentHierarchy.of(cycleIds, cycleParents).cyclicIds();
+
+        System.out.printf("departments:                 %d%n", count);
+        System.out.printf("legacy (depth %d) tree:       %d of %d departments%n",
+            LEGACY_MAX_TREE_DEPTH, legacyNodes, count);
+        System.out.printf("iterative tree:              %d of %d departments%n", fullNodes, count);
+        System.out.printf("recursive build (avg):       %.2f ms%n",
+            recursiveNanos / 1e6 / MEASURED_ROUNDS);
+        System.out.printf("iterative build (avg):       %.2f ms%n",
+            iterativeNanos / 1e6 / MEASURED_ROUNDS);
+        System.out.printf("chain of %d, recursive:  %s%n", CHAIN_DEPTH, recursiveChain);
+        System.out.printf("chain of %d, iterative:  %d departments%n", CHAIN_DEPTH,
+            iterativeChain);
+        System.out.printf("cycle detected:              %s%n", Arrays.toString(cyclic));
+    }
+
+    private static List<Node> buildIterative(long[] ids, long[] parentIds) {
+        List<Node> nodes = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            nodes.add(new Node(id));
+        }
+        return DepartmentHierarchy.of(ids, parentIds).buildForest(nodes, Node::setChildren);
+    }
+
+    // Прежний алгоритм DepartmentService: карта дочерних и рекурсия с ограничением глубины
+    private static List<Node> buildRecursive(long[] ids, long[] parentIds, int maxDepth) {
+        Map<Long, List<Long>> childrenMap = new HashMap<>();
+        List<Long> roots = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (parentIds[i] == DepartmentHierarchy.NO_PARENT) {
+                roots.add(ids[i]);
+            } else {
+                childrenMap.computeIfAbsent(parentIds[i], key -> new ArrayList<>()).add(ids[i]);
+            }
+        }
+        return roots.stream()
+            .map(root -> buildRecursive(root, childrenMap, maxDepth))
+            .toList();
+    }
+
+    private static Node buildRecursive(Long id, Map<Long, List<Long>> childrenMap, int maxDepth) {
+        Node node = new Node(id);
+        if (maxDepth > 0) {
+            node.setChildren(childrenMap.getOrDefault(id, List.of()).stream()
+                .map(child -> buildRecursive(child, childrenMap, maxDepth - 1))
+                .toList());
+        }
+        return node;
+    }
+
+    private static int countNodes(List<Node> forest) {
+        int count = 0;
+        List<Node> stack = new ArrayList<>(forest);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            count++;
+            stack.addAll(node.children);
+        }
+        return count;
+    }
+
+    /**
+     * Узел дерева для замера.
+     */
+    private static final class Node {
+
+        private final long id;
+        private List<Node> children = List.of();
+
+        private Node(long id) {
+            this.id = id;
+        }
+
+        private void setChildren(List<Node> children) {
+            this.children = children;
+        }
+    }
+}
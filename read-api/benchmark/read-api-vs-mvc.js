@@ -0,0 +1,79 @@
+// Сравнение API чтения (WebFlux + R2DBC) с MVC-эндпоинтами ContactController под одинаковой нагрузкой.
+// Запуск: k6 run -e USERNAME=admin -e PASSWORD=admin read-api/benchmark/read-api-vs-mvc.js
+// Обе стороны проверяют пароль один раз: MVC держит cookie сессии после входа формой, API чтения
+// сохраняет контекст Basic-аутентификации в WebSession. Ограничение частоты и контроль допуска
+// основного приложения (phonebook.rate-limit, phonebook.admission) на время замера должны быть выключены.
+// Переменные: MVC_URL (по умолчанию http://localhost:8080), READ_API_URL (http://localhost:8081),
+// VUS (число виртуальных пользователей), DURATION (длительность каждого сценария).
+import http from 'k6/http';
+import encoding from 'k6/encoding';
+import { check } from 'k6';
+
+const MVC_URL = __ENV.MVC_URL || 'http://localhost:8080';
+const READ_API_URL = __ENV.READ_API_URL || 'http://localhost:8081';
+const USERNAME = __ENV.USERNAME || 'admin';
+const PASSWORD = __ENV.PASSWORD || 'admin';
+const VUS = parseInt(__ENV.VUS || '50');
+const DURATION = __ENV.DURATION || '1m';
+
+const QUERIES = ['иван', 'petr', 'сидор', 'ivanov', 'алекс', 'smir', 'кузн', 'pop'];
+
+export const options = {
+    scenarios: {
+        mvc: {
+            executor: 'constant-vus',
+            exec: 'mvcSearch',
+            vus: VUS,
+            duration: DURATION,
+        },
+        read_api: {
+            executor: 'constant-vus',
+            exec: 'readApiSearch',
+            vus: VUS,
+            duration: DURATION,
+            startTime: DURATION,
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:mvc}': ['p(95)<2000'],
+        'http_req_duration{scenario:read_api}': ['p(95)<2000'],
+        'checks{scenario:mvc}': ['rate>0.99'],
+        'checks{scenario:read_api}': ['rate>0.99'],
+    },
+};
+
+function randomQuery() {
+    return QUERIES[Math.floor(Math.random() * QUERIES.length)];
+}
+
+// Вход через форму: CSRF-токен берется из cookie XSRF-TOKEN, сессия хранится в cookie jar VU
+function mvcLogin() {
+    http.get(`${MVC_URL}/login`);
+    const jar = http.cookieJar();
+    const csrf = jar.cookiesForURL(`${MVC_URL}/login`)['XSRF-TOKEN'];
+    http.post(`${MVC_URL}/login`, {
+        username: USERNAME,
+        password: PASSWORD,
+        _csrf: csrf ? csrf[0] : '',
+    });
+}
+
+let loggedIn = false;
+
+export function mvcSearch() {
+    if (!loggedIn) {
+        mvcLogin();
+        loggedIn = true;
+    }
+    const res = http.get(`${MVC_URL}/contacts?search=${encodeURIComponent(randomQuery())}`,
+        { redirects: 0, tags: { endpoint: 'mvc-search' } });
+    check(res, { 'mvc status 200': (r) => r.status === 200 });
+}
+
+const basicAuth = `Basic ${encoding.b64encode(`${USERNAME}:${PASSWORD}`)}`;
+
+export function readApiSearch() {
+    const res = http.get(`${READ_API_URL}/api/v1/contacts?search=${encodeURIComponent(randomQuery())}`,
+        { headers: { Authorization: basicAuth }, tags: { endpoint: 'read-api-search' } });
+    check(res, { 'read-api status 200': (r) => r.status === 200 });
+}
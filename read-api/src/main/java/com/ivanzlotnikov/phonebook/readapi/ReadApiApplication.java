@@ -0,0 +1,22 @@
+package com.ivanzlotnikov.phonebook.readapi;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Главный класс неблокирующего API чтения телефонного справочника.
+ * Работает на WebFlux и R2DBC поверх той же схемы базы данных, что и основное приложение,
+ * и обслуживает поиск контактов и чтение дерева департаментов для интеграций.
+ */
+@SpringBootApplication
+public class ReadApiApplication {
+
+	/**
+	 * Главный метод приложения.
+	 *
+	 * @param args аргументы командной строки
+	 */
+	public static void main(String[] args) {
+		SpringApplication.run(ReadApiApplication.class, args);
+	}
+}
@@ -0,0 +1,76 @@
+package com.ivanzlotnikov.phonebook.readapi.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.WebSessionServerSecurityContextRepository;
+
+/**
+ * Конфигурация безопасности API чтения.
+ * Пользователи и их BCrypt-пароли читаются из той же таблицы users, что и в основном
+ * приложении (в многоарендном режиме - из схемы арендатора запроса, см. TenantWebFilter);
+ * API доступно только аутентифицированным пользователям по HTTP Basic.
+ * Контекст безопасности сохраняется в WebSession, чтобы клиент с cookie SESSION не
+ * проверял BCrypt-хеш пароля на каждом запросе.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReadApiSecurityConfig {
+
+    private static final String FIND_USER =
+        "SELECT username, password, role, enabled FROM users WHERE username = :username";
+
+    /**
+     * Настраивает цепочку фильтров безопасности.
+     *
+     * @param http построитель конфигурации безопасности
+     * @return цепочка фильтров
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .httpBasic(basic -> basic
+                .securityContextRepository(new WebSessionServerSecurityContextRepository()))
+            .authorizeExchange(exchange -> exchange
+                .pathMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .anyExchange().authenticated())
+            .build();
+    }
+
+    /**
+     * Загружает пользователей из таблицы users без блокировки.
+     *
+     * @param databaseClient клиент R2DBC
+     * @return сервис пользователей
+     */
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(DatabaseClient databaseClient) {
+        return username -> databaseClient.sql(FIND_USER)
+            .bind("username", username)
+            .map(row -> User.withUsername(row.get("username", String.class))
+                .password(row.get("password", String.class))
+                .authorities(row.get("role", String.class))
+                .disabled(!Boolean.TRUE.equals(row.get("enabled", Boolean.class)))
+                .build())
+            .one();
+    }
+
+    /**
+     * Кодировщик паролей, совместимый с основным приложением.
+     *
+     * @return BCrypt-кодировщик
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ivanzlotnikov.phonebook.readapi.config.tenant;
+
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Конфигурация многоарендного режима API чтения со схемой базы данных на каждого арендатора.
+ * Активируется свойством phonebook.tenant.enabled=true с тем же списком арендаторов, что и в
+ * основном приложении. В одноарендном режиме все запросы читают основную схему.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+@ConditionalOnProperty(prefix = "phonebook.tenant", name = "enabled", havingValue = "true")
+public class ReadApiTenantConfig {
+
+    /**
+     * Регистрирует фильтр определения арендатора перед фильтрами Spring Security.
+     *
+     * @param tenantProperties настройки многоарендного режима
+     * @return фильтр арендатора
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public TenantWebFilter tenantWebFilter(TenantProperties tenantProperties) {
+        log.info("Multi-tenant mode enabled for tenants {}", tenantProperties.getTenants());
+        return new TenantWebFilter(tenantProperties);
+    }
+
+    /**
+     * Создает клиент R2DBC, выполняющий запросы в схеме арендатора запроса.
+     *
+     * @param connectionFactory фабрика соединений (пул)
+     * @return клиент базы данных
+     */
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(new TenantSchemaConnectionFactory(connectionFactory));
+    }
+}
@@ -0,0 +1,43 @@
+package com.ivanzlotnikov.phonebook.readapi.config.tenant;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Хранит идентификатор арендатора запроса в контексте Reactor: обработка запроса не привязана
+ * к одному потоку, поэтому ThreadLocal основного приложения здесь не подходит. Идентификатор
+ * совпадает с именем схемы базы данных арендатора.
+ */
+public final class TenantContext {
+
+    /**
+     * Арендатор по умолчанию: основная схема базы данных.
+     */
+    public static final String DEFAULT_TENANT = "public";
+
+    private static final String TENANT_KEY = TenantContext.class.getName() + ".TENANT";
+
+    private TenantContext() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Создает контекст Reactor с арендатором запроса.
+     *
+     * @param tenant идентификатор арендатора
+     * @return контекст для contextWrite
+     */
+    public static Context withTenant(String tenant) {
+        return Context.of(TENANT_KEY, tenant);
+    }
+
+    /**
+     * Возвращает арендатора из контекста подписчика.
+     *
+     * @return идентификатор арендатора или арендатор по умолчанию, если он не установлен
+     */
+    public static Mono<String> currentTenant() {
+        return Mono.deferContextual(context ->
+            Mono.just(context.getOrDefault(TENANT_KEY, DEFAULT_TENANT)));
+    }
+}
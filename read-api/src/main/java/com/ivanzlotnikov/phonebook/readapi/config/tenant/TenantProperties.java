@@ -0,0 +1,49 @@
+package com.ivanzlotnikov.phonebook.readapi.config.tenant;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки многоарендного режима API чтения. Совпадают с настройками основного приложения:
+ * каждый арендатор хранит данные в собственной схеме базы данных с именем, совпадающим с
+ * идентификатором арендатора.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.tenant")
+public class TenantProperties {
+
+    /**
+     * Включает многоарендный режим.
+     */
+    private boolean enabled;
+
+    /**
+     * HTTP-заголовок с идентификатором арендатора. Если заголовок не передан, арендатор
+     * определяется по первому сегменту имени хоста.
+     */
+    private String header = "X-Tenant-ID";
+
+    /**
+     * Идентификаторы (имена схем) арендаторов помимо арендатора по умолчанию.
+     */
+    private List<String> tenants = new ArrayList<>();
+
+    /**
+     * Проверяет, что арендатор известен приложению.
+     *
+     * @param tenant идентификатор арендатора
+     * @return true, если арендатор настроен или является арендатором по умолчанию
+     */
+    public boolean isKnownTenant(String tenant) {
+        Set<String> all = new LinkedHashSet<>();
+        all.add(TenantContext.DEFAULT_TENANT);
+        if (enabled) {
+            all.addAll(tenants);
+        }
+        return all.contains(tenant);
+    }
+}
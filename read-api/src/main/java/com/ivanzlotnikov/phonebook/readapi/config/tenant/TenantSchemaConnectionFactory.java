@@ -0,0 +1,48 @@
+package com.ivanzlotnikov.phonebook.readapi.config.tenant;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Фабрика соединений R2DBC, переключающая схему при выдаче каждого соединения из пула на
+ * схему арендатора запроса (search_path). Соединение пула могло обслуживать другого
+ * арендатора, поэтому схема устанавливается при каждой выдаче, в том числе для арендатора по
+ * умолчанию. Запросы API остаются без имени схемы и одинаковы для всех арендаторов.
+ */
+@RequiredArgsConstructor
+public class TenantSchemaConnectionFactory implements ConnectionFactory,
+    Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.from(delegate.create())
+            .flatMap(connection -> TenantContext.currentTenant()
+                .flatMap(tenant -> Flux.from(
+                        connection.createStatement(setSearchPath(tenant)).execute())
+                    .flatMap(Result::getRowsUpdated)
+                    .then(Mono.just(connection)))
+                .onErrorResume(e -> Mono.from(connection.close()).then(Mono.error(e))));
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    private static String setSearchPath(String tenant) {
+        return "SET search_path TO \"" + tenant.replace("\"", "\"\"") + "\"";
+    }
+}
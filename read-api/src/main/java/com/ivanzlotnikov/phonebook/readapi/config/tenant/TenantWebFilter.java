@@ -0,0 +1,79 @@
+package com.ivanzlotnikov.phonebook.readapi.config.tenant;
+
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.WebSession;
+import reactor.core.publisher.Mono;
+
+/**
+ * Фильтр, определяющий арендатора запроса по заголовку или имени хоста так же, как основное
+ * приложение. Выполняется раньше фильтров Spring Security и передает арендатора в контекст
+ * Reactor, поэтому проверка пароля и все запросы к базе данных идут в схему арендатора.
+ * Сессия привязывается к арендатору, в котором была создана: сессия, предъявленная другому
+ * арендатору, очищается, и пользователь проходит аутентификацию заново.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TenantWebFilter implements WebFilter {
+
+    static final String SESSION_TENANT_ATTRIBUTE = TenantWebFilter.class.getName() + ".TENANT";
+
+    private final TenantProperties tenantProperties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String tenant = resolveTenant(exchange.getRequest());
+        if (tenant == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().setComplete();
+        }
+
+        // Регистрируется до первого обращения к сессии, чтобы выполниться раньше ее сохранения
+        exchange.getResponse().beforeCommit(() -> exchange.getSession()
+            .doOnNext(session -> bindSession(session, tenant))
+            .then());
+        return exchange.getSession()
+            .doOnNext(session -> clearForeignSession(session, tenant))
+            .then(chain.filter(exchange))
+            .contextWrite(TenantContext.withTenant(tenant));
+    }
+
+    private String resolveTenant(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(tenantProperties.getHeader());
+        if (header != null && !header.isBlank()) {
+            String tenant = header.trim().toLowerCase(Locale.ROOT);
+            return tenantProperties.isKnownTenant(tenant) ? tenant : null;
+        }
+
+        String host = request.getURI().getHost();
+        int dot = host != null ? host.indexOf('.') : -1;
+        if (dot > 0) {
+            String subdomain = host.substring(0, dot).toLowerCase(Locale.ROOT);
+            if (tenantProperties.isKnownTenant(subdomain)) {
+                return subdomain;
+            }
+        }
+        return TenantContext.DEFAULT_TENANT;
+    }
+
+    private static void clearForeignSession(WebSession session, String tenant) {
+        Object boundTenant = session.getAttributes().get(SESSION_TENANT_ATTRIBUTE);
+        if (boundTenant != null && !tenant.equals(boundTenant)) {
+            log.warn("Session bound to tenant {} used for tenant {}, clearing", boundTenant,
+                tenant);
+            session.getAttributes().clear();
+        }
+    }
+
+    private static void bindSession(WebSession session, String tenant) {
+        if (session.isStarted() || !session.getAttributes().isEmpty()) {
+            session.getAttributes().putIfAbsent(SESSION_TENANT_ATTRIBUTE, tenant);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ivanzlotnikov.phonebook.readapi.contact;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST-контроллер чтения контактов.
+ * Обслуживает поиск и получение контактов без блокировки потоков обработки запросов.
+ */
+@RestController
+@RequestMapping("/api/v1/contacts")
+@RequiredArgsConstructor
+public class ContactReadController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ContactReadRepository contactReadRepository;
+
+    /**
+     * Ищет контакты по строке запроса (кириллицей или латиницей) либо по департаменту.
+     *
+     * @param search       поисковый запрос
+     * @param departmentId идентификатор департамента (используется, если запрос не задан)
+     * @param page         номер страницы, начиная с 0
+     * @param size         размер страницы (не более 100)
+     * @return поток найденных контактов
+     */
+    @GetMapping
+    public Flux<ContactView> search(
+        @RequestParam(required = false) String search,
+        @RequestParam(required = false) Long departmentId,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long offset = (long) Math.max(page, 0) * limit;
+        if (search != null && !search.isBlank()) {
+            return contactReadRepository.searchByPrefix(SearchKeys.toSearchPrefix(search), limit, offset);
+        }
+        if (departmentId != null) {
+            return contactReadRepository.findByDepartmentId(departmentId, limit, offset);
+        }
+        return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+            "Укажите параметр search или departmentId"));
+    }
+
+    /**
+     * Возвращает контакт по идентификатору.
+     *
+     * @param id идентификатор контакта
+     * @return контакт или 404, если контакт не найден
+     */
+    @GetMapping("/{id}")
+    public Mono<ContactView> findById(@PathVariable Long id) {
+        return contactReadRepository.findById(id)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Контакт с id " + id + " не найден")));
+    }
+}
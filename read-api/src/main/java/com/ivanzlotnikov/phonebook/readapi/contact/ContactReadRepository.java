@@ -0,0 +1,114 @@
+package com.ivanzlotnikov.phonebook.readapi.contact;
+
+import io.r2dbc.spi.Readable;
+import java.util.Arrays;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующий доступ к контактам через R2DBC.
+ * Телефоны собираются в массивы коррелированными подзапросами, поэтому каждый контакт
+ * читается одной строкой результата без догрузки коллекций. Мягко удаленные контакты
+ * (deleted_at IS NOT NULL) не возвращаются, как и в основном приложении.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactReadRepository {
+
+    private static final String SELECT_CONTACT = """
+        SELECT c.id, c.full_name, c.position, c.department_id, d.name AS department_name,
+               ARRAY(SELECT p.phone_number FROM contact_work_phones p
+                     WHERE p.contact_id = c.id ORDER BY p.phone_order) AS work_phones,
+               ARRAY(SELECT p.phone_number FROM contact_work_mobile_phones p
+                     WHERE p.contact_id = c.id ORDER BY p.phone_order) AS work_mobile_phones,
+               ARRAY(SELECT p.phone_number FROM contact_personal_phones p
+                     WHERE p.contact_id = c.id ORDER BY p.phone_order) AS personal_phones
+        FROM contacts c
+        LEFT JOIN departments d ON d.id = c.department_id
+        """;
+
+    private static final String FIND_BY_ID = SELECT_CONTACT
+        + "WHERE c.id = :id AND c.deleted_at IS NULL";
+
+    private static final String SEARCH = SELECT_CONTACT + """
+        WHERE c.deleted_at IS NULL
+          AND c.id IN (SELECT k.contact_id FROM contact_search_keys k WHERE k.search_key LIKE :prefix)
+        ORDER BY c.full_name, c.id
+        LIMIT :limit OFFSET :offset
+        """;
+
+    private static final String FIND_BY_DEPARTMENT = SELECT_CONTACT + """
+        WHERE c.deleted_at IS NULL AND c.department_id = :departmentId
+        ORDER BY c.full_name, c.id
+        LIMIT :limit OFFSET :offset
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Находит контакт по идентификатору.
+     *
+     * @param id идентификатор контакта
+     * @return контакт или пустой Mono, если контакт не найден или удален
+     */
+    public Mono<ContactView> findById(Long id) {
+        return databaseClient.sql(FIND_BY_ID)
+            .bind("id", id)
+            .map(ContactReadRepository::toView)
+            .one();
+    }
+
+    /**
+     * Ищет контакты по префиксу поискового ключа, как основное приложение.
+     *
+     * @param prefix шаблон вида "префикс%"
+     * @param limit  размер страницы
+     * @param offset смещение
+     * @return поток найденных контактов, отсортированных по имени
+     */
+    public Flux<ContactView> searchByPrefix(String prefix, int limit, long offset) {
+        return databaseClient.sql(SEARCH)
+            .bind("prefix", prefix)
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(ContactReadRepository::toView)
+            .all();
+    }
+
+    /**
+     * Возвращает контакты департамента.
+     *
+     * @param departmentId идентификатор департамента
+     * @param limit        размер страницы
+     * @param offset       смещение
+     * @return поток контактов, отсортированных по имени
+     */
+    public Flux<ContactView> findByDepartmentId(Long departmentId, int limit, long offset) {
+        return databaseClient.sql(FIND_BY_DEPARTMENT)
+            .bind("departmentId", departmentId)
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(ContactReadRepository::toView)
+            .all();
+    }
+
+    private static ContactView toView(Readable row) {
+        return new ContactView(
+            row.get("id", Long.class),
+            row.get("full_name", String.class),
+            row.get("position", String.class),
+            row.get("department_id", Long.class),
+            row.get("department_name", String.class),
+            toList(row.get("work_phones", String[].class)),
+            toList(row.get("work_mobile_phones", String[].class)),
+            toList(row.get("personal_phones", String[].class)));
+    }
+
+    private static List<String> toList(String[] values) {
+        return values == null ? List.of() : Arrays.asList(values);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ivanzlotnikov.phonebook.readapi.contact;
+
+import java.util.List;
+
+/**
+ * Контакт в ответах API чтения.
+ *
+ * @param id               идентификатор контакта
+ * @param fullName         полное имя сотрудника
+ * @param position         должность
+ * @param departmentId     идентификатор департамента или null
+ * @param departmentName   название департамента или null
+ * @param workPhones       служебные телефоны
+ * @param workMobilePhones служебные мобильные телефоны
+ * @param personalPhones   личные телефоны
+ */
+public record ContactView(
+    Long id,
+    String fullName,
+    String position,
+    Long departmentId,
+    String departmentName,
+    List<String> workPhones,
+    List<String> workMobilePhones,
+    List<String> personalPhones) {
+
+}
@@ -0,0 +1,42 @@
+package com.ivanzlotnikov.phonebook.readapi.contact;
+
+import java.util.Locale;
+
+/**
+ * Построение шаблона поиска по таблице contact_search_keys. Нормализация должна совпадать с
+ * TransliterationUtils.normalize основного приложения, которое строит сами ключи.
+ */
+public final class SearchKeys {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private SearchKeys() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Преобразует поисковый запрос в префикс для LIKE-поиска по ключам: нижний регистр, ё→е,
+     * все символы кроме букв и цифр заменяются одиночным пробелом.
+     *
+     * @param query поисковый запрос пользователя
+     * @return шаблон вида "префикс%"
+     */
+    public static String toSearchPrefix(String query) {
+        String lower = query == null ? "" : query.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        StringBuilder sb = new StringBuilder(lower.length() + 1);
+        boolean pendingSpace = false;
+        for (int i = 0; i < lower.length() && sb.length() < MAX_KEY_LENGTH; i++) {
+            char ch = lower.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                if (pendingSpace && !sb.isEmpty()) {
+                    sb.append(' ');
+                }
+                sb.append(ch);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.append('%').toString();
+    }
+}
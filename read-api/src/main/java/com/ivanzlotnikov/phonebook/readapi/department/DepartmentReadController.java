@@ -0,0 +1,29 @@
+package com.ivanzlotnikov.phonebook.readapi.department;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST-контроллер чтения структуры департаментов.
+ */
+@RestController
+@RequestMapping("/api/v1/departments")
+@RequiredArgsConstructor
+public class DepartmentReadController {
+
+    private final DepartmentTreeService departmentTreeService;
+
+    /**
+     * Возвращает полное дерево департаментов.
+     *
+     * @return список корневых департаментов с вложенными дочерними
+     */
+    @GetMapping("/tree")
+    public Mono<List<DepartmentView>> getTree() {
+        return departmentTreeService.getTree();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ivanzlotnikov.phonebook.readapi.department;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Неблокирующий доступ к департаментам через R2DBC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DepartmentReadRepository {
+
+    private static final String FIND_ALL =
+        "SELECT id, name, parent_department_id FROM departments ORDER BY name, id";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Возвращает все департаменты плоским списком в порядке названий.
+     *
+     * @return поток строк департаментов
+     */
+    public Flux<DepartmentRow> findAll() {
+        return databaseClient.sql(FIND_ALL)
+            .map(row -> new DepartmentRow(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("parent_department_id", Long.class)))
+            .all();
+    }
+
+    /**
+     * Строка таблицы departments.
+     *
+     * @param id       идентификатор департамента
+     * @param name     название департамента
+     * @param parentId идентификатор родителя или null
+     */
+    public record DepartmentRow(Long id, String name, Long parentId) {
+
+    }
+}
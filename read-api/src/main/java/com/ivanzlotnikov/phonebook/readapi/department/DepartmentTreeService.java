@@ -0,0 +1,69 @@
+package com.ivanzlotnikov.phonebook.readapi.department;
+
+import com.ivanzlotnikov.phonebook.readapi.department.DepartmentReadRepository.DepartmentRow;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Построение дерева департаментов для API чтения.
+ * Все департаменты читаются одним запросом, дерево собирается в памяти итеративно
+ * (без рекурсии), поэтому глубина иерархии не ограничена размером стека.
+ */
+@Service
+@RequiredArgsConstructor
+public class DepartmentTreeService {
+
+    private final DepartmentReadRepository departmentReadRepository;
+
+    /**
+     * Возвращает полное дерево департаментов.
+     *
+     * @return список корневых департаментов с вложенными дочерними
+     */
+    public Mono<List<DepartmentView>> getTree() {
+        return departmentReadRepository.findAll()
+            .collectList()
+            .map(DepartmentTreeService::buildTree);
+    }
+
+    private static List<DepartmentView> buildTree(List<DepartmentRow> rows) {
+        Map<Long, List<DepartmentRow>> childrenByParent = new HashMap<>();
+        Map<Long, DepartmentRow> byId = new HashMap<>();
+        for (DepartmentRow row : rows) {
+            byId.put(row.id(), row);
+        }
+        List<DepartmentRow> roots = new ArrayList<>();
+        for (DepartmentRow row : rows) {
+            if (row.parentId() == null || !byId.containsKey(row.parentId())) {
+                roots.add(row);
+            } else {
+                childrenByParent.computeIfAbsent(row.parentId(), key -> new ArrayList<>()).add(row);
+            }
+        }
+
+        // Обход в обратном порядке: дочерние узлы собираются раньше родителя
+        Deque<DepartmentRow> stack = new ArrayDeque<>(roots);
+        List<DepartmentRow> postOrder = new ArrayList<>(rows.size());
+        while (!stack.isEmpty()) {
+            DepartmentRow row = stack.pop();
+            postOrder.add(row);
+            childrenByParent.getOrDefault(row.id(), List.of()).forEach(stack::push);
+        }
+        Map<Long, DepartmentView> views = new HashMap<>();
+        for (int i = postOrder.size() - 1; i >= 0; i--) {
+            DepartmentRow row = postOrder.get(i);
+            List<DepartmentView> children = childrenByParent.getOrDefault(row.id(), List.of()).stream()
+                .map(child -> views.get(child.id()))
+                .toList();
+            views.put(row.id(), new DepartmentView(row.id(), row.name(), row.parentId(), children));
+        }
+        return roots.stream().map(root -> views.get(root.id())).toList();
+    }
+}
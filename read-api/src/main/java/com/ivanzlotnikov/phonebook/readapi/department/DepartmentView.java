@@ -0,0 +1,15 @@
+package com.ivanzlotnikov.phonebook.readapi.department;
+
+import java.util.List;
+
+/**
+ * Узел дерева департаментов в ответах API чтения.
+ *
+ * @param id       идентификатор департамента
+ * @param name     название департамента
+ * @param parentId идентификатор родительского департамента или null для корня
+ * @param children дочерние департаменты, отсортированные по названию
+ */
+public record DepartmentView(Long id, String name, Long parentId, List<DepartmentView> children) {
+
+}
@@ -0,0 +1,89 @@
+package com.ivanzlotnikov.phonebook.audit.controller;
+
+import com.ivanzlotnikov.phonebook.audit.dto.AuditCursor;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEntityType;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditFilter;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditPage;
+import com.ivanzlotnikov.phonebook.audit.service.AuditJournal;
+import com.ivanzlotnikov.phonebook.audit.service.AuditLogService;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Контроллер просмотра журнала аудита. Журнал листается по ключу (время и идентификатор
+ * последней показанной записи), поэтому глубокие страницы не сканируют пропущенные записи и
+ * не требуют подсчета общего количества. Доступен только администраторам.
+ */
+@Controller
+@RequestMapping("/audit")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@ConditionalOnProperty(prefix = "phonebook.audit", name = "enabled", havingValue = "true")
+public class AuditController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Map<String, String> FIELD_LABELS = Map.of(
+        "fullName", "ФИО",
+        "position", "Должность",
+        "departmentId", "Департамент",
+        "workPhones", "Рабочие телефоны",
+        "workMobilePhones", "Рабочие мобильные",
+        "personalPhones", "Личные телефоны",
+        "name", "Название",
+        "parentDepartmentId", "Родительский департамент");
+
+    private final AuditLogService auditLogService;
+    private final AuditJournal auditJournal;
+
+    /**
+     * Отображает страницу журнала аудита от новых записей к старым.
+     *
+     * @param type     фильтр по типу сущности (CONTACT, DEPARTMENT)
+     * @param entityId фильтр по идентификатору сущности (вместе с типом)
+     * @param actor    фильтр по имени пользователя
+     * @param before   время последней показанной записи предыдущей страницы
+     * @param beforeId идентификатор последней показанной записи предыдущей страницы
+     * @param size     размер страницы
+     * @param model    модель для передачи данных в представление
+     * @return имя шаблона журнала
+     */
+    @GetMapping
+    public String listEntries(
+        @RequestParam(required = false) AuditEntityType type,
+        @RequestParam(required = false) Long entityId,
+        @RequestParam(required = false) String actor,
+        @RequestParam(required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime before,
+        @RequestParam(required = false) Long beforeId,
+        @RequestParam(defaultValue = "50") int size,
+        Model model) {
+
+        int normalizedSize = (size <= 0 || size > MAX_PAGE_SIZE) ? DEFAULT_PAGE_SIZE : size;
+        AuditFilter filter = AuditFilter.of(type, entityId, actor);
+        AuditCursor cursor = before != null && beforeId != null
+            ? new AuditCursor(before, beforeId) : null;
+        AuditPage auditPage = auditLogService.findPage(filter, cursor, normalizedSize);
+
+        model.addAttribute("entries", auditPage.items());
+        model.addAttribute("next", auditPage.next());
+        model.addAttribute("filter", filter);
+        model.addAttribute("size", normalizedSize);
+        model.addAttribute("firstPage", cursor == null);
+        model.addAttribute("entityTypes", AuditEntityType.values());
+        model.addAttribute("fieldLabels", FIELD_LABELS);
+        model.addAttribute("pendingEvents", auditJournal.getPendingEvents());
+        model.addAttribute("droppedEvents", auditJournal.getDroppedEvents());
+        model.addAttribute("failedEvents", auditJournal.getFailedEvents());
+        return "audit/list";
+    }
+}
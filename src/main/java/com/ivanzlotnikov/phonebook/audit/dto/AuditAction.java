@@ -0,0 +1,10 @@
+package com.ivanzlotnikov.phonebook.audit.dto;
+
+/**
+ * Действие над сущностью в журнале аудита.
+ */
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
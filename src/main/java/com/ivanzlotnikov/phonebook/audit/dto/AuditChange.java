@@ -0,0 +1,11 @@
+package com.ivanzlotnikov.phonebook.audit.dto;
+
+/**
+ * Изменение одного поля сущности.
+ *
+ * @param oldValue значение до изменения (null, если поля не было или значение неизвестно)
+ * @param newValue значение после изменения
+ */
+public record AuditChange(Object oldValue, Object newValue) {
+
+}
@@ -0,0 +1,23 @@
+package com.ivanzlotnikov.phonebook.audit.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Позиция в журнале аудита для постраничного просмотра по ключу: следующая страница
+ * начинается с записей строго раньше (occurredAt, id) последней показанной записи.
+ *
+ * @param occurredAt время последней показанной записи
+ * @param id         идентификатор последней показанной записи
+ */
+public record AuditCursor(OffsetDateTime occurredAt, long id) {
+
+    /**
+     * Создает позицию после указанной записи.
+     *
+     * @param entry последняя показанная запись
+     * @return позиция
+     */
+    public static AuditCursor after(AuditEntryDTO entry) {
+        return new AuditCursor(entry.occurredAt(), entry.id());
+    }
+}
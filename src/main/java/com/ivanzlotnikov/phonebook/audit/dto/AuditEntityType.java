@@ -0,0 +1,9 @@
+package com.ivanzlotnikov.phonebook.audit.dto;
+
+/**
+ * Тип сущности, изменение которой записано в журнал аудита.
+ */
+public enum AuditEntityType {
+    CONTACT,
+    DEPARTMENT
+}
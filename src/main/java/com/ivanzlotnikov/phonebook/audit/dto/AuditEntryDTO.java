@@ -0,0 +1,21 @@
+package com.ivanzlotnikov.phonebook.audit.dto;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Запись журнала аудита для отображения.
+ *
+ * @param id         идентификатор записи
+ * @param occurredAt время изменения
+ * @param actor      имя пользователя, выполнившего изменение
+ * @param entityType тип сущности
+ * @param entityId   идентификатор сущности
+ * @param action     действие
+ * @param changes    изменения полей по имени поля
+ */
+public record AuditEntryDTO(long id, OffsetDateTime occurredAt, String actor,
+                            AuditEntityType entityType, long entityId, AuditAction action,
+                            Map<String, AuditChange> changes) {
+
+}
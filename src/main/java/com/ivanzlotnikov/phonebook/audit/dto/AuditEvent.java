@@ -0,0 +1,127 @@
+package com.ivanzlotnikov.phonebook.audit.dto;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Событие аудита: кто, когда и как изменил одну или несколько сущностей. Публикуется
+ * сервисами внутри пишущей транзакции и попадает в журнал только после ее фиксации. Массовая
+ * операция публикует одно событие на все затронутые сущности, в журнале оно раскладывается
+ * на строки по сущностям.
+ *
+ * @param tenant     арендатор, в схеме которого произошло изменение
+ * @param actor      имя пользователя, выполнившего изменение
+ * @param entityType тип сущностей
+ * @param entityIds  идентификаторы сущностей
+ * @param action     действие
+ * @param changes    изменения полей по имени поля (пусто для удаления)
+ * @param occurredAt время изменения
+ */
+public record AuditEvent(String tenant, String actor, AuditEntityType entityType,
+                         List<Long> entityIds, AuditAction action, Map<String, AuditChange> changes,
+                         Instant occurredAt) {
+
+    /**
+     * Имя исполнителя для изменений вне запроса пользователя (фоновые задачи).
+     */
+    public static final String SYSTEM_ACTOR = "system";
+
+    /**
+     * Создает событие создания сущности.
+     *
+     * @param entityType тип сущности
+     * @param entityId   идентификатор сущности
+     * @param state      значения полей созданной сущности
+     * @return событие аудита
+     */
+    public static AuditEvent created(AuditEntityType entityType, Long entityId,
+        Map<String, Object> state) {
+        return of(entityType, List.of(entityId), AuditAction.CREATE, diff(Map.of(), state));
+    }
+
+    /**
+     * Создает событие изменения сущности по состояниям до и после изменения. Неизмененные
+     * поля в событие не попадают.
+     *
+     * @param entityType тип сущности
+     * @param entityId   идентификатор сущности
+     * @param before     значения полей до изменения
+     * @param after      значения полей после изменения
+     * @return событие аудита
+     */
+    public static AuditEvent updated(AuditEntityType entityType, Long entityId,
+        Map<String, Object> before, Map<String, Object> after) {
+        return of(entityType, List.of(entityId), AuditAction.UPDATE, diff(before, after));
+    }
+
+    /**
+     * Создает событие массового изменения поля, прежние значения которого не загружались.
+     *
+     * @param entityType тип сущностей
+     * @param entityIds  идентификаторы сущностей
+     * @param field      имя поля
+     * @param newValue   новое значение
+     * @return событие аудита
+     */
+    public static AuditEvent fieldChanged(AuditEntityType entityType, List<Long> entityIds,
+        String field, Object newValue) {
+        Map<String, AuditChange> changes = new LinkedHashMap<>();
+        changes.put(field, new AuditChange(null, newValue));
+        return of(entityType, entityIds, AuditAction.UPDATE, changes);
+    }
+
+    /**
+     * Создает событие удаления сущностей.
+     *
+     * @param entityType тип сущностей
+     * @param entityIds  идентификаторы сущностей
+     * @return событие аудита
+     */
+    public static AuditEvent deleted(AuditEntityType entityType, List<Long> entityIds) {
+        return of(entityType, entityIds, AuditAction.DELETE, Map.of());
+    }
+
+    /**
+     * Проверяет, что событие стоит записывать: изменение без измененных полей пропускается.
+     *
+     * @return true, если событие содержит изменения или это создание либо удаление
+     */
+    public boolean isSignificant() {
+        return action != AuditAction.UPDATE || !changes.isEmpty();
+    }
+
+    private static AuditEvent of(AuditEntityType entityType, List<Long> entityIds,
+        AuditAction action, Map<String, AuditChange> changes) {
+        return new AuditEvent(TenantContext.getCurrentTenant(), currentActor(), entityType,
+            List.copyOf(entityIds), action, changes, Instant.now());
+    }
+
+    private static Map<String, AuditChange> diff(Map<String, Object> before,
+        Map<String, Object> after) {
+        Map<String, AuditChange> changes = new LinkedHashMap<>();
+        after.forEach((field, newValue) -> {
+            Object oldValue = before.get(field);
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.put(field, new AuditChange(oldValue, newValue));
+            }
+        });
+        before.forEach((field, oldValue) -> {
+            if (!after.containsKey(field) && oldValue != null) {
+                changes.put(field, new AuditChange(oldValue, null));
+            }
+        });
+        return changes;
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+            ? authentication.getName() : SYSTEM_ACTOR;
+    }
+}
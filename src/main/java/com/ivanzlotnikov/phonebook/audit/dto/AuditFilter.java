@@ -0,0 +1,26 @@
+package com.ivanzlotnikov.phonebook.audit.dto;
+
+import com.ivanzlotnikov.phonebook.util.StringUtils;
+
+/**
+ * Условия отбора записей журнала аудита. Пустые условия не применяются.
+ *
+ * @param entityType тип сущности или null
+ * @param entityId   идентификатор сущности или null (учитывается вместе с типом)
+ * @param actor      имя пользователя или null
+ */
+public record AuditFilter(AuditEntityType entityType, Long entityId, String actor) {
+
+    /**
+     * Создает условия отбора из параметров запроса.
+     *
+     * @param entityType тип сущности или null
+     * @param entityId   идентификатор сущности или null
+     * @param actor      имя пользователя или пустая строка
+     * @return условия отбора
+     */
+    public static AuditFilter of(AuditEntityType entityType, Long entityId, String actor) {
+        return new AuditFilter(entityType, entityType != null ? entityId : null,
+            StringUtils.isBlank(actor) ? null : actor.trim());
+    }
+}
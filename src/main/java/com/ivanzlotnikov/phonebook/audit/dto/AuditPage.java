@@ -0,0 +1,13 @@
+package com.ivanzlotnikov.phonebook.audit.dto;
+
+import java.util.List;
+
+/**
+ * Страница журнала аудита, от новых записей к старым.
+ *
+ * @param items записи страницы
+ * @param next  позиция следующей страницы или null, если записей больше нет
+ */
+public record AuditPage(List<AuditEntryDTO> items, AuditCursor next) {
+
+}
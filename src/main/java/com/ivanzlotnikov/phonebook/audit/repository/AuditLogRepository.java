@@ -0,0 +1,273 @@
+package com.ivanzlotnikov.phonebook.audit.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditAction;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditChange;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditCursor;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEntityType;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEntryDTO;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEvent;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditFilter;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Хранилище журнала аудита. Журнал только дополняется и разбит на месячные секции по времени
+ * изменения: старые месяцы удаляются целиком, а чтение свежих записей затрагивает только
+ * последние секции. Таблица не отображается на сущность JPA, потому что секционирование
+ * Hibernate не поддерживает: таблицу создает миграция V4, а месячные секции создаются при
+ * первой записи месяца в схему арендатора.
+ *
+ * <p>Запросы выполняются на соединении текущей транзакции, поэтому попадают в схему
+ * арендатора из {@link TenantContext}.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "phonebook.audit", name = "enabled", havingValue = "true")
+public class AuditLogRepository {
+
+    private static final TypeReference<Map<String, AuditChange>> CHANGES_TYPE =
+        new TypeReference<>() {
+        };
+
+    private static final String INSERT = """
+        INSERT INTO audit_log (occurred_at, actor, entity_type, entity_id, action, changes)
+        VALUES (?, ?, ?, ?, ?, ?::jsonb)
+        """;
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Set<String> preparedPartitions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Добавляет события в журнал текущего арендатора одной пакетной вставкой: по строке на
+     * каждую сущность события. Недостающие месячные секции создаются перед вставкой.
+     *
+     * @param events события аудита
+     * @return количество добавленных строк
+     */
+    public int insertAll(Collection<AuditEvent> events) {
+        String tenant = TenantContext.getCurrentTenant();
+        Set<YearMonth> months = new TreeSet<>();
+        for (AuditEvent event : events) {
+            months.add(YearMonth.from(event.occurredAt().atOffset(ZoneOffset.UTC)));
+        }
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            preparePartitions(connection, tenant, months);
+            int rows = 0;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (AuditEvent event : events) {
+                    String changes = toJson(event.changes());
+                    for (Long entityId : event.entityIds()) {
+                        statement.setTimestamp(1, Timestamp.from(event.occurredAt()));
+                        statement.setString(2, event.actor());
+                        statement.setString(3, event.entityType().name());
+                        statement.setLong(4, entityId);
+                        statement.setString(5, event.action().name());
+                        statement.setString(6, changes);
+                        statement.addBatch();
+                        rows++;
+                    }
+                }
+                statement.executeBatch();
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Выбирает записи журнала текущего арендатора от новых к старым, начиная строго после
+     * позиции. Выбирается на одну запись больше лимита, чтобы узнать о следующей странице.
+     *
+     * @param filter условия отбора
+     * @param cursor позиция последней показанной записи или null для первой страницы
+     * @param limit  максимальное количество записей
+     * @return записи журнала
+     */
+    public List<AuditEntryDTO> findPage(AuditFilter filter, AuditCursor cursor, int limit) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT id, occurred_at, actor, entity_type, entity_id, action, changes
+            FROM audit_log
+            WHERE 1 = 1
+            """);
+        List<Object> parameters = new ArrayList<>();
+        if (filter.entityType() != null) {
+            sql.append(" AND entity_type = ?");
+            parameters.add(filter.entityType().name());
+            if (filter.entityId() != null) {
+                sql.append(" AND entity_id = ?");
+                parameters.add(filter.entityId());
+            }
+        }
+        if (filter.actor() != null) {
+            sql.append(" AND actor = ?");
+            parameters.add(filter.actor());
+        }
+        if (cursor != null) {
+            sql.append(" AND (occurred_at, id) < (?, ?)");
+            parameters.add(Timestamp.from(cursor.occurredAt().toInstant()));
+            parameters.add(cursor.id());
+        }
+        sql.append(" ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        parameters.add(limit + 1);
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            if (!tableExists(connection)) {
+                return List.of();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                List<AuditEntryDTO> entries = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        entries.add(toEntry(resultSet));
+                    }
+                }
+                return entries;
+            }
+        });
+    }
+
+    /**
+     * Удаляет месячные секции журнала текущего арендатора, целиком предшествующие месяцу
+     * границы хранения.
+     *
+     * @param cutoff граница хранения
+     * @return количество удаленных секций
+     */
+    public int dropPartitionsBefore(Instant cutoff) {
+        String tenant = TenantContext.getCurrentTenant();
+        String boundary = partitionName(YearMonth.from(cutoff.atOffset(ZoneOffset.UTC)));
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            if (!tableExists(connection)) {
+                return 0;
+            }
+            List<String> expired = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass('audit_log')
+                """);
+                ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String name = resultSet.getString(1);
+                    // Имена секций audit_log_yYYYYmMM упорядочены так же, как месяцы
+                    if (name.compareTo(boundary) < 0) {
+                        expired.add(name);
+                    }
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                for (String name : expired) {
+                    statement.execute("DROP TABLE IF EXISTS " + name);
+                    preparedPartitions.remove(tenant + ":" + name);
+                }
+            }
+            return expired.size();
+        });
+    }
+
+    private void preparePartitions(Connection connection, String tenant, Set<YearMonth> months)
+        throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (YearMonth month : months) {
+                String name = partitionName(month);
+                String key = tenant + ":" + name;
+                if (preparedPartitions.add(key)) {
+                    statement.execute("CREATE TABLE IF NOT EXISTS " + name
+                        + " PARTITION OF audit_log FOR VALUES FROM ('"
+                        + month.atDay(1) + " 00:00:00+00') TO ('"
+                        + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+                    forgetOnRollback(key);
+                }
+            }
+        } catch (SQLException e) {
+            // Следующая запись повторит подготовку секций
+            preparedPartitions.removeIf(key -> key.startsWith(tenant + ":"));
+            throw e;
+        }
+    }
+
+    /**
+     * Секция создается в транзакции записи; в режиме SYNC это транзакция изменения, и при ее
+     * откате секция исчезает, поэтому следующая запись должна создать ее снова.
+     */
+    private void forgetOnRollback(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        preparedPartitions.remove(key);
+                    }
+                }
+            });
+    }
+
+    private boolean tableExists(Connection connection) throws SQLException {
+        try (PreparedStatement statement =
+                 connection.prepareStatement("SELECT to_regclass('audit_log') IS NOT NULL");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() && resultSet.getBoolean(1);
+        }
+    }
+
+    private AuditEntryDTO toEntry(ResultSet resultSet) throws SQLException {
+        Map<String, AuditChange> changes;
+        try {
+            changes = objectMapper.readValue(resultSet.getString("changes"), CHANGES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Malformed audit changes", e);
+        }
+        return new AuditEntryDTO(
+            resultSet.getLong("id"),
+            resultSet.getObject("occurred_at", OffsetDateTime.class),
+            resultSet.getString("actor"),
+            AuditEntityType.valueOf(resultSet.getString("entity_type")),
+            resultSet.getLong("entity_id"),
+            AuditAction.valueOf(resultSet.getString("action")),
+            changes);
+    }
+
+    private String toJson(Map<String, AuditChange> changes) throws SQLException {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Audit changes are not serializable", e);
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("audit_log_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,249 @@
+package com.ivanzlotnikov.phonebook.audit.service;
+
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEvent;
+import com.ivanzlotnikov.phonebook.config.audit.AuditProperties;
+import com.ivanzlotnikov.phonebook.config.audit.AuditProperties.Durability;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantTaskRunner;
+import com.ivanzlotnikov.phonebook.util.MpscRingBuffer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Журнал аудита с отложенной записью. События, опубликованные сервисами в пишущих транзакциях,
+ * после фиксации кладутся в ограниченный неблокирующий кольцевой буфер, и запрос не ждет
+ * вставки в журнал. Единственный поток записи забирает события пакетами и вставляет их в
+ * журнал каждого арендатора одной пакетной вставкой.
+ *
+ * <p>При заполненном буфере пишущий поток недолго ждет места, подгоняя поток записи, и затем
+ * отбрасывает событие, не задерживая запрос дольше {@code offer-timeout-ms}. Пакет арендатора,
+ * который не удалось вставить, повторяется {@code write-attempts} раз и затем считается
+ * потерянным.
+ *
+ * <p>В режиме {@link Durability#SYNC} буфер не используется: событие вставляется перед
+ * фиксацией в транзакции, в которой оно опубликовано. Ошибка записи откатывает изменения
+ * вместе с событием и доходит до вызывающего кода, поэтому зафиксированное изменение всегда
+ * есть в журнале.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "phonebook.audit", name = "enabled", havingValue = "true")
+public class AuditJournal implements DisposableBean {
+
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AuditLogService auditLogService;
+    private final TenantTaskRunner tenantTaskRunner;
+    private final AuditProperties properties;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final ExecutorService writerExecutor;
+    private final AtomicLong writtenEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private volatile Thread writerThread;
+    private volatile boolean running = true;
+
+    /**
+     * Создает журнал и запускает поток записи.
+     *
+     * @param auditLogService  сервис хранения журнала
+     * @param tenantTaskRunner исполнитель задач по арендаторам
+     * @param properties       настройки журнала
+     */
+    public AuditJournal(AuditLogService auditLogService, TenantTaskRunner tenantTaskRunner,
+        AuditProperties properties) {
+        this.auditLogService = auditLogService;
+        this.tenantTaskRunner = tenantTaskRunner;
+        this.properties = properties;
+        this.buffer = new MpscRingBuffer<>(properties.getBufferSize());
+        this.writerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writerExecutor.execute(this::runWriter);
+    }
+
+    /**
+     * Записывает событие аудита в режиме SYNC перед фиксацией транзакции, в которой оно
+     * опубликовано, на ее соединении.
+     *
+     * @param event событие аудита
+     * @throws IllegalStateException если событие не записано; транзакция при этом откатывается
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void recordInTransaction(AuditEvent event) {
+        if (properties.getDurability() != Durability.SYNC || !event.isSignificant()) {
+            return;
+        }
+        try {
+            auditLogService.write(List.of(event));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Audit event was not written to the journal", e);
+        }
+        writtenEvents.incrementAndGet();
+    }
+
+    /**
+     * Принимает событие аудита в режиме LOSSY после фиксации транзакции, в которой оно
+     * опубликовано.
+     *
+     * @param event событие аудита
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void record(AuditEvent event) {
+        if (properties.getDurability() == Durability.SYNC || !event.isSignificant()) {
+            return;
+        }
+        if (offer(event) < 0) {
+            if (droppedEvents.incrementAndGet() % properties.getBatchSize() == 1) {
+                log.warn("Audit buffer is full, {} events dropped so far", droppedEvents.get());
+            }
+            return;
+        }
+        if (buffer.size() >= properties.getBatchSize()) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Удаляет устаревшие секции журнала каждого арендатора. Запускается по расписанию.
+     */
+    @Scheduled(cron = "${phonebook.audit.purge-cron:0 20 0 * * *}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().atOffset(ZoneOffset.UTC)
+            .minusMonths(properties.getRetentionMonths()).toInstant();
+        tenantTaskRunner.forEachTenant(() -> {
+            int dropped = auditLogService.purgeOlderThan(cutoff);
+            if (dropped > 0) {
+                log.info("Dropped {} expired audit partitions for tenant {}", dropped,
+                    TenantContext.getCurrentTenant());
+            }
+        });
+    }
+
+    /**
+     * Возвращает количество записанных событий.
+     *
+     * @return количество событий
+     */
+    public long getWrittenEvents() {
+        return writtenEvents.get();
+    }
+
+    /**
+     * Возвращает количество событий, отброшенных из-за заполненного буфера.
+     *
+     * @return количество событий
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Возвращает количество событий, которые не удалось записать в базу.
+     *
+     * @return количество событий
+     */
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    /**
+     * Возвращает количество событий, ожидающих записи.
+     *
+     * @return количество событий в буфере
+     */
+    public int getPendingEvents() {
+        return buffer.size();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerExecutor.shutdown();
+        if (!writerExecutor.awaitTermination(properties.getShutdownTimeoutMs(),
+            TimeUnit.MILLISECONDS)) {
+            log.warn("Audit writer did not finish, {} events lost", buffer.size());
+        }
+    }
+
+    private long offer(AuditEvent event) {
+        long position = buffer.offer(event);
+        if (position >= 0) {
+            return position;
+        }
+        long deadline = System.nanoTime()
+            + TimeUnit.MILLISECONDS.toNanos(properties.getOfferTimeoutMs());
+        while (position < 0 && running && System.nanoTime() < deadline) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(BACKOFF_NANOS);
+            position = buffer.offer(event);
+        }
+        return position;
+    }
+
+    private void runWriter() {
+        writerThread = Thread.currentThread();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        List<AuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            batch.clear();
+            if (buffer.drainTo(batch, properties.getBatchSize()) == 0) {
+                LockSupport.parkNanos(this, idleNanos);
+                continue;
+            }
+            write(batch);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        Map<String, List<AuditEvent>> byTenant = new LinkedHashMap<>();
+        for (AuditEvent event : batch) {
+            byTenant.computeIfAbsent(event.tenant(), tenant -> new ArrayList<>()).add(event);
+        }
+        byTenant.forEach((tenant, events) -> {
+            if (writeWithRetries(tenant, events)) {
+                writtenEvents.addAndGet(events.size());
+                return;
+            }
+            failedEvents.addAndGet(events.size());
+        });
+    }
+
+    private boolean writeWithRetries(String tenant, List<AuditEvent> events) {
+        long retryDelayNanos = TimeUnit.MILLISECONDS.toNanos(properties.getWriteRetryDelayMs());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                TenantContext.runAs(tenant, () -> auditLogService.write(events));
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getWriteAttempts()) {
+                    log.error("Failed to write {} audit events for tenant {} after {} attempts",
+                        events.size(), tenant, attempt, e);
+                    return false;
+                }
+                log.warn("Failed to write {} audit events for tenant {}, retrying",
+                    events.size(), tenant, e);
+                LockSupport.parkNanos(this, retryDelayNanos);
+            }
+        }
+    }
+}
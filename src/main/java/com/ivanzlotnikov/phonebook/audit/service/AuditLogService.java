@@ -0,0 +1,70 @@
+package com.ivanzlotnikov.phonebook.audit.service;
+
+import com.ivanzlotnikov.phonebook.audit.dto.AuditCursor;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEntryDTO;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEvent;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditFilter;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditPage;
+import com.ivanzlotnikov.phonebook.audit.repository.AuditLogRepository;
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Сервис хранения журнала аудита текущего арендатора: пакетная запись, постраничное чтение по
+ * ключу и удаление устаревших секций.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "phonebook.audit", name = "enabled", havingValue = "true")
+public class AuditLogService {
+
+    private final AuditLogRepository auditLogRepository;
+
+    /**
+     * Записывает пакет событий в одной транзакции.
+     *
+     * @param events события аудита текущего арендатора
+     * @return количество записанных строк
+     */
+    @Bulkhead(BulkheadType.BATCH)
+    public int write(Collection<AuditEvent> events) {
+        return auditLogRepository.insertAll(events);
+    }
+
+    /**
+     * Возвращает страницу журнала от новых записей к старым.
+     *
+     * @param filter условия отбора
+     * @param cursor позиция последней показанной записи или null для первой страницы
+     * @param size   размер страницы
+     * @return страница журнала
+     */
+    @Transactional(readOnly = true)
+    public AuditPage findPage(AuditFilter filter, AuditCursor cursor, int size) {
+        List<AuditEntryDTO> entries = auditLogRepository.findPage(filter, cursor, size);
+        if (entries.size() <= size) {
+            return new AuditPage(entries, null);
+        }
+        List<AuditEntryDTO> items = entries.subList(0, size);
+        return new AuditPage(List.copyOf(items), AuditCursor.after(items.get(size - 1)));
+    }
+
+    /**
+     * Удаляет месячные секции журнала старше границы хранения.
+     *
+     * @param cutoff граница хранения
+     * @return количество удаленных секций
+     */
+    @Bulkhead(BulkheadType.BATCH)
+    public int purgeOlderThan(Instant cutoff) {
+        return auditLogRepository.dropPartitionsBefore(cutoff);
+    }
+}
@@ -1,14 +1,21 @@
 package com.ivanzlotnikov.phonebook.auth.controller;
 
 import com.ivanzlotnikov.phonebook.auth.dto.UserDTO;
+import com.ivanzlotnikov.phonebook.auth.dto.UserFilter;
 import com.ivanzlotnikov.phonebook.auth.dto.UserFormDTO;
 import com.ivanzlotnikov.phonebook.auth.entity.User;
 import com.ivanzlotnikov.phonebook.auth.mapper.UserMapper;
 import com.ivanzlotnikov.phonebook.auth.service.UserService;
 import jakarta.validation.Valid;
-import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -18,6 +25,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
@@ -31,22 +39,50 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @PreAuthorize("hasRole('ADMIN')")
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int PAGINATION_WINDOW = 3;
+    private static final String DEFAULT_SORT = "username";
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "username", "role", "enabled");
+
     private final UserService userService;
     private final UserMapper userMapper;
 
     /**
-     * Отображает список всех пользователей системы.
+     * Отображает страницу пользователей системы с поиском по началу логина, фильтром по роли и
+     * сортировкой. Количество пользователей берется из кэша и подсчитывается только тогда,
+     * когда его нельзя вывести из размера последней страницы.
      *
-     * @param model модель для передачи данных в представление
+     * @param search строка поиска по началу логина
+     * @param role   фильтр по роли (ROLE_ADMIN, ROLE_USER)
+     * @param page   номер страницы (с нуля)
+     * @param size   размер страницы
+     * @param sort   поле сортировки (id, username, role, enabled)
+     * @param dir    направление сортировки (asc, desc)
+     * @param model  модель для передачи данных в представление
      * @return имя шаблона списка пользователей
      */
     @GetMapping
-    public String listUsers(Model model) {
-        List<User> users = userService.findAll();
-        List<UserDTO> userDTOs = users.stream()
-            .map(userMapper::toDto)
-            .toList();
-        model.addAttribute("users", userDTOs);
+    public String listUsers(
+        @RequestParam(required = false) String search,
+        @RequestParam(required = false) String role,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(defaultValue = DEFAULT_SORT) String sort,
+        @RequestParam(defaultValue = "asc") String dir,
+        Model model) {
+
+        UserFilter filter = UserFilter.of(role, search);
+        Pageable pageable = createPageable(page, size, sort, dir);
+        Slice<UserDTO> slice = userService.findSummaries(filter, pageable);
+        Page<UserDTO> usersPage = PageableExecutionUtils.getPage(slice.getContent(), pageable,
+            () -> userService.count(filter));
+
+        addPaginationAttributes(model, usersPage, pageable.getPageNumber());
+        Sort.Order order = pageable.getSort().iterator().next();
+        model.addAttribute("users", usersPage.getContent());
+        model.addAttribute("sort", order.getProperty());
+        model.addAttribute("dir", order.isAscending() ? "asc" : "desc");
         return "users/list";
     }
 
@@ -74,9 +110,9 @@ public class UserController {
     @GetMapping("/edit/{id}")
     public String editUserForm(@PathVariable Long id, Model model,
         RedirectAttributes redirectAttributes) {
-        return userService.findById(id)
+        return userService.findSummaryById(id)
             .map(user -> {
-                model.addAttribute("user", userMapper.userToFormDTO(user));
+                model.addAttribute("user", userMapper.toFormDTO(user));
                 model.addAttribute("isEdit", true);
                 return "users/form";
             })
@@ -127,4 +163,28 @@ public class UserController {
         redirectAttributes.addFlashAttribute("successMessage", "Пользователь успешно удален");
         return "redirect:/users";
     }
+
+    private Pageable createPageable(int page, int size, String sort, String dir) {
+        int normalizedSize = (size <= 0 || size > MAX_PAGE_SIZE) ? DEFAULT_PAGE_SIZE : size;
+        int normalizedPage = Math.max(page, 0);
+        String property = SORT_PROPERTIES.contains(sort) ? sort : DEFAULT_SORT;
+        Sort.Direction direction = "desc".equalsIgnoreCase(dir)
+            ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // Вторичная сортировка по идентификатору делает порядок страниц детерминированным
+        return PageRequest.of(normalizedPage, normalizedSize,
+            Sort.by(direction, property).and(Sort.by("id")));
+    }
+
+    private void addPaginationAttributes(Model model, Page<UserDTO> page, int currentPage) {
+        int totalPages = page.getTotalPages();
+        int startPage = Math.max(0, currentPage - PAGINATION_WINDOW);
+        int endPage = Math.min(totalPages - 1, currentPage + PAGINATION_WINDOW);
+
+        model.addAttribute("startPage", startPage);
+        model.addAttribute("endPage", endPage);
+        model.addAttribute("page", page.getNumber());
+        model.addAttribute("size", page.getSize());
+        model.addAttribute("totalPages", totalPages);
+        model.addAttribute("totalElements", page.getTotalElements());
+    }
 }
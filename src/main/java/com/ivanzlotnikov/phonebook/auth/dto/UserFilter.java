@@ -0,0 +1,45 @@
+package com.ivanzlotnikov.phonebook.auth.dto;
+
+import com.ivanzlotnikov.phonebook.util.StringUtils;
+import java.util.Locale;
+
+/**
+ * Условия отбора пользователей в списке администрирования. Условия без строки поиска
+ * используются также как ключ кэша количества пользователей.
+ *
+ * @param role   роль (ROLE_ADMIN, ROLE_USER) или null для всех ролей
+ * @param prefix начало имени пользователя в нижнем регистре или null
+ */
+public record UserFilter(String role, String prefix) {
+
+    /**
+     * Создает условия отбора из параметров запроса.
+     *
+     * @param role   роль или пустая строка
+     * @param search строка поиска по имени пользователя
+     * @return условия отбора
+     */
+    public static UserFilter of(String role, String search) {
+        return new UserFilter(
+            StringUtils.isBlank(role) ? null : role.trim(),
+            StringUtils.isBlank(search) ? null : search.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public boolean hasRole() {
+        return role != null;
+    }
+
+    public boolean hasPrefix() {
+        return prefix != null;
+    }
+
+    /**
+     * Возвращает начало имени, экранированное для шаблона LIKE ... ESCAPE '\', чтобы символы
+     * % и _ в строке поиска совпадали буквально.
+     *
+     * @return экранированное начало имени или null
+     */
+    public String likePrefix() {
+        return StringUtils.escapeLike(prefix);
+    }
+}
@@ -12,10 +12,14 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.NaturalId;
 
 /**
  * Сущность пользователя системы для аутентификации и авторизации.
  * Содержит учетные данные пользователя, роль и статус активности.
+ * Пользователи не хранятся в кэше второго уровня: кэш локален для экземпляра, и отключение
+ * пользователя, смена роли или пароля на другом экземпляре до истечения срока жизни записи не
+ * учитывались бы при входе. Поэтому каждый вход читает пользователя из базы.
  */
 @Entity
 @Table(name = "users")
@@ -41,7 +45,9 @@ public class User {
     /**
      * Имя пользователя для входа в систему.
      * Обязательное уникальное поле, максимальная длина 50 символов.
+     * Естественный идентификатор пользователя; может изменяться администратором.
      */
+    @NaturalId(mutable = true)
     @NotBlank
     @Column(nullable = false, unique = true, length = USERNAME_FIELD_LENGTH)
     private String username;
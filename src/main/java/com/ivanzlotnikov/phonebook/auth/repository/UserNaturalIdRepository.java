@@ -0,0 +1,20 @@
+package com.ivanzlotnikov.phonebook.auth.repository;
+
+import com.ivanzlotnikov.phonebook.auth.entity.User;
+import java.util.Optional;
+
+/**
+ * Поиск пользователей по естественному идентификатору (имени пользователя). Пользователи не
+ * кэшируются, поэтому поиск всегда читает актуальную строку из базы.
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Находит пользователя по имени.
+     * Используется для аутентификации в Spring Security.
+     *
+     * @param username имя пользователя
+     * @return Optional с пользователем или пустой Optional
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,26 @@
+package com.ivanzlotnikov.phonebook.auth.repository;
+
+import com.ivanzlotnikov.phonebook.auth.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+import org.hibernate.Session;
+
+/**
+ * Реализация поиска пользователей по естественному идентификатору через API Hibernate.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(User.class)
+            .loadOptional(username);
+    }
+}
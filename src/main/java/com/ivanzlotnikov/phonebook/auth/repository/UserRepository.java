@@ -1,25 +1,22 @@
 package com.ivanzlotnikov.phonebook.auth.repository;
 
+import com.ivanzlotnikov.phonebook.auth.dto.UserDTO;
 import com.ivanzlotnikov.phonebook.auth.entity.User;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Репозиторий для работы с сущностью {@link User}.
  * Предоставляет методы для аутентификации и управления пользователями системы.
+ * Поиск по имени пользователя реализован в {@link UserNaturalIdRepository}.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    /**
-     * Находит пользователя по имени.
-     * Используется для аутентификации в Spring Security.
-     *
-     * @param username имя пользователя
-     * @return Optional с пользователем или пустой Optional
-     */
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
     /**
      * Проверяет существование пользователя с указанным именем.
@@ -37,4 +34,100 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     long countByRole(String role);
 
+    /**
+     * Находит страницу пользователей без пароля.
+     *
+     * @param pageable параметры страницы и сортировки
+     * @return срез пользователей
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.auth.dto.UserDTO(u.id, u.username, u.role, u.enabled)
+        FROM User u
+        """)
+    Slice<UserDTO> findSummaries(Pageable pageable);
+
+    /**
+     * Находит страницу пользователей с указанной ролью без пароля (индекс idx_users_role).
+     *
+     * @param role     роль пользователя
+     * @param pageable параметры страницы и сортировки
+     * @return срез пользователей
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.auth.dto.UserDTO(u.id, u.username, u.role, u.enabled)
+        FROM User u
+        WHERE u.role = :role
+        """)
+    Slice<UserDTO> findSummariesByRole(@Param("role") String role, Pageable pageable);
+
+    /**
+     * Находит страницу пользователей по началу имени без учета регистра без пароля
+     * (индекс idx_users_username_lower).
+     *
+     * @param prefix   начало имени в нижнем регистре, экранированное для LIKE
+     * @param pageable параметры страницы и сортировки
+     * @return срез пользователей
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.auth.dto.UserDTO(u.id, u.username, u.role, u.enabled)
+        FROM User u
+        WHERE LOWER(u.username) LIKE CONCAT(:prefix, '%') ESCAPE '\\'
+        """)
+    Slice<UserDTO> findSummariesByUsernamePrefix(@Param("prefix") String prefix,
+        Pageable pageable);
+
+    /**
+     * Находит страницу пользователей с указанной ролью по началу имени без пароля.
+     *
+     * @param role     роль пользователя
+     * @param prefix   начало имени в нижнем регистре, экранированное для LIKE
+     * @param pageable параметры страницы и сортировки
+     * @return срез пользователей
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.auth.dto.UserDTO(u.id, u.username, u.role, u.enabled)
+        FROM User u
+        WHERE u.role = :role AND LOWER(u.username) LIKE CONCAT(:prefix, '%') ESCAPE '\\'
+        """)
+    Slice<UserDTO> findSummariesByRoleAndUsernamePrefix(@Param("role") String role,
+        @Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * Подсчитывает пользователей по началу имени без учета регистра.
+     *
+     * @param prefix начало имени в нижнем регистре, экранированное для LIKE
+     * @return количество пользователей
+     */
+    @Query("""
+        SELECT COUNT(u) FROM User u
+        WHERE LOWER(u.username) LIKE CONCAT(:prefix, '%') ESCAPE '\\'
+        """)
+    long countByUsernamePrefix(@Param("prefix") String prefix);
+
+    /**
+     * Подсчитывает пользователей с указанной ролью по началу имени без учета регистра.
+     *
+     * @param role   роль пользователя
+     * @param prefix начало имени в нижнем регистре, экранированное для LIKE
+     * @return количество пользователей
+     */
+    @Query("""
+        SELECT COUNT(u) FROM User u
+        WHERE u.role = :role AND LOWER(u.username) LIKE CONCAT(:prefix, '%') ESCAPE '\\'
+        """)
+    long countByRoleAndUsernamePrefix(@Param("role") String role, @Param("prefix") String prefix);
+
+    /**
+     * Находит пользователя по идентификатору без пароля.
+     *
+     * @param id идентификатор пользователя
+     * @return Optional с пользователем или пустой Optional
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.auth.dto.UserDTO(u.id, u.username, u.role, u.enabled)
+        FROM User u
+        WHERE u.id = :id
+        """)
+    Optional<UserDTO> findSummaryById(@Param("id") Long id);
+
 }
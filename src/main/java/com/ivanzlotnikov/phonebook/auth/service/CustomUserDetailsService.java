@@ -2,6 +2,7 @@ package com.ivanzlotnikov.phonebook.auth.service;
 
 import com.ivanzlotnikov.phonebook.auth.entity.User;
 import com.ivanzlotnikov.phonebook.auth.repository.UserRepository;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,6 +13,8 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * Сервис для загрузки пользовательских данных для Spring Security.
  * Реализует интерфейс UserDetailsService для интеграции с системой аутентификации.
+ * В многоарендном режиме пользователь ищется в схеме арендатора, определенного для запроса,
+ * поэтому учетная запись одной организации не дает входа в другую.
  */
 @Service
 @RequiredArgsConstructor
@@ -20,7 +23,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
 
     /**
-     * Загружает пользователя по имени для аутентификации.
+     * Загружает пользователя текущего арендатора по имени для аутентификации.
      *
      * @param username имя пользователя
      * @return объект UserDetails с данными пользователя
@@ -30,7 +33,8 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+            .orElseThrow(() -> new UsernameNotFoundException(
+                "User not found in tenant " + TenantContext.getCurrentTenant() + ": " + username));
         return new UserDetailsAdapter(user);
     }
 }
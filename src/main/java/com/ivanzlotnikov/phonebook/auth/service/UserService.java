@@ -1,13 +1,20 @@
 package com.ivanzlotnikov.phonebook.auth.service;
 
+import com.ivanzlotnikov.phonebook.auth.dto.UserDTO;
+import com.ivanzlotnikov.phonebook.auth.dto.UserFilter;
 import com.ivanzlotnikov.phonebook.auth.entity.User;
 import com.ivanzlotnikov.phonebook.auth.repository.UserRepository;
 import com.ivanzlotnikov.phonebook.exception.DuplicateResourceException;
 import com.ivanzlotnikov.phonebook.exception.InvalidDataException;
 import com.ivanzlotnikov.phonebook.exception.ResourceNotFoundException;
-import java.util.List;
+import com.ivanzlotnikov.phonebook.statistics.service.StatisticsDelta;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,14 +34,63 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Получает список всех пользователей.
+     * Находит страницу пользователей по условиям отбора. Пароль не выбирается из базы.
+     * Общее количество не подсчитывается: его возвращает кэшируемый {@link #count(UserFilter)}.
      *
-     * @return список всех пользователей
+     * @param filter   условия отбора
+     * @param pageable параметры страницы и сортировки
+     * @return срез пользователей
      */
-    public List<User> findAll() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> findSummaries(UserFilter filter, Pageable pageable) {
+        if (filter.hasRole() && filter.hasPrefix()) {
+            return userRepository.findSummariesByRoleAndUsernamePrefix(filter.role(),
+                filter.likePrefix(), pageable);
+        }
+        if (filter.hasRole()) {
+            return userRepository.findSummariesByRole(filter.role(), pageable);
+        }
+        if (filter.hasPrefix()) {
+            return userRepository.findSummariesByUsernamePrefix(filter.likePrefix(), pageable);
+        }
+        return userRepository.findSummaries(pageable);
+    }
+
+    /**
+     * Подсчитывает пользователей по условиям отбора. Количество без строки поиска (всего и по
+     * ролям) кэшируется до изменения пользователей; количество по строке поиска не кэшируется,
+     * чтобы произвольные строки не наполняли кэш, и подсчитывается по индексу.
+     *
+     * @param filter условия отбора
+     * @return количество пользователей
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "userCount", key = "#filter", condition = "!#filter.hasPrefix()")
+    public long count(UserFilter filter) {
+        if (filter.hasRole() && filter.hasPrefix()) {
+            return userRepository.countByRoleAndUsernamePrefix(filter.role(), filter.likePrefix());
+        }
+        if (filter.hasRole()) {
+            return userRepository.countByRole(filter.role());
+        }
+        if (filter.hasPrefix()) {
+            return userRepository.countByUsernamePrefix(filter.likePrefix());
+        }
+        return userRepository.count();
+    }
+
+    /**
+     * Находит пользователя по идентификатору без пароля.
+     *
+     * @param id идентификатор пользователя
+     * @return Optional с пользователем или пустой Optional
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserDTO> findSummaryById(Long id) {
+        return userRepository.findSummaryById(id);
     }
 
     /**
@@ -43,6 +99,7 @@ public class UserService {
      * @param id идентификатор пользователя
      * @return Optional с пользователем или пустой Optional
      */
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
@@ -53,6 +110,7 @@ public class UserService {
      * @param name имя пользователя
      * @return Optional с пользователем или пустой Optional
      */
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String name) {
         return userRepository.findByUsername(name);
     }
@@ -63,6 +121,7 @@ public class UserService {
      * @param user данные пользователя
      * @return сохраненный пользователь
      */
+    @CacheEvict(cacheNames = "userCount", allEntries = true)
     public User save(User user) {
         if (user.getId() != null) {
             return updateExistingUser(user);
@@ -77,6 +136,7 @@ public class UserService {
      * @param user данные нового пользователя
      * @return созданный пользователь
      */
+    @CacheEvict(cacheNames = "userCount", allEntries = true)
     public User createNewUser(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
             throw DuplicateResourceException.of("Пользователь", "username", user.getUsername());
@@ -86,6 +146,7 @@ public class UserService {
                 PASSWORD_MANDATORY_MESSAGE);
         }
         user.setPassword(encodePassword(user.getPassword()));
+        eventPublisher.publishEvent(StatisticsDelta.users(user.getRole(), 1));
         return userRepository.save(user);
     }
 
@@ -96,12 +157,15 @@ public class UserService {
      * @return обновленный пользователь
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @CacheEvict(cacheNames = "userCount", allEntries = true)
     public User updateExistingUser(User user) {
         User existingUser = userRepository.findById(user.getId())
             .orElseThrow(() ->
                 ResourceNotFoundException.byId("Пользователь",
                     user.getId()));
         user.setPassword(handlePasswordUpdate(user.getPassword(), existingUser.getPassword()));
+        eventPublisher.publishEvent(
+            StatisticsDelta.roleChanged(existingUser.getRole(), user.getRole()));
         return userRepository.save(user);
     }
 
@@ -147,11 +211,12 @@ public class UserService {
      * @param id идентификатор пользователя
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @CacheEvict(cacheNames = "userCount", allEntries = true)
     public void delete(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw ResourceNotFoundException.byId("Пользователь", id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> ResourceNotFoundException.byId("Пользователь", id));
+        userRepository.delete(user);
+        eventPublisher.publishEvent(StatisticsDelta.users(user.getRole(), -1));
     }
 
     /**
@@ -160,6 +225,7 @@ public class UserService {
      * @param username имя пользователя
      * @return true, если пользователь существует
      */
+    @Transactional(readOnly = true)
     public boolean usernameExists(String username) {
         return userRepository.existsByUsername(username);
     }
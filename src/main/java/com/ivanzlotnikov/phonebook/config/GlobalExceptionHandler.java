@@ -6,6 +6,11 @@ import com.ivanzlotnikov.phonebook.exception.InvalidDataException;
 import com.ivanzlotnikov.phonebook.exception.ResourceNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -16,6 +21,7 @@ public class GlobalExceptionHandler {
 
     private static final String ERROR_ATTRIBUTE = "errorMessage";
     private static final String DEFAULT_REDIRECT = "redirect:/";
+    private static final String RETRY_AFTER_SECONDS = "1";
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public String handleResourceNotFound(ResourceNotFoundException e,
@@ -57,6 +63,15 @@ public class GlobalExceptionHandler {
         return redirectWithError(redirectAttributes, e.getMessage(), request);
     }
 
+    @ExceptionHandler({DataAccessResourceFailureException.class,
+        CannotCreateTransactionException.class})
+    public ResponseEntity<String> handleDatabaseUnavailable(Exception e) {
+        log.warn("Database connection unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .body("Сервис временно перегружен, повторите попытку позже");
+    }
+
     @ExceptionHandler(Exception.class)
     public String handleGeneralException(Exception e,
                                      RedirectAttributes redirectAttributes,
@@ -1,6 +1,9 @@
 package com.ivanzlotnikov.phonebook.config;
 
 import com.ivanzlotnikov.phonebook.auth.service.CustomUserDetailsService;
+import com.ivanzlotnikov.phonebook.config.ratelimit.RateLimitFilter;
+import com.ivanzlotnikov.phonebook.config.ratelimit.RateLimitProperties;
+import com.ivanzlotnikov.phonebook.config.ratelimit.RateLimiter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,11 +17,12 @@ import org.springframework.security.config.annotation.web.configurers.LogoutConf
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
 /**
  * Конфигурация Spring Security.
- * Настраивает аутентификацию, авторизацию и защиту от CSRF-атак.
+ * Настраивает аутентификацию, авторизацию, защиту от CSRF-атак и ограничение частоты запросов.
  */
 @Configuration
 @EnableWebSecurity
@@ -27,15 +31,19 @@ import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
 
     private static final String ROLE_ADMIN = "ADMIN";
     private static final String[] PUBLIC_PATHS = {
         "/", "/home", "/css/**", "/js/**", "/images/**",
-        "/webjars/**", "/login", "/error"
+        "/webjars/**", "/login", "/error", "/actuator/health", "/actuator/health/**"
     };
     private static final String[] ADMIN_PATHS = {
         "/contacts/new", "/contacts/save", "/contacts/edit/**",
-        "/contacts/delete/**", "/users", "/users/**"
+        "/contacts/delete/**", "/contacts/bulk/**", "/contacts/archive", "/contacts/archive/**",
+        "/users", "/users/**", "/audit", "/audit/**", "/traces", "/traces/**",
+        "/actuator/entitycache"
     };
     private static final String[] AUTH_PATHS = {
         "/contacts", "/contacts/**"
@@ -65,7 +73,9 @@ public class SecurityConfig {
             .authorizeHttpRequests(this::configureAuthorization)
             .userDetailsService(userDetailsService)
             .formLogin(this::configureFormLogin)
-            .logout(this::configureLogout);
+            .logout(this::configureLogout)
+            .addFilterBefore(new RateLimitFilter(rateLimiter, rateLimitProperties),
+                UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
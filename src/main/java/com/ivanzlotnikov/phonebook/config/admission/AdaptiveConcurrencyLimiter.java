@@ -0,0 +1,145 @@
+package com.ivanzlotnikov.phonebook.config.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Адаптивный ограничитель параллельных запросов по схеме AIMD. Пока запросы укладываются в
+ * целевое время, лимит растет примерно на единицу за каждый "оборот" лимита; при медленных
+ * ответах или отказах базы лимит уменьшается умножением не чаще одного раза за целевое время.
+ * Изменяющим запросам доступна только часть лимита, чтобы чтение страниц не вытеснялось.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Приоритет запроса.
+     */
+    public enum Priority {
+
+        /**
+         * Чтение страниц (GET, HEAD).
+         */
+        INTERACTIVE,
+
+        /**
+         * Изменяющие запросы администраторов.
+         */
+        WRITE
+    }
+
+    private final AdmissionProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+    private volatile long lastDecreaseMillis;
+    private volatile long lastRejectionMillis;
+
+    /**
+     * Создает ограничитель с начальным лимитом из настроек.
+     *
+     * @param properties настройки ограничения
+     */
+    public AdaptiveConcurrencyLimiter(AdmissionProperties properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+
+    /**
+     * Пытается занять место для запроса.
+     *
+     * @param priority приоритет запроса
+     * @return true, если запрос допущен; false, если его нужно отклонить
+     */
+    public boolean tryAcquire(Priority priority) {
+        double allowed = priority == Priority.INTERACTIVE
+            ? limit : Math.max(1, limit * properties.getWriteShare());
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.incrementAndGet();
+                lastRejectionMillis = System.currentTimeMillis();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место запроса и корректирует лимит по результату.
+     *
+     * @param latencyMillis время обработки запроса
+     * @param overloaded    запрос завершился из-за перегрузки (например, нет соединений с базой)
+     */
+    public void release(long latencyMillis, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        if (overloaded || latencyMillis > properties.getTargetLatencyMs()) {
+            decrease();
+        } else if (current * 2 >= limit) {
+            increase();
+        }
+    }
+
+    /**
+     * Освобождает место запроса, время которого не характеризует нагрузку (скачивание или
+     * потоковая передача ответа). Лимит уменьшается только при отказе из-за перегрузки.
+     *
+     * @param overloaded запрос завершился из-за перегрузки (например, нет соединений с базой)
+     */
+    public void release(boolean overloaded) {
+        inFlight.decrementAndGet();
+        if (overloaded) {
+            decrease();
+        }
+    }
+
+    /**
+     * Проверяет, отклонял ли ограничитель запросы в последнее время.
+     *
+     * @return true, если экземпляр сейчас сбрасывает нагрузку
+     */
+    public boolean isShedding() {
+        return System.currentTimeMillis() - lastRejectionMillis < properties.getSheddingWindowMs();
+    }
+
+    /**
+     * Возвращает текущий лимит.
+     *
+     * @return лимит параллельных запросов
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Возвращает количество выполняемых запросов.
+     *
+     * @return количество запросов
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Возвращает количество отклоненных запросов с момента запуска.
+     *
+     * @return количество отклонений
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(properties.getMaxLimit(), limit + 1.0 / limit);
+    }
+
+    private synchronized void decrease() {
+        long now = System.currentTimeMillis();
+        if (now - lastDecreaseMillis < properties.getTargetLatencyMs()) {
+            return;
+        }
+        lastDecreaseMillis = now;
+        limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+    }
+}
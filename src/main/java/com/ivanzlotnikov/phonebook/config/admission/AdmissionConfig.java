@@ -0,0 +1,95 @@
+package com.ivanzlotnikov.phonebook.config.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Конфигурация адаптивного ограничения параллельных запросов. Перехватчик регистрируется
+ * только при phonebook.admission.enabled=true; показатель состояния "admission" и метрики
+ * admission.* доступны всегда.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@RequiredArgsConstructor
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionProperties admissionProperties;
+
+    /**
+     * Создает ограничитель параллельных запросов.
+     *
+     * @return ограничитель
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter(admissionProperties);
+    }
+
+    /**
+     * Создает показатель состояния ограничителя для отдельной группы здоровья.
+     *
+     * @param limiter ограничитель параллельных запросов
+     * @return показатель состояния "admission"
+     */
+    @Bean
+    public AdmissionHealthIndicator admissionHealthIndicator(AdaptiveConcurrencyLimiter limiter) {
+        return new AdmissionHealthIndicator(limiter);
+    }
+
+    /**
+     * Публикует состояние ограничителя метриками: лимит, выполняемые запросы, признак сброса
+     * нагрузки и счетчик отклонений. По ним строятся оповещения о перегрузке вместо вывода
+     * экземпляров из балансировки.
+     *
+     * @param limiter ограничитель параллельных запросов
+     * @return регистратор метрик admission.*
+     */
+    @Bean
+    public MeterBinder admissionMetrics(AdaptiveConcurrencyLimiter limiter) {
+        return registry -> {
+            Gauge.builder("admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(registry);
+            Gauge.builder("admission.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(registry);
+            Gauge.builder("admission.shedding", limiter, l -> l.isShedding() ? 1 : 0)
+                .register(registry);
+            FunctionCounter.builder("admission.rejected", limiter,
+                    AdaptiveConcurrencyLimiter::getRejected)
+                .register(registry);
+        };
+    }
+
+    /**
+     * Регистрирует перехватчик для запросов к контроллерам. Поток событий исключен: соединение
+     * открыто долго и удерживало бы слот все время подписки. Скачивания и потоковые ответы
+     * (phonebook.admission.streaming-paths) обслуживает отдельный экземпляр перехватчика, который
+     * не передает их время ограничителю.
+     *
+     * @param registry реестр перехватчиков
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!admissionProperties.isEnabled()) {
+            return;
+        }
+        String[] streamingPaths = admissionProperties.getStreamingPaths().toArray(String[]::new);
+        registry.addInterceptor(new AdmissionControlInterceptor(adaptiveConcurrencyLimiter(),
+                admissionProperties, true))
+            .addPathPatterns("/**")
+            .excludePathPatterns("/error", "/actuator/**", "/css/**", "/js/**", "/images/**",
+                "/webjars/**", "/contacts/events")
+            .excludePathPatterns(streamingPaths);
+        if (streamingPaths.length > 0) {
+            registry.addInterceptor(new AdmissionControlInterceptor(adaptiveConcurrencyLimiter(),
+                    admissionProperties, false))
+                .addPathPatterns(streamingPaths);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ivanzlotnikov.phonebook.config.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Перехватчик, допускающий запросы к контроллерам через {@link AdaptiveConcurrencyLimiter}.
+ * Лишние запросы сразу получают 503 с заголовком Retry-After, вместо того чтобы ждать
+ * соединения с базой и занимать потоки сервера. Для скачиваний и потоковых ответов время
+ * запроса не передается ограничителю ({@code latencySampled = false}): оно включает передачу
+ * ответа клиенту, которая выполняется внутри обработчика.
+ */
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE =
+        AdmissionControlInterceptor.class.getName() + ".START";
+    private static final String REJECTED_MESSAGE =
+        "Сервис временно перегружен, повторите попытку позже";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final AdmissionProperties properties;
+    private final boolean latencySampled;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+        Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        if (!limiter.tryAcquire(priorityOf(request))) {
+            reject(response);
+            return false;
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+        Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+        boolean overloaded = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        if (!latencySampled) {
+            limiter.release(overloaded);
+            return;
+        }
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        limiter.release(latencyMillis, overloaded);
+    }
+
+    private AdaptiveConcurrencyLimiter.Priority priorityOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+            ? AdaptiveConcurrencyLimiter.Priority.INTERACTIVE
+            : AdaptiveConcurrencyLimiter.Priority.WRITE;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+            String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(REJECTED_MESSAGE);
+    }
+}
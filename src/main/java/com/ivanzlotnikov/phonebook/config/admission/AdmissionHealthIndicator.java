@@ -0,0 +1,27 @@
+package com.ivanzlotnikov.phonebook.config.admission;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Показатель состояния ограничителя запросов (группа здоровья "admission"). Сброс нагрузки
+ * отражается только в деталях и не меняет статус: при общем всплеске нагрузку сбрасывают все
+ * экземпляры сразу, и вывод их из балансировки превратил бы перегрузку в полный отказ.
+ * Поэтому показатель не входит в readiness-группу.
+ */
+@RequiredArgsConstructor
+public class AdmissionHealthIndicator implements HealthIndicator {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public Health health() {
+        return Health.up()
+            .withDetail("shedding", limiter.isShedding())
+            .withDetail("limit", limiter.getLimit())
+            .withDetail("inFlight", limiter.getInFlight())
+            .withDetail("rejected", limiter.getRejected())
+            .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ivanzlotnikov.phonebook.config.admission;
+
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки адаптивного ограничения параллельных запросов (admission control).
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.admission")
+public class AdmissionProperties {
+
+    /**
+     * Включает ограничение параллельных запросов к контроллерам.
+     */
+    private boolean enabled;
+
+    /**
+     * Начальный лимит параллельных запросов.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * Нижняя граница лимита.
+     */
+    private int minLimit = 4;
+
+    /**
+     * Верхняя граница лимита.
+     */
+    private int maxLimit = 200;
+
+    /**
+     * Целевое время обработки запроса в миллисекундах. Более медленные запросы считаются
+     * признаком перегрузки и уменьшают лимит.
+     */
+    private long targetLatencyMs = 500;
+
+    /**
+     * Множитель уменьшения лимита при перегрузке.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Доля лимита, доступная изменяющим запросам (POST и др.). Остаток зарезервирован для
+     * чтения страниц.
+     */
+    private double writeShare = 0.5;
+
+    /**
+     * Значение заголовка Retry-After для отклоненных запросов, в секундах.
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * Сколько миллисекунд после последнего отклонения экземпляр сообщает о неготовности.
+     */
+    private long sheddingWindowMs = 5000;
+
+    /**
+     * Пути, ответы которых скачиваются или передаются потоком. Запросы к ним занимают место в
+     * лимите, но их время не корректирует лимит: оно включает передачу ответа и зависит от
+     * скорости клиента, а не от нагрузки на экземпляр.
+     */
+    private List<String> streamingPaths = List.of("/contacts/snapshot", "/contacts/print");
+}
@@ -0,0 +1,14 @@
+package com.ivanzlotnikov.phonebook.config.audit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация журнала аудита. Журнал, его хранилище и страница просмотра регистрируются
+ * только при phonebook.audit.enabled=true.
+ */
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+
+}
@@ -0,0 +1,82 @@
+package com.ivanzlotnikov.phonebook.config.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки журнала аудита изменений контактов и департаментов.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.audit")
+public class AuditProperties {
+
+    /**
+     * Включает журнал аудита.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Режим надежности записи событий.
+     */
+    private Durability durability = Durability.LOSSY;
+
+    /**
+     * Емкость кольцевого буфера событий (округляется вверх до степени двойки).
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Максимальное количество событий в одной пакетной вставке.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Пауза потока записи при пустом буфере, в миллисекундах.
+     */
+    private long flushIntervalMs = 200;
+
+    /**
+     * Сколько пишущий поток ждет места в заполненном буфере, прежде чем отбросить событие,
+     * в миллисекундах.
+     */
+    private long offerTimeoutMs = 20;
+
+    /**
+     * Сколько остановка приложения ждет записи событий, оставшихся в буфере, в миллисекундах.
+     */
+    private long shutdownTimeoutMs = 2_000;
+
+    /**
+     * Количество попыток записи пакета событий арендатора, прежде чем события будут сочтены
+     * потерянными.
+     */
+    private int writeAttempts = 3;
+
+    /**
+     * Пауза между попытками записи пакета, в миллисекундах.
+     */
+    private long writeRetryDelayMs = 200;
+
+    /**
+     * Срок хранения журнала в месяцах; более старые месячные секции удаляются целиком.
+     */
+    private int retentionMonths = 24;
+
+    /**
+     * Режим надежности записи событий.
+     */
+    public enum Durability {
+
+        /**
+         * Событие только кладется в буфер; при переполнении буфера или остановке процесса
+         * до записи событие теряется, зато запрос не ждет базу.
+         */
+        LOSSY,
+
+        /**
+         * Событие записывается в журнал в транзакции изменения перед ее фиксацией; если
+         * событие записать не удалось, транзакция откатывается и запрос завершается ошибкой.
+         */
+        SYNC
+    }
+}
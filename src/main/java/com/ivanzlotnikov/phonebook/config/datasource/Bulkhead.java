@@ -0,0 +1,25 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Направляет соединения с основной базой данных, полученные внутри метода, в указанный пул.
+ * Методы без аннотации используют пул интерактивных чтений в read-only транзакциях и пул
+ * записей в остальных.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * Пул соединений для метода.
+     *
+     * @return тип пула
+     */
+    BulkheadType value();
+}
@@ -0,0 +1,107 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Конфигурация изолированных пулов соединений основной базы данных (bulkheads).
+ * Активируется свойством phonebook.datasource.bulkhead.enabled=true. Если включена также
+ * маршрутизация на реплики, пулы используются ею в качестве основной базы.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(prefix = "phonebook.datasource.bulkhead", name = "enabled",
+    havingValue = "true")
+public class BulkheadConfig {
+
+    /**
+     * Создает пулы соединений основной базы данных.
+     *
+     * @param bulkheadProperties   настройки пулов
+     * @param dataSourceProperties настройки основной базы данных
+     * @param environment          окружение для привязки свойств spring.datasource.hikari.*
+     * @return источник данных с выбором пула
+     */
+    @Bean
+    public BulkheadDataSource bulkheadDataSource(BulkheadProperties bulkheadProperties,
+        DataSourceProperties dataSourceProperties, Environment environment) {
+        Map<BulkheadType, HikariDataSource> pools = new EnumMap<>(BulkheadType.class);
+        Map<BulkheadType, Integer> maxQueues = new EnumMap<>(BulkheadType.class);
+        for (BulkheadType type : BulkheadType.values()) {
+            BulkheadProperties.Pool settings = bulkheadProperties.get(type);
+            pools.put(type, createPool(type, settings, dataSourceProperties, environment));
+            maxQueues.put(type, settings.getMaxQueue());
+        }
+        log.info("Connection pool bulkheads enabled: {}", pools.keySet());
+        return new BulkheadDataSource(pools, maxQueues);
+    }
+
+    /**
+     * Создает основной источник данных приложения, если маршрутизация на реплики выключена.
+     *
+     * @param bulkheadDataSource источник данных с выбором пула
+     * @return источник данных для JPA и JDBC
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "phonebook.datasource.routing", name = "enabled",
+        havingValue = "false", matchIfMissing = true)
+    public DataSource dataSource(BulkheadDataSource bulkheadDataSource) {
+        return new LazyConnectionDataSourceProxy(bulkheadDataSource);
+    }
+
+    /**
+     * Регистрирует перехватчик методов и классов с аннотацией {@link Bulkhead}. Перехватчик
+     * выполняется раньше транзакционного, чтобы пул был выбран до начала транзакции.
+     *
+     * @return советник AOP
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor bulkheadAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(
+            new AnnotationMatchingPointcut(Bulkhead.class, true))
+            .union(AnnotationMatchingPointcut.forMethodAnnotation(Bulkhead.class));
+        DefaultPointcutAdvisor advisor =
+            new DefaultPointcutAdvisor(pointcut, new BulkheadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private HikariDataSource createPool(BulkheadType type, BulkheadProperties.Pool settings,
+        DataSourceProperties dataSourceProperties, Environment environment) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(type.getPoolName());
+        pool.setMaximumPoolSize(settings.getMaxSize());
+        if (pool.getMinimumIdle() > settings.getMaxSize()) {
+            pool.setMinimumIdle(settings.getMaxSize());
+        }
+        pool.setConnectionTimeout(settings.getConnectionTimeoutMs());
+        pool.setRegisterMbeans(true);
+        return pool;
+    }
+}
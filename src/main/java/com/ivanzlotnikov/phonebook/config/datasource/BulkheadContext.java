@@ -0,0 +1,53 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Хранит пул соединений, выбранный аннотацией {@link Bulkhead} для текущего потока.
+ */
+public final class BulkheadContext {
+
+    private static final ThreadLocal<BulkheadType> CURRENT_BULKHEAD = new ThreadLocal<>();
+
+    private BulkheadContext() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Определяет пул для получения соединения: явно выбранный аннотацией или, если его нет,
+     * по признаку read-only текущей транзакции.
+     *
+     * @return тип пула
+     */
+    public static BulkheadType currentBulkhead() {
+        BulkheadType explicit = CURRENT_BULKHEAD.get();
+        if (explicit != null) {
+            return explicit;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            ? BulkheadType.INTERACTIVE_READ
+            : BulkheadType.WRITE;
+    }
+
+    /**
+     * Возвращает пул, явно выбранный для потока.
+     *
+     * @return тип пула или null
+     */
+    static BulkheadType explicitBulkhead() {
+        return CURRENT_BULKHEAD.get();
+    }
+
+    /**
+     * Устанавливает пул для потока; null сбрасывает выбор.
+     *
+     * @param bulkhead тип пула или null
+     */
+    static void setExplicitBulkhead(BulkheadType bulkhead) {
+        if (bulkhead != null) {
+            CURRENT_BULKHEAD.set(bulkhead);
+        } else {
+            CURRENT_BULKHEAD.remove();
+        }
+    }
+}
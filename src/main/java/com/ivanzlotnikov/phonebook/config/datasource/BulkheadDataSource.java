@@ -0,0 +1,83 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Источник данных основной базы, разделенный на изолированные пулы соединений (bulkheads).
+ * Пул выбирается при получении физического соединения, поэтому должен использоваться через
+ * LazyConnectionDataSourceProxy. Если все соединения пула заняты и очередь ожидающих потоков
+ * заполнена, запрос отклоняется сразу, не дожидаясь таймаута пула.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BulkheadDataSource extends AbstractDataSource implements DisposableBean {
+
+    /**
+     * SQLSTATE ошибки подключения: Hibernate и Spring распознают ее как недоступность ресурса.
+     */
+    private static final String CONNECTION_FAILURE_SQL_STATE = "08001";
+
+    private final Map<BulkheadType, HikariDataSource> pools;
+    private final Map<BulkheadType, Integer> maxQueues;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        BulkheadType bulkhead = BulkheadContext.currentBulkhead();
+        HikariDataSource pool = pools.get(bulkhead);
+        rejectIfSaturated(bulkhead, pool);
+        return pool.getConnection();
+    }
+
+    /**
+     * Не поддерживается: пулы открывают соединения только с учетными данными из конфигурации
+     * (так же ведет себя HikariDataSource).
+     *
+     * @throws SQLFeatureNotSupportedException всегда
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Bulkhead pools use configured credentials");
+    }
+
+    /**
+     * Возвращает пулы соединений по типам.
+     *
+     * @return отображение тип → пул
+     */
+    public Map<BulkheadType, HikariDataSource> getPools() {
+        return pools;
+    }
+
+    private void rejectIfSaturated(BulkheadType bulkhead, HikariDataSource pool)
+        throws SQLTransientConnectionException {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+        if (poolBean == null || poolBean.getIdleConnections() > 0) {
+            return;
+        }
+        int waiting = poolBean.getThreadsAwaitingConnection();
+        if (waiting >= maxQueues.get(bulkhead)) {
+            log.warn("Bulkhead {} saturated: {} active, {} waiting; rejecting connection request",
+                bulkhead.getPoolName(), poolBean.getActiveConnections(), waiting);
+            throw new SQLTransientConnectionException(
+                "Bulkhead " + bulkhead.getPoolName() + " is saturated", CONNECTION_FAILURE_SQL_STATE);
+        }
+    }
+
+    /**
+     * Закрывает пулы соединений при остановке приложения.
+     */
+    @Override
+    public void destroy() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
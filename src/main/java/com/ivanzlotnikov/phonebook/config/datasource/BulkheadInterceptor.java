@@ -0,0 +1,38 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import java.lang.reflect.Method;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * Перехватчик методов с аннотацией {@link Bulkhead}. Выставляет пул соединений на время
+ * вызова; вложенные вызовы с другим пулом временно его переопределяют.
+ */
+public class BulkheadInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Bulkhead bulkhead = findBulkhead(invocation);
+        if (bulkhead == null) {
+            return invocation.proceed();
+        }
+        BulkheadType previous = BulkheadContext.explicitBulkhead();
+        BulkheadContext.setExplicitBulkhead(bulkhead.value());
+        try {
+            return invocation.proceed();
+        } finally {
+            BulkheadContext.setExplicitBulkhead(previous);
+        }
+    }
+
+    private Bulkhead findBulkhead(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+            ? AopUtils.getTargetClass(invocation.getThis()) : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(method, Bulkhead.class);
+        return bulkhead != null
+            ? bulkhead : AnnotatedElementUtils.findMergedAnnotation(targetClass, Bulkhead.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки изолированных пулов соединений основной базы данных. Общие параметры пулов
+ * берутся из spring.datasource.hikari.*, размер, таймаут и очередь задаются для каждого пула.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.datasource.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Включает разделение основной базы данных на пулы.
+     */
+    private boolean enabled;
+
+    /**
+     * Пул интерактивных чтений.
+     */
+    private Pool interactiveRead = new Pool(5, 2000, 20);
+
+    /**
+     * Пул интерактивных записей.
+     */
+    private Pool write = new Pool(3, 5000, 10);
+
+    /**
+     * Пул фоновых и массовых операций.
+     */
+    private Pool batch = new Pool(2, 30000, 5);
+
+    /**
+     * Возвращает настройки пула по его типу.
+     *
+     * @param type тип пула
+     * @return настройки пула
+     */
+    public Pool get(BulkheadType type) {
+        return switch (type) {
+            case INTERACTIVE_READ -> interactiveRead;
+            case WRITE -> write;
+            case BATCH -> batch;
+        };
+    }
+
+    /**
+     * Параметры одного пула.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+
+        /**
+         * Максимальный размер пула.
+         */
+        private int maxSize;
+
+        /**
+         * Максимальное время ожидания соединения в очереди, в миллисекундах.
+         */
+        private long connectionTimeoutMs;
+
+        /**
+         * Максимальное количество потоков, ожидающих соединение. Сверх этого запросы
+         * отклоняются сразу.
+         */
+        private int maxQueue;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+/**
+ * Изолированные пулы соединений основной базы данных.
+ */
+public enum BulkheadType {
+
+    /**
+     * Интерактивные чтения: загрузка страниц пользователями.
+     */
+    INTERACTIVE_READ("interactive-read"),
+
+    /**
+     * Интерактивные записи: сохранение форм.
+     */
+    WRITE("write"),
+
+    /**
+     * Фоновые и массовые операции: удаления, архивация, массовые изменения, загрузка индексов.
+     */
+    BATCH("batch");
+
+    private final String poolName;
+
+    BulkheadType(String poolName) {
+        this.poolName = poolName;
+    }
+
+    /**
+     * Возвращает имя пула соединений (используется в метриках и журналах HikariCP).
+     *
+     * @return имя пула
+     */
+    public String getPoolName() {
+        return poolName;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Конфигурация маршрутизации запросов между основной базой данных и репликами.
+ * Активируется свойством phonebook.datasource.routing.enabled=true. Основной пул
+ * создается из свойств spring.datasource.* (включая spring.datasource.hikari.*),
+ * пулы реплик — из phonebook.datasource.routing.replicas. Если включены изолированные пулы
+ * ({@link BulkheadConfig}), они используются в качестве основной базы.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@ConditionalOnProperty(prefix = "phonebook.datasource.routing", name = "enabled",
+    havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    private static final int PRIMARY_WAL_POOL_SIZE = 2;
+
+    /**
+     * Создает пулы соединений реплик, пул чтения позиции журнала основной базы и монитор
+     * состояния реплик.
+     *
+     * @param routingProperties настройки маршрутизации
+     * @param dataSourceProperties настройки основной базы данных
+     * @return монитор состояния реплик
+     */
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(DataSourceRoutingProperties routingProperties,
+        DataSourceProperties dataSourceProperties) {
+        List<HikariDataSource> pools = routingProperties.getReplicas().stream()
+            .map(replica -> createReplicaPool(replica, routingProperties, dataSourceProperties))
+            .toList();
+        log.info("Read replica routing enabled with {} replicas", pools.size());
+        return new ReplicaHealthMonitor(ReplicaHealthMonitor.keyed(pools),
+            createPrimaryWalPool(dataSourceProperties), routingProperties.getMaxLagMs());
+    }
+
+    /**
+     * Создает основной источник данных приложения: ленивый прокси над маршрутизирующим
+     * источником, который выбирает основную базу или реплику.
+     *
+     * @param dataSourceProperties настройки основной базы данных
+     * @param environment окружение для привязки свойств spring.datasource.hikari.*
+     * @param healthMonitor монитор состояния реплик
+     * @param bulkheadDataSource изолированные пулы основной базы, если они включены
+     * @return источник данных для JPA и JDBC
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment,
+        ReplicaHealthMonitor healthMonitor, ObjectProvider<BulkheadDataSource> bulkheadDataSource) {
+        DataSource primary = bulkheadDataSource.getIfAvailable(
+            () -> createPrimaryPool(dataSourceProperties, environment));
+
+        Map<Object, Object> targets = new HashMap<>(healthMonitor.getReplicas());
+        targets.put(ReplicaRoutingDataSource.PRIMARY_KEY, primary);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(healthMonitor);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource createPrimaryPool(DataSourceProperties dataSourceProperties,
+        Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    private HikariDataSource createPrimaryWalPool(DataSourceProperties dataSourceProperties) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(dataSourceProperties.determineUrl());
+        pool.setUsername(dataSourceProperties.determineUsername());
+        pool.setPassword(dataSourceProperties.determinePassword());
+        pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        pool.setMaximumPoolSize(PRIMARY_WAL_POOL_SIZE);
+        pool.setReadOnly(true);
+        pool.setPoolName("primary-wal");
+        return pool;
+    }
+
+    private HikariDataSource createReplicaPool(DataSourceRoutingProperties.Replica replica,
+        DataSourceRoutingProperties routingProperties, DataSourceProperties dataSourceProperties) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(replica.getUrl());
+        pool.setUsername(replica.getUsername() != null
+            ? replica.getUsername() : dataSourceProperties.determineUsername());
+        pool.setPassword(replica.getPassword() != null
+            ? replica.getPassword() : dataSourceProperties.determinePassword());
+        pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        pool.setMaximumPoolSize(routingProperties.getReplicaPoolSize());
+        pool.setReadOnly(true);
+        return pool;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки маршрутизации запросов между основной базой данных и репликами.
+ * Основная база настраивается стандартными свойствами spring.datasource.*.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Включает маршрутизацию read-only транзакций на реплики.
+     */
+    private boolean enabled;
+
+    /**
+     * Список реплик для чтения.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Максимально допустимое отставание реплики в миллисекундах. Реплики с большим отставанием
+     * исключаются из балансировки до следующей успешной проверки.
+     */
+    private long maxLagMs = 5000;
+
+    /**
+     * Интервал проверки состояния реплик в миллисекундах.
+     */
+    private long healthCheckIntervalMs = 1000;
+
+    /**
+     * Максимальный размер пула соединений каждой реплики.
+     */
+    private int replicaPoolSize = 10;
+
+    /**
+     * Параметры подключения к реплике. Если имя пользователя или пароль не указаны,
+     * используются значения основной базы данных.
+     */
+    @Data
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Хранит в HTTP-сессии позицию журнала WAL основной базы после последней зафиксированной
+ * записи пользователя. Позволяет направлять чтения пользователя, только что сохранившего
+ * данные, на основную базу или на реплики, которые уже применили журнал до этой позиции
+ * (read-your-writes).
+ */
+public final class ReadYourWritesContext {
+
+    /**
+     * Позиция, при которой чтения пользователя идут только на основную базу. Используется,
+     * если позицию журнала после записи прочитать не удалось, и действует до следующей записи.
+     */
+    public static final long PRIMARY_ONLY = Long.MAX_VALUE;
+
+    private static final String LAST_WRITE_LSN_ATTRIBUTE =
+        ReadYourWritesContext.class.getName() + ".LAST_WRITE_LSN";
+
+    private ReadYourWritesContext() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Проверяет, выполняется ли код в рамках HTTP-запроса, для которого ведется read-your-writes.
+     *
+     * @return true, если есть атрибуты текущего запроса
+     */
+    public static boolean isTracked() {
+        return RequestContextHolder.getRequestAttributes() != null;
+    }
+
+    /**
+     * Возвращает позицию журнала, которую должна применить реплика, чтобы текущий пользователь
+     * увидел на ней свои записи.
+     *
+     * @return позиция журнала в байтах или 0, если записей не было или запроса нет
+     */
+    public static long requiredLsn() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return 0L;
+        }
+        Object value = attributes.getAttribute(LAST_WRITE_LSN_ATTRIBUTE,
+            RequestAttributes.SCOPE_SESSION);
+        return value instanceof Long lsn ? lsn : 0L;
+    }
+
+    /**
+     * Запоминает позицию журнала основной базы после записи пользователя. Позиция в сессии
+     * только растет, поэтому параллельные запросы одного пользователя ее не уменьшают;
+     * исключение — {@link #PRIMARY_ONLY}, которую заменяет позиция, прочитанная позже.
+     * Вне HTTP-запроса (фоновые задачи) ничего не делает.
+     *
+     * @param lsn позиция журнала основной базы, прочитанная после фиксации
+     */
+    public static void markWrite(long lsn) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            synchronized (attributes.getSessionMutex()) {
+                long current = requiredLsn();
+                long updated = current == PRIMARY_ONLY ? lsn : Math.max(lsn, current);
+                attributes.setAttribute(LAST_WRITE_LSN_ATTRIBUTE, updated,
+                    RequestAttributes.SCOPE_SESSION);
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Владеет пулами соединений реплик и периодически проверяет их состояние. Для каждой реплики
+ * определяется доступность, отставание и позиция журнала WAL основной базы, до которой
+ * изменения на реплике уже применены. Эти данные используются для балансировки и
+ * read-your-writes.
+ *
+ * <p>Позиции журнала сравниваются только с позициями основной базы, а время отставания
+ * измеряется по часам приложения: при каждой проверке запоминается текущая позиция основной
+ * базы, и отставание реплики равно возрасту самой свежей такой отметки, которую реплика уже
+ * применила. Позиции основной базы читаются через отдельный маленький пул, чтобы запрос после
+ * фиксации транзакции не ждал соединения из основного пула, занятого этой же транзакцией.
+ */
+@Slf4j
+public class ReplicaHealthMonitor implements DisposableBean {
+
+    private static final String PRIMARY_LSN_SQL =
+        "SELECT (pg_current_wal_lsn() - '0/0'::pg_lsn)::bigint";
+    private static final String REPLAY_LSN_SQL =
+        "SELECT (pg_last_wal_replay_lsn() - '0/0'::pg_lsn)::bigint";
+
+    private final Map<String, HikariDataSource> replicas;
+    private final HikariDataSource primaryWal;
+    private final long maxLagMillis;
+    private final Map<String, ReplicaState> states = new ConcurrentHashMap<>();
+    private final Deque<WalMark> primaryMarks = new ArrayDeque<>();
+
+    /**
+     * Состояние реплики по результатам последней проверки.
+     *
+     * @param healthy     реплика доступна и отставание в пределах допустимого
+     * @param replayedLsn позиция журнала основной базы, до которой изменения применены
+     */
+    record ReplicaState(boolean healthy, long replayedLsn) {
+
+    }
+
+    /**
+     * Позиция журнала основной базы, прочитанная в указанный момент по часам приложения.
+     */
+    private record WalMark(long timeMillis, long lsn) {
+
+    }
+
+    /**
+     * Создает монитор.
+     *
+     * @param replicas     пулы соединений реплик по ключам маршрутизации
+     * @param primaryWal   пул соединений основной базы для чтения позиции журнала
+     * @param maxLagMillis максимально допустимое отставание реплики
+     */
+    public ReplicaHealthMonitor(Map<String, HikariDataSource> replicas,
+        HikariDataSource primaryWal, long maxLagMillis) {
+        this.replicas = replicas;
+        this.primaryWal = primaryWal;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * Возвращает пулы соединений реплик по ключам маршрутизации.
+     *
+     * @return неизменяемое отображение ключ → пул соединений
+     */
+    public Map<String, HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Читает текущую позицию журнала основной базы. Вызывается после фиксации пишущей
+     * транзакции, поэтому возвращенная позиция не меньше позиции записи о ее фиксации.
+     *
+     * @return позиция журнала в байтах
+     * @throws SQLException если основная база недоступна
+     */
+    public long currentPrimaryLsn() throws SQLException {
+        try (Connection connection = primaryWal.getConnection()) {
+            return queryLsn(connection, PRIMARY_LSN_SQL);
+        }
+    }
+
+    /**
+     * Проверяет все реплики. Вызывается по расписанию из одного потока.
+     */
+    @Scheduled(fixedDelayString = "${phonebook.datasource.routing.health-check-interval-ms:1000}")
+    public void checkReplicas() {
+        recordPrimaryMark();
+        replicas.forEach((key, dataSource) -> states.put(key, probe(key, dataSource)));
+    }
+
+    /**
+     * Возвращает реплики, пригодные для чтения пользователем, последняя запись которого
+     * зафиксирована на указанной позиции журнала. Реплика должна быть доступна и уже применить
+     * журнал до этой позиции.
+     *
+     * @param requiredLsn позиция журнала последней записи пользователя или 0
+     * @return ключи подходящих реплик в порядке конфигурации
+     */
+    public List<String> eligibleReplicas(long requiredLsn) {
+        List<String> eligible = new ArrayList<>(replicas.size());
+        for (String key : replicas.keySet()) {
+            ReplicaState state = states.get(key);
+            if (state != null && state.healthy() && state.replayedLsn() >= requiredLsn) {
+                eligible.add(key);
+            }
+        }
+        return eligible;
+    }
+
+    private void recordPrimaryMark() {
+        long now = System.currentTimeMillis();
+        try {
+            primaryMarks.addLast(new WalMark(now, currentPrimaryLsn()));
+        } catch (SQLException e) {
+            // Без новых отметок отставание реплик растет, и они исключаются из балансировки
+            log.warn("Primary WAL position is unavailable: {}", e.getMessage());
+        }
+        // Из отметок старше допустимого отставания достаточно хранить самую свежую
+        WalMark oldest;
+        while ((oldest = primaryMarks.pollFirst()) != null) {
+            WalMark next = primaryMarks.peekFirst();
+            if (next == null || now - next.timeMillis() <= maxLagMillis) {
+                primaryMarks.addFirst(oldest);
+                break;
+            }
+        }
+    }
+
+    private ReplicaState probe(String key, HikariDataSource dataSource) {
+        long replayedLsn;
+        try (Connection connection = dataSource.getConnection()) {
+            replayedLsn = queryLsn(connection, REPLAY_LSN_SQL);
+        } catch (SQLException e) {
+            log.warn("Replica {} is unavailable: {}", key, e.getMessage());
+            return new ReplicaState(false, 0L);
+        }
+        boolean healthy = lagMillis(replayedLsn) <= maxLagMillis;
+        if (!healthy) {
+            log.warn("Replica {} lags behind by more than {} ms", key, maxLagMillis);
+        }
+        return new ReplicaState(healthy, replayedLsn);
+    }
+
+    private long lagMillis(long replayedLsn) {
+        long now = System.currentTimeMillis();
+        Iterator<WalMark> newestFirst = primaryMarks.descendingIterator();
+        while (newestFirst.hasNext()) {
+            WalMark mark = newestFirst.next();
+            if (mark.lsn() <= replayedLsn) {
+                return now - mark.timeMillis();
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static long queryLsn(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery(sql)) {
+            if (!rs.next()) {
+                throw new SQLException("WAL position query returned no rows");
+            }
+            long lsn = rs.getLong(1);
+            if (rs.wasNull()) {
+                throw new SQLException("WAL position is not available on this server");
+            }
+            return lsn;
+        }
+    }
+
+    /**
+     * Закрывает пулы соединений реплик и пул чтения позиции журнала при остановке приложения.
+     */
+    @Override
+    public void destroy() {
+        replicas.values().forEach(HikariDataSource::close);
+        primaryWal.close();
+    }
+
+    /**
+     * Создает упорядоченное отображение ключей маршрутизации на пулы реплик.
+     *
+     * @param pools пулы соединений реплик в порядке конфигурации
+     * @return отображение вида replica-0 → пул (имя пула совпадает с ключом)
+     */
+    static Map<String, HikariDataSource> keyed(List<HikariDataSource> pools) {
+        Map<String, HikariDataSource> keyed = new LinkedHashMap<>();
+        for (int i = 0; i < pools.size(); i++) {
+            HikariDataSource pool = pools.get(i);
+            pool.setPoolName("replica-" + i);
+            keyed.put(pool.getPoolName(), pool);
+        }
+        return keyed;
+    }
+}
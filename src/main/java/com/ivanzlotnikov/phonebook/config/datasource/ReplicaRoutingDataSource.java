@@ -0,0 +1,67 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Маршрутизирующий источник данных. Read-only транзакции распределяются по кругу между
+ * доступными репликами, все остальные соединения выдаются основной базой. После фиксации
+ * пишущей транзакции в рамках HTTP-запроса в сессии пользователя запоминается текущая позиция
+ * журнала основной базы, и его последующие чтения идут только на реплики, которые уже
+ * применили журнал до этой позиции.
+ * Должен использоваться через LazyConnectionDataSourceProxy, чтобы признак read-only
+ * транзакции был установлен до получения физического соединения.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY_KEY = "primary";
+
+    private final ReplicaHealthMonitor healthMonitor;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWriteMarker();
+            return PRIMARY_KEY;
+        }
+        List<String> eligible = healthMonitor.eligibleReplicas(
+            ReadYourWritesContext.requiredLsn());
+        if (eligible.isEmpty()) {
+            return PRIMARY_KEY;
+        }
+        return eligible.get(Math.floorMod(roundRobin.getAndIncrement(), eligible.size()));
+    }
+
+    private void registerWriteMarker() {
+        if (ReadYourWritesContext.isTracked()
+            && TransactionSynchronizationManager.isActualTransactionActive()
+            && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        markWrite();
+                    }
+                });
+        }
+    }
+
+    private void markWrite() {
+        try {
+            ReadYourWritesContext.markWrite(healthMonitor.currentPrimaryLsn());
+        } catch (SQLException e) {
+            log.warn("Failed to read primary WAL position, session reads stay on primary: {}",
+                e.getMessage());
+            ReadYourWritesContext.markWrite(ReadYourWritesContext.PRIMARY_ONLY);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.ivanzlotnikov.phonebook.config.entitycache;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import lombok.extern.slf4j.Slf4j;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация кэша второго уровня Hibernate. Области хранятся в локальном Ehcache в куче с
+ * ограничением количества записей и сроком жизни; Hibernate подключается к нему через JCache.
+ * Сущности и естественные идентификаторы кэшируются в режиме чтения-записи: сохранение и
+ * удаление через Hibernate обновляют записи при фиксации транзакции, массовые запросы
+ * сбрасывают области затронутых сущностей. Все это действует только в пределах экземпляра:
+ * изменения других экземпляров видны после истечения срока жизни записей (см.
+ * {@link EntityCacheProperties}).
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+
+    private static final URI CACHE_MANAGER_URI = URI.create("urn:phonebook:entity-cache");
+    private static final long UPDATE_TIMESTAMPS_MAX_ENTRIES = 1_000;
+
+    /**
+     * Включает или выключает кэш второго уровня и кэш запросов Hibernate.
+     *
+     * @param properties настройки кэша
+     * @return настройка свойств Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateCustomizer(
+        EntityCacheProperties properties) {
+        if (!properties.isEnabled()) {
+            return hibernateProperties -> {
+                hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            };
+        }
+        CacheManager cacheManager = createCacheManager(properties);
+        log.info("Second-level cache enabled: {} departments, ttl {}s",
+            properties.getDepartmentMaxEntries(), properties.getTimeToLiveSeconds());
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // Необъявленная область была бы неограниченной, поэтому запуск прерывается
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS,
+                properties.isStatisticsEnabled());
+            hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    /**
+     * Создает endpoint статистики кэша второго уровня (/actuator/entitycache).
+     *
+     * @param entityManagerFactory фабрика менеджеров сущностей
+     * @return endpoint статистики
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "phonebook.entity-cache", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+    public EntityCacheEndpoint entityCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        return new EntityCacheEndpoint(entityManagerFactory);
+    }
+
+    private static CacheManager createCacheManager(EntityCacheProperties properties) {
+        ExpiryPolicy<Object, Object> expiry = properties.getTimeToLiveSeconds() > 0
+            ? ExpiryPolicyBuilder.timeToLiveExpiration(
+                Duration.ofSeconds(properties.getTimeToLiveSeconds()))
+            : ExpiryPolicyBuilder.noExpiration();
+        // Отметки времени изменения таблиц не должны вытесняться раньше результатов запросов,
+        // иначе устаревший результат будет считаться актуальным
+        Map<String, CacheConfiguration<?, ?>> regions = Map.of(
+            EntityCacheRegions.DEPARTMENT,
+            region(properties.getDepartmentMaxEntries(), expiry),
+            EntityCacheRegions.DEPARTMENT_NATURAL_ID,
+            region(properties.getDepartmentMaxEntries(), expiry),
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+            region(properties.getQueryResultsMaxEntries(), expiry),
+            RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+            region(UPDATE_TIMESTAMPS_MAX_ENTRIES, ExpiryPolicyBuilder.noExpiration()));
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+            EhcacheCachingProvider.class.getName());
+        ClassLoader classLoader = EntityCacheConfig.class.getClassLoader();
+        return provider.getCacheManager(CACHE_MANAGER_URI,
+            new DefaultConfiguration(regions, classLoader));
+    }
+
+    private static CacheConfiguration<Object, Object> region(long maxEntries,
+        ExpiryPolicy<Object, Object> expiry) {
+        return CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(maxEntries))
+            .withExpiry(expiry)
+            .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ivanzlotnikov.phonebook.config.entitycache;
+
+import com.ivanzlotnikov.phonebook.config.entitycache.EntityCacheStatistics.Counters;
+import com.ivanzlotnikov.phonebook.config.entitycache.EntityCacheStatistics.Region;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Endpoint статистики кэша второго уровня: попадания, промахи и записи по областям
+ * департаментов, кэшу естественных идентификаторов и кэшу запросов. Счетчики общие для всех
+ * арендаторов.
+ */
+@Endpoint(id = "entitycache")
+@RequiredArgsConstructor
+public class EntityCacheEndpoint {
+
+    private static final List<String> REGIONS = List.of(
+        EntityCacheRegions.DEPARTMENT, EntityCacheRegions.DEPARTMENT_NATURAL_ID);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Возвращает текущую статистику кэша.
+     *
+     * @return статистика кэша
+     */
+    @ReadOperation
+    public EntityCacheStatistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Region> regions = REGIONS.stream()
+            .flatMap(name -> {
+                CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+                return region == null ? Stream.empty() : Stream.of(new Region(name,
+                    Counters.of(region.getHitCount(), region.getMissCount(),
+                        region.getPutCount())));
+            })
+            .toList();
+        return new EntityCacheStatistics(statistics.isStatisticsEnabled(), regions,
+            Counters.of(statistics.getNaturalIdCacheHitCount(),
+                statistics.getNaturalIdCacheMissCount(), statistics.getNaturalIdCachePutCount()),
+            Counters.of(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()),
+            Counters.of(statistics.getUpdateTimestampsCacheHitCount(),
+                statistics.getUpdateTimestampsCacheMissCount(),
+                statistics.getUpdateTimestampsCachePutCount()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.ivanzlotnikov.phonebook.config.entitycache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки кэша второго уровня Hibernate для департаментов. Кэш локальный для экземпляра
+ * приложения и не получает сообщений об изменениях от других экземпляров: переименование,
+ * перенос или удаление департамента на одном экземпляре остальные видят не позже чем через
+ * {@link #timeToLiveSeconds} (по умолчанию 10 минут), независимо от числа экземпляров. Поэтому
+ * в кэше хранятся только департаменты, для которых такое отставание допустимо; пользователи,
+ * от которых зависит вход, не кэшируются. В многоарендном режиме ключи записей содержат
+ * арендатора, а ограничения размера действуют на всех арендаторов вместе.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.entity-cache")
+public class EntityCacheProperties {
+
+    /**
+     * Включает кэш второго уровня и кэш запросов.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Срок жизни записей в секундах (0 - без ограничения). Ограничивает время, в течение
+     * которого экземпляр может видеть устаревшие данные после изменения другим экземпляром.
+     */
+    private long timeToLiveSeconds = 600;
+
+    /**
+     * Максимальное количество департаментов в кэше. Должно превышать количество департаментов:
+     * кэшированный результат запроса дерева содержит только идентификаторы, и вытесненные
+     * департаменты загружаются по одному.
+     */
+    private long departmentMaxEntries = 10_000;
+
+    /**
+     * Максимальное количество результатов запросов в кэше запросов.
+     */
+    private long queryResultsMaxEntries = 100;
+
+    /**
+     * Включает сбор статистики Hibernate для просмотра доли попаданий в кэш.
+     */
+    private boolean statisticsEnabled = true;
+}
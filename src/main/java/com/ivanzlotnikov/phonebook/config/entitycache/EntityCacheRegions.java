@@ -0,0 +1,22 @@
+package com.ivanzlotnikov.phonebook.config.entitycache;
+
+/**
+ * Названия областей кэша второго уровня Hibernate. Каждая область создается заранее с
+ * ограниченным размером; обращение к необъявленной области останавливает запуск приложения.
+ */
+public final class EntityCacheRegions {
+
+    /**
+     * Область сущностей департаментов.
+     */
+    public static final String DEPARTMENT = "department";
+
+    /**
+     * Область соответствия названий департаментов их идентификаторам.
+     */
+    public static final String DEPARTMENT_NATURAL_ID = "department-natural-id";
+
+    private EntityCacheRegions() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+}
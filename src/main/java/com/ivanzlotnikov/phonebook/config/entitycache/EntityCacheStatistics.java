@@ -0,0 +1,55 @@
+package com.ivanzlotnikov.phonebook.config.entitycache;
+
+import java.util.List;
+
+/**
+ * Статистика кэша второго уровня с момента запуска приложения.
+ *
+ * @param statisticsEnabled включен ли сбор статистики Hibernate
+ * @param regions           обращения к областям сущностей и естественных идентификаторов
+ * @param naturalIds        обращения к кэшу естественных идентификаторов всех областей
+ * @param queries           обращения к кэшу запросов
+ * @param updateTimestamps  обращения к отметкам времени изменения таблиц
+ */
+public record EntityCacheStatistics(
+    boolean statisticsEnabled,
+    List<Region> regions,
+    Counters naturalIds,
+    Counters queries,
+    Counters updateTimestamps
+) {
+
+    /**
+     * Обращения к одной области кэша.
+     *
+     * @param name     название области
+     * @param counters счетчики обращений
+     */
+    public record Region(String name, Counters counters) {
+
+    }
+
+    /**
+     * Счетчики обращений к кэшу.
+     *
+     * @param hits     попадания
+     * @param misses   промахи
+     * @param puts     записи
+     * @param hitRatio доля попаданий среди чтений (0, если чтений не было)
+     */
+    public record Counters(long hits, long misses, long puts, double hitRatio) {
+
+        /**
+         * Создает счетчики и вычисляет долю попаданий.
+         *
+         * @param hits   попадания
+         * @param misses промахи
+         * @param puts   записи
+         * @return счетчики обращений
+         */
+        public static Counters of(long hits, long misses, long puts) {
+            long requests = hits + misses;
+            return new Counters(hits, misses, puts, requests == 0 ? 0 : (double) hits / requests);
+        }
+    }
+}
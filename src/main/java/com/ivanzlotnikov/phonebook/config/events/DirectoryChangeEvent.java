@@ -0,0 +1,52 @@
+package com.ivanzlotnikov.phonebook.config.events;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import java.util.List;
+
+/**
+ * Событие изменения справочника. Публикуется сервисами внутри транзакции и рассылается
+ * подписчикам всех экземпляров приложения после ее фиксации. Пустой список идентификаторов
+ * означает, что затронутый набор записей неизвестен и клиенту следует перечитать список
+ * целиком.
+ *
+ * @param tenant арендатор, в схеме которого произошло изменение
+ * @param type   тип изменения
+ * @param ids    идентификаторы измененных контактов или департаментов
+ */
+public record DirectoryChangeEvent(String tenant, Type type, List<Long> ids) {
+
+    /**
+     * Создает событие для текущего арендатора.
+     *
+     * @param type тип изменения
+     * @param ids  идентификаторы измененных записей
+     * @return событие
+     */
+    public static DirectoryChangeEvent of(Type type, List<Long> ids) {
+        return new DirectoryChangeEvent(TenantContext.getCurrentTenant(), type, List.copyOf(ids));
+    }
+
+    /**
+     * Тип изменения справочника.
+     */
+    public enum Type {
+        CONTACT_UPSERTED("contact-upserted"),
+        CONTACT_DELETED("contact-deleted"),
+        DEPARTMENT_CHANGED("department-changed");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        /**
+         * Возвращает имя события в потоке Server-Sent Events.
+         *
+         * @return имя события
+         */
+        public String getEventName() {
+            return eventName;
+        }
+    }
+}
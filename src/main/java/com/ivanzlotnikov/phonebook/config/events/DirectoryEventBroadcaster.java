@@ -0,0 +1,142 @@
+package com.ivanzlotnikov.phonebook.config.events;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Единая точка рассылки событий изменения справочника подписчикам SSE экземпляра. События
+ * всех экземпляров приходят через {@link DirectoryEventRelay} после фиксации транзакции, в
+ * которой они опубликованы, и раскладываются по ограниченным буферам подписчиков того же
+ * арендатора. Подписчик, не успевающий читать события, отключается
+ * и при переподключении перечитывает список. Простаивающие соединения не занимают потоков:
+ * запись выполняет небольшой пул потоков рассылки только при наличии событий.
+ */
+@Slf4j
+public class DirectoryEventBroadcaster implements DisposableBean {
+
+    private final DirectoryEventsProperties properties;
+    private final Set<DirectoryEventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService dispatchExecutor;
+
+    /**
+     * Создает рассыльщик событий.
+     *
+     * @param properties настройки рассылки
+     */
+    public DirectoryEventBroadcaster(DirectoryEventsProperties properties) {
+        this.properties = properties;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatchExecutor = Executors.newFixedThreadPool(properties.getDispatchThreads(),
+            runnable -> {
+                Thread thread = new Thread(runnable,
+                    "directory-events-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Регистрирует нового подписчика.
+     *
+     * @param tenant арендатор подписчика
+     * @return SSE-соединение или null, если достигнут предел подписчиков
+     */
+    public SseEmitter subscribe(String tenant) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(properties.getConnectionTimeoutMs());
+        DirectoryEventSubscriber subscriber = new DirectoryEventSubscriber(tenant, emitter,
+            properties.getSubscriberBufferSize(), dispatchExecutor);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        // Завершение по таймауту штатное: браузер переподключится сам
+        emitter.onTimeout(() -> {
+            remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Рассылает подписчикам его арендатора событие, полученное от {@link DirectoryEventRelay}.
+     *
+     * @param event событие изменения справочника
+     */
+    public void deliver(DirectoryChangeEvent event) {
+        for (DirectoryEventSubscriber subscriber : subscribers) {
+            if (subscriber.getTenant().equals(event.tenant()) && !subscriber.offer(event)) {
+                dropSlow(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Отправляет всем подписчикам событие без идентификаторов, чтобы они перечитали список:
+     * вызывается, когда часть событий могла быть потеряна.
+     */
+    public void resynchronize() {
+        for (DirectoryEventSubscriber subscriber : subscribers) {
+            DirectoryChangeEvent event = new DirectoryChangeEvent(subscriber.getTenant(),
+                DirectoryChangeEvent.Type.CONTACT_UPSERTED, List.of());
+            if (!subscriber.offer(event)) {
+                dropSlow(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Отправляет служебные комментарии, чтобы прокси не закрывали простаивающие соединения,
+     * а оборванные соединения обнаруживались при записи.
+     */
+    @Scheduled(fixedDelayString = "${phonebook.events.heartbeat-interval-ms:20000}",
+        initialDelayString = "${phonebook.events.heartbeat-interval-ms:20000}")
+    public void sendHeartbeats() {
+        for (DirectoryEventSubscriber subscriber : subscribers) {
+            if (!subscriber.offerHeartbeat()) {
+                dropSlow(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество подключенных подписчиков.
+     *
+     * @return количество подписчиков
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(DirectoryEventSubscriber::close);
+        dispatchExecutor.shutdown();
+    }
+
+    private void dropSlow(DirectoryEventSubscriber subscriber) {
+        if (!subscriber.isClosed()) {
+            log.debug("Dropping slow directory events subscriber of tenant {}",
+                subscriber.getTenant());
+        }
+        subscriber.close();
+        remove(subscriber);
+    }
+
+    private void remove(DirectoryEventSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+}
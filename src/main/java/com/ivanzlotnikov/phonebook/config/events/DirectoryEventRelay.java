@@ -0,0 +1,165 @@
+package com.ivanzlotnikov.phonebook.config.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Передает события изменения справочника между экземплярами приложения через LISTEN/NOTIFY
+ * PostgreSQL. Событие отправляется уведомлением в транзакции изменения, поэтому доставляется
+ * только после ее фиксации и не доставляется при откате. Каждый экземпляр слушает канал на
+ * отдельном соединении с основной базой (вне пулов приложения) и раздает полученные события
+ * своим подписчикам SSE, включая события, опубликованные им самим. Уведомления, пришедшие
+ * во время потери соединения, не сохраняются: после переподключения подписчики получают
+ * событие без идентификаторов и перечитывают список.
+ */
+@Slf4j
+public class DirectoryEventRelay implements DisposableBean {
+
+    static final String CHANNEL = "directory_events";
+
+    /**
+     * Предел длины уведомления PostgreSQL (8000 байт) с запасом. Событие с большим списком
+     * идентификаторов отправляется без них: клиент перечитывает список целиком.
+     */
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+
+    private final DirectoryEventBroadcaster broadcaster;
+    private final DirectoryEventsProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Thread listenerThread;
+    private volatile boolean running = true;
+
+    /**
+     * Создает ретранслятор событий.
+     *
+     * @param broadcaster          рассыльщик событий локальным подписчикам
+     * @param properties           настройки рассылки
+     * @param dataSourceProperties параметры подключения к основной базе
+     * @param jdbcTemplate         шаблон JDBC для отправки уведомлений в транзакции изменения
+     * @param objectMapper         сериализатор событий
+     */
+    public DirectoryEventRelay(DirectoryEventBroadcaster broadcaster,
+        DirectoryEventsProperties properties, DataSourceProperties dataSourceProperties,
+        JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.broadcaster = broadcaster;
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerThread = new Thread(this::listen, "directory-events-relay");
+        this.listenerThread.setDaemon(true);
+    }
+
+    /**
+     * Отправляет событие в канал перед фиксацией транзакции, в которой оно опубликовано.
+     *
+     * @param event событие изменения справочника
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publish(DirectoryChangeEvent event) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, encode(event));
+    }
+
+    /**
+     * Начинает слушать канал после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listenerThread.start();
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    private void listen() {
+        boolean reconnected = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnected) {
+                    log.info("Directory events relay reconnected, resynchronizing subscribers");
+                    broadcaster.resynchronize();
+                }
+                receive(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Directory events relay connection lost, reconnecting in {} ms: {}",
+                    properties.getRelayReconnectDelayMs(), e.getMessage());
+                reconnected = true;
+                if (!sleepQuietly(properties.getRelayReconnectDelayMs())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(PGConnection connection) throws SQLException {
+        while (running) {
+            PGNotification[] notifications =
+                connection.getNotifications((int) properties.getRelayPollTimeoutMs());
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                decode(notification.getParameter());
+            }
+        }
+    }
+
+    private String encode(DirectoryChangeEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            if (payload.length() <= MAX_PAYLOAD_LENGTH) {
+                return payload;
+            }
+            return objectMapper.writeValueAsString(
+                new DirectoryChangeEvent(event.tenant(), event.type(), List.of()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode directory change event", e);
+        }
+    }
+
+    private void decode(String payload) {
+        try {
+            broadcaster.deliver(objectMapper.readValue(payload, DirectoryChangeEvent.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed directory change notification: {}", e.getMessage());
+        }
+    }
+
+    private static boolean sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ivanzlotnikov.phonebook.config.events;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Подписчик на события справочника: SSE-соединение и ограниченный буфер неотправленных событий.
+ * Запись в соединение выполняется только потоками рассылки, не более одним потоком
+ * одновременно; публикующий поток лишь кладет событие в буфер и никогда не ждет клиента.
+ */
+class DirectoryEventSubscriber {
+
+    private static final Object HEARTBEAT = new Object();
+
+    @Getter
+    private final String tenant;
+    private final SseEmitter emitter;
+    private final Queue<Object> buffer;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    DirectoryEventSubscriber(String tenant, SseEmitter emitter, int bufferSize, Executor executor) {
+        this.tenant = tenant;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+    }
+
+    /**
+     * Кладет событие в буфер подписчика.
+     *
+     * @param event событие
+     * @return false, если буфер переполнен или подписчик отключен
+     */
+    boolean offer(DirectoryChangeEvent event) {
+        return enqueue(event);
+    }
+
+    /**
+     * Кладет в буфер служебный комментарий для поддержания соединения.
+     *
+     * @return false, если буфер переполнен или подписчик отключен
+     */
+    boolean offerHeartbeat() {
+        return enqueue(HEARTBEAT);
+    }
+
+    /**
+     * Отключает подписчика. Соединение закрывается потоком рассылки, так как закрытие ждет
+     * завершения текущей записи в медленное соединение.
+     */
+    void close() {
+        closed = true;
+        buffer.clear();
+        schedule();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private boolean enqueue(Object item) {
+        if (closed || !buffer.offer(item)) {
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                closed = true;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Object item;
+            while (!closed && (item = buffer.poll()) != null) {
+                emitter.send(toSseEvent(item));
+            }
+        } catch (IOException | IllegalStateException e) {
+            closed = true;
+        } finally {
+            scheduled.set(false);
+        }
+        if (closed) {
+            emitter.complete();
+        } else if (!buffer.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(Object item) {
+        if (item instanceof DirectoryChangeEvent event) {
+            return SseEmitter.event()
+                .name(event.type().getEventName())
+                .data(Map.of("ids", event.ids()), MediaType.APPLICATION_JSON);
+        }
+        return SseEmitter.event().comment("heartbeat");
+    }
+}
@@ -0,0 +1,49 @@
+package com.ivanzlotnikov.phonebook.config.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Конфигурация рассылки событий изменения справочника. Пул потоков рассылки создается внутри
+ * рассыльщика и не регистрируется как бин, чтобы не подменить исполнитель задач @Async.
+ */
+@Configuration
+@EnableConfigurationProperties(DirectoryEventsProperties.class)
+public class DirectoryEventsConfig {
+
+    /**
+     * Создает рассыльщик событий.
+     *
+     * @param directoryEventsProperties настройки рассылки
+     * @return рассыльщик
+     */
+    @Bean
+    public DirectoryEventBroadcaster directoryEventBroadcaster(
+        DirectoryEventsProperties directoryEventsProperties) {
+        return new DirectoryEventBroadcaster(directoryEventsProperties);
+    }
+
+    /**
+     * Создает ретранслятор событий между экземплярами приложения.
+     *
+     * @param directoryEventBroadcaster рассыльщик событий
+     * @param directoryEventsProperties настройки рассылки
+     * @param dataSourceProperties      параметры подключения к основной базе
+     * @param jdbcTemplate              шаблон JDBC
+     * @param objectMapper              сериализатор событий
+     * @return ретранслятор
+     */
+    @Bean
+    public DirectoryEventRelay directoryEventRelay(
+        DirectoryEventBroadcaster directoryEventBroadcaster,
+        DirectoryEventsProperties directoryEventsProperties,
+        DataSourceProperties dataSourceProperties, JdbcTemplate jdbcTemplate,
+        ObjectMapper objectMapper) {
+        return new DirectoryEventRelay(directoryEventBroadcaster, directoryEventsProperties,
+            dataSourceProperties, jdbcTemplate, objectMapper);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ivanzlotnikov.phonebook.config.events;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки рассылки событий изменения справочника по Server-Sent Events.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.events")
+public class DirectoryEventsProperties {
+
+    /**
+     * Максимальное количество одновременно подключенных подписчиков на экземпляр.
+     */
+    private int maxSubscribers = 10_000;
+
+    /**
+     * Размер буфера неотправленных событий подписчика. Подписчик, буфер которого переполнен,
+     * отключается.
+     */
+    private int subscriberBufferSize = 32;
+
+    /**
+     * Количество потоков отправки событий. Потоки заняты только во время записи в соединения,
+     * простаивающие подписчики потоков не удерживают.
+     */
+    private int dispatchThreads = 4;
+
+    /**
+     * Максимальная длительность соединения в миллисекундах; после нее браузер переподключается.
+     */
+    private long connectionTimeoutMs = 1_800_000;
+
+    /**
+     * Интервал отправки служебных комментариев для поддержания соединений, в миллисекундах.
+     */
+    private long heartbeatIntervalMs = 20_000;
+
+    /**
+     * Время ожидания уведомлений канала событий за одно обращение, в миллисекундах. Ограничивает
+     * задержку остановки потока, слушающего канал.
+     */
+    private long relayPollTimeoutMs = 1_000;
+
+    /**
+     * Пауза перед повторным подключением к каналу событий после потери соединения, в
+     * миллисекундах.
+     */
+    private long relayReconnectDelayMs = 5_000;
+}
@@ -0,0 +1,31 @@
+package com.ivanzlotnikov.phonebook.config.migration;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantProperties;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация миграций схемы. Версионные скрипты из db/migration применяются Flyway при
+ * запуске ко всем схемам арендаторов; Hibernate схему не изменяет (ddl-auto=none или
+ * validate).
+ */
+@Configuration
+@EnableConfigurationProperties(MigrationProperties.class)
+public class MigrationConfig {
+
+    /**
+     * Заменяет стандартный запуск Flyway миграцией всех схем арендаторов под общей
+     * блокировкой.
+     *
+     * @param tenantProperties    настройки многоарендного режима
+     * @param migrationProperties настройки запуска миграций
+     * @return стратегия миграции
+     */
+    @Bean
+    public FlywayMigrationStrategy tenantSchemaMigrator(TenantProperties tenantProperties,
+        MigrationProperties migrationProperties) {
+        return new TenantSchemaMigrator(tenantProperties, migrationProperties);
+    }
+}
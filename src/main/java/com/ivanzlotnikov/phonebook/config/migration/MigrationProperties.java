@@ -0,0 +1,29 @@
+package com.ivanzlotnikov.phonebook.config.migration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки запуска миграций схемы. Сами миграции настраиваются свойствами spring.flyway.*.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.migration")
+public class MigrationProperties {
+
+    /**
+     * Ключ рекомендательной блокировки PostgreSQL, под которой миграции выполняет только один
+     * экземпляр приложения.
+     */
+    private long lockKey = 7_310_002_050L;
+
+    /**
+     * Максимальное время ожидания блокировки в миллисекундах. Экземпляры, дождавшиеся
+     * блокировки после другого экземпляра, находят схемы уже обновленными.
+     */
+    private long lockTimeoutMs = 600_000;
+
+    /**
+     * Интервал повторных попыток захвата блокировки в миллисекундах.
+     */
+    private long lockPollIntervalMs = 500;
+}
@@ -0,0 +1,176 @@
+package com.ivanzlotnikov.phonebook.config.migration;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantProperties;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+
+/**
+ * Применяет миграции ко всем схемам арендаторов. Миграции выполняет один экземпляр
+ * приложения: перед запуском захватывается рекомендательная блокировка PostgreSQL на уровне
+ * сессии, остальные экземпляры ждут ее и затем только проверяют, что схемы уже обновлены.
+ * Если новых миграций нет, запуск читает только таблицу истории Flyway и каталог индексов и
+ * не зависит от размера схемы.
+ *
+ * <p>Скрипты с CREATE INDEX CONCURRENTLY выполняются вне транзакции, и прерванное построение
+ * оставляет невалидный индекс, который IF NOT EXISTS при повторном запуске пропустит. Такой
+ * индекс может остаться и без записи о неудачной миграции (процесс был остановлен) или после
+ * прерванного REINDEX CONCURRENTLY, поэтому невалидные индексы схемы перестраиваются перед
+ * каждым запуском миграций, а временные копии REINDEX удаляются. Запись о неудачной миграции
+ * затем удаляется, и скрипт выполняется заново.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TenantSchemaMigrator implements FlywayMigrationStrategy {
+
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_lock(?)";
+    private static final String UNLOCK = "SELECT pg_advisory_unlock(?)";
+    private static final String FIND_INVALID_INDEXES = """
+        SELECT i.relname
+        FROM pg_index x
+        JOIN pg_class i ON i.oid = x.indexrelid
+        JOIN pg_namespace n ON n.oid = i.relnamespace
+        WHERE n.nspname = ? AND NOT x.indisvalid
+        """;
+
+    /**
+     * Имена временных индексов, которые оставляет прерванный REINDEX CONCURRENTLY.
+     */
+    private static final Pattern REINDEX_LEFTOVER = Pattern.compile(".*_cc(new|old)\\d*");
+
+    private final TenantProperties tenantProperties;
+    private final MigrationProperties migrationProperties;
+
+    @Override
+    public void migrate(Flyway flyway) {
+        DataSource dataSource = flyway.getConfiguration().getDataSource();
+        long started = System.nanoTime();
+        try (Connection lockConnection = dataSource.getConnection()) {
+            // Открытая транзакция на этом соединении задержала бы CREATE INDEX CONCURRENTLY
+            lockConnection.setAutoCommit(true);
+            acquireLock(lockConnection);
+            try {
+                for (String tenant : tenantProperties.getAllTenants()) {
+                    migrateSchema(flyway, dataSource, tenant);
+                }
+            } finally {
+                releaseLock(lockConnection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+        log.info("Schema migration of {} tenants finished in {} ms",
+            tenantProperties.getAllTenants().size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void migrateSchema(Flyway flyway, DataSource dataSource, String tenant)
+        throws SQLException {
+        Flyway tenantFlyway = Flyway.configure()
+            .configuration(flyway.getConfiguration())
+            .schemas(tenant)
+            .defaultSchema(tenant)
+            .load();
+        recoverInvalidIndexes(dataSource, tenant);
+        boolean failed = Arrays.stream(tenantFlyway.info().all())
+            .anyMatch(info -> info.getState() == MigrationState.FAILED);
+        if (failed) {
+            log.warn("Repairing interrupted migration of tenant {}", tenant);
+            tenantFlyway.repair();
+        }
+        MigrateResult result = tenantFlyway.migrate();
+        if (result.migrationsExecuted > 0) {
+            log.info("Tenant {} migrated from version {} to {}: {} migrations", tenant,
+                result.initialSchemaVersion, result.targetSchemaVersion,
+                result.migrationsExecuted);
+        }
+    }
+
+    private void recoverInvalidIndexes(DataSource dataSource, String tenant)
+        throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            List<String> invalid = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(FIND_INVALID_INDEXES)) {
+                statement.setString(1, tenant);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        invalid.add(resultSet.getString(1));
+                    }
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                for (String index : invalid) {
+                    String name = "\"" + tenant + "\".\"" + index + "\"";
+                    if (REINDEX_LEFTOVER.matcher(index).matches()) {
+                        log.warn("Dropping index {}.{} left by an interrupted reindex", tenant,
+                            index);
+                        statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+                    } else {
+                        log.warn("Rebuilding invalid index {}.{} left by an interrupted build",
+                            tenant, index);
+                        statement.execute("REINDEX INDEX CONCURRENTLY " + name);
+                    }
+                }
+            }
+        }
+    }
+
+    private void acquireLock(Connection connection) throws SQLException {
+        long deadline = System.nanoTime()
+            + TimeUnit.MILLISECONDS.toNanos(migrationProperties.getLockTimeoutMs());
+        boolean waiting = false;
+        try (PreparedStatement statement = connection.prepareStatement(TRY_LOCK)) {
+            statement.setLong(1, migrationProperties.getLockKey());
+            while (true) {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next() && resultSet.getBoolean(1)) {
+                        return;
+                    }
+                }
+                if (System.nanoTime() >= deadline) {
+                    throw new IllegalStateException("Migration lock was not acquired within "
+                        + migrationProperties.getLockTimeoutMs() + " ms");
+                }
+                if (!waiting) {
+                    log.info("Waiting for another instance to finish schema migration");
+                    waiting = true;
+                }
+                sleep(migrationProperties.getLockPollIntervalMs());
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(UNLOCK)) {
+            statement.setLong(1, migrationProperties.getLockKey());
+            statement.execute();
+        } catch (SQLException e) {
+            // Если соединение разорвано, сервер снимает блокировку сессии сам
+            log.warn("Failed to release migration lock", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for migration lock", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ivanzlotnikov.phonebook.config.ratelimit;
+
+/**
+ * Группы конечных точек с отдельными лимитами запросов.
+ */
+public enum EndpointFamily {
+
+    /**
+     * Поиск контактов (запросы с параметром search).
+     */
+    SEARCH,
+
+    /**
+     * Просмотр списков и карточек.
+     */
+    LIST,
+
+    /**
+     * Изменяющие запросы администраторов.
+     */
+    ADMIN,
+
+    /**
+     * Вход в систему.
+     */
+    LOGIN
+}
@@ -0,0 +1,97 @@
+package com.ivanzlotnikov.phonebook.config.ratelimit;
+
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import java.util.UUID;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Подсчитывает работающие экземпляры приложения по общей таблице app_instances: каждый
+ * экземпляр периодически отмечает себя в ней, а живыми считаются экземпляры, отметившиеся
+ * не раньше времени жизни записи. Число экземпляров следует за масштабированием HPA с
+ * задержкой не больше времени жизни записи. Если база недоступна, сохраняется последнее
+ * известное значение. Значение не опускается ниже
+ * {@link RateLimitProperties#getReplicaCount()}.
+ */
+@Slf4j
+@Bulkhead(BulkheadType.BATCH)
+public class LiveReplicaCounter implements DisposableBean {
+
+    private static final String TABLE = TenantContext.DEFAULT_TENANT + ".app_instances";
+    private static final String HEARTBEAT = "INSERT INTO " + TABLE + " (instance_id, last_seen)"
+        + " VALUES (?, now()) ON CONFLICT (instance_id) DO UPDATE SET last_seen = now()";
+    private static final String PURGE_EXPIRED = "DELETE FROM " + TABLE
+        + " WHERE last_seen < now() - make_interval(secs => ?)";
+    private static final String COUNT_LIVE = "SELECT count(*) FROM " + TABLE
+        + " WHERE last_seen >= now() - make_interval(secs => ?)";
+    private static final String UNREGISTER = "DELETE FROM " + TABLE + " WHERE instance_id = ?";
+    private static final double MILLIS_PER_SECOND = 1000.0;
+    private static final int EXPIRED_TTL_MULTIPLIER = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RateLimitProperties properties;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile int replicas;
+
+    /**
+     * Создает счетчик экземпляров.
+     *
+     * @param dataSource источник данных основной базы
+     * @param properties настройки ограничения частоты запросов
+     */
+    public LiveReplicaCounter(DataSource dataSource, RateLimitProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+        this.replicas = Math.max(1, properties.getReplicaCount());
+    }
+
+    /**
+     * Возвращает текущее число работающих экземпляров.
+     *
+     * @return число экземпляров, не меньше единицы
+     */
+    public int replicaCount() {
+        return replicas;
+    }
+
+    /**
+     * Отмечает экземпляр в общей таблице, удаляет давно не обновлявшиеся записи и
+     * пересчитывает число живых экземпляров.
+     */
+    @Scheduled(fixedDelayString = "${phonebook.rate-limit.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        double ttlSeconds = properties.getInstanceTtlMs() / MILLIS_PER_SECOND;
+        try {
+            jdbcTemplate.update(HEARTBEAT, instanceId);
+            jdbcTemplate.update(PURGE_EXPIRED, ttlSeconds * EXPIRED_TTL_MULTIPLIER);
+            Long live = jdbcTemplate.queryForObject(COUNT_LIVE, Long.class, ttlSeconds);
+            int counted = Math.max(Math.max(1, properties.getReplicaCount()),
+                live != null ? live.intValue() : 0);
+            if (counted != replicas) {
+                log.info("Rate limit replica count changed from {} to {}", replicas, counted);
+                replicas = counted;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh live replica count, keeping {}", replicas, e);
+        }
+    }
+
+    /**
+     * Удаляет запись экземпляра при остановке, чтобы остальные экземпляры сразу увеличили
+     * свою долю квоты.
+     */
+    @Override
+    public void destroy() {
+        try {
+            jdbcTemplate.update(UNREGISTER, instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to unregister instance {}", instanceId, e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ivanzlotnikov.phonebook.config.ratelimit;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация ограничения частоты запросов. Фильтр не регистрируется как бин, чтобы
+ * контейнер сервлетов не вызвал его вне цепочки Spring Security; его создает
+ * {@link com.ivanzlotnikov.phonebook.config.SecurityConfig}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    /**
+     * Создает счетчик работающих экземпляров приложения, между которыми делятся глобальные
+     * лимиты.
+     *
+     * @param dataSource          источник данных основной базы
+     * @param rateLimitProperties настройки ограничения
+     * @return счетчик экземпляров
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "phonebook.rate-limit", name = "enabled", havingValue = "true")
+    public LiveReplicaCounter liveReplicaCounter(DataSource dataSource,
+        RateLimitProperties rateLimitProperties) {
+        return new LiveReplicaCounter(dataSource, rateLimitProperties);
+    }
+
+    /**
+     * Создает ограничитель частоты запросов. Без счетчика экземпляров (ограничение выключено)
+     * используется настроенное количество экземпляров.
+     *
+     * @param rateLimitProperties настройки ограничения
+     * @param liveReplicaCounter  счетчик работающих экземпляров, если он создан
+     * @return ограничитель
+     */
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties rateLimitProperties,
+        ObjectProvider<LiveReplicaCounter> liveReplicaCounter) {
+        LiveReplicaCounter counter = liveReplicaCounter.getIfAvailable();
+        return new RateLimiter(rateLimitProperties, counter != null
+            ? counter::replicaCount : rateLimitProperties::getReplicaCount);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ivanzlotnikov.phonebook.config.ratelimit;
+
+import com.ivanzlotnikov.phonebook.auth.service.UserDetailsAdapter;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.util.StringUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Фильтр ограничения частоты запросов. Встраивается в цепочку Spring Security перед обработкой
+ * формы входа: аутентифицированные клиенты различаются по имени пользователя, остальные —
+ * по IP-адресу. Превысившие лимит получают 429 с заголовком Retry-After.
+ *
+ * <p>IP-адрес клиента берется из {@link HttpServletRequest#getRemoteAddr()}. За балансировщиком
+ * или прокси это адрес самого прокси, поэтому включена обработка X-Forwarded-For
+ * (server.forward-headers-strategy): Tomcat подставляет адрес клиента, только если запрос
+ * пришел от доверенного прокси (server.tomcat.remoteip.internal-proxies).
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/login";
+    private static final String SEARCH_PARAMETER = "search";
+    private static final String REJECTED_MESSAGE = "Слишком много запросов, повторите попытку позже";
+    private static final String[] UNLIMITED_PREFIXES = {
+        "/css/", "/js/", "/images/", "/webjars/", "/actuator/", "/favicon.ico"
+    };
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        String path = request.getServletPath();
+        for (String prefix : UNLIMITED_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        long retryAfterSeconds = rateLimiter.tryAcquire(familyOf(request), clientIdOf(request));
+        if (retryAfterSeconds > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(REJECTED_MESSAGE);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private EndpointFamily familyOf(HttpServletRequest request) {
+        boolean readOnly = HttpMethod.GET.matches(request.getMethod())
+                           || HttpMethod.HEAD.matches(request.getMethod());
+        if (!readOnly) {
+            return LOGIN_PATH.equals(request.getServletPath())
+                ? EndpointFamily.LOGIN : EndpointFamily.ADMIN;
+        }
+        return StringUtils.isNotBlank(request.getParameter(SEARCH_PARAMETER))
+            ? EndpointFamily.SEARCH : EndpointFamily.LIST;
+    }
+
+    private String clientIdOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String client = authentication != null
+                        && authentication.getPrincipal() instanceof UserDetailsAdapter user
+            ? "user:" + user.getUsername()
+            : "ip:" + request.getRemoteAddr();
+        return TenantContext.getCurrentTenant() + ":" + client;
+    }
+}
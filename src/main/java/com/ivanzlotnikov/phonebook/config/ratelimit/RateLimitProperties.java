@@ -0,0 +1,88 @@
+package com.ivanzlotnikov.phonebook.config.ratelimit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки ограничения частоты запросов. Лимиты задаются глобально для всего развертывания
+ * и делятся на количество работающих экземпляров приложения, которое подсчитывает
+ * {@link LiveReplicaCounter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Включает ограничение частоты запросов.
+     */
+    private boolean enabled;
+
+    /**
+     * Минимальное количество экземпляров приложения, между которыми делится глобальная квота.
+     * Используется до первого подсчета живых экземпляров и как нижняя граница подсчета.
+     */
+    private int replicaCount = 1;
+
+    /**
+     * Интервал, с которым экземпляр отмечает себя в общей таблице и пересчитывает живые
+     * экземпляры, в миллисекундах.
+     */
+    private long heartbeatIntervalMs = 10_000;
+
+    /**
+     * Время, в течение которого экземпляр после последней отметки считается живым, в
+     * миллисекундах. Должно быть в несколько раз больше интервала отметок.
+     */
+    private long instanceTtlMs = 30_000;
+
+    /**
+     * Время простоя, после которого корзина клиента удаляется из памяти, в миллисекундах.
+     */
+    private long idleEvictionMs = 600_000;
+
+    /**
+     * Глобальные лимиты по группам конечных точек.
+     */
+    private Map<EndpointFamily, Limit> limits = new EnumMap<>(Map.of(
+        EndpointFamily.SEARCH, new Limit(30, 60),
+        EndpointFamily.LIST, new Limit(60, 300),
+        EndpointFamily.ADMIN, new Limit(30, 120),
+        EndpointFamily.LOGIN, new Limit(10, 10)));
+
+    /**
+     * Возвращает лимит группы в пересчете на один экземпляр приложения.
+     *
+     * @param family   группа конечных точек
+     * @param replicas количество работающих экземпляров
+     * @return лимит экземпляра
+     */
+    public Limit perReplica(EndpointFamily family, int replicas) {
+        Limit global = limits.get(family);
+        int divisor = Math.max(1, replicas);
+        return new Limit(Math.max(1, global.getCapacity() / divisor),
+            Math.max(1, global.getRefillPerMinute() / divisor));
+    }
+
+    /**
+     * Параметры корзины токенов.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * Емкость корзины: допустимый всплеск запросов.
+         */
+        private int capacity;
+
+        /**
+         * Скорость пополнения корзины, токенов в минуту.
+         */
+        private int refillPerMinute;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ivanzlotnikov.phonebook.config.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Ограничитель частоты запросов в памяти экземпляра. Для каждой пары (группа конечных точек,
+ * клиент) хранится корзина токенов; корзины неактивных клиентов периодически удаляются.
+ * Корзины рассчитаны на текущее число экземпляров приложения: когда оно меняется, корзины
+ * создаются заново с пересчитанными лимитами.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final RateLimitProperties properties;
+    private final IntSupplier replicaCount;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private volatile int bucketReplicas;
+
+    /**
+     * Пытается выполнить запрос клиента.
+     *
+     * @param family   группа конечных точек
+     * @param clientId идентификатор клиента (имя пользователя или IP-адрес)
+     * @return 0, если запрос разрешен; иначе время в секундах до следующей попытки
+     */
+    public long tryAcquire(EndpointFamily family, String clientId) {
+        long now = System.nanoTime();
+        int replicas = currentReplicas();
+        TokenBucket bucket = buckets.computeIfAbsent(family + KEY_SEPARATOR + clientId, key -> {
+            RateLimitProperties.Limit limit = properties.perReplica(family, replicas);
+            return new TokenBucket(limit.getCapacity(), limit.getRefillPerMinute(), now);
+        });
+        long waitNanos = bucket.tryConsume(now);
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos));
+    }
+
+    /**
+     * Удаляет корзины клиентов, не обращавшихся дольше времени простоя. Простаивающая корзина
+     * уже заполнена, поэтому удаление не меняет лимиты.
+     */
+    @Scheduled(fixedDelayString = "${phonebook.rate-limit.idle-eviction-ms:600000}")
+    public void evictIdleBuckets() {
+        long threshold = System.nanoTime()
+                         - TimeUnit.MILLISECONDS.toNanos(properties.getIdleEvictionMs());
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.lastAccessNanos() < threshold);
+        if (before != buckets.size()) {
+            log.debug("Evicted {} idle rate limit buckets", before - buckets.size());
+        }
+    }
+
+    private int currentReplicas() {
+        int replicas = replicaCount.getAsInt();
+        if (replicas != bucketReplicas) {
+            synchronized (buckets) {
+                if (replicas != bucketReplicas) {
+                    buckets.clear();
+                    bucketReplicas = replicas;
+                }
+            }
+        }
+        return replicas;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ivanzlotnikov.phonebook.config.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Корзина токенов без блокировок: состояние меняется атомарной заменой неизменяемого снимка.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    private record State(double tokens, long refilledAtNanos) {
+
+    }
+
+    /**
+     * Создает заполненную корзину.
+     *
+     * @param capacity        емкость корзины
+     * @param refillPerMinute скорость пополнения, токенов в минуту
+     * @param nowNanos        текущее время
+     */
+    public TokenBucket(int capacity, int refillPerMinute, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) refillPerMinute / NANOS_PER_MINUTE;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Пытается взять токен.
+     *
+     * @param nowNanos текущее время
+     * @return 0, если токен получен; иначе время в наносекундах до появления токена
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = Math.min(capacity,
+                current.tokens() + (nowNanos - current.refilledAtNanos()) * tokensPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, nowNanos))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Возвращает время последнего обращения к корзине.
+     *
+     * @return время в наносекундах
+     */
+    public long lastAccessNanos() {
+        return state.get().refilledAtNanos();
+    }
+}
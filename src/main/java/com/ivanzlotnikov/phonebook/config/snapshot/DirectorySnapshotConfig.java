@@ -0,0 +1,14 @@
+package com.ivanzlotnikov.phonebook.config.snapshot;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация снимка справочника. Сервис, журнал изменений и контроллер снимка
+ * регистрируются только при phonebook.snapshot.enabled=true.
+ */
+@Configuration
+@EnableConfigurationProperties(DirectorySnapshotProperties.class)
+public class DirectorySnapshotConfig {
+
+}
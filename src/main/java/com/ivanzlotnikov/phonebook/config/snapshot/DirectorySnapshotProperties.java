@@ -0,0 +1,34 @@
+package com.ivanzlotnikov.phonebook.config.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки двоичного снимка справочника и его сохранения на диск.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.snapshot")
+public class DirectorySnapshotProperties {
+
+    /**
+     * Включает построение и выдачу снимка, а также ведение журнала изменений.
+     */
+    private boolean enabled;
+
+    /**
+     * Каталог для сохранения снимков между перезапусками (в Kubernetes - общий том подов).
+     */
+    private String storageDir = "/tmp/phonebook-snapshot";
+
+    /**
+     * Окно повторной проверки журнала в миллисекундах. Должно превышать длительность самой
+     * долгой пишущей транзакции: запись журнала становится видимой только после фиксации.
+     */
+    private long changeLogLagMs = 300_000;
+
+    /**
+     * Срок хранения записей журнала в миллисекундах. Сохраненный снимок старше этого срока
+     * не догоняется по журналу, а строится заново.
+     */
+    private long changeLogRetentionMs = 604_800_000;
+}
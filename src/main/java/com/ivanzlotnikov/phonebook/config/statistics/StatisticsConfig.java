@@ -0,0 +1,13 @@
+package com.ivanzlotnikov.phonebook.config.statistics;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация статистики справочника.
+ */
+@Configuration
+@EnableConfigurationProperties(StatisticsProperties.class)
+public class StatisticsConfig {
+
+}
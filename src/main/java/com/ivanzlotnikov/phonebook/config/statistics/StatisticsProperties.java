@@ -0,0 +1,27 @@
+package com.ivanzlotnikov.phonebook.config.statistics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки статистики справочника и истории численности.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.statistics")
+public class StatisticsProperties {
+
+    /**
+     * Количество дней в ряду численности на главной странице.
+     */
+    private int trendDays = 30;
+
+    /**
+     * Количество крупнейших департаментов на главной странице.
+     */
+    private int topDepartments = 10;
+
+    /**
+     * Срок хранения дневных снимков численности в днях.
+     */
+    private int historyRetentionDays = 730;
+}
@@ -0,0 +1,69 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+/**
+ * Конфигурация многоарендного режима со схемой базы данных на каждого арендатора.
+ * Активируется свойством phonebook.tenant.enabled=true. Схемы арендаторов создаются и
+ * обновляются при запуске теми же миграциями, что и основная схема.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "phonebook.tenant", name = "enabled", havingValue = "true")
+public class MultiTenancyConfig {
+
+    /**
+     * Регистрирует фильтр определения арендатора перед фильтрами Spring Security.
+     *
+     * @param tenantProperties настройки многоарендного режима
+     * @return регистрация фильтра
+     */
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenantProperties tenantProperties) {
+        log.info("Multi-tenant mode enabled for tenants {}", tenantProperties.getAllTenants());
+        FilterRegistrationBean<TenantFilter> registration =
+            new FilterRegistrationBean<>(new TenantFilter(tenantProperties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Подключает к Hibernate поставщик соединений по схемам арендаторов и определение
+     * текущего арендатора.
+     *
+     * @param dataSource источник данных приложения
+     * @return настройка свойств Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer multiTenancyHibernateCustomizer(DataSource dataSource) {
+        SchemaPerTenantConnectionProvider connectionProvider =
+            new SchemaPerTenantConnectionProvider(dataSource);
+        TenantIdentifierResolver identifierResolver = new TenantIdentifierResolver();
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, connectionProvider);
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, identifierResolver);
+        };
+    }
+
+    /**
+     * Создает менеджер кэшей, разделенных по арендаторам.
+     *
+     * @param tenantProperties настройки многоарендного режима
+     * @return менеджер кэшей
+     */
+    @Bean
+    @Primary
+    public CacheManager tenantCacheManager(TenantProperties tenantProperties) {
+        return new TenantCacheManager(tenantProperties.getMaxCacheEntries());
+    }
+}
@@ -0,0 +1,80 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Поставщик соединений Hibernate для схем арендаторов. Для каждого арендатора создается
+ * ленивый прокси над общим источником данных, который переключает схему при получении
+ * физического соединения. Благодаря этому маршрутизация read-only транзакций на реплики
+ * продолжает работать, а все арендаторы обслуживаются одними и теми же пулами основной базы
+ * и реплик.
+ */
+public class SchemaPerTenantConnectionProvider implements MultiTenantConnectionProvider<String> {
+
+    private final DataSource targetDataSource;
+    private final Map<String, DataSource> tenantDataSources = new ConcurrentHashMap<>();
+
+    /**
+     * Создает поставщик соединений поверх источника данных приложения.
+     *
+     * @param dataSource источник данных приложения (возможно, ленивый прокси над
+     *                   маршрутизирующим источником)
+     */
+    public SchemaPerTenantConnectionProvider(DataSource dataSource) {
+        this.targetDataSource = dataSource instanceof LazyConnectionDataSourceProxy lazy
+            && lazy.getTargetDataSource() != null ? lazy.getTargetDataSource() : dataSource;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return getConnection(TenantContext.DEFAULT_TENANT);
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenantIdentifier) throws SQLException {
+        return tenantDataSources.computeIfAbsent(tenantIdentifier, this::createTenantDataSource)
+            .getConnection();
+    }
+
+    @Override
+    public void releaseConnection(String tenantIdentifier, Connection connection)
+        throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType)) {
+            return (T) this;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    private DataSource createTenantDataSource(String tenant) {
+        return new LazyConnectionDataSourceProxy(new TenantSchemaDataSource(targetDataSource,
+            tenant));
+    }
+}
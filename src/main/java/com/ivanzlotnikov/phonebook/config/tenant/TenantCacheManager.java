@@ -0,0 +1,63 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * Менеджер кэшей, разделяющий каждый кэш по арендаторам. Кэш одного арендатора ограничен по
+ * количеству записей: при переполнении он очищается целиком, не затрагивая других арендаторов.
+ */
+@RequiredArgsConstructor
+public class TenantCacheManager implements CacheManager {
+
+    private static final String NAME_SEPARATOR = ":";
+
+    private final int maxEntriesPerTenant;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public Cache getCache(String name) {
+        String tenantCacheName = TenantContext.getCurrentTenant() + NAME_SEPARATOR + name;
+        return caches.computeIfAbsent(tenantCacheName,
+            cacheName -> new BoundedCache(cacheName, maxEntriesPerTenant));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return List.copyOf(caches.keySet());
+    }
+
+    private static final class BoundedCache extends ConcurrentMapCache {
+
+        private final int maxEntries;
+
+        private BoundedCache(String name, int maxEntries) {
+            super(name);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            evictIfFull(key);
+            super.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            evictIfFull(key);
+            return super.putIfAbsent(key, value);
+        }
+
+        private void evictIfFull(Object key) {
+            if (getNativeCache().size() >= maxEntries && !getNativeCache().containsKey(key)) {
+                clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+/**
+ * Хранит идентификатор текущего арендатора (организации) для потока выполнения.
+ * Идентификатор совпадает с именем схемы базы данных арендатора. Если арендатор не
+ * установлен, используется схема по умолчанию.
+ */
+public final class TenantContext {
+
+    /**
+     * Арендатор по умолчанию: основная схема базы данных.
+     */
+    public static final String DEFAULT_TENANT = "public";
+
+    private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Возвращает текущего арендатора.
+     *
+     * @return идентификатор арендатора или арендатор по умолчанию, если он не установлен
+     */
+    public static String getCurrentTenant() {
+        String tenant = CURRENT_TENANT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    /**
+     * Устанавливает текущего арендатора для потока.
+     *
+     * @param tenant идентификатор арендатора
+     */
+    public static void setCurrentTenant(String tenant) {
+        CURRENT_TENANT.set(tenant);
+    }
+
+    /**
+     * Сбрасывает текущего арендатора потока.
+     */
+    public static void clear() {
+        CURRENT_TENANT.remove();
+    }
+
+    /**
+     * Выполняет задачу от имени арендатора и восстанавливает предыдущего арендатора потока.
+     *
+     * @param tenant идентификатор арендатора
+     * @param task   задача
+     */
+    public static void runAs(String tenant, Runnable task) {
+        String previous = CURRENT_TENANT.get();
+        CURRENT_TENANT.set(tenant);
+        try {
+            task.run();
+        } finally {
+            if (previous != null) {
+                CURRENT_TENANT.set(previous);
+            } else {
+                CURRENT_TENANT.remove();
+            }
+        }
+    }
+}
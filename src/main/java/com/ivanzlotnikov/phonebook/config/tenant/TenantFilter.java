@@ -0,0 +1,92 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+import com.ivanzlotnikov.phonebook.util.StringUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Фильтр, определяющий арендатора запроса по заголовку или имени хоста. Выполняется раньше
+ * фильтров Spring Security, поэтому вход в систему и все запросы к базе данных идут в схему
+ * арендатора. HTTP-сессия привязывается к арендатору, в котором была создана: сессия,
+ * предъявленная другому арендатору, аннулируется.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TenantFilter extends OncePerRequestFilter {
+
+    static final String SESSION_TENANT_ATTRIBUTE = TenantFilter.class.getName() + ".TENANT";
+
+    private final TenantProperties tenantProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        String tenant = resolveTenant(request);
+        if (tenant == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown tenant");
+            return;
+        }
+
+        invalidateForeignSession(request, tenant);
+        TenantContext.setCurrentTenant(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bindSession(request, tenant);
+            TenantContext.clear();
+        }
+    }
+
+    private String resolveTenant(HttpServletRequest request) {
+        String header = request.getHeader(tenantProperties.getHeader());
+        if (StringUtils.isNotBlank(header)) {
+            String tenant = header.trim().toLowerCase(Locale.ROOT);
+            return tenantProperties.isKnownTenant(tenant) ? tenant : null;
+        }
+
+        String host = request.getServerName();
+        int dot = host != null ? host.indexOf('.') : -1;
+        if (dot > 0) {
+            String subdomain = host.substring(0, dot).toLowerCase(Locale.ROOT);
+            if (tenantProperties.isKnownTenant(subdomain)) {
+                return subdomain;
+            }
+        }
+        return TenantContext.DEFAULT_TENANT;
+    }
+
+    private void invalidateForeignSession(HttpServletRequest request, String tenant) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return;
+        }
+        Object boundTenant = session.getAttribute(SESSION_TENANT_ATTRIBUTE);
+        if (!tenant.equals(boundTenant)) {
+            log.warn("Session bound to tenant {} used for tenant {}, invalidating", boundTenant,
+                tenant);
+            session.invalidate();
+        }
+    }
+
+    private void bindSession(HttpServletRequest request, String tenant) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return;
+        }
+        try {
+            if (session.getAttribute(SESSION_TENANT_ATTRIBUTE) == null) {
+                session.setAttribute(SESSION_TENANT_ATTRIBUTE, tenant);
+            }
+        } catch (IllegalStateException e) {
+            log.debug("Session invalidated during request, tenant binding skipped");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки многоарендного режима. Каждый арендатор хранит данные в собственной схеме
+ * базы данных с именем, совпадающим с идентификатором арендатора.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.tenant")
+public class TenantProperties {
+
+    /**
+     * Включает многоарендный режим.
+     */
+    private boolean enabled;
+
+    /**
+     * HTTP-заголовок с идентификатором арендатора. Если заголовок не передан, арендатор
+     * определяется по первому сегменту имени хоста.
+     */
+    private String header = "X-Tenant-ID";
+
+    /**
+     * Идентификаторы (имена схем) арендаторов помимо арендатора по умолчанию.
+     */
+    private List<String> tenants = new ArrayList<>();
+
+    /**
+     * Максимальное количество ключей в каждом индексе дубликатов одного арендатора. При
+     * превышении индекс арендатора отключается, и проверки выполняются в базе данных.
+     */
+    private int maxIndexKeys = 100_000;
+
+    /**
+     * Максимальное количество записей в каждом кэше одного арендатора.
+     */
+    private int maxCacheEntries = 1_000;
+
+    /**
+     * Возвращает всех арендаторов, включая арендатора по умолчанию. В одноарендном режиме
+     * возвращает только арендатора по умолчанию.
+     *
+     * @return список идентификаторов арендаторов
+     */
+    public List<String> getAllTenants() {
+        Set<String> all = new LinkedHashSet<>();
+        all.add(TenantContext.DEFAULT_TENANT);
+        if (enabled) {
+            all.addAll(tenants);
+        }
+        return List.copyOf(all);
+    }
+
+    /**
+     * Проверяет, что арендатор известен приложению.
+     *
+     * @param tenant идентификатор арендатора
+     * @return true, если арендатор настроен
+     */
+    public boolean isKnownTenant(String tenant) {
+        return getAllTenants().contains(tenant);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Источник данных, переключающий каждое выданное соединение на схему арендатора.
+ * Пул соединений общий для всех арендаторов; HikariCP возвращает схему по умолчанию при
+ * возврате соединения в пул.
+ */
+public class TenantSchemaDataSource extends DelegatingDataSource {
+
+    private final String schema;
+
+    /**
+     * Создает источник данных для схемы арендатора.
+     *
+     * @param targetDataSource общий источник данных
+     * @param schema           имя схемы арендатора
+     */
+    public TenantSchemaDataSource(DataSource targetDataSource, String schema) {
+        super(targetDataSource);
+        this.schema = schema;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withSchema(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withSchema(super.getConnection(username, password));
+    }
+
+    private Connection withSchema(Connection connection) throws SQLException {
+        try {
+            connection.setSchema(schema);
+            return connection;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Общая конфигурация поддержки арендаторов, действующая в любом режиме. Передает текущего
+ * арендатора в потоки асинхронных задач (@Async).
+ */
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+public class TenantSupportConfig {
+
+    /**
+     * Создает декоратор задач, переносящий арендатора вызывающего потока в поток исполнителя.
+     *
+     * @return декоратор асинхронных задач
+     */
+    @Bean
+    public TaskDecorator tenantTaskDecorator() {
+        return task -> {
+            String tenant = TenantContext.getCurrentTenant();
+            return () -> TenantContext.runAs(tenant, task);
+        };
+    }
+}
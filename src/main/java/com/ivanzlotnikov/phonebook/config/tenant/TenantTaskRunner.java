@@ -0,0 +1,59 @@
+package com.ivanzlotnikov.phonebook.config.tenant;
+
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Выполняет фоновые задачи (загрузку индексов, архивацию, заполнение ключей) для каждого
+ * арендатора по очереди. Ошибка в задаче одного арендатора не прерывает обработку остальных.
+ * Задачи получают соединения из пула фоновых операций.
+ */
+@Slf4j
+@Component
+@Bulkhead(BulkheadType.BATCH)
+public class TenantTaskRunner {
+
+    private final TenantProperties tenantProperties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Создает исполнитель задач по арендаторам.
+     *
+     * @param tenantProperties   настройки многоарендного режима
+     * @param transactionManager менеджер транзакций
+     */
+    public TenantTaskRunner(TenantProperties tenantProperties,
+        PlatformTransactionManager transactionManager) {
+        this.tenantProperties = tenantProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Выполняет задачу от имени каждого арендатора.
+     *
+     * @param task задача
+     */
+    public void forEachTenant(Runnable task) {
+        for (String tenant : tenantProperties.getAllTenants()) {
+            try {
+                TenantContext.runAs(tenant, task);
+            } catch (RuntimeException e) {
+                log.error("Background task failed for tenant {}", tenant, e);
+            }
+        }
+    }
+
+    /**
+     * Выполняет задачу от имени каждого арендатора в отдельной read-only транзакции.
+     *
+     * @param task задача
+     */
+    public void forEachTenantReadOnly(Runnable task) {
+        forEachTenant(() -> readOnlyTransaction.executeWithoutResult(status -> task.run()));
+    }
+}
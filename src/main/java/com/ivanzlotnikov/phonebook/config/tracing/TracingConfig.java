@@ -0,0 +1,157 @@
+package com.ivanzlotnikov.phonebook.config.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivanzlotnikov.phonebook.tracing.service.FileTraceExporter;
+import com.ivanzlotnikov.phonebook.tracing.service.OtlpTraceExporter;
+import com.ivanzlotnikov.phonebook.tracing.service.TraceCollector;
+import com.ivanzlotnikov.phonebook.tracing.service.TraceExporter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Конфигурация трассировки запросов. При phonebook.tracing.enabled=true трассируется доля
+ * запросов: участки открываются на весь запрос, метод контроллера, отрисовку представления,
+ * вызовы сервисов и репозиториев и выполнение SQL-запросов. Медленные трассы доступны
+ * администраторам на странице /traces, все трассы выборки можно выгружать в файл или в
+ * сборщик OTLP.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@RequiredArgsConstructor
+public class TracingConfig implements WebMvcConfigurer {
+
+    private static final String AOP_PACKAGE = "org.springframework.aop";
+
+    private final TracingProperties tracingProperties;
+
+    /**
+     * Создает приемник трасс с выгрузкой, выбранной в настройках.
+     *
+     * @param objectMapper преобразователь в JSON
+     * @return приемник трасс
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "phonebook.tracing", name = "enabled", havingValue = "true")
+    public TraceCollector traceCollector(ObjectMapper objectMapper) {
+        TraceExporter exporter = switch (tracingProperties.getExporter()) {
+            case NONE -> null;
+            case FILE -> new FileTraceExporter(Path.of(tracingProperties.getFilePath()),
+                objectMapper);
+            case OTLP -> new OtlpTraceExporter(tracingProperties.getOtlpEndpoint(),
+                tracingProperties.getServiceName(), objectMapper);
+        };
+        log.info("Request tracing enabled: sample rate {}, exporter {}",
+            tracingProperties.getSampleRate(), tracingProperties.getExporter());
+        return new TraceCollector(tracingProperties, exporter);
+    }
+
+    /**
+     * Регистрирует фильтр выборки трассируемых запросов сразу после фильтра арендатора, чтобы
+     * корневой участок охватывал и фильтры Spring Security.
+     *
+     * @param traceCollector приемник трасс
+     * @return регистрация фильтра
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "phonebook.tracing", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<TracingFilter> tracingFilter(TraceCollector traceCollector) {
+        FilterRegistrationBean<TracingFilter> registration =
+            new FilterRegistrationBean<>(new TracingFilter(tracingProperties, traceCollector));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * Регистрирует перехватчик публичных методов сервисов и репозиториев. Перехватчик
+     * выполняется раньше транзакционного, чтобы участок включал начало и фиксацию транзакции.
+     *
+     * @return советник AOP
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(prefix = "phonebook.tracing", name = "enabled", havingValue = "true")
+    public static Advisor tracingAdvisor() {
+        ClassFilter classFilter = type -> isRepository(type)
+            || AnnotatedElementUtils.hasAnnotation(type, Service.class);
+        StaticMethodMatcher methodMatcher = new StaticMethodMatcher() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers())
+                    && !ReflectionUtils.isObjectMethod(method)
+                    && !method.getDeclaringClass().getName().startsWith(AOP_PACKAGE);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+            new ComposablePointcut(classFilter, methodMatcher), new TracingMethodInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Подключает к Hibernate измерение SQL-запросов.
+     *
+     * @return настройка свойств Hibernate
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "phonebook.tracing", name = "enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer tracingHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new TracingStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                TracingSessionEventListener.class.getName());
+        };
+    }
+
+    /**
+     * Регистрирует перехватчик участков контроллера и представления.
+     *
+     * @param registry реестр перехватчиков
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!tracingProperties.isEnabled()) {
+            return;
+        }
+        registry.addInterceptor(new TracingHandlerInterceptor())
+            .addPathPatterns("/**")
+            .excludePathPatterns("/error", "/actuator/**", "/css/**", "/js/**", "/images/**",
+                "/webjars/**", "/contacts/events");
+    }
+
+    /**
+     * Проверяет, что класс является репозиторием: интерфейсом или прокси Spring Data либо
+     * классом с аннотацией {@link org.springframework.stereotype.Repository}.
+     *
+     * @param type проверяемый класс
+     * @return true для репозиториев
+     */
+    static boolean isRepository(Class<?> type) {
+        return Repository.class.isAssignableFrom(type) || AnnotatedElementUtils.hasAnnotation(
+            type, org.springframework.stereotype.Repository.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ivanzlotnikov.phonebook.config.tracing;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.tracing.dto.TraceRecord;
+import com.ivanzlotnikov.phonebook.tracing.service.RequestTrace;
+import com.ivanzlotnikov.phonebook.tracing.service.TraceCollector;
+import com.ivanzlotnikov.phonebook.tracing.service.TraceContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Фильтр, решающий в начале запроса, попадает ли он в выборку трассировки. Для выбранных
+ * запросов открывает трассу, корневой участок которой охватывает весь запрос, включая фильтры
+ * Spring Security, и передает завершенную трассу в {@link TraceCollector}. Идентификатор
+ * трассы возвращается в заголовке ответа, чтобы медленный запрос можно было найти.
+ */
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+
+    /**
+     * Заголовок ответа с идентификатором трассы.
+     */
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private static final List<String> EXCLUDED_PREFIXES = List.of(
+        "/actuator/", "/css/", "/js/", "/images/", "/webjars/", "/favicon.ico",
+        "/contacts/events");
+
+    private final TracingProperties properties;
+    private final TraceCollector traceCollector;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return EXCLUDED_PREFIXES.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTrace trace = TraceContext.begin(request.getMethod() + " " + request.getRequestURI(),
+            TenantContext.getCurrentTenant(), properties.getMaxSpansPerTrace());
+        response.setHeader(TRACE_ID_HEADER, trace.getTraceId());
+        Throwable error = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            TraceRecord completed = TraceContext.end(response.getStatus(), error);
+            if (completed != null) {
+                traceCollector.complete(completed);
+            }
+        }
+    }
+}
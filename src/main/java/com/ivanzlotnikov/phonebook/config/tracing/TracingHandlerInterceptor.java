@@ -0,0 +1,56 @@
+package com.ivanzlotnikov.phonebook.config.tracing;
+
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanKind;
+import com.ivanzlotnikov.phonebook.tracing.service.TraceContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Перехватчик, измеряющий в трассируемых запросах работу метода контроллера и отрисовку
+ * представления отдельными участками. Ленивые загрузки коллекций во время отрисовки шаблона
+ * попадают в участок представления.
+ */
+public class TracingHandlerInterceptor implements HandlerInterceptor {
+
+    private static final String SPAN_ATTRIBUTE =
+        TracingHandlerInterceptor.class.getName() + ".SPAN";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+        Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && TraceContext.isActive()) {
+            request.setAttribute(SPAN_ATTRIBUTE, TraceContext.startSpan(SpanKind.CONTROLLER,
+                handlerMethod.getBeanType().getSimpleName() + "."
+                + handlerMethod.getMethod().getName()));
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response,
+        Object handler, ModelAndView modelAndView) {
+        if (!(request.getAttribute(SPAN_ATTRIBUTE) instanceof Integer span)) {
+            return;
+        }
+        TraceContext.endSpan(span, null);
+        request.removeAttribute(SPAN_ATTRIBUTE);
+        if (modelAndView != null && modelAndView.hasView()) {
+            String view = modelAndView.getViewName() != null
+                ? modelAndView.getViewName() : String.valueOf(modelAndView.getView());
+            request.setAttribute(SPAN_ATTRIBUTE,
+                TraceContext.startSpan(SpanKind.VIEW, "render " + view));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+        Object handler, Exception ex) {
+        if (request.getAttribute(SPAN_ATTRIBUTE) instanceof Integer span) {
+            TraceContext.endSpan(span, ex);
+            request.removeAttribute(SPAN_ATTRIBUTE);
+        }
+    }
+}
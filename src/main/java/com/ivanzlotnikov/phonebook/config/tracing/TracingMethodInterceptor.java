@@ -0,0 +1,75 @@
+package com.ivanzlotnikov.phonebook.config.tracing;
+
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanKind;
+import com.ivanzlotnikov.phonebook.tracing.service.TraceContext;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Перехватчик вызовов сервисов и репозиториев, открывающий участок на время вызова в
+ * трассируемых запросах. Имя участка ("ContactRepository.findAllWithDepartment") вычисляется
+ * один раз для пары класс-метод.
+ */
+public class TracingMethodInterceptor implements MethodInterceptor {
+
+    private final Map<Class<?>, Map<Method, SpanTarget>> targets = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!TraceContext.isActive()) {
+            return invocation.proceed();
+        }
+        SpanTarget target = resolve(invocation);
+        int span = TraceContext.startSpan(target.kind(), target.name());
+        try {
+            Object result = invocation.proceed();
+            TraceContext.endSpan(span, null);
+            return result;
+        } catch (Throwable e) {
+            TraceContext.endSpan(span, e);
+            throw e;
+        }
+    }
+
+    private SpanTarget resolve(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target != null
+            ? target.getClass() : invocation.getMethod().getDeclaringClass();
+        return targets.computeIfAbsent(targetClass, type -> new ConcurrentHashMap<>())
+            .computeIfAbsent(invocation.getMethod(), method -> describe(target, method));
+    }
+
+    private static SpanTarget describe(Object target, Method method) {
+        // Репозитории Spring Data - прокси, имя берется из пользовательского интерфейса
+        if (target instanceof Advised advised) {
+            for (Class<?> proxied : advised.getProxiedInterfaces()) {
+                if (Repository.class.isAssignableFrom(proxied)
+                    && !proxied.getName().startsWith("org.springframework.")) {
+                    return new SpanTarget(SpanKind.REPOSITORY,
+                        proxied.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        Class<?> userClass = target != null
+            ? AopUtils.getTargetClass(target) : method.getDeclaringClass();
+        SpanKind kind = TracingConfig.isRepository(userClass)
+            ? SpanKind.REPOSITORY : SpanKind.SERVICE;
+        return new SpanTarget(kind, userClass.getSimpleName() + "." + method.getName());
+    }
+
+    /**
+     * Уровень и имя участка для метода.
+     *
+     * @param kind уровень участка
+     * @param name имя участка
+     */
+    private record SpanTarget(SpanKind kind, String name) {
+
+    }
+}
@@ -0,0 +1,100 @@
+package com.ivanzlotnikov.phonebook.config.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки трассировки запросов.
+ */
+@Data
+@ConfigurationProperties(prefix = "phonebook.tracing")
+public class TracingProperties {
+
+    /**
+     * Включает трассировку запросов.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Доля трассируемых запросов (от 0 до 1). Решение принимается в начале запроса; запросы
+     * вне выборки не измеряются.
+     */
+    private double sampleRate = 0.05;
+
+    /**
+     * Порог длительности запроса в миллисекундах, начиная с которого трасса попадает на
+     * страницу медленных запросов.
+     */
+    private long slowRequestMs = 500;
+
+    /**
+     * Количество последних медленных запросов, хранимых для просмотра.
+     */
+    private int slowRequestCapacity = 100;
+
+    /**
+     * Предел количества участков в одной трассе; участки сверх предела только подсчитываются.
+     */
+    private int maxSpansPerTrace = 2_000;
+
+    /**
+     * Куда выгружать трассы.
+     */
+    private Exporter exporter = Exporter.NONE;
+
+    /**
+     * Выгружать только медленные трассы, а не все трассы выборки.
+     */
+    private boolean exportSlowOnly = false;
+
+    /**
+     * Файл для выгрузки трасс построчным JSON (для {@link Exporter#FILE}).
+     */
+    private String filePath = "logs/traces.jsonl";
+
+    /**
+     * Адрес приема трасс в формате OTLP/HTTP JSON (для {@link Exporter#OTLP}).
+     */
+    private String otlpEndpoint = "http://localhost:4318/v1/traces";
+
+    /**
+     * Имя сервиса в выгружаемых трассах.
+     */
+    private String serviceName = "phonebook";
+
+    /**
+     * Емкость буфера трасс, ожидающих выгрузки; при переполнении трассы отбрасываются.
+     */
+    private int exportBufferSize = 1024;
+
+    /**
+     * Максимальное количество трасс в одной выгрузке.
+     */
+    private int exportBatchSize = 128;
+
+    /**
+     * Пауза потока выгрузки при пустом буфере, в миллисекундах.
+     */
+    private long exportIntervalMs = 1_000;
+
+    /**
+     * Назначение выгрузки трасс.
+     */
+    public enum Exporter {
+
+        /**
+         * Трассы не выгружаются, доступна только страница медленных запросов.
+         */
+        NONE,
+
+        /**
+         * Трассы дописываются в локальный файл построчным JSON.
+         */
+        FILE,
+
+        /**
+         * Трассы отправляются сборщику по протоколу OTLP/HTTP в формате JSON.
+         */
+        OTLP
+    }
+}
@@ -0,0 +1,47 @@
+package com.ivanzlotnikov.phonebook.config.tracing;
+
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanKind;
+import com.ivanzlotnikov.phonebook.tracing.service.TraceContext;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Слушатель событий сессии Hibernate, открывающий в трассируемых запросах участки выполнения
+ * SQL-запросов и пакетов, а также ожидания соединения из пула. Так в трассе видны все запросы
+ * к базе, включая пакетные загрузки коллекций, которые выполняются вне методов репозиториев.
+ * Hibernate создает слушатель для каждой сессии.
+ */
+public class TracingSessionEventListener implements SessionEventListener {
+
+    private int connectionSpan = TraceContext.NO_SPAN;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        connectionSpan = TraceContext.startSpan(SpanKind.SQL, "acquire connection");
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        TraceContext.endSpan(connectionSpan, null);
+        connectionSpan = TraceContext.NO_SPAN;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        TraceContext.startStatement("execute statement");
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        TraceContext.endStatement();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        TraceContext.startStatement("execute batch");
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        TraceContext.endStatement();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ivanzlotnikov.phonebook.config.tracing;
+
+import com.ivanzlotnikov.phonebook.tracing.service.TraceContext;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Запоминает текст каждого SQL-запроса перед его подготовкой, чтобы участок выполнения
+ * запроса в трассе был назван его текстом. Текст не изменяется.
+ */
+public class TracingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        TraceContext.prepareStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ivanzlotnikov.phonebook.contact.controller;
+
+import com.ivanzlotnikov.phonebook.contact.dto.ContactDTO;
+import com.ivanzlotnikov.phonebook.contact.service.ContactArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+/**
+ * Контроллер архива контактов. Позволяет найти удаленного сотрудника в архиве и восстановить
+ * его. Доступен только для администраторов.
+ */
+@Slf4j
+@Controller
+@RequestMapping("/contacts/archive")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ContactArchiveController {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ContactArchiveService contactArchiveService;
+
+    /**
+     * Отображает архив контактов с поиском по началу ФИО.
+     *
+     * @param searchQuery начало ФИО для поиска
+     * @param page        номер страницы
+     * @param model       модель для передачи данных в представление
+     * @return имя шаблона архива
+     */
+    @GetMapping
+    public String listArchive(@RequestParam(value = "search", required = false) String searchQuery,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        Model model) {
+        Page<ContactDTO> archivePage = contactArchiveService.search(searchQuery,
+            PageRequest.of(Math.max(page, 0), PAGE_SIZE, Sort.by("fullName").ascending()));
+        model.addAttribute("contacts", archivePage.getContent());
+        model.addAttribute("page", archivePage.getNumber());
+        model.addAttribute("totalPages", archivePage.getTotalPages());
+        model.addAttribute("totalElements", archivePage.getTotalElements());
+        return "contacts/archive";
+    }
+
+    /**
+     * Восстанавливает контакт из архива.
+     *
+     * @param id                 идентификатор архивной записи
+     * @param redirectAttributes атрибуты для передачи сообщений
+     * @return редирект на архив
+     */
+    @PostMapping("/restore/{id}")
+    public String restoreContact(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        contactArchiveService.restore(id);
+        redirectAttributes.addFlashAttribute("successMessage", "Контакт восстановлен из архива");
+        return "redirect:/contacts/archive";
+    }
+}
@@ -5,11 +5,17 @@ import com.ivanzlotnikov.phonebook.contact.dto.ContactFormDTO;
 import com.ivanzlotnikov.phonebook.contact.dto.SearchContext;
 import com.ivanzlotnikov.phonebook.contact.mapper.ContactMapper;
 import com.ivanzlotnikov.phonebook.contact.service.ContactService;
-import com.ivanzlotnikov.phonebook.department.dto.DepartmentDTO;
 import com.ivanzlotnikov.phonebook.department.service.DepartmentService;
+import com.ivanzlotnikov.phonebook.exception.InvalidDataException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,6 +24,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,7 +33,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 
 /**
  * Контроллер для управления контактами через веб-интерфейс. Обрабатывает HTTP-запросы для операций
@@ -41,17 +50,24 @@ public class ContactController {
     private static final int DEFAULT_PAGE_SIZE = 20;
     private static final int MAX_PAGE_SIZE = 100;
     private static final int PAGINATION_WINDOW = 3;
+    private static final int DEFAULT_PRINT_SIZE = 500;
+    private static final int MAX_PRINT_SIZE = 1000;
+    private static final int PRINT_FLUSH_CHUNK = 50;
+    private static final String PRINT_VIEW = "contacts/print";
 
     private static final String CONTACT_CREATED_MESSAGE = "Контакт успешно создан";
     private static final String CONTACT_UPDATED_MESSAGE = "Контакт успешно обновлен";
     private static final String CONTACT_DELETED_MESSAGE = "Контакт успешно удален";
     private static final String CONTACTS_DELETED_MESSAGE_PREFIX = "Успешно удалено контактов: ";
+    private static final String CONTACTS_MOVED_MESSAGE_PREFIX = "Перенесено контактов: ";
+    private static final String CONTACTS_UPDATED_MESSAGE_PREFIX = "Обновлено контактов: ";
 
     private final ContactService contactService;
     private final DepartmentService departmentService;
     private final ContactMapper contactMapper;
     private final ContactValidator contactValidator;
     private final ContactRedirectBuilder redirectBuilder;
+    private final ThymeleafViewResolver thymeleafViewResolver;
 
     /**
      * Отображает список всех контактов с пагинацией, поиском и фильтрацией. Поддерживает
@@ -76,16 +92,84 @@ public class ContactController {
         SearchContext searchContext = new SearchContext(searchQuery, departmentId, page);
         Pageable pageable = createPageable(page, size);
         Page<ContactDTO> contactsPage = fetchContacts(searchContext, pageable);
-        List<DepartmentDTO> allDepartments = departmentService.findAll();
 
         log.info("Found {} contacts for search query '{}'", contactsPage.getTotalElements(), searchQuery);
 
         addPaginationAttributes(model, contactsPage, pageable.getPageNumber());
-        addContactAttributes(model, contactsPage, allDepartments);
+        addContactAttributes(model, contactsPage);
+        departmentService.findOption(departmentId)
+            .ifPresent(option -> model.addAttribute("departmentOption", option));
 
         return "contacts/list";
     }
 
+    /**
+     * Отображает версию списка контактов для печати с большим количеством строк. Страница
+     * рендерится потоково: строки загружаются из базы данных порциями и отправляются клиенту
+     * по мере загрузки, поэтому время до первого байта и расход памяти не зависят от размера
+     * страницы, а соединение с базой не удерживается на время передачи.
+     *
+     * @param departmentId необязательный параметр для фильтрации по департаменту
+     * @param searchQuery  необязательный параметр для поиска по имени
+     * @param page         номер страницы (по умолчанию 0)
+     * @param size         количество строк (по умолчанию 500, не более 1000)
+     * @param locale       локаль запроса
+     * @param request      HTTP-запрос
+     * @param response     HTTP-ответ, в который пишется страница
+     * @throws Exception в случае ошибки рендеринга
+     */
+    @GetMapping("/print")
+    public void printContacts(@RequestParam(value = "dept", required = false) Long departmentId,
+        @RequestParam(value = "search", required = false) String searchQuery,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        @RequestParam(value = "size", defaultValue = "500") int size,
+        Locale locale,
+        HttpServletRequest request,
+        HttpServletResponse response) throws Exception {
+        int normalizedSize = (size <= 0 || size > MAX_PRINT_SIZE) ? DEFAULT_PRINT_SIZE : size;
+        Pageable pageable = PageRequest.of(Math.max(page, 0), normalizedSize,
+            Sort.by("fullName").ascending());
+        SearchContext searchContext = new SearchContext(searchQuery, departmentId, page);
+        View view = thymeleafViewResolver.resolveViewName(PRINT_VIEW, locale);
+
+        contactService.streamContacts(searchContext, pageable, contacts -> {
+            ExtendedModelMap model = new ExtendedModelMap();
+            model.addAttribute("contacts", flushingIterator(contacts.iterator(), response));
+            model.addAttribute("firstRow", pageable.getOffset() + 1);
+            model.addAttribute("searchQuery", searchContext.getNormalizedSearchQuery());
+            try {
+                view.render(model, request, response);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to render " + PRINT_VIEW, e);
+            }
+        });
+    }
+
+    private Iterator<ContactDTO> flushingIterator(Iterator<ContactDTO> contacts,
+        HttpServletResponse response) {
+        AtomicInteger rendered = new AtomicInteger();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return contacts.hasNext();
+            }
+
+            @Override
+            public ContactDTO next() {
+                if (rendered.incrementAndGet() % PRINT_FLUSH_CHUNK == 0) {
+                    try {
+                        response.flushBuffer();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return contacts.next();
+            }
+        };
+    }
+
     private Pageable createPageable(int page, int size) {
         int normalizedSize = (size <= 0 || size > MAX_PAGE_SIZE) ? DEFAULT_PAGE_SIZE : size;
         int normalizedPage = Math.max(page, 0);
@@ -120,13 +204,9 @@ public class ContactController {
         model.addAttribute("totalElements", page.getTotalElements());
     }
 
-    private void addContactAttributes(Model model, Page<ContactDTO> contactsPage,
-        List<DepartmentDTO> departments) {
+    private void addContactAttributes(Model model, Page<ContactDTO> contactsPage) {
         model.addAttribute("contactsPage", contactsPage);
         model.addAttribute("contacts", contactsPage.getContent());
-        model.addAttribute("departments", departments);
-        model.addAttribute("departmentMap", departments.stream()
-            .collect(Collectors.toMap(DepartmentDTO::getId, DepartmentDTO::getName)));
     }
 
     /**
@@ -168,7 +248,8 @@ public class ContactController {
 
     private void addFormAttributes(Model model, ContactFormDTO contactFormDTO) {
         model.addAttribute("contact", contactFormDTO);
-        model.addAttribute("departments", departmentService.findAllForForms());
+        departmentService.findOption(contactFormDTO.getDepartmentId())
+            .ifPresent(option -> model.addAttribute("departmentOption", option));
     }
 
     /**
@@ -261,6 +342,84 @@ public class ContactController {
         return buildRedirectUrl(searchContext);
     }
 
+    /**
+     * Переносит выбранные контакты в другой департамент.
+     *
+     * @param contactIds         список идентификаторов контактов
+     * @param targetDepartmentId идентификатор целевого департамента
+     * @param redirectAttributes атрибуты для передачи сообщений
+     * @return редирект на список контактов
+     */
+    @PostMapping("/bulk/move")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String moveContacts(
+        @RequestParam(value = "contactIds", required = false) List<Long> contactIds,
+        @RequestParam(value = "targetDepartmentId", required = false) Long targetDepartmentId,
+        @RequestParam(value = "search", required = false) String searchQuery,
+        @RequestParam(value = "dept", required = false) Long departmentId,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        RedirectAttributes redirectAttributes) {
+
+        SearchContext searchContext = new SearchContext(searchQuery, departmentId, page);
+
+        requireTargetDepartment(targetDepartmentId);
+        int moved = contactService.moveToDepartment(contactIds, targetDepartmentId);
+        redirectAttributes.addFlashAttribute("successMessage",
+            CONTACTS_MOVED_MESSAGE_PREFIX + moved);
+        return buildRedirectUrl(searchContext);
+    }
+
+    /**
+     * Переносит все контакты департамента (и его поддепартаментов) в другой департамент.
+     *
+     * @param sourceDepartmentId    идентификатор исходного департамента
+     * @param targetDepartmentId    идентификатор целевого департамента
+     * @param includeSubdepartments переносить ли контакты поддепартаментов
+     * @param redirectAttributes    атрибуты для передачи сообщений
+     * @return редирект на список контактов целевого департамента
+     */
+    @PostMapping("/bulk/move-department")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String moveDepartmentContacts(
+        @RequestParam("sourceDepartmentId") Long sourceDepartmentId,
+        @RequestParam(value = "targetDepartmentId", required = false) Long targetDepartmentId,
+        @RequestParam(value = "includeSubdepartments", defaultValue = "false")
+        boolean includeSubdepartments,
+        RedirectAttributes redirectAttributes) {
+
+        requireTargetDepartment(targetDepartmentId);
+        int moved = contactService.moveDepartmentContacts(sourceDepartmentId, targetDepartmentId,
+            includeSubdepartments);
+        redirectAttributes.addFlashAttribute("successMessage",
+            CONTACTS_MOVED_MESSAGE_PREFIX + moved);
+        return redirectBuilder.buildRedirectUrl(null, targetDepartmentId, 0);
+    }
+
+    /**
+     * Изменяет должность у выбранных контактов.
+     *
+     * @param contactIds         список идентификаторов контактов
+     * @param position           новая должность
+     * @param redirectAttributes атрибуты для передачи сообщений
+     * @return редирект на список контактов
+     */
+    @PostMapping("/bulk/position")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String changePosition(
+        @RequestParam(value = "contactIds", required = false) List<Long> contactIds,
+        @RequestParam("position") String position,
+        @RequestParam(value = "search", required = false) String searchQuery,
+        @RequestParam(value = "dept", required = false) Long departmentId,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        RedirectAttributes redirectAttributes) {
+
+        SearchContext searchContext = new SearchContext(searchQuery, departmentId, page);
+
+        int updated = contactService.changePosition(contactIds, position);
+        redirectAttributes.addFlashAttribute("successMessage",
+            CONTACTS_UPDATED_MESSAGE_PREFIX + updated);
+        return buildRedirectUrl(searchContext);
+    }
 
     private void addSearchContextToModel(Model model, SearchContext searchContext) {
         model.addAttribute("returnSearch", searchContext.getSearchQuery());
@@ -268,6 +427,16 @@ public class ContactController {
         model.addAttribute("returnPage", searchContext.getPage());
     }
 
+    /**
+     * Проверяет, что целевое подразделение выбрано: выбор подразделения может быть отправлен
+     * пустым.
+     */
+    private static void requireTargetDepartment(Long targetDepartmentId) {
+        if (targetDepartmentId == null) {
+            throw InvalidDataException.forField("targetDepartmentId", "Выберите подразделение");
+        }
+    }
+
     private String buildRedirectUrl(SearchContext searchContext) {
         return redirectBuilder.buildRedirectUrl(
             searchContext.getSearchQuery(),
@@ -0,0 +1,46 @@
+package com.ivanzlotnikov.phonebook.contact.controller;
+
+import com.ivanzlotnikov.phonebook.config.events.DirectoryEventBroadcaster;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Контроллер потока изменений справочника. Страница списка контактов подписывается на него,
+ * чтобы узнавать об изменениях других пользователей без периодической перезагрузки.
+ */
+@RestController
+@RequestMapping("/contacts/events")
+@RequiredArgsConstructor
+public class ContactEventController {
+
+    private static final String RETRY_AFTER_SECONDS = "30";
+
+    private final DirectoryEventBroadcaster directoryEventBroadcaster;
+
+    /**
+     * Открывает поток событий изменения справочника текущего арендатора.
+     *
+     * @return SSE-поток или 503, если достигнут предел подписчиков
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe() {
+        SseEmitter emitter = directoryEventBroadcaster.subscribe(TenantContext.getCurrentTenant());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+            .header("X-Accel-Buffering", "no")
+            .body(emitter);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ivanzlotnikov.phonebook.contact.controller;
+
+import com.ivanzlotnikov.phonebook.contact.dto.ContactDTO;
+import com.ivanzlotnikov.phonebook.contact.mapper.ContactMapper;
+import com.ivanzlotnikov.phonebook.contact.snapshot.DirectoryReadModel;
+import com.ivanzlotnikov.phonebook.contact.snapshot.DirectorySnapshotFormat;
+import com.ivanzlotnikov.phonebook.contact.snapshot.DirectorySnapshotService;
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotFile;
+import com.ivanzlotnikov.phonebook.exception.InvalidDataException;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер выгрузки двоичного снимка справочника для офлайн-клиентов. Поддерживает
+ * условные запросы по ETag (304 без тела, если снимок не изменился) и докачку по Range.
+ * Отдельные контакты из того же снимка можно запросить по идентификаторам, например, получив
+ * событие об их изменении.
+ */
+@RestController
+@RequestMapping("/contacts/snapshot")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "phonebook.snapshot", name = "enabled", havingValue = "true")
+public class ContactSnapshotController {
+
+    private static final String RETRY_AFTER_SECONDS = "10";
+    private static final String FILE_NAME = "phonebook.snapshot";
+    private static final int MAX_LOOKUP_IDS = 100;
+    private static final MediaType SNAPSHOT_MEDIA_TYPE =
+        MediaType.parseMediaType(DirectorySnapshotFormat.MEDIA_TYPE);
+
+    private final DirectorySnapshotService directorySnapshotService;
+    private final ContactMapper contactMapper;
+
+    /**
+     * Отдает текущий снимок справочника. Если заголовок If-Range не совпадает с текущей
+     * версией, снимок отдается целиком, чтобы клиент не склеил части разных версий.
+     *
+     * @param ifRange значение заголовка If-Range
+     * @return снимок, его часть, 304 или 503, если снимок еще не построен
+     */
+    @GetMapping
+    public ResponseEntity<?> download(
+        @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
+        Optional<SnapshotFile> current = directorySnapshotService.getCurrent();
+        if (current.isEmpty()) {
+            return notReady();
+        }
+        SnapshotFile snapshot = current.get();
+        String etag = "\"" + snapshot.etag() + "\"";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .lastModified(snapshot.generatedAt())
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .contentType(SNAPSHOT_MEDIA_TYPE)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(FILE_NAME).build().toString());
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return response.body(snapshot.data());
+        }
+        return response.body(new ByteArrayResource(snapshot.data()));
+    }
+
+    /**
+     * Отдает контакты из текущего снимка по идентификаторам без обращения к базе. Данные
+     * соответствуют версии снимка из заголовка ETag и могут отставать от базы на интервал
+     * перестроения снимка.
+     *
+     * @param ids идентификаторы контактов (не более {@value #MAX_LOOKUP_IDS})
+     * @return найденные контакты в порядке запроса или 503, если снимок еще не построен
+     */
+    @GetMapping("/contacts")
+    public ResponseEntity<List<ContactDTO>> lookup(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw InvalidDataException.forField("ids",
+                "Не более " + MAX_LOOKUP_IDS + " идентификаторов за запрос");
+        }
+        Optional<DirectoryReadModel> current = directorySnapshotService.getReadModel();
+        if (current.isEmpty()) {
+            return notReady();
+        }
+        DirectoryReadModel model = current.get();
+        List<ContactDTO> contacts = ids.stream()
+            .distinct()
+            .map(id -> model.contacts().find(id))
+            .flatMap(Optional::stream)
+            .map(contactMapper::recordToDto)
+            .toList();
+        return ResponseEntity.ok()
+            .eTag("\"" + model.snapshot().etag() + "\"")
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(contacts);
+    }
+
+    private static <T> ResponseEntity<T> notReady() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.ivanzlotnikov.phonebook.contact.controller;
 
 import com.ivanzlotnikov.phonebook.contact.dto.ContactFormDTO;
+import com.ivanzlotnikov.phonebook.contact.service.ContactKeyIndex;
 import com.ivanzlotnikov.phonebook.contact.service.ContactService;
 import com.ivanzlotnikov.phonebook.exception.DuplicateResourceException;
 import lombok.RequiredArgsConstructor;
@@ -8,13 +9,16 @@ import org.springframework.stereotype.Component;
 
 /**
  * Валидатор для проверки контактов на дубликаты. Проверяет существование контакта с аналогичными
- * ФИО и должностью.
+ * ФИО и должностью. Сначала используется индекс в памяти, и только если он не может исключить
+ * дубликат, выполняется запрос к базе. Гонки между одновременными запросами закрывает
+ * уникальное ограничение, проверяемое при сохранении.
  */
 @Component
 @RequiredArgsConstructor
 public class ContactValidator {
 
     private final ContactService contactService;
+    private final ContactKeyIndex contactKeyIndex;
 
     /**
      * Проверяет, является ли контакт дубликатом. Проверка выполняется только для новых контактов
@@ -25,6 +29,8 @@ public class ContactValidator {
      */
     public void checkForDuplicate(ContactFormDTO contactFormDTO) {
         if (contactFormDTO.getId() == null &&
+            !contactKeyIndex.isDefinitelyAbsent(
+                contactFormDTO.getFullName(), contactFormDTO.getPosition()) &&
             contactService.existsByFullNameAndPosition(
                 contactFormDTO.getFullName(),
                 contactFormDTO.getPosition()
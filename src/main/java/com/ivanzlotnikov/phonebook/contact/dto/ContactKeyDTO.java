@@ -0,0 +1,12 @@
+package com.ivanzlotnikov.phonebook.contact.dto;
+
+/**
+ * DTO с уникальным ключом контакта (ФИО и должность).
+ * Используется в JPQL запросах для загрузки индекса дубликатов без загрузки сущностей.
+ *
+ * @param fullName полное имя сотрудника
+ * @param position должность сотрудника
+ */
+public record ContactKeyDTO(String fullName, String position) {
+
+}
@@ -0,0 +1,105 @@
+package com.ivanzlotnikov.phonebook.contact.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Архивная запись контакта. Хранит снимок уволенного или удаленного сотрудника в отдельной
+ * холодной таблице, чтобы основная таблица contacts и таблицы телефонов оставались небольшими.
+ * Телефоны хранятся одной строкой на каждый тип (через разделитель), название департамента —
+ * как снимок на момент архивации.
+ */
+@Entity
+@Table(name = "archived_contacts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchivedContact {
+
+    /**
+     * Разделитель номеров телефонов в архивных колонках.
+     */
+    public static final String PHONE_SEPARATOR = ";";
+
+    private static final int NAME_FIELD_LENGTH = 100;
+    private static final int PHONES_FIELD_LENGTH = 1000;
+
+    /**
+     * Идентификатор исходного контакта.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Полное имя сотрудника (ФИО).
+     */
+    @Column(nullable = false, length = NAME_FIELD_LENGTH)
+    private String fullName;
+
+    /**
+     * Должность сотрудника.
+     */
+    @Column(nullable = false, length = NAME_FIELD_LENGTH)
+    private String position;
+
+    /**
+     * Идентификатор департамента на момент архивации. Без внешнего ключа, так как департамент
+     * может быть удален.
+     */
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    /**
+     * Название департамента на момент архивации.
+     */
+    @Column(name = "department_name", length = NAME_FIELD_LENGTH)
+    private String departmentName;
+
+    /**
+     * Служебные стационарные телефоны через разделитель.
+     */
+    @Column(name = "work_phones", length = PHONES_FIELD_LENGTH)
+    private String workPhones;
+
+    /**
+     * Служебные мобильные телефоны через разделитель.
+     */
+    @Column(name = "work_mobile_phones", length = PHONES_FIELD_LENGTH)
+    private String workMobilePhones;
+
+    /**
+     * Личные телефоны через разделитель.
+     */
+    @Column(name = "personal_phones", length = PHONES_FIELD_LENGTH)
+    private String personalPhones;
+
+    /**
+     * Момент архивации.
+     */
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ArchivedContact)) {
+            return false;
+        }
+        ArchivedContact other = (ArchivedContact) obj;
+        return Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
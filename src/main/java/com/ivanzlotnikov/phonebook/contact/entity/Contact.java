@@ -11,30 +11,41 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.SQLRestriction;
 
 /**
  * Сущность контакта в телефонном справочнике. Представляет информацию о сотруднике организации,
- * включая ФИО, должность, департамент и различные типы телефонных номеров.
+ * включая ФИО, должность, департамент и различные типы телефонных номеров. Пара (ФИО, должность)
+ * уникальна среди неудаленных контактов (частичный уникальный индекс базы данных). Удаление
+ * мягкое: удаленные контакты скрыты от всех запросов сущности и в фоне переносятся в архивную
+ * таблицу {@link ArchivedContact}.
  */
 @Entity
 @Table(name = "contacts")
 @Getter
 @Setter
 @NoArgsConstructor
+@SQLRestriction("deleted_at IS NULL")
 public class Contact {
 
     private static final int NAME_FIELD_LENGTH = 100;
     private static final int PHONE_NUMBER_FIELD_LENGTH = 20;
     private static final int BATCH_SIZE = 50;
+    private static final int SEARCH_KEY_FIELD_LENGTH = 255;
+    private static final String PHONE_ORDER_COLUMN = "phone_order";
 
     private static final String FULL_NAME_MANDATORY = "Full name is mandatory";
     private static final String POSITION_MANDATORY = "Position is mandatory";
@@ -68,37 +79,61 @@ public class Contact {
     private Department department;
 
     /**
-     * Список служебных стационарных телефонных номеров. Хранится в отдельной таблице
-     * contact_work_phones. Использует батчинг для оптимизации загрузки (размер батча 50).
+     * Список служебных стационарных телефонных номеров в порядке ввода. Хранится в отдельной
+     * таблице contact_work_phones. Использует батчинг для оптимизации загрузки (размер батча 50).
+     * Позиция номера хранится в столбце phone_order, поэтому при сохранении изменяются только
+     * строки на позициях, где номер изменился, а не вся коллекция целиком.
      */
     @ElementCollection
     @CollectionTable(name = "contact_work_phones",
         joinColumns = @JoinColumn(name = "contact_id"))
     @Column(name = "phone_number", length = PHONE_NUMBER_FIELD_LENGTH)
+    @OrderColumn(name = PHONE_ORDER_COLUMN)
     @BatchSize(size = BATCH_SIZE)
     private List<String> workPhones = new ArrayList<>();
 
     /**
-     * Список личных телефонных номеров. Хранится в отдельной таблице contact_personal_phones.
-     * Использует батчинг для оптимизации загрузки (размер батча 50).
+     * Список личных телефонных номеров в порядке ввода. Хранится в отдельной таблице
+     * contact_personal_phones. Использует батчинг для оптимизации загрузки (размер батча 50).
      */
     @ElementCollection
     @CollectionTable(name = "contact_personal_phones",
         joinColumns = @JoinColumn(name = "contact_id"))
     @Column(name = "phone_number")
+    @OrderColumn(name = PHONE_ORDER_COLUMN)
     @BatchSize(size = BATCH_SIZE)
     private List<String> personalPhones = new ArrayList<>();
 
     /**
-     * Список служебных мобильных телефонных номеров. Хранится в отдельной таблице
-     * contact_work_mobile_phones. Использует батчинг для оптимизации загрузки (размер батча 50).
+     * Список служебных мобильных телефонных номеров в порядке ввода. Хранится в отдельной
+     * таблице contact_work_mobile_phones. Использует батчинг для оптимизации загрузки (размер
+     * батча 50).
      */
     @ElementCollection
     @CollectionTable(name = "contact_work_mobile_phones", joinColumns = @JoinColumn(name = "contact_id"))
     @Column(name = "phone_number")
+    @OrderColumn(name = PHONE_ORDER_COLUMN)
     @BatchSize(size = BATCH_SIZE)
     private List<String> workMobilePhones = new ArrayList<>();
 
+    /**
+     * Момент мягкого удаления. Null для активных контактов.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    /**
+     * Нормализованные поисковые ключи ФИО (кириллица и варианты транслитерации). Хранятся в
+     * отдельной таблице contact_search_keys с индексом по ключу и вычисляются сервисом при каждой
+     * записи контакта. Используются для поиска по префиксу вместо LIKE-сканирования.
+     */
+    @ElementCollection
+    @CollectionTable(name = "contact_search_keys",
+        joinColumns = @JoinColumn(name = "contact_id"))
+    @Column(name = "search_key", length = SEARCH_KEY_FIELD_LENGTH)
+    @BatchSize(size = BATCH_SIZE)
+    private Set<String> searchKeys = new HashSet<>();
+
     /**
      * Сравнивает текущий контакт с другим объектом на основе идентификатора.
      *
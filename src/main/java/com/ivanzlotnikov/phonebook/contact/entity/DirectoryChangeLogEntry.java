@@ -0,0 +1,83 @@
+package com.ivanzlotnikov.phonebook.contact.entity;
+
+import com.ivanzlotnikov.phonebook.config.events.DirectoryChangeEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Запись журнала изменений справочника. Пишется в той же транзакции, что и само изменение,
+ * поэтому любой экземпляр приложения может догнать свою модель чтения по журналу, начиная
+ * с сохраненной отметки (наибольшего примененного идентификатора записи).
+ */
+@Entity
+@Table(name = "directory_change_log",
+    indexes = @Index(name = "idx_directory_change_log_changed_at", columnList = "changed_at"))
+@Getter
+@NoArgsConstructor
+public class DirectoryChangeLogEntry {
+
+    private static final int TYPE_FIELD_LENGTH = 32;
+
+    /**
+     * Идентификатор записи; возрастает в порядке выдачи, но не обязательно в порядке фиксации.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Тип изменения.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = TYPE_FIELD_LENGTH)
+    private DirectoryChangeEvent.Type changeType;
+
+    /**
+     * Идентификаторы измененных записей; пустой массив означает неизвестный набор.
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "entity_ids", nullable = false)
+    private Long[] entityIds;
+
+    /**
+     * Время изменения.
+     */
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    /**
+     * Создает запись журнала по событию изменения.
+     *
+     * @param event событие изменения справочника
+     * @return запись журнала
+     */
+    public static DirectoryChangeLogEntry of(DirectoryChangeEvent event) {
+        DirectoryChangeLogEntry entry = new DirectoryChangeLogEntry();
+        entry.changeType = event.type();
+        entry.entityIds = event.ids().toArray(Long[]::new);
+        entry.changedAt = Instant.now();
+        return entry;
+    }
+
+    /**
+     * Возвращает идентификаторы измененных записей списком.
+     *
+     * @return идентификаторы измененных записей
+     */
+    public List<Long> getEntityIdList() {
+        return List.of(entityIds);
+    }
+}
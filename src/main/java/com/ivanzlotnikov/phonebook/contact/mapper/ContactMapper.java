@@ -2,7 +2,20 @@ package com.ivanzlotnikov.phonebook.contact.mapper;
 
 import com.ivanzlotnikov.phonebook.contact.dto.ContactDTO;
 import com.ivanzlotnikov.phonebook.contact.dto.ContactFormDTO;
+import com.ivanzlotnikov.phonebook.contact.entity.ArchivedContact;
 import com.ivanzlotnikov.phonebook.contact.entity.Contact;
+import com.ivanzlotnikov.phonebook.contact.store.ContactRecord;
+import com.ivanzlotnikov.phonebook.department.entity.Department;
+import com.ivanzlotnikov.phonebook.util.StringUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import org.springframework.stereotype.Component;
 
 /**
@@ -30,12 +43,68 @@ public class ContactMapper {
             dto.setDepartmentId(entity.getDepartment().getId());
             dto.setDepartmentName(entity.getDepartment().getName());
         }
-        dto.setWorkPhones(entity.getWorkPhones());
-        dto.setWorkMobilePhones(entity.getWorkMobilePhones());
-        dto.setPersonalPhones(entity.getPersonalPhones());
+        dto.setWorkPhones(new ArrayList<>(entity.getWorkPhones()));
+        dto.setWorkMobilePhones(new ArrayList<>(entity.getWorkMobilePhones()));
+        dto.setPersonalPhones(new ArrayList<>(entity.getPersonalPhones()));
         return dto;
     }
 
+    /**
+     * Преобразует сущность Contact в DTO с телефонами, загруженными отдельно. Коллекции
+     * телефонов сущности не затрагиваются и не загружаются.
+     *
+     * @param entity           сущность контакта с загруженным департаментом
+     * @param workPhones       служебные телефоны в порядке ввода
+     * @param workMobilePhones служебные мобильные телефоны в порядке ввода
+     * @param personalPhones   личные телефоны в порядке ввода
+     * @return DTO контакта
+     */
+    public ContactDTO toDto(Contact entity, List<String> workPhones,
+        List<String> workMobilePhones, List<String> personalPhones) {
+        Department department = entity.getDepartment();
+        return new ContactDTO(entity.getId(), entity.getFullName(), entity.getPosition(),
+            department != null ? department.getId() : null,
+            department != null ? department.getName() : null,
+            toList(workPhones), toList(workMobilePhones), toList(personalPhones));
+    }
+
+    /**
+     * Преобразует архивную запись контакта в DTO для отображения.
+     *
+     * @param archived архивная запись контакта
+     * @return DTO контакта или null
+     */
+    public ContactDTO archivedToDto(ArchivedContact archived) {
+        if (archived == null) {
+            return null;
+        }
+        ContactDTO dto = new ContactDTO();
+        dto.setId(archived.getId());
+        dto.setFullName(archived.getFullName());
+        dto.setPosition(archived.getPosition());
+        dto.setDepartmentId(archived.getDepartmentId());
+        dto.setDepartmentName(archived.getDepartmentName());
+        dto.setWorkPhones(splitPhones(archived.getWorkPhones()));
+        dto.setWorkMobilePhones(splitPhones(archived.getWorkMobilePhones()));
+        dto.setPersonalPhones(splitPhones(archived.getPersonalPhones()));
+        return dto;
+    }
+
+    /**
+     * Преобразует контакт из колоночного хранилища в DTO для отображения.
+     *
+     * @param record представление контакта в хранилище
+     * @return DTO контакта или null
+     */
+    public ContactDTO recordToDto(ContactRecord record) {
+        if (record == null) {
+            return null;
+        }
+        return new ContactDTO(record.id(), record.fullName(), record.position(),
+            record.departmentId(), record.departmentName(), record.workPhones(),
+            record.workMobilePhones(), record.personalPhones());
+    }
+
     /**
      * Преобразует FormDTO в сущность Contact для сохранения.
      *
@@ -48,15 +117,100 @@ public class ContactMapper {
         }
         Contact entity = new Contact();
         entity.setId(formDTO.getId());
-        entity.setFullName(formDTO.getFullName());
-        entity.setPosition(formDTO.getPosition());
+        entity.setFullName(StringUtils.trimSafely(formDTO.getFullName()));
+        entity.setPosition(StringUtils.trimSafely(formDTO.getPosition()));
 
-        entity.setWorkPhones(formDTO.getWorkPhones());
-        entity.setWorkMobilePhones(formDTO.getWorkMobilePhones());
-        entity.setPersonalPhones(formDTO.getPersonalPhones());
+        entity.setWorkPhones(toList(formDTO.getWorkPhones()));
+        entity.setWorkMobilePhones(toList(formDTO.getWorkMobilePhones()));
+        entity.setPersonalPhones(toList(formDTO.getPersonalPhones()));
         return entity;
     }
 
+    /**
+     * Переносит данные формы в управляемую сущность Contact. Скалярные поля присваиваются
+     * напрямую (Hibernate сам определит, изменились ли они), а списки телефонов изменяются на
+     * месте по позициям: изменяются только позиции с другим номером, лишние удаляются с конца,
+     * новые добавляются в конец. Порядок ввода и повторяющиеся номера сохраняются. Если данные
+     * не изменились, при сбросе контекста не выполняется ни одного SQL-запроса.
+     *
+     * @param entity  управляемая сущность контакта
+     * @param formDTO DTO с данными из формы
+     */
+    public void updateEntity(Contact entity, ContactFormDTO formDTO) {
+        entity.setFullName(StringUtils.trimSafely(formDTO.getFullName()));
+        entity.setPosition(StringUtils.trimSafely(formDTO.getPosition()));
+        syncPositions(entity.getWorkPhones(), formDTO.getWorkPhones());
+        syncPositions(entity.getWorkMobilePhones(), formDTO.getWorkMobilePhones());
+        syncPositions(entity.getPersonalPhones(), formDTO.getPersonalPhones());
+    }
+
+    /**
+     * Снимает значения полей контакта для журнала аудита. Списки телефонов сохраняют порядок
+     * ввода, поэтому перестановка номеров тоже попадает в журнал как изменение.
+     *
+     * @param entity сущность контакта
+     * @return значения полей по имени поля
+     */
+    public Map<String, Object> toAuditState(Contact entity) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("fullName", entity.getFullName());
+        state.put("position", entity.getPosition());
+        state.put("departmentId",
+            entity.getDepartment() != null ? entity.getDepartment().getId() : null);
+        state.put("workPhones", List.copyOf(entity.getWorkPhones()));
+        state.put("workMobilePhones", List.copyOf(entity.getWorkMobilePhones()));
+        state.put("personalPhones", List.copyOf(entity.getPersonalPhones()));
+        return state;
+    }
+
+    /**
+     * Приводит набор к требуемому составу, изменяя только отличающиеся элементы.
+     *
+     * @param current текущий набор (в том числе коллекция Hibernate)
+     * @param desired требуемый состав набора
+     */
+    public static void syncElements(Set<String> current, Collection<String> desired) {
+        Set<String> target = toSet(desired);
+        current.retainAll(target);
+        current.addAll(target);
+    }
+
+    /**
+     * Приводит список к требуемому составу по позициям: на совпадающих позициях заменяются
+     * только отличающиеся элементы, лишние удаляются с конца, недостающие добавляются в конец.
+     *
+     * @param current текущий список (в том числе индексированная коллекция Hibernate)
+     * @param desired требуемый список
+     */
+    public static void syncPositions(List<String> current, List<String> desired) {
+        List<String> target = toList(desired);
+        int common = Math.min(current.size(), target.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(current.get(i), target.get(i))) {
+                current.set(i, target.get(i));
+            }
+        }
+        while (current.size() > target.size()) {
+            current.remove(current.size() - 1);
+        }
+        current.addAll(target.subList(common, target.size()));
+    }
+
+    private static List<String> splitPhones(String phones) {
+        if (phones == null || phones.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(phones.split(ArchivedContact.PHONE_SEPARATOR)));
+    }
+
+    private static Set<String> toSet(Collection<String> values) {
+        return values == null ? new LinkedHashSet<>() : new LinkedHashSet<>(values);
+    }
+
+    private static List<String> toList(Collection<String> values) {
+        return values == null ? new ArrayList<>() : new ArrayList<>(values);
+    }
+
     /**
      * Преобразует ContactDTO в ContactFormDTO для редактирования.
      *
@@ -0,0 +1,84 @@
+package com.ivanzlotnikov.phonebook.contact.repository;
+
+import com.ivanzlotnikov.phonebook.contact.entity.ArchivedContact;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий для работы с сущностью {@link ArchivedContact}.
+ * Предоставляет множественные операции переноса контактов в архивную таблицу.
+ */
+@Repository
+public interface ArchivedContactRepository extends JpaRepository<ArchivedContact, Long> {
+
+    /**
+     * Копирует в архив все контакты указанных департаментов вместе с телефонами одним
+     * запросом INSERT ... SELECT. Сами контакты не удаляются.
+     *
+     * @param departmentIds список идентификаторов департаментов
+     * @return количество заархивированных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "archived_contacts"))
+    @Query(value = """
+        INSERT INTO archived_contacts (id, full_name, position, department_id, department_name,
+                                       work_phones, work_mobile_phones, personal_phones, archived_at)
+        SELECT c.id, c.full_name, c.position, c.department_id, d.name,
+               (SELECT string_agg(p.phone_number, ';' ORDER BY p.phone_order)
+                FROM contact_work_phones p WHERE p.contact_id = c.id),
+               (SELECT string_agg(p.phone_number, ';' ORDER BY p.phone_order)
+                FROM contact_work_mobile_phones p WHERE p.contact_id = c.id),
+               (SELECT string_agg(p.phone_number, ';' ORDER BY p.phone_order)
+                FROM contact_personal_phones p WHERE p.contact_id = c.id),
+               coalesce(c.deleted_at, now())
+        FROM contacts c
+        LEFT JOIN departments d ON d.id = c.department_id
+        WHERE c.department_id IN (:departmentIds)
+        """, nativeQuery = true)
+    int archiveByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds);
+
+    /**
+     * Копирует в архив контакты с указанными идентификаторами вместе с телефонами одним
+     * запросом INSERT ... SELECT. Сами контакты не удаляются.
+     *
+     * @param ids список идентификаторов контактов
+     * @return количество заархивированных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "archived_contacts"))
+    @Query(value = """
+        INSERT INTO archived_contacts (id, full_name, position, department_id, department_name,
+                                       work_phones, work_mobile_phones, personal_phones, archived_at)
+        SELECT c.id, c.full_name, c.position, c.department_id, d.name,
+               (SELECT string_agg(p.phone_number, ';' ORDER BY p.phone_order)
+                FROM contact_work_phones p WHERE p.contact_id = c.id),
+               (SELECT string_agg(p.phone_number, ';' ORDER BY p.phone_order)
+                FROM contact_work_mobile_phones p WHERE p.contact_id = c.id),
+               (SELECT string_agg(p.phone_number, ';' ORDER BY p.phone_order)
+                FROM contact_personal_phones p WHERE p.contact_id = c.id),
+               coalesce(c.deleted_at, now())
+        FROM contacts c
+        LEFT JOIN departments d ON d.id = c.department_id
+        WHERE c.id IN (:ids)
+        """, nativeQuery = true)
+    int archiveByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Выполняет поиск в архиве по началу ФИО без учета регистра.
+     *
+     * @param prefix   начало ФИО
+     * @param pageable параметры пагинации и сортировки
+     * @return страница найденных архивных контактов
+     */
+    @Query("SELECT a FROM ArchivedContact a WHERE LOWER(a.fullName) LIKE LOWER(concat(:prefix, '%'))")
+    Page<ArchivedContact> searchByFullNamePrefix(@Param("prefix") String prefix, Pageable pageable);
+}
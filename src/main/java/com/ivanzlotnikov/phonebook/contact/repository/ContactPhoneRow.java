@@ -0,0 +1,29 @@
+package com.ivanzlotnikov.phonebook.contact.repository;
+
+/**
+ * Проекция строки телефона контакта при загрузке телефонов нескольких контактов одним
+ * запросом.
+ */
+public interface ContactPhoneRow {
+
+    /**
+     * Вид телефона: служебный.
+     */
+    int WORK = 0;
+
+    /**
+     * Вид телефона: служебный мобильный.
+     */
+    int WORK_MOBILE = 1;
+
+    /**
+     * Вид телефона: личный.
+     */
+    int PERSONAL = 2;
+
+    Long getContactId();
+
+    int getKind();
+
+    String getPhoneNumber();
+}
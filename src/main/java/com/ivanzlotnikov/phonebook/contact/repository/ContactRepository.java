@@ -1,13 +1,19 @@
 package com.ivanzlotnikov.phonebook.contact.repository;
 
+import com.ivanzlotnikov.phonebook.contact.dto.ContactKeyDTO;
 import com.ivanzlotnikov.phonebook.contact.entity.Contact;
+import com.ivanzlotnikov.phonebook.department.entity.Department;
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,19 +21,198 @@ import org.springframework.stereotype.Repository;
  * Репозиторий для работы с сущностью {@link Contact}.
  * Предоставляет методы для выполнения операций CRUD и пользовательских запросов
  * к базе данных контактов с оптимизацией загрузки связанных сущностей.
+ *
+ * <p>Нативные изменяющие запросы объявляют затрагиваемую таблицу: без этого Hibernate после
+ * каждого такого запроса очищает весь кэш второго уровня, включая департаменты и пользователей.
  */
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long> {
 
     /**
-     * Удаляет контакты по списку идентификаторов.
+     * Помечает контакты удаленными (мягкое удаление). Строки остаются в таблице до переноса
+     * в архив фоновой задачей.
      *
      * @param ids список идентификаторов контактов для удаления
      * @return количество удаленных записей
      */
     @Modifying
-    @Query("DELETE FROM Contact c WHERE c.id IN :ids")
-    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contacts"))
+    @Query(value = "UPDATE contacts SET deleted_at = now() WHERE id IN (:ids) AND deleted_at IS NULL",
+        nativeQuery = true)
+    int softDeleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Находит идентификаторы мягко удаленных контактов для переноса в архив и блокирует их строки.
+     * SKIP LOCKED позволяет нескольким экземплярам приложения архивировать разные пакеты.
+     *
+     * @param limit максимальный размер пакета
+     * @return список идентификаторов удаленных контактов
+     */
+    @Query(value = "SELECT id FROM contacts WHERE deleted_at IS NOT NULL ORDER BY id "
+                   + "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDeletedIds(@Param("limit") int limit);
+
+    /**
+     * Удаляет служебные телефоны контактов по их идентификаторам.
+     *
+     * @param ids список идентификаторов контактов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contact_work_phones"))
+    @Query(value = "DELETE FROM contact_work_phones WHERE contact_id IN (:ids)", nativeQuery = true)
+    int deleteWorkPhonesByContactIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Удаляет служебные мобильные телефоны контактов по их идентификаторам.
+     *
+     * @param ids список идентификаторов контактов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES,
+        value = "contact_work_mobile_phones"))
+    @Query(value = "DELETE FROM contact_work_mobile_phones WHERE contact_id IN (:ids)",
+        nativeQuery = true)
+    int deleteWorkMobilePhonesByContactIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Удаляет личные телефоны контактов по их идентификаторам.
+     *
+     * @param ids список идентификаторов контактов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES,
+        value = "contact_personal_phones"))
+    @Query(value = "DELETE FROM contact_personal_phones WHERE contact_id IN (:ids)",
+        nativeQuery = true)
+    int deletePersonalPhonesByContactIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Удаляет поисковые ключи контактов по их идентификаторам.
+     *
+     * @param ids список идентификаторов контактов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contact_search_keys"))
+    @Query(value = "DELETE FROM contact_search_keys WHERE contact_id IN (:ids)", nativeQuery = true)
+    int deleteSearchKeysByContactIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Физически удаляет строки контактов по идентификаторам. Связанные строки телефонов и
+     * поисковых ключей должны быть удалены заранее.
+     *
+     * @param ids список идентификаторов контактов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contacts"))
+    @Query(value = "DELETE FROM contacts WHERE id IN (:ids)", nativeQuery = true)
+    int hardDeleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Переносит контакты с указанными идентификаторами в другой департамент одним запросом.
+     *
+     * @param ids        список идентификаторов контактов
+     * @param department целевой департамент
+     * @return количество обновленных записей
+     */
+    @Modifying
+    @Query("UPDATE Contact c SET c.department = :department WHERE c.id IN :ids")
+    int updateDepartmentByIdIn(@Param("ids") List<Long> ids,
+        @Param("department") Department department);
+
+    /**
+     * Переносит все контакты указанных департаментов в другой департамент одним запросом.
+     *
+     * @param departmentIds список идентификаторов исходных департаментов
+     * @param department    целевой департамент
+     * @return количество обновленных записей
+     */
+    @Modifying
+    @Query("UPDATE Contact c SET c.department = :department WHERE c.department.id IN :departmentIds")
+    int updateDepartmentByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds,
+        @Param("department") Department department);
+
+    /**
+     * Изменяет должность у контактов с указанными идентификаторами одним запросом.
+     *
+     * @param ids      список идентификаторов контактов
+     * @param position новая должность
+     * @return количество обновленных записей
+     */
+    @Modifying
+    @Query("UPDATE Contact c SET c.position = :position WHERE c.id IN :ids")
+    int updatePositionByIdIn(@Param("ids") List<Long> ids, @Param("position") String position);
+
+    /**
+     * Удаляет служебные телефоны всех контактов указанных департаментов.
+     *
+     * @param departmentIds список идентификаторов департаментов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contact_work_phones"))
+    @Query(value = "DELETE FROM contact_work_phones WHERE contact_id IN "
+                   + "(SELECT id FROM contacts WHERE department_id IN (:departmentIds))",
+        nativeQuery = true)
+    int deleteWorkPhonesByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds);
+
+    /**
+     * Удаляет служебные мобильные телефоны всех контактов указанных департаментов.
+     *
+     * @param departmentIds список идентификаторов департаментов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES,
+        value = "contact_work_mobile_phones"))
+    @Query(value = "DELETE FROM contact_work_mobile_phones WHERE contact_id IN "
+                   + "(SELECT id FROM contacts WHERE department_id IN (:departmentIds))",
+        nativeQuery = true)
+    int deleteWorkMobilePhonesByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds);
+
+    /**
+     * Удаляет личные телефоны всех контактов указанных департаментов.
+     *
+     * @param departmentIds список идентификаторов департаментов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES,
+        value = "contact_personal_phones"))
+    @Query(value = "DELETE FROM contact_personal_phones WHERE contact_id IN "
+                   + "(SELECT id FROM contacts WHERE department_id IN (:departmentIds))",
+        nativeQuery = true)
+    int deletePersonalPhonesByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds);
+
+    /**
+     * Удаляет поисковые ключи всех контактов указанных департаментов.
+     *
+     * @param departmentIds список идентификаторов департаментов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contact_search_keys"))
+    @Query(value = "DELETE FROM contact_search_keys WHERE contact_id IN "
+                   + "(SELECT id FROM contacts WHERE department_id IN (:departmentIds))",
+        nativeQuery = true)
+    int deleteSearchKeysByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds);
+
+    /**
+     * Удаляет все контакты указанных департаментов. Связанные строки телефонов и поисковых
+     * ключей должны быть удалены заранее.
+     *
+     * @param departmentIds список идентификаторов департаментов
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contacts"))
+    @Query(value = "DELETE FROM contacts WHERE department_id IN (:departmentIds)",
+        nativeQuery = true)
+    int deleteByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds);
 
     /**
      * Подсчитывает количество контактов в указанном департаменте.
@@ -38,15 +223,76 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
     long countByDepartmentId(@Param("departmentId") Long departmentId);
 
     /**
-     * Выполняет поиск контактов по части имени (без учета регистра).
+     * Подсчитывает контакты всех департаментов одним агрегирующим запросом. Контакты без
+     * департамента возвращаются строкой с пустым идентификатором.
+     *
+     * @return численность по департаментам
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO(d.id, COUNT(c))
+        FROM Contact c LEFT JOIN c.department d
+        GROUP BY d.id
+        """)
+    List<DepartmentHeadcountDTO> countAllByDepartment();
+
+    /**
+     * Подсчитывает указанные контакты по их департаментам. Используется для вычисления
+     * изменения численности перед массовым удалением или переносом.
+     *
+     * @param ids идентификаторы контактов
+     * @return численность по департаментам среди указанных контактов
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO(d.id, COUNT(c))
+        FROM Contact c LEFT JOIN c.department d
+        WHERE c.id IN :ids
+        GROUP BY d.id
+        """)
+    List<DepartmentHeadcountDTO> countByDepartmentForIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Находит идентификаторы действующих контактов указанных департаментов.
+     *
+     * @param departmentIds идентификаторы департаментов
+     * @return идентификаторы контактов
+     */
+    @Query("SELECT c.id FROM Contact c WHERE c.department.id IN :departmentIds")
+    List<Long> findIdsByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds);
+
+    /**
+     * Подсчитывает контакты указанных департаментов.
+     *
+     * @param departmentIds идентификаторы департаментов
+     * @return численность по департаментам (департаменты без контактов не возвращаются)
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO(c.department.id, COUNT(c))
+        FROM Contact c
+        WHERE c.department.id IN :departmentIds
+        GROUP BY c.department.id
+        """)
+    List<DepartmentHeadcountDTO> countByDepartmentIdIn(
+        @Param("departmentIds") List<Long> departmentIds);
+
+    /**
+     * Выполняет поиск контактов по префиксу нормализованного поискового ключа.
+     * Ключи хранятся в таблице contact_search_keys, поэтому поиск использует индекс
+     * вместо последовательного сканирования с LIKE '%...%'.
      * Загружает департамент вместе с контактом для избежания N+1 проблемы.
      *
-     * @param name часть имени для поиска
+     * @param keyPrefix шаблон префикса ключа (например, "ivanov ivan%")
      * @param pageable параметры пагинации и сортировки
      * @return страница найденных контактов с департаментами
      */
-    @Query("SELECT c FROM Contact c LEFT JOIN FETCH c.department WHERE LOWER(c.fullName) LIKE LOWER(concat('%', :name, '%'))")
-    Page<Contact> findByFullNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+    @Query(value = """
+        SELECT c FROM Contact c LEFT JOIN FETCH c.department
+        WHERE c.id IN (SELECT sc.id FROM Contact sc JOIN sc.searchKeys k WHERE k LIKE :keyPrefix)
+        """,
+        countQuery = """
+        SELECT count(c) FROM Contact c
+        WHERE c.id IN (SELECT sc.id FROM Contact sc JOIN sc.searchKeys k WHERE k LIKE :keyPrefix)
+        """)
+    Page<Contact> findBySearchKeyPrefix(@Param("keyPrefix") String keyPrefix, Pageable pageable);
 
     /**
      * Проверяет существование контакта с указанными ФИО и должностью.
@@ -90,16 +336,140 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
     Page<Contact> findByDepartmentIdInWithDepartment(@Param("departmentIds") List<Long> departmentIds, Pageable pageable);
 
     /**
-     * Выполняет поиск контактов по имени в указанных департаментах.
+     * Выполняет поиск контактов по префиксу поискового ключа в указанных департаментах.
      * Комбинированный поиск с фильтрацией по имени и департаментам.
      *
-     * @param name часть имени для поиска (без учета регистра)
+     * @param keyPrefix шаблон префикса нормализованного ключа
      * @param departmentIds список идентификаторов департаментов для фильтрации
      * @param pageable параметры пагинации и сортировки
      * @return страница найденных контактов
      */
-    @Query(value = "SELECT c FROM Contact c LEFT JOIN FETCH c.department d WHERE LOWER(c.fullName) LIKE LOWER(concat('%', :name, '%')) AND d.id IN :departmentIds",
-        countQuery = "SELECT count(c) FROM Contact c WHERE LOWER(c.fullName) LIKE LOWER(concat('%', :name, '%')) AND c.department.id IN :departmentIds")
-    Page<Contact> findByNameAndDepartmentIds(@Param("name") String name, @Param("departmentIds") List<Long> departmentIds, Pageable pageable);
+    @Query(value = """
+        SELECT c FROM Contact c LEFT JOIN FETCH c.department d
+        WHERE c.id IN (SELECT sc.id FROM Contact sc JOIN sc.searchKeys k WHERE k LIKE :keyPrefix)
+        AND d.id IN :departmentIds
+        """,
+        countQuery = """
+        SELECT count(c) FROM Contact c
+        WHERE c.id IN (SELECT sc.id FROM Contact sc JOIN sc.searchKeys k WHERE k LIKE :keyPrefix)
+        AND c.department.id IN :departmentIds
+        """)
+    Page<Contact> findBySearchKeyPrefixAndDepartmentIds(@Param("keyPrefix") String keyPrefix,
+        @Param("departmentIds") List<Long> departmentIds, Pageable pageable);
+
+    /**
+     * Выбирает идентификаторы контактов диапазона без подсчета общего количества. Используется
+     * для печати: контакты диапазона затем загружаются порциями по идентификаторам.
+     *
+     * @param pageable смещение, размер диапазона и сортировка
+     * @return идентификаторы контактов в порядке сортировки
+     */
+    @Query("SELECT c.id FROM Contact c")
+    List<Long> findRangeIds(Pageable pageable);
+
+    /**
+     * Выбирает идентификаторы контактов указанных департаментов.
+     *
+     * @param departmentIds список идентификаторов департаментов
+     * @param pageable      смещение, размер диапазона и сортировка
+     * @return идентификаторы контактов в порядке сортировки
+     */
+    @Query("SELECT c.id FROM Contact c WHERE c.department.id IN :departmentIds")
+    List<Long> findRangeIdsByDepartmentIdIn(@Param("departmentIds") List<Long> departmentIds,
+        Pageable pageable);
+
+    /**
+     * Выбирает идентификаторы контактов по префиксу поискового ключа.
+     *
+     * @param keyPrefix шаблон префикса нормализованного ключа
+     * @param pageable  смещение, размер диапазона и сортировка
+     * @return идентификаторы контактов в порядке сортировки
+     */
+    @Query("""
+        SELECT c.id FROM Contact c
+        WHERE c.id IN (SELECT sc.id FROM Contact sc JOIN sc.searchKeys k WHERE k LIKE :keyPrefix)
+        """)
+    List<Long> findRangeIdsBySearchKeyPrefix(@Param("keyPrefix") String keyPrefix,
+        Pageable pageable);
+
+    /**
+     * Выбирает идентификаторы контактов по префиксу поискового ключа в указанных департаментах.
+     *
+     * @param keyPrefix     шаблон префикса нормализованного ключа
+     * @param departmentIds список идентификаторов департаментов
+     * @param pageable      смещение, размер диапазона и сортировка
+     * @return идентификаторы контактов в порядке сортировки
+     */
+    @Query("""
+        SELECT c.id FROM Contact c
+        WHERE c.id IN (SELECT sc.id FROM Contact sc JOIN sc.searchKeys k WHERE k LIKE :keyPrefix)
+        AND c.department.id IN :departmentIds
+        """)
+    List<Long> findRangeIdsBySearchKeyPrefixAndDepartmentIds(@Param("keyPrefix") String keyPrefix,
+        @Param("departmentIds") List<Long> departmentIds, Pageable pageable);
+
+    /**
+     * Загружает контакты с департаментами по списку идентификаторов. Телефоны не загружаются.
+     *
+     * @param ids идентификаторы контактов
+     * @return найденные контакты в произвольном порядке
+     */
+    @Query("SELECT c FROM Contact c LEFT JOIN FETCH c.department WHERE c.id IN :ids")
+    List<Contact> findAllWithDepartmentByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Выбирает телефоны всех трех видов для контактов по списку идентификаторов одним запросом.
+     *
+     * @param ids идентификаторы контактов
+     * @return строки телефонов в порядке ввода внутри каждого контакта
+     */
+    @Query(value = """
+        SELECT p.contact_id AS contactId, p.kind AS kind, p.phone_number AS phoneNumber
+        FROM (SELECT contact_id, 0 AS kind, phone_number, phone_order FROM contact_work_phones
+              WHERE contact_id IN (:ids)
+              UNION ALL
+              SELECT contact_id, 1 AS kind, phone_number, phone_order FROM contact_work_mobile_phones
+              WHERE contact_id IN (:ids)
+              UNION ALL
+              SELECT contact_id, 2 AS kind, phone_number, phone_order FROM contact_personal_phones
+              WHERE contact_id IN (:ids)) p
+        ORDER BY p.phone_order
+        """, nativeQuery = true)
+    List<ContactPhoneRow> findPhonesByContactIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Находит идентификаторы контактов, для которых еще не построены поисковые ключи.
+     * Используется для пакетного заполнения ключей у существующих записей. Выборка идет по
+     * возрастанию идентификатора после курсора, поэтому контакты, для имени которых ключей не
+     * получается, не выбираются повторно.
+     *
+     * @param afterId  идентификатор последнего обработанного контакта
+     * @param pageable ограничение размера пакета
+     * @return список идентификаторов контактов без поисковых ключей
+     */
+    @Query("""
+        SELECT c.id FROM Contact c
+        WHERE c.id > :afterId AND c.searchKeys IS EMPTY
+        ORDER BY c.id
+        """)
+    List<Long> findIdsWithoutSearchKeys(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Загружает пары (ФИО, должность) всех контактов без загрузки сущностей.
+     * Используется для построения индекса дубликатов в памяти.
+     *
+     * @return список уникальных ключей контактов
+     */
+    @Query("SELECT new com.ivanzlotnikov.phonebook.contact.dto.ContactKeyDTO(c.fullName, c.position) FROM Contact c")
+    List<ContactKeyDTO> findAllKeys();
+
+    /**
+     * Загружает пары (ФИО, должность) контактов с указанными идентификаторами.
+     *
+     * @param ids список идентификаторов контактов
+     * @return список уникальных ключей контактов
+     */
+    @Query("SELECT new com.ivanzlotnikov.phonebook.contact.dto.ContactKeyDTO(c.fullName, c.position) FROM Contact c WHERE c.id IN :ids")
+    List<ContactKeyDTO> findKeysByIdIn(@Param("ids") List<Long> ids);
 
 }
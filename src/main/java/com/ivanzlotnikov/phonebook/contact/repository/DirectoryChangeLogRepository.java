@@ -0,0 +1,48 @@
+package com.ivanzlotnikov.phonebook.contact.repository;
+
+import com.ivanzlotnikov.phonebook.contact.entity.DirectoryChangeLogEntry;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий журнала изменений справочника.
+ */
+@Repository
+public interface DirectoryChangeLogRepository extends JpaRepository<DirectoryChangeLogEntry, Long> {
+
+    /**
+     * Возвращает наибольший идентификатор записи журнала.
+     *
+     * @return идентификатор или 0, если журнал пуст
+     */
+    @Query("SELECT coalesce(max(e.id), 0) FROM DirectoryChangeLogEntry e")
+    long findHighWaterMark();
+
+    /**
+     * Выбирает записи после отметки, а также все записи за последнее окно времени: записи с
+     * меньшим идентификатором могут быть зафиксированы позже записей с большим.
+     *
+     * @param highWaterMark наибольший примененный идентификатор
+     * @param since         начало окна повторной проверки
+     * @return записи журнала в порядке идентификаторов
+     */
+    @Query("SELECT e FROM DirectoryChangeLogEntry e WHERE e.id > :highWaterMark "
+           + "OR e.changedAt > :since ORDER BY e.id")
+    List<DirectoryChangeLogEntry> findChangesSince(@Param("highWaterMark") long highWaterMark,
+        @Param("since") Instant since);
+
+    /**
+     * Удаляет записи старше указанного времени.
+     *
+     * @param cutoff граница хранения
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @Query("DELETE FROM DirectoryChangeLogEntry e WHERE e.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
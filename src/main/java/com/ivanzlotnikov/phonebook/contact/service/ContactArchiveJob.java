@@ -0,0 +1,40 @@
+package com.ivanzlotnikov.phonebook.contact.service;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantTaskRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фоновая задача переноса мягко удаленных контактов в архивную таблицу. Обрабатывает контакты
+ * каждого арендатора пакетами в отдельных транзакциях, пока не останется удаленных строк.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContactArchiveJob {
+
+    private final ContactArchiveService contactArchiveService;
+    private final TenantTaskRunner tenantTaskRunner;
+
+    @Value("${phonebook.archive.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Переносит удаленные контакты в архив. Запускается по расписанию.
+     */
+    @Scheduled(fixedDelayString = "${phonebook.archive.interval-ms:60000}",
+        initialDelayString = "${phonebook.archive.interval-ms:60000}")
+    public void archiveDeletedContacts() {
+        tenantTaskRunner.forEachTenant(this::archiveCurrentTenant);
+    }
+
+    private void archiveCurrentTenant() {
+        int processed;
+        do {
+            processed = contactArchiveService.archiveDeletedBatch(batchSize);
+        } while (processed == batchSize);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ivanzlotnikov.phonebook.contact.service;
+
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactDTO;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactFormDTO;
+import com.ivanzlotnikov.phonebook.contact.entity.ArchivedContact;
+import com.ivanzlotnikov.phonebook.contact.mapper.ContactMapper;
+import com.ivanzlotnikov.phonebook.contact.repository.ArchivedContactRepository;
+import com.ivanzlotnikov.phonebook.contact.repository.ContactRepository;
+import com.ivanzlotnikov.phonebook.department.service.DepartmentService;
+import com.ivanzlotnikov.phonebook.exception.DuplicateResourceException;
+import com.ivanzlotnikov.phonebook.exception.ResourceNotFoundException;
+import com.ivanzlotnikov.phonebook.util.StringUtils;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Сервис для работы с архивом контактов. Переносит мягко удаленные контакты в холодную
+ * архивную таблицу, выполняет поиск по архиву и восстановление контактов.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ContactArchiveService {
+
+    private final ArchivedContactRepository archivedContactRepository;
+    private final ContactRepository contactRepository;
+    private final ContactService contactService;
+    private final DepartmentService departmentService;
+    private final ContactMapper contactMapper;
+
+    /**
+     * Переносит в архив очередной пакет мягко удаленных контактов: копирует строки вместе с
+     * телефонами в архивную таблицу и физически удаляет их из основных таблиц. Строки пакета
+     * блокируются, поэтому несколько экземпляров приложения не обрабатывают их одновременно.
+     *
+     * @param batchSize максимальный размер пакета
+     * @return количество заархивированных контактов
+     */
+    @Bulkhead(BulkheadType.BATCH)
+    public int archiveDeletedBatch(int batchSize) {
+        List<Long> ids = contactRepository.lockDeletedIds(batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedContactRepository.archiveByIdIn(ids);
+        contactRepository.deleteWorkPhonesByContactIdIn(ids);
+        contactRepository.deleteWorkMobilePhonesByContactIdIn(ids);
+        contactRepository.deletePersonalPhonesByContactIdIn(ids);
+        contactRepository.deleteSearchKeysByContactIdIn(ids);
+        contactRepository.hardDeleteByIdIn(ids);
+        log.info("Archived {} deleted contacts", ids.size());
+        return ids.size();
+    }
+
+    /**
+     * Выполняет поиск в архиве по началу ФИО.
+     *
+     * @param query    начало ФИО (пустое значение возвращает весь архив)
+     * @param pageable параметры пагинации и сортировки
+     * @return страница архивных контактов
+     */
+    @Transactional(readOnly = true)
+    public Page<ContactDTO> search(String query, Pageable pageable) {
+        String prefix = StringUtils.isBlank(query) ? "" : query.trim();
+        return archivedContactRepository.searchByFullNamePrefix(prefix, pageable)
+            .map(contactMapper::archivedToDto);
+    }
+
+    /**
+     * Восстанавливает контакт из архива. Контакт создается заново (с новым идентификатором),
+     * архивная запись удаляется. Если департамент контакта уже удален, контакт восстанавливается
+     * без департамента.
+     *
+     * @param id идентификатор архивной записи
+     * @return восстановленный контакт
+     * @throws ResourceNotFoundException  если архивная запись не найдена
+     * @throws DuplicateResourceException если активный контакт с такими ФИО и должностью уже есть
+     */
+    public ContactDTO restore(Long id) {
+        ArchivedContact archived = archivedContactRepository.findById(id)
+            .orElseThrow(() -> ResourceNotFoundException.byId("Архивный контакт", id));
+        if (contactService.existsByFullNameAndPosition(archived.getFullName(),
+            archived.getPosition())) {
+            throw DuplicateResourceException.of("Контакт", "ФИО и должность",
+                archived.getFullName() + " / " + archived.getPosition());
+        }
+
+        ContactFormDTO formDTO = contactMapper.toFormDTO(contactMapper.archivedToDto(archived));
+        formDTO.setId(null);
+        if (archived.getDepartmentId() != null
+            && departmentService.findById(archived.getDepartmentId()).isEmpty()) {
+            formDTO.setDepartmentId(null);
+        }
+
+        ContactDTO restored = contactService.save(formDTO);
+        archivedContactRepository.delete(archived);
+        log.info("Contact {} restored from archive as {}", id, restored.getId());
+        return restored;
+    }
+}
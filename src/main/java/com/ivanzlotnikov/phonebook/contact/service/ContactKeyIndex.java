@@ -0,0 +1,82 @@
+package com.ivanzlotnikov.phonebook.contact.service;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantProperties;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantTaskRunner;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactKeyDTO;
+import com.ivanzlotnikov.phonebook.contact.repository.ContactRepository;
+import com.ivanzlotnikov.phonebook.util.ConcurrentKeyIndex;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Индекс пар (ФИО, должность) существующих контактов в памяти. Позволяет валидатору без
+ * обращения к базе определить, что новый контакт точно не является дубликатом. Для каждого
+ * арендатора ведется отдельный индекс с ограниченным размером.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContactKeyIndex {
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final ContactRepository contactRepository;
+    private final TenantTaskRunner tenantTaskRunner;
+    private final TenantProperties tenantProperties;
+    private final Map<String, ConcurrentKeyIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Загружает ключи всех контактов каждого арендатора после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        tenantTaskRunner.forEachTenantReadOnly(this::loadCurrentTenant);
+    }
+
+    /**
+     * Добавляет пару (ФИО, должность) в индекс текущего арендатора.
+     *
+     * @param fullName полное имя сотрудника
+     * @param position должность сотрудника
+     */
+    public void add(String fullName, String position) {
+        currentIndex().add(toKey(fullName, position));
+    }
+
+    /**
+     * Проверяет, что контакта с такими ФИО и должностью у текущего арендатора точно нет.
+     *
+     * @param fullName полное имя сотрудника
+     * @param position должность сотрудника
+     * @return true, если дубликата точно нет; false, если требуется проверка в базе
+     */
+    public boolean isDefinitelyAbsent(String fullName, String position) {
+        return currentIndex().isDefinitelyAbsent(toKey(fullName, position));
+    }
+
+    private void loadCurrentTenant() {
+        ConcurrentKeyIndex index = currentIndex();
+        for (ContactKeyDTO key : contactRepository.findAllKeys()) {
+            index.add(toKey(key.fullName(), key.position()));
+        }
+        index.markLoaded();
+        log.info("Contact duplicate index for tenant {} loaded with {} keys",
+            TenantContext.getCurrentTenant(), index.size());
+    }
+
+    private ConcurrentKeyIndex currentIndex() {
+        return indexes.computeIfAbsent(TenantContext.getCurrentTenant(),
+            tenant -> new ConcurrentKeyIndex(tenantProperties.getMaxIndexKeys()));
+    }
+
+    private String toKey(String fullName, String position) {
+        return ConcurrentKeyIndex.normalize(fullName) + KEY_SEPARATOR
+               + ConcurrentKeyIndex.normalize(position);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ivanzlotnikov.phonebook.contact.service;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantTaskRunner;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фоновое заполнение поисковых ключей для контактов, созданных до их появления или
+ * загруженных напрямую через SQL (например, демонстрационные данные миграции db/demo).
+ * Запускается после старта приложения и обрабатывает контакты каждого арендатора пакетами в
+ * отдельных транзакциях.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContactSearchKeyBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ContactService contactService;
+    private final TenantTaskRunner tenantTaskRunner;
+
+    /**
+     * Заполняет поисковые ключи пакетами, продвигая курсор по идентификатору, пока не будут
+     * просмотрены все контакты без ключей. Каждый контакт просматривается не более одного раза.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        tenantTaskRunner.forEachTenant(this::backfillCurrentTenant);
+    }
+
+    private void backfillCurrentTenant() {
+        long total = 0;
+        long lastId = 0;
+        List<Long> processed;
+        do {
+            processed = contactService.backfillSearchKeys(lastId, BATCH_SIZE);
+            if (!processed.isEmpty()) {
+                lastId = processed.get(processed.size() - 1);
+            }
+            total += processed.size();
+        } while (processed.size() == BATCH_SIZE);
+        if (total > 0) {
+            log.info("Search key backfill for tenant {} finished, {} contacts updated",
+                TenantContext.getCurrentTenant(), total);
+        }
+    }
+}
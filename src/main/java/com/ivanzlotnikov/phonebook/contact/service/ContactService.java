@@ -1,26 +1,52 @@
 package com.ivanzlotnikov.phonebook.contact.service;
 
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEntityType;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEvent;
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import com.ivanzlotnikov.phonebook.config.events.DirectoryChangeEvent;
 import com.ivanzlotnikov.phonebook.contact.dto.ContactDTO;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactKeyDTO;
 import com.ivanzlotnikov.phonebook.contact.dto.ContactFormDTO;
+import com.ivanzlotnikov.phonebook.contact.dto.SearchContext;
 import com.ivanzlotnikov.phonebook.contact.entity.Contact;
 import com.ivanzlotnikov.phonebook.contact.mapper.ContactMapper;
+import com.ivanzlotnikov.phonebook.contact.repository.ContactPhoneRow;
 import com.ivanzlotnikov.phonebook.contact.repository.ContactRepository;
 import com.ivanzlotnikov.phonebook.department.entity.Department;
 import com.ivanzlotnikov.phonebook.department.service.DepartmentService;
+import com.ivanzlotnikov.phonebook.exception.DuplicateResourceException;
 import com.ivanzlotnikov.phonebook.exception.InvalidDataException;
 import com.ivanzlotnikov.phonebook.exception.ResourceNotFoundException;
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO;
+import com.ivanzlotnikov.phonebook.statistics.service.StatisticsDelta;
+import com.ivanzlotnikov.phonebook.util.CollectionUtils;
+import com.ivanzlotnikov.phonebook.util.DataIntegrityUtils;
 import com.ivanzlotnikov.phonebook.util.StringUtils;
+import com.ivanzlotnikov.phonebook.util.TransliterationUtils;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Сервис для управления контактами в телефонном справочнике. Предоставляет бизнес-логику для
@@ -32,9 +58,15 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ContactService {
 
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     private final ContactRepository contactRepository;
     private final ContactMapper contactMapper;
     private final DepartmentService departmentService;
+    private final ContactKeyIndex contactKeyIndex;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Получает все контакты с пагинацией.
@@ -65,57 +97,244 @@ public class ContactService {
     }
 
     /**
-     * Сохраняет новый контакт или обновляет существующий.
+     * Сохраняет новый контакт или обновляет существующий. Существующий контакт загружается
+     * один раз и изменяется на месте, поэтому в базу уходят только изменившиеся поля и номера
+     * телефонов, а сохранение без изменений не выполняет ни одной записи. Изменения сбрасываются
+     * в базу сразу, чтобы нарушение уникальности (ФИО, должность) при одновременных запросах
+     * было обработано как дубликат.
      *
      * @param contactDTO данные контакта для сохранения
      * @return сохраненный контакт в виде DTO
+     * @throws ResourceNotFoundException  если обновляемый контакт не найден
+     * @throws DuplicateResourceException если контакт с такими ФИО и должностью уже существует
      */
     @CacheEvict(cacheNames = "contactCount", allEntries = true)
     public ContactDTO save(ContactFormDTO contactDTO) {
         log.info("Saving contact with id: {}", contactDTO.getId());
+        Contact savedContact;
+        Map<String, Object> before = null;
+        try {
+            if (contactDTO.getId() == null) {
+                savedContact = createContact(contactDTO);
+            } else {
+                savedContact = contactRepository.findById(contactDTO.getId())
+                    .orElseThrow(
+                        () -> ResourceNotFoundException.byId("Контакт", contactDTO.getId()));
+                before = contactMapper.toAuditState(savedContact);
+                updateContact(savedContact, contactDTO);
+            }
+            contactRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!DataIntegrityUtils.isUniqueViolation(e)) {
+                throw e;
+            }
+            throw DuplicateResourceException.of("Контакт", "ФИО и должность",
+                contactDTO.getFullName() + " / " + contactDTO.getPosition(), e);
+        }
+        contactKeyIndex.add(savedContact.getFullName(), savedContact.getPosition());
+        Map<String, Object> after = contactMapper.toAuditState(savedContact);
+        eventPublisher.publishEvent(before == null
+            ? AuditEvent.created(AuditEntityType.CONTACT, savedContact.getId(), after)
+            : AuditEvent.updated(AuditEntityType.CONTACT, savedContact.getId(), before, after));
+        publish(DirectoryChangeEvent.Type.CONTACT_UPSERTED, List.of(savedContact.getId()));
+        return contactMapper.toDto(savedContact);
+    }
+
+    private Contact createContact(ContactFormDTO contactDTO) {
         Contact contact = contactMapper.toEntity(contactDTO);
+        contact.setSearchKeys(TransliterationUtils.buildSearchKeys(contact.getFullName()));
 
         if (contactDTO.getDepartmentId() != null) {
             Department department = departmentService.findEntityById(contactDTO.getDepartmentId());
             contact.setDepartment(department);
         }
+        eventPublisher.publishEvent(StatisticsDelta.contactAdded(contactDTO.getDepartmentId()));
+        return contactRepository.save(contact);
+    }
 
-        Contact savedContact = contactRepository.save(contact);
-        return contactMapper.toDto(savedContact);
+    private void updateContact(Contact contact, ContactFormDTO contactDTO) {
+        contactMapper.updateEntity(contact, contactDTO);
+        ContactMapper.syncElements(contact.getSearchKeys(),
+            TransliterationUtils.buildSearchKeys(contact.getFullName()));
+
+        Long currentDepartmentId = contact.getDepartment() != null
+            ? contact.getDepartment().getId() : null;
+        if (!Objects.equals(currentDepartmentId, contactDTO.getDepartmentId())) {
+            contact.setDepartment(contactDTO.getDepartmentId() != null
+                ? departmentService.findEntityById(contactDTO.getDepartmentId())
+                : null);
+            eventPublisher.publishEvent(
+                StatisticsDelta.contactMoved(currentDepartmentId, contactDTO.getDepartmentId()));
+        }
     }
 
     /**
-     * Удаляет контакт по идентификатору.
+     * Удаляет контакт по идентификатору. Удаление мягкое: контакт скрывается сразу, а в архив
+     * переносится фоновой задачей.
      *
      * @param id идентификатор контакта для удаления
      * @throws ResourceNotFoundException если контакт не найден
      */
     @CacheEvict(cacheNames = "contactCount", allEntries = true)
     @Async
+    @Bulkhead(BulkheadType.BATCH)
     public void deleteById(long id) {
         if (!contactRepository.existsById(id)) {
             throw new ResourceNotFoundException("Контакт " + id);
         }
-        contactRepository.deleteById(id);
+        eventPublisher.publishEvent(StatisticsDelta.contactsRemoved(
+            contactRepository.countByDepartmentForIdIn(List.of(id))));
+        contactRepository.softDeleteByIdIn(List.of(id));
+        eventPublisher.publishEvent(AuditEvent.deleted(AuditEntityType.CONTACT, List.of(id)));
+        publish(DirectoryChangeEvent.Type.CONTACT_DELETED, List.of(id));
     }
 
     /**
-     * Удаляет несколько контактов по списку идентификаторов.
+     * Удаляет несколько контактов по списку идентификаторов. Удаление мягкое: контакты
+     * скрываются сразу, а в архив переносятся фоновой задачей.
      *
      * @param ids список идентификаторов контактов для удаления
      */
     @CacheEvict(cacheNames = "contactCount", allEntries = true)
     @Async
+    @Bulkhead(BulkheadType.BATCH)
     public void deleteAllById(List<Long> ids) {
         if (ids == null || ids.isEmpty()) {
             throw InvalidDataException.forField("contactIds", "Список контактов для удаления пуст");
         }
-        contactRepository.deleteAllByIdIn(ids);
+        List<DepartmentHeadcountDTO> removed = new ArrayList<>();
+        for (List<Long> chunk : partition(ids)) {
+            removed.addAll(contactRepository.countByDepartmentForIdIn(chunk));
+            contactRepository.softDeleteByIdIn(chunk);
+        }
+        eventPublisher.publishEvent(StatisticsDelta.contactsRemoved(removed));
+        eventPublisher.publishEvent(AuditEvent.deleted(AuditEntityType.CONTACT, ids));
+        publish(DirectoryChangeEvent.Type.CONTACT_DELETED, ids);
         log.info("Successfully deleted contacts with IDs: {}", ids);
     }
 
     /**
-     * Выполняет поиск контактов по имени с пагинацией.
+     * Переносит выбранные контакты в другой департамент. Обновление выполняется пакетными
+     * UPDATE-запросами по {@value #BULK_CHUNK_SIZE} идентификаторов без загрузки сущностей.
+     *
+     * @param ids                список идентификаторов контактов
+     * @param targetDepartmentId идентификатор целевого департамента
+     * @return количество перенесенных контактов
+     * @throws ResourceNotFoundException если целевой департамент не найден
+     */
+    @Bulkhead(BulkheadType.BATCH)
+    public int moveToDepartment(List<Long> ids, Long targetDepartmentId) {
+        requireSelection(ids);
+        Department target = departmentService.findEntityById(targetDepartmentId);
+        int updated = 0;
+        List<DepartmentHeadcountDTO> moved = new ArrayList<>();
+        for (List<Long> chunk : partition(ids)) {
+            moved.addAll(contactRepository.countByDepartmentForIdIn(chunk));
+            updated += contactRepository.updateDepartmentByIdIn(chunk, target);
+        }
+        eventPublisher.publishEvent(StatisticsDelta.contactsMoved(moved, targetDepartmentId));
+        eventPublisher.publishEvent(AuditEvent.fieldChanged(AuditEntityType.CONTACT, ids,
+            "departmentId", targetDepartmentId));
+        publish(DirectoryChangeEvent.Type.CONTACT_UPSERTED, ids);
+        log.info("Moved {} contacts to department {}", updated, targetDepartmentId);
+        return updated;
+    }
+
+    /**
+     * Переносит все контакты департамента (и, при необходимости, всех его поддепартаментов)
+     * в другой департамент набором UPDATE-запросов без загрузки сущностей. Для журнала аудита
+     * перед переносом читаются только идентификаторы контактов.
+     *
+     * @param sourceDepartmentId    идентификатор исходного департамента
+     * @param targetDepartmentId    идентификатор целевого департамента
+     * @param includeSubdepartments переносить ли контакты поддепартаментов
+     * @return количество перенесенных контактов
+     * @throws ResourceNotFoundException если исходный или целевой департамент не найден
+     */
+    @Bulkhead(BulkheadType.BATCH)
+    public int moveDepartmentContacts(Long sourceDepartmentId, Long targetDepartmentId,
+        boolean includeSubdepartments) {
+        Department target = departmentService.findEntityById(targetDepartmentId);
+        List<Long> sourceIds = includeSubdepartments
+            ? getDepartmentIdsWithHierarchy(sourceDepartmentId)
+            : new ArrayList<>(List.of(departmentService.findEntityById(sourceDepartmentId).getId()));
+        sourceIds.remove(targetDepartmentId);
+        int updated = 0;
+        List<DepartmentHeadcountDTO> moved = new ArrayList<>();
+        List<Long> movedIds = new ArrayList<>();
+        for (List<Long> chunk : partition(sourceIds)) {
+            moved.addAll(contactRepository.countByDepartmentIdIn(chunk));
+            movedIds.addAll(contactRepository.findIdsByDepartmentIdIn(chunk));
+            updated += contactRepository.updateDepartmentByDepartmentIdIn(chunk, target);
+        }
+        eventPublisher.publishEvent(StatisticsDelta.contactsMoved(moved, targetDepartmentId));
+        if (!movedIds.isEmpty()) {
+            eventPublisher.publishEvent(AuditEvent.fieldChanged(AuditEntityType.CONTACT,
+                movedIds, "departmentId", targetDepartmentId));
+        }
+        // Перенесенные контакты не загружаются, поэтому клиенты перечитывают список целиком
+        publish(DirectoryChangeEvent.Type.CONTACT_UPSERTED, List.of());
+        log.info("Moved {} contacts from department {} to department {}", updated,
+            sourceDepartmentId, targetDepartmentId);
+        return updated;
+    }
+
+    /**
+     * Изменяет должность у выбранных контактов пакетными UPDATE-запросами.
+     *
+     * @param ids      список идентификаторов контактов
+     * @param position новая должность
+     * @return количество обновленных контактов
+     * @throws DuplicateResourceException если у одного из контактов появится дубликат по ФИО и
+     *                                    должности
+     */
+    @Bulkhead(BulkheadType.BATCH)
+    public int changePosition(List<Long> ids, String position) {
+        requireSelection(ids);
+        String normalizedPosition = StringUtils.trimSafely(position);
+        if (StringUtils.isBlank(normalizedPosition)) {
+            throw InvalidDataException.forField("position", "Должность не может быть пустой");
+        }
+        int updated = 0;
+        try {
+            for (List<Long> chunk : partition(ids)) {
+                updated += contactRepository.updatePositionByIdIn(chunk, normalizedPosition);
+            }
+        } catch (DataIntegrityViolationException e) {
+            if (!DataIntegrityUtils.isUniqueViolation(e)) {
+                throw e;
+            }
+            throw DuplicateResourceException.of("Контакт", "должность", normalizedPosition, e);
+        }
+        for (List<Long> chunk : partition(ids)) {
+            for (ContactKeyDTO key : contactRepository.findKeysByIdIn(chunk)) {
+                contactKeyIndex.add(key.fullName(), key.position());
+            }
+        }
+        eventPublisher.publishEvent(AuditEvent.fieldChanged(AuditEntityType.CONTACT, ids,
+            "position", normalizedPosition));
+        publish(DirectoryChangeEvent.Type.CONTACT_UPSERTED, ids);
+        log.info("Changed position of {} contacts to '{}'", updated, normalizedPosition);
+        return updated;
+    }
+
+    private void requireSelection(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw InvalidDataException.forField("contactIds", "Не выбраны контакты");
+        }
+    }
+
+    private void publish(DirectoryChangeEvent.Type type, List<Long> ids) {
+        eventPublisher.publishEvent(DirectoryChangeEvent.of(type, ids));
+    }
+
+    private static List<List<Long>> partition(List<Long> ids) {
+        return CollectionUtils.partition(ids, BULK_CHUNK_SIZE);
+    }
+
+    /**
+     * Выполняет поиск контактов по имени с пагинацией. Запрос нормализуется так же, как
+     * поисковые ключи контактов, поэтому имя можно вводить кириллицей или латиницей.
      *
      * @param name     часть имени для поиска
      * @param pageable параметры пагинации
@@ -125,7 +344,8 @@ public class ContactService {
     public Page<ContactDTO> searchByName(String name, Pageable pageable) {
         String normalizedName = StringUtils.trimSafely(name);
         log.info("Searching contacts by name: {}", normalizedName);
-        return contactRepository.findByFullNameContainingIgnoreCase(normalizedName, pageable)
+        return contactRepository.findBySearchKeyPrefix(
+                TransliterationUtils.toSearchPrefix(normalizedName), pageable)
             .map(contactMapper::toDto);
     }
 
@@ -158,17 +378,79 @@ public class ContactService {
         String normalizedName = StringUtils.trimSafely(name);
         log.info("Searching contacts by name: {} and department: {}", normalizedName, departmentId);
         List<Long> departmentIds = getDepartmentIdsWithHierarchy(departmentId);
-        return contactRepository.findByNameAndDepartmentIds(normalizedName, departmentIds, pageable)
+        return contactRepository.findBySearchKeyPrefixAndDepartmentIds(
+                TransliterationUtils.toSearchPrefix(normalizedName), departmentIds, pageable)
             .map(contactMapper::toDto);
     }
 
+    /**
+     * Выбирает контакты диапазона с учетом поиска и фильтра по департаменту и передает их
+     * обработчику потоком. Сначала одним запросом выбираются идентификаторы диапазона, затем
+     * контакты загружаются порциями: каждая порция — запрос контактов с департаментами и один
+     * запрос телефонов по списку идентификаторов. Каждая порция читается в отдельной короткой
+     * read-only транзакции, поэтому соединение не удерживается, пока клиент получает страницу,
+     * а расход памяти ограничен размером порции. Общее количество записей не подсчитывается.
+     *
+     * @param searchContext параметры поиска и фильтрации
+     * @param pageable      смещение, размер диапазона и сортировка
+     * @param consumer      обработчик потока; должен прочитать поток до возврата
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamContacts(SearchContext searchContext, Pageable pageable,
+        Consumer<Stream<ContactDTO>> consumer) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        List<Long> ids = readOnlyTransaction.execute(
+            status -> findRangeIds(searchContext, pageable));
+        consumer.accept(CollectionUtils.partition(ids, STREAM_CHUNK_SIZE).stream()
+            .flatMap(chunk -> readOnlyTransaction.execute(status -> loadChunk(chunk)).stream()));
+    }
+
+    private List<Long> findRangeIds(SearchContext searchContext, Pageable pageable) {
+        if (searchContext.hasSearchQuery()) {
+            String keyPrefix = TransliterationUtils.toSearchPrefix(
+                searchContext.getNormalizedSearchQuery());
+            return searchContext.hasDepartment()
+                ? contactRepository.findRangeIdsBySearchKeyPrefixAndDepartmentIds(keyPrefix,
+                getDepartmentIdsWithHierarchy(searchContext.getDepartmentId()), pageable)
+                : contactRepository.findRangeIdsBySearchKeyPrefix(keyPrefix, pageable);
+        }
+        if (searchContext.hasDepartment()) {
+            return contactRepository.findRangeIdsByDepartmentIdIn(
+                getDepartmentIdsWithHierarchy(searchContext.getDepartmentId()), pageable);
+        }
+        return contactRepository.findRangeIds(pageable);
+    }
+
+    private List<ContactDTO> loadChunk(List<Long> ids) {
+        Map<Long, Contact> contacts = new HashMap<>(ids.size() * 2);
+        for (Contact contact : contactRepository.findAllWithDepartmentByIdIn(ids)) {
+            contacts.put(contact.getId(), contact);
+        }
+        Map<Long, List<List<String>>> phonesByContact = new HashMap<>(ids.size() * 2);
+        for (ContactPhoneRow phone : contactRepository.findPhonesByContactIdIn(ids)) {
+            phonesByContact.computeIfAbsent(phone.getContactId(),
+                    id -> List.of(new ArrayList<>(1), new ArrayList<>(1), new ArrayList<>(1)))
+                .get(phone.getKind())
+                .add(phone.getPhoneNumber());
+        }
+        List<ContactDTO> dtos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Contact contact = contacts.get(id);
+            if (contact == null) {
+                // Удален после выбора идентификаторов диапазона
+                continue;
+            }
+            List<List<String>> phones = phonesByContact.getOrDefault(id,
+                List.of(List.of(), List.of(), List.of()));
+            dtos.add(contactMapper.toDto(contact, phones.get(ContactPhoneRow.WORK),
+                phones.get(ContactPhoneRow.WORK_MOBILE), phones.get(ContactPhoneRow.PERSONAL)));
+        }
+        return dtos;
+    }
+
     private List<Long> getDepartmentIdsWithHierarchy(Long departmentId) {
-        List<Department> departments = departmentService.getDepartmentsHierarchy(departmentId);
-        List<Long> departmentIds = departments.stream()
-            .map(Department::getId)
-            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-        departmentIds.add(departmentId);
-        return departmentIds;
+        return departmentService.findSubtreeIds(departmentId);
     }
 
     /**
@@ -186,6 +468,36 @@ public class ContactService {
             StringUtils.trimSafely(position));
     }
 
+    /**
+     * Строит поисковые ключи для очередного пакета контактов, у которых их еще нет. Каждый вызов
+     * выполняется в отдельной транзакции, чтобы заполнение больших таблиц не держало блокировки.
+     * Пакеты выбираются по курсору идентификатора: контакт, для имени которого ключей не
+     * получается, остается без ключей, но в следующий пакет уже не попадает.
+     *
+     * @param afterId   идентификатор последнего контакта предыдущего пакета (0 для первого)
+     * @param batchSize максимальное количество контактов в пакете
+     * @return идентификаторы контактов пакета по возрастанию; пустой список, если пакетов больше
+     *     нет
+     */
+    @Bulkhead(BulkheadType.BATCH)
+    public List<Long> backfillSearchKeys(long afterId, int batchSize) {
+        List<Long> ids = contactRepository.findIdsWithoutSearchKeys(afterId,
+            PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        int updated = 0;
+        for (Contact contact : contactRepository.findAllById(ids)) {
+            Set<String> keys = TransliterationUtils.buildSearchKeys(contact.getFullName());
+            if (!keys.isEmpty()) {
+                contact.getSearchKeys().addAll(keys);
+                updated++;
+            }
+        }
+        log.info("Built search keys for {} of {} contacts", updated, ids.size());
+        return ids;
+    }
+
     /**
      * Подсчитывает общее количество контактов в системе.
      *
@@ -0,0 +1,49 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import com.ivanzlotnikov.phonebook.config.events.DirectoryChangeEvent;
+import com.ivanzlotnikov.phonebook.contact.entity.DirectoryChangeLogEntry;
+import com.ivanzlotnikov.phonebook.contact.repository.DirectoryChangeLogRepository;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Журнал изменений справочника. Событие записывается перед фиксацией транзакции, в которой
+ * оно опубликовано, поэтому запись журнала и само изменение фиксируются или откатываются
+ * вместе, независимо от того, какой экземпляр приложения выполнил изменение.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "phonebook.snapshot", name = "enabled", havingValue = "true")
+public class DirectoryChangeLog {
+
+    private final DirectoryChangeLogRepository directoryChangeLogRepository;
+
+    /**
+     * Записывает событие в журнал в текущей транзакции.
+     *
+     * @param event событие изменения справочника
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void record(DirectoryChangeEvent event) {
+        directoryChangeLogRepository.save(DirectoryChangeLogEntry.of(event));
+    }
+
+    /**
+     * Удаляет записи журнала текущего арендатора старше указанного времени.
+     *
+     * @param cutoff граница хранения
+     * @return количество удаленных записей
+     */
+    @Transactional
+    @Bulkhead(BulkheadType.BATCH)
+    public int purgeOlderThan(Instant cutoff) {
+        return directoryChangeLogRepository.deleteOlderThan(cutoff);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import com.ivanzlotnikov.phonebook.contact.store.ContactColumnStore;
+
+/**
+ * Модель чтения справочника одного арендатора: двоичный снимок для выгрузки и колоночное
+ * хранилище с теми же данными для поиска контактов в памяти.
+ *
+ * @param snapshot снимок справочника
+ * @param contacts хранилище контактов снимка
+ */
+public record DirectoryReadModel(SnapshotFile snapshot, ContactColumnStore contacts) {
+
+}
@@ -0,0 +1,14 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import java.util.List;
+
+/**
+ * Декодированный снимок справочника.
+ *
+ * @param departments департаменты, упорядоченные по идентификатору
+ * @param contacts    контакты, упорядоченные по идентификатору
+ */
+public record DirectorySnapshot(List<SnapshotDepartment> departments,
+                                List<SnapshotContact> contacts) {
+
+}
@@ -0,0 +1,235 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Эталонный декодер снимка справочника формата {@link DirectorySnapshotFormat}. Используется
+ * сервером для инкрементального обновления снимка и может быть скопирован в клиентские
+ * приложения на Java вместе с классами формата и записей.
+ */
+public final class DirectorySnapshotDecoder {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private DirectorySnapshotDecoder() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Декодирует снимок.
+     *
+     * @param data байты снимка
+     * @return снимок справочника
+     * @throws IllegalArgumentException если данные не являются снимком поддерживаемой версии
+     *                                  или повреждены
+     */
+    public static DirectorySnapshot decode(byte[] data) {
+        CollectingVisitor visitor = new CollectingVisitor();
+        decode(data, visitor);
+        return new DirectorySnapshot(visitor.departments, visitor.contacts);
+    }
+
+    /**
+     * Декодирует снимок потоком, передавая контакты обработчику по одному, без построения
+     * общего списка.
+     *
+     * @param data    байты снимка
+     * @param visitor обработчик декодированных данных
+     * @throws IllegalArgumentException если данные не являются снимком поддерживаемой версии
+     *                                  или повреждены
+     */
+    public static void decode(byte[] data, Visitor visitor) {
+        checkHeader(data);
+        int headerLength = DirectorySnapshotFormat.MAGIC.length + 1;
+        Inflater inflater = new Inflater();
+        try (InputStream in = new BufferedInputStream(new InflaterInputStream(
+            new ByteArrayInputStream(data, headerLength, data.length - headerLength),
+            inflater, BUFFER_SIZE), BUFFER_SIZE)) {
+            List<SnapshotDepartment> departments = readDepartments(in);
+            List<String> positions = readPositions(in);
+            readContacts(in, departments, positions, visitor);
+        } catch (EOFException | ZipException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Corrupted directory snapshot", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Проверяет сигнатуру и версию формата снимка без распаковки тела.
+     *
+     * @param data байты снимка
+     * @throws IllegalArgumentException если данные не являются снимком поддерживаемой версии
+     */
+    public static void checkHeader(byte[] data) {
+        int headerLength = DirectorySnapshotFormat.MAGIC.length + 1;
+        if (data.length < headerLength
+            || !Arrays.equals(data, 0, DirectorySnapshotFormat.MAGIC.length,
+            DirectorySnapshotFormat.MAGIC, 0, DirectorySnapshotFormat.MAGIC.length)) {
+            throw new IllegalArgumentException("Not a directory snapshot");
+        }
+        int version = data[DirectorySnapshotFormat.MAGIC.length];
+        if (version != DirectorySnapshotFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        }
+    }
+
+    private static List<SnapshotDepartment> readDepartments(InputStream in) throws IOException {
+        int count = readCount(in);
+        long[] ids = new long[count];
+        int[] parentRefs = new int[count];
+        String[] names = new String[count];
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += readVarint(in);
+            ids[i] = id;
+            parentRefs[i] = (int) readVarint(in);
+            names[i] = readString(in);
+        }
+        List<SnapshotDepartment> departments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Long parentId = parentRefs[i] == 0 ? null : ids[parentRefs[i] - 1];
+            departments.add(new SnapshotDepartment(ids[i], names[i], parentId));
+        }
+        return departments;
+    }
+
+    private static List<String> readPositions(InputStream in) throws IOException {
+        int count = readCount(in);
+        List<String> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            positions.add(readString(in));
+        }
+        return positions;
+    }
+
+    private static void readContacts(InputStream in, List<SnapshotDepartment> departments,
+        List<String> positions, Visitor visitor) throws IOException {
+        int count = readCount(in);
+        visitor.start(departments, count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += readVarint(in);
+            String fullName = readString(in);
+            String position = positions.get((int) readVarint(in));
+            int departmentRef = (int) readVarint(in);
+            Long departmentId = departmentRef == 0 ? null : departments.get(departmentRef - 1).id();
+            visitor.contact(new SnapshotContact(id, fullName, position, departmentId,
+                readPhones(in), readPhones(in), readPhones(in)));
+        }
+    }
+
+    private static List<String> readPhones(InputStream in) throws IOException {
+        int count = readCount(in);
+        if (count == 0) {
+            return List.of();
+        }
+        List<String> phones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long header = readVarint(in);
+            int length = (int) (header >>> 1);
+            if ((header & 1) != 0) {
+                phones.add(new String(readBytes(in, length), StandardCharsets.UTF_8));
+                continue;
+            }
+            byte[] packed = readBytes(in, (length + 1) / 2);
+            char[] chars = new char[length];
+            for (int j = 0; j < length; j++) {
+                int code = (j & 1) == 0 ? (packed[j / 2] >> 4) & 0x0F : packed[j / 2] & 0x0F;
+                chars[j] = DirectorySnapshotFormat.PHONE_ALPHABET.charAt(code);
+            }
+            phones.add(new String(chars));
+        }
+        return phones;
+    }
+
+    private static int readCount(InputStream in) throws IOException {
+        long count = readVarint(in);
+        if (count > DirectorySnapshotFormat.MAX_ENTRIES) {
+            throw new IllegalArgumentException("Corrupted directory snapshot: count " + count);
+        }
+        return (int) count;
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        return new String(readBytes(in, readCount(in)), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return bytes;
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Corrupted directory snapshot: varint too long");
+    }
+
+    /**
+     * Обработчик потокового декодирования снимка.
+     */
+    public interface Visitor {
+
+        /**
+         * Вызывается перед первым контактом.
+         *
+         * @param departments  департаменты, упорядоченные по идентификатору
+         * @param contactCount количество контактов в снимке
+         */
+        void start(List<SnapshotDepartment> departments, int contactCount);
+
+        /**
+         * Вызывается для каждого контакта по возрастанию идентификатора.
+         *
+         * @param contact контакт
+         */
+        void contact(SnapshotContact contact);
+    }
+
+    /**
+     * Обработчик, собирающий снимок целиком.
+     */
+    private static final class CollectingVisitor implements Visitor {
+
+        private List<SnapshotDepartment> departments = List.of();
+        private List<SnapshotContact> contacts = List.of();
+
+        @Override
+        public void start(List<SnapshotDepartment> snapshotDepartments, int contactCount) {
+            departments = snapshotDepartments;
+            contacts = new ArrayList<>(contactCount);
+        }
+
+        @Override
+        public void contact(SnapshotContact contact) {
+            contacts.add(contact);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Кодировщик снимка справочника в формат {@link DirectorySnapshotFormat}. Результат зависит
+ * только от содержимого (записи и словари упорядочены), поэтому одинаковые данные на разных
+ * экземплярах приложения дают одинаковые байты и одинаковый ETag.
+ */
+public final class DirectorySnapshotEncoder {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private DirectorySnapshotEncoder() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Кодирует снимок.
+     *
+     * @param departments департаменты
+     * @param contacts    контакты
+     * @return байты снимка
+     */
+    public static byte[] encode(Collection<SnapshotDepartment> departments,
+        Collection<SnapshotContact> contacts) {
+        // Тело собирается целиком и сжимается одним вызовом: побайтовая запись в
+        // DeflaterOutputStream многократно медленнее
+        ByteArrayOutputStream body = new ByteArrayOutputStream(BUFFER_SIZE);
+        try {
+            Map<Long, Integer> departmentIndex = writeDepartments(body, departments);
+            Map<String, Integer> positionIndex = writePositions(body, contacts);
+            writeContacts(body, contacts, departmentIndex, positionIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ByteArrayOutputStream result = new ByteArrayOutputStream(body.size() / 4 + BUFFER_SIZE);
+        result.writeBytes(DirectorySnapshotFormat.MAGIC);
+        result.write(DirectorySnapshotFormat.VERSION);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(result, deflater, BUFFER_SIZE)) {
+            body.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return result.toByteArray();
+    }
+
+    private static Map<Long, Integer> writeDepartments(OutputStream out,
+        Collection<SnapshotDepartment> departments) throws IOException {
+        List<SnapshotDepartment> sorted = new ArrayList<>(departments);
+        sorted.sort(Comparator.comparing(SnapshotDepartment::id));
+        Map<Long, Integer> index = new HashMap<>(sorted.size() * 2);
+        for (int i = 0; i < sorted.size(); i++) {
+            index.put(sorted.get(i).id(), i);
+        }
+        writeVarint(out, sorted.size());
+        long previousId = 0;
+        for (SnapshotDepartment department : sorted) {
+            writeVarint(out, department.id() - previousId);
+            writeVarint(out, reference(index, department.parentId()));
+            writeString(out, department.name());
+            previousId = department.id();
+        }
+        return index;
+    }
+
+    private static Map<String, Integer> writePositions(OutputStream out,
+        Collection<SnapshotContact> contacts) throws IOException {
+        TreeSet<String> positions = new TreeSet<>();
+        for (SnapshotContact contact : contacts) {
+            positions.add(nullToEmpty(contact.position()));
+        }
+        Map<String, Integer> index = new HashMap<>(positions.size() * 2);
+        writeVarint(out, positions.size());
+        for (String position : positions) {
+            index.put(position, index.size());
+            writeString(out, position);
+        }
+        return index;
+    }
+
+    private static void writeContacts(OutputStream out, Collection<SnapshotContact> contacts,
+        Map<Long, Integer> departmentIndex, Map<String, Integer> positionIndex)
+        throws IOException {
+        Collection<SnapshotContact> sorted = sortedById(contacts);
+        writeVarint(out, sorted.size());
+        long previousId = 0;
+        for (SnapshotContact contact : sorted) {
+            writeVarint(out, contact.id() - previousId);
+            writeString(out, contact.fullName());
+            writeVarint(out, positionIndex.get(nullToEmpty(contact.position())));
+            writeVarint(out, reference(departmentIndex, contact.departmentId()));
+            writePhones(out, contact.workPhones());
+            writePhones(out, contact.workMobilePhones());
+            writePhones(out, contact.personalPhones());
+            previousId = contact.id();
+        }
+    }
+
+    // Уже упорядоченные контакты (например, из колоночного хранилища) не копируются: копия
+    // удерживала бы в памяти все записи одновременно
+    private static Collection<SnapshotContact> sortedById(Collection<SnapshotContact> contacts) {
+        long previousId = Long.MIN_VALUE;
+        for (SnapshotContact contact : contacts) {
+            if (contact.id() <= previousId) {
+                List<SnapshotContact> sorted = new ArrayList<>(contacts);
+                sorted.sort(Comparator.comparing(SnapshotContact::id));
+                return sorted;
+            }
+            previousId = contact.id();
+        }
+        return contacts;
+    }
+
+    private static void writePhones(OutputStream out, List<String> phones) throws IOException {
+        writeVarint(out, phones.size());
+        for (String phone : phones) {
+            if (isPackable(phone)) {
+                writeVarint(out, (long) phone.length() << 1);
+                for (int i = 0; i < phone.length(); i += 2) {
+                    int high = DirectorySnapshotFormat.PHONE_ALPHABET.indexOf(phone.charAt(i));
+                    int low = i + 1 < phone.length()
+                        ? DirectorySnapshotFormat.PHONE_ALPHABET.indexOf(phone.charAt(i + 1)) : 0;
+                    out.write(high << 4 | low);
+                }
+            } else {
+                byte[] bytes = phone.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, (long) bytes.length << 1 | 1);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static boolean isPackable(String phone) {
+        for (int i = 0; i < phone.length(); i++) {
+            if (DirectorySnapshotFormat.PHONE_ALPHABET.indexOf(phone.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long reference(Map<Long, Integer> index, Long id) {
+        Integer position = id != null ? index.get(id) : null;
+        return position != null ? position + 1L : 0L;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = nullToEmpty(value).getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+/**
+ * Описание двоичного формата снимка справочника (версия 1). Классы формата, кодировщика и
+ * декодера зависят только от JDK, чтобы клиенты могли использовать их без Spring.
+ *
+ * <pre>
+ * файл      = magic "PBSN" (4 байта), версия (1 байт), поток zlib (Deflate) с телом
+ * тело      = departments, positions, contacts
+ * departments = varint N, затем N записей по возрастанию id:
+ *               varint разница id с предыдущим, varint ссылка на родителя, string название
+ * positions = varint N, затем N строк должностей по возрастанию (словарь)
+ * contacts  = varint N, затем N записей по возрастанию id:
+ *               varint разница id с предыдущим, string ФИО, varint индекс должности,
+ *               varint ссылка на департамент, phones служебные, phones мобильные, phones личные
+ * ссылка    = 0 — нет, иначе индекс в словаре департаментов + 1
+ * phones    = varint N, затем N телефонов
+ * телефон   = varint (длина &lt;&lt; 1 | raw); при raw = 0 символы упакованы по два в байт
+ *             (старший полубайт первый) кодами {@link #PHONE_ALPHABET}, иначе следуют байты UTF-8
+ * string    = varint длина в байтах, байты UTF-8
+ * varint    = беззнаковое целое LEB128
+ * </pre>
+ */
+public final class DirectorySnapshotFormat {
+
+    /**
+     * Сигнатура файла снимка.
+     */
+    public static final byte[] MAGIC = {'P', 'B', 'S', 'N'};
+
+    /**
+     * Текущая версия формата.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Символы телефонного номера, кодируемые полубайтом: индекс символа является его кодом.
+     * Совпадает с набором символов, допустимым при вводе телефона.
+     */
+    public static final String PHONE_ALPHABET = "0123456789+()- ";
+
+    /**
+     * Верхняя граница количества записей в разделе, защищающая декодер от поврежденных данных.
+     */
+    public static final int MAX_ENTRIES = 10_000_000;
+
+    /**
+     * Тип MIME снимка.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.phonebook.snapshot";
+
+    private DirectorySnapshotFormat() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+}
@@ -0,0 +1,80 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import com.ivanzlotnikov.phonebook.contact.entity.Contact;
+import java.util.List;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Запросы для построения снимка справочника. Читают только нужные колонки, без сущностей
+ * и коллекций, чтобы полное построение выполнялось фиксированным числом запросов.
+ */
+public interface DirectorySnapshotRepository extends Repository<Contact, Long> {
+
+    /**
+     * Выбирает все активные контакты.
+     *
+     * @return строки контактов
+     */
+    @Query("SELECT new com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotContactRow("
+           + "c.id, c.fullName, c.position, d.id) FROM Contact c LEFT JOIN c.department d")
+    List<SnapshotContactRow> findAllRows();
+
+    /**
+     * Выбирает активные контакты по списку идентификаторов.
+     *
+     * @param ids идентификаторы контактов
+     * @return строки найденных контактов (удаленные не возвращаются)
+     */
+    @Query("SELECT new com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotContactRow("
+           + "c.id, c.fullName, c.position, d.id) FROM Contact c LEFT JOIN c.department d "
+           + "WHERE c.id IN :ids")
+    List<SnapshotContactRow> findRowsByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Выбирает все телефоны активных контактов.
+     *
+     * @return строки телефонов в порядке ввода внутри каждого контакта
+     */
+    @Query(value = """
+        SELECT p.contact_id AS contactId, p.kind AS kind, p.phone_number AS phoneNumber
+        FROM (SELECT contact_id, 0 AS kind, phone_number, phone_order FROM contact_work_phones
+              UNION ALL
+              SELECT contact_id, 1 AS kind, phone_number, phone_order FROM contact_work_mobile_phones
+              UNION ALL
+              SELECT contact_id, 2 AS kind, phone_number, phone_order FROM contact_personal_phones) p
+        JOIN contacts c ON c.id = p.contact_id AND c.deleted_at IS NULL
+        ORDER BY p.phone_order
+        """, nativeQuery = true)
+    List<SnapshotPhoneRow> findAllPhones();
+
+    /**
+     * Выбирает телефоны контактов по списку идентификаторов.
+     *
+     * @param ids идентификаторы контактов
+     * @return строки телефонов в порядке ввода внутри каждого контакта
+     */
+    @Query(value = """
+        SELECT p.contact_id AS contactId, p.kind AS kind, p.phone_number AS phoneNumber
+        FROM (SELECT contact_id, 0 AS kind, phone_number, phone_order FROM contact_work_phones
+              WHERE contact_id IN (:ids)
+              UNION ALL
+              SELECT contact_id, 1 AS kind, phone_number, phone_order FROM contact_work_mobile_phones
+              WHERE contact_id IN (:ids)
+              UNION ALL
+              SELECT contact_id, 2 AS kind, phone_number, phone_order FROM contact_personal_phones
+              WHERE contact_id IN (:ids)) p
+        ORDER BY p.phone_order
+        """, nativeQuery = true)
+    List<SnapshotPhoneRow> findPhonesByContactIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Выбирает все департаменты.
+     *
+     * @return департаменты со ссылками на родителей
+     */
+    @Query("SELECT new com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotDepartment("
+           + "d.id, d.name, p.id) FROM Department d LEFT JOIN d.parentDepartment p")
+    List<SnapshotDepartment> findAllDepartments();
+}
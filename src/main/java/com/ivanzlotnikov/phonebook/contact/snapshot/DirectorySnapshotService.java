@@ -0,0 +1,282 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import com.ivanzlotnikov.phonebook.config.events.DirectoryChangeEvent;
+import com.ivanzlotnikov.phonebook.config.snapshot.DirectorySnapshotProperties;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantTaskRunner;
+import com.ivanzlotnikov.phonebook.contact.entity.DirectoryChangeLogEntry;
+import com.ivanzlotnikov.phonebook.contact.repository.DirectoryChangeLogRepository;
+import com.ivanzlotnikov.phonebook.contact.store.ContactColumnStore;
+import com.ivanzlotnikov.phonebook.util.CollectionUtils;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Сервис двоичного снимка справочника (модели чтения) для офлайн-клиентов и быстрого старта.
+ * Изменения берутся из журнала изменений в базе, поэтому снимок догоняет записи, сделанные
+ * любым экземпляром приложения: из базы перечитываются только измененные контакты, остальные
+ * берутся из предыдущего снимка. Полное перечитывание выполняется, если набор изменений
+ * неизвестен или удалены департаменты.
+ *
+ * <p>Каждый построенный снимок сохраняется на том пода вместе с отметкой журнала. При старте
+ * сохраненный снимок читается с тома и догоняется по журналу с этой отметки, поэтому
+ * перезапущенный контейнер готов за секунды, не перечитывая весь справочник. Новый под
+ * стартует так же быстро, только если каталог снимков общий или заранее заполнен (см.
+ * {@link SnapshotFileStore}); с томом emptyDir он строит снимок из базы. Количество контактов
+ * из первого снимка прогревает кэш contactCount.
+ *
+ * <p>Контакты снимка держатся в памяти в колоночном хранилище {@link ContactColumnStore}:
+ * изменения сливаются с ним без декодирования всего снимка в объекты, а само хранилище
+ * отвечает на поиск контактов по идентификатору.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "phonebook.snapshot", name = "enabled", havingValue = "true")
+public class DirectorySnapshotService {
+
+    private static final int RELOAD_CHUNK_SIZE = 1000;
+    private static final int FULL_RELOAD_THRESHOLD = 20_000;
+    private static final String CONTACT_COUNT_CACHE = "contactCount";
+
+    private final DirectorySnapshotRepository directorySnapshotRepository;
+    private final DirectoryChangeLogRepository directoryChangeLogRepository;
+    private final DirectoryChangeLog directoryChangeLog;
+    private final SnapshotFileStore snapshotFileStore;
+    private final TenantTaskRunner tenantTaskRunner;
+    private final CacheManager cacheManager;
+    private final DirectorySnapshotProperties properties;
+    private final Map<String, DirectoryReadModel> readModels = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Instant>> recentlyApplied = new ConcurrentHashMap<>();
+
+    /**
+     * Возвращает текущий снимок арендатора.
+     *
+     * @return снимок или пустой Optional, если он еще не построен
+     */
+    public Optional<SnapshotFile> getCurrent() {
+        return getReadModel().map(DirectoryReadModel::snapshot);
+    }
+
+    /**
+     * Возвращает текущую модель чтения арендатора.
+     *
+     * @return модель чтения или пустой Optional, если снимок еще не построен
+     */
+    public Optional<DirectoryReadModel> getReadModel() {
+        return Optional.ofNullable(readModels.get(TenantContext.getCurrentTenant()));
+    }
+
+    /**
+     * Загружает или строит отсутствующие снимки и применяет новые записи журнала изменений.
+     * Выполняется только одним потоком планировщика.
+     */
+    @Scheduled(fixedDelayString = "${phonebook.snapshot.rebuild-delay-ms:10000}",
+        initialDelayString = "${phonebook.snapshot.initial-delay-ms:5000}")
+    public void rebuild() {
+        tenantTaskRunner.forEachTenantReadOnly(this::rebuildCurrentTenant);
+    }
+
+    /**
+     * Удаляет записи журнала изменений старше срока хранения.
+     */
+    @Scheduled(fixedDelayString = "${phonebook.snapshot.change-log-purge-interval-ms:3600000}",
+        initialDelayString = "${phonebook.snapshot.change-log-purge-interval-ms:3600000}")
+    public void purgeChangeLog() {
+        Instant cutoff = Instant.now().minusMillis(properties.getChangeLogRetentionMs());
+        tenantTaskRunner.forEachTenant(() -> {
+            int purged = directoryChangeLog.purgeOlderThan(cutoff);
+            if (purged > 0) {
+                log.info("Purged {} directory change log entries for tenant {}", purged,
+                    TenantContext.getCurrentTenant());
+            }
+        });
+    }
+
+    private void rebuildCurrentTenant() {
+        String tenant = TenantContext.getCurrentTenant();
+        long start = System.nanoTime();
+        DirectoryReadModel model = readModels.get(tenant);
+        boolean restored = false;
+        if (model == null) {
+            model = snapshotFileStore.load(tenant)
+                .filter(this::isWithinRetention)
+                .map(this::restore)
+                .orElse(null);
+            restored = model != null;
+        }
+        if (model == null) {
+            buildFull(tenant, start);
+            return;
+        }
+        SnapshotFile current = model.snapshot();
+
+        Map<Long, Instant> applied = recentlyApplied.computeIfAbsent(tenant, key -> new HashMap<>());
+        Instant since = (restored ? current.generatedAt() : Instant.now())
+            .minusMillis(properties.getChangeLogLagMs());
+        applied.values().removeIf(changedAt -> changedAt.isBefore(since));
+        List<DirectoryChangeLogEntry> fresh = directoryChangeLogRepository
+            .findChangesSince(current.highWaterMark(), since).stream()
+            .filter(entry -> !applied.containsKey(entry.getId()))
+            .toList();
+        if (fresh.isEmpty()) {
+            if (restored) {
+                publish(tenant, model, "restored", start);
+            }
+            return;
+        }
+
+        PendingChanges changes = new PendingChanges();
+        long highWaterMark = current.highWaterMark();
+        for (DirectoryChangeLogEntry entry : fresh) {
+            changes.add(entry);
+            highWaterMark = Math.max(highWaterMark, entry.getId());
+        }
+        List<SnapshotDepartment> departments = directorySnapshotRepository.findAllDepartments();
+        if (changes.requiresFullReload(departments)) {
+            buildFull(tenant, start);
+            return;
+        }
+        ContactColumnStore contacts = model.contacts()
+            .merge(departments, changes.contactIds, reload(changes.contactIds));
+        fresh.forEach(entry -> applied.put(entry.getId(), entry.getChangedAt()));
+        publish(tenant, encode(contacts, highWaterMark),
+            restored ? "restored and caught up" : "incremental", start);
+    }
+
+    private void buildFull(String tenant, long start) {
+        // Отметка читается до данных: записи, зафиксированные во время чтения, попадут в окно
+        // повторной проверки и будут применены повторно, что безопасно
+        long highWaterMark = directoryChangeLogRepository.findHighWaterMark();
+        List<SnapshotDepartment> departments = directorySnapshotRepository.findAllDepartments();
+        ContactColumnStore contacts = ContactColumnStore.of(departments,
+            assemble(directorySnapshotRepository.findAllRows(),
+                directorySnapshotRepository.findAllPhones()));
+        recentlyApplied.remove(tenant);
+        publish(tenant, encode(contacts, highWaterMark), "full", start);
+    }
+
+    private DirectoryReadModel restore(SnapshotFile snapshot) {
+        try {
+            return new DirectoryReadModel(snapshot, ContactColumnStore.decode(snapshot.data()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring corrupted directory snapshot file", e);
+            return null;
+        }
+    }
+
+    private static DirectoryReadModel encode(ContactColumnStore contacts, long highWaterMark) {
+        byte[] data = DirectorySnapshotEncoder.encode(contacts.departments(),
+            contacts.asSnapshotContacts());
+        return new DirectoryReadModel(SnapshotFile.of(data, contacts.size(), highWaterMark),
+            contacts);
+    }
+
+    private void publish(String tenant, DirectoryReadModel model, String kind, long start) {
+        SnapshotFile snapshot = model.snapshot();
+        DirectoryReadModel previousModel = readModels.put(tenant, model);
+        SnapshotFile previous = previousModel == null ? null : previousModel.snapshot();
+        if (previous == null || previous.highWaterMark() != snapshot.highWaterMark()
+            || !previous.etag().equals(snapshot.etag())) {
+            snapshotFileStore.save(tenant, snapshot);
+        }
+        // Кэш прогревается только при первом снимке: позже его сбрасывают сами операции записи
+        Cache contactCount = cacheManager.getCache(CONTACT_COUNT_CACHE);
+        if (previous == null && contactCount != null) {
+            contactCount.putIfAbsent(SimpleKey.EMPTY, (long) snapshot.contactCount());
+        }
+        log.info("Directory snapshot for tenant {} ready ({}): {} contacts, {} bytes, "
+                + "{} KB in memory, in {} ms", tenant, kind, snapshot.contactCount(),
+            snapshot.data().length, model.contacts().footprintBytes() / 1024,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private boolean isWithinRetention(SnapshotFile snapshot) {
+        return snapshot.generatedAt().isAfter(Instant.now()
+            .minusMillis(properties.getChangeLogRetentionMs() - properties.getChangeLogLagMs()));
+    }
+
+    private List<SnapshotContact> reload(Set<Long> changedIds) {
+        List<SnapshotContact> contacts = new ArrayList<>(changedIds.size());
+        for (List<Long> chunk : CollectionUtils.partition(new ArrayList<>(changedIds),
+            RELOAD_CHUNK_SIZE)) {
+            contacts.addAll(assemble(directorySnapshotRepository.findRowsByIdIn(chunk),
+                directorySnapshotRepository.findPhonesByContactIdIn(chunk)));
+        }
+        return contacts;
+    }
+
+    private static List<SnapshotContact> assemble(List<SnapshotContactRow> rows,
+        List<SnapshotPhoneRow> phones) {
+        Map<Long, List<List<String>>> phonesByContact = new HashMap<>(rows.size() * 2);
+        for (SnapshotPhoneRow phone : phones) {
+            phonesByContact.computeIfAbsent(phone.getContactId(),
+                    id -> List.of(new ArrayList<>(1), new ArrayList<>(1), new ArrayList<>(1)))
+                .get(phone.getKind())
+                .add(phone.getPhoneNumber());
+        }
+        List<SnapshotContact> contacts = new ArrayList<>(rows.size());
+        for (SnapshotContactRow row : rows) {
+            List<List<String>> contactPhones = phonesByContact.getOrDefault(row.id(),
+                List.of(List.of(), List.of(), List.of()));
+            contacts.add(new SnapshotContact(row.id(), row.fullName(), row.position(),
+                row.departmentId(),
+                contactPhones.get(SnapshotPhoneRow.WORK),
+                contactPhones.get(SnapshotPhoneRow.WORK_MOBILE),
+                contactPhones.get(SnapshotPhoneRow.PERSONAL)));
+        }
+        return contacts;
+    }
+
+    /**
+     * Изменения, прочитанные из журнала для одного перестроения.
+     */
+    private static final class PendingChanges {
+
+        private final Set<Long> contactIds = new HashSet<>();
+        private final Set<Long> departmentIds = new HashSet<>();
+        private boolean fullReload;
+
+        private void add(DirectoryChangeLogEntry entry) {
+            List<Long> ids = entry.getEntityIdList();
+            if (entry.getChangeType() == DirectoryChangeEvent.Type.DEPARTMENT_CHANGED) {
+                departmentIds.addAll(ids);
+            } else if (ids.isEmpty()) {
+                fullReload = true;
+            } else {
+                contactIds.addAll(ids);
+            }
+        }
+
+        // Удаление департамента переносит или архивирует его контакты без перечисления их id
+        private boolean requiresFullReload(List<SnapshotDepartment> departments) {
+            if (fullReload || contactIds.size() > FULL_RELOAD_THRESHOLD) {
+                return true;
+            }
+            if (departmentIds.isEmpty()) {
+                return false;
+            }
+            Set<Long> existing = new HashSet<>(departments.size() * 2);
+            for (SnapshotDepartment department : departments) {
+                existing.add(department.id());
+            }
+            return !existing.containsAll(departmentIds);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import java.util.List;
+
+/**
+ * Контакт в снимке справочника.
+ *
+ * @param id               идентификатор контакта
+ * @param fullName         полное имя сотрудника
+ * @param position         должность
+ * @param departmentId     идентификатор департамента или null
+ * @param workPhones       служебные телефоны
+ * @param workMobilePhones служебные мобильные телефоны
+ * @param personalPhones   личные телефоны
+ */
+public record SnapshotContact(
+    Long id,
+    String fullName,
+    String position,
+    Long departmentId,
+    List<String> workPhones,
+    List<String> workMobilePhones,
+    List<String> personalPhones) {
+
+}
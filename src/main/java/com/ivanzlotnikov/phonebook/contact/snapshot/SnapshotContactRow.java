@@ -0,0 +1,13 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+/**
+ * Строка контакта для построения снимка без загрузки сущностей.
+ *
+ * @param id           идентификатор контакта
+ * @param fullName     полное имя сотрудника
+ * @param position     должность
+ * @param departmentId идентификатор департамента или null
+ */
+public record SnapshotContactRow(Long id, String fullName, String position, Long departmentId) {
+
+}
@@ -0,0 +1,12 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+/**
+ * Департамент в снимке справочника.
+ *
+ * @param id       идентификатор департамента
+ * @param name     название департамента
+ * @param parentId идентификатор родительского департамента или null для корня
+ */
+public record SnapshotDepartment(Long id, String name, Long parentId) {
+
+}
@@ -0,0 +1,53 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Готовый к отдаче снимок справочника.
+ *
+ * @param data          байты снимка
+ * @param etag          тег версии (хеш содержимого, одинаковый на всех экземплярах)
+ * @param generatedAt   время построения
+ * @param contactCount  количество контактов в снимке
+ * @param highWaterMark наибольший идентификатор примененной записи журнала изменений
+ */
+public record SnapshotFile(byte[] data, String etag, Instant generatedAt, int contactCount,
+                           long highWaterMark) {
+
+    private static final int ETAG_BYTES = 16;
+
+    /**
+     * Создает только что построенный снимок.
+     *
+     * @param data          байты снимка
+     * @param contactCount  количество контактов
+     * @param highWaterMark отметка журнала изменений
+     * @return снимок
+     */
+    public static SnapshotFile of(byte[] data, int contactCount, long highWaterMark) {
+        return restore(data, contactCount, highWaterMark, Instant.now());
+    }
+
+    /**
+     * Восстанавливает снимок, сохраненный ранее.
+     *
+     * @param data          байты снимка
+     * @param contactCount  количество контактов
+     * @param highWaterMark отметка журнала изменений
+     * @param generatedAt   время построения
+     * @return снимок
+     */
+    public static SnapshotFile restore(byte[] data, int contactCount, long highWaterMark,
+        Instant generatedAt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            String etag = HexFormat.of().formatHex(digest, 0, ETAG_BYTES);
+            return new SnapshotFile(data, etag, generatedAt, contactCount, highWaterMark);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+import com.ivanzlotnikov.phonebook.config.snapshot.DirectorySnapshotProperties;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Хранение снимков справочника на томе пода между перезапусками. Файл содержит заголовок
+ * с версией хранилища, арендатором, отметкой журнала изменений и временем построения, за ним
+ * следует сам снимок. При старте файл читается последовательно, снимок сразу попадает в
+ * массив, из которого затем отдается; запись выполняется в уникальный временный файл с
+ * атомарной заменой, поэтому прерванная запись не портит предыдущий снимок, а несколько
+ * экземпляров могут писать в общий каталог.
+ *
+ * <p>В Kubernetes storage-dir находится на общем для всех подов томе ReadWriteMany
+ * (infra/kubernetes/snapshot-pvc.yaml): и перезапущенные, и новые поды, добавленные при
+ * масштабировании, стартуют с последним снимком, записанным любым подом, и догоняют базу по
+ * журналу изменений. С локальным каталогом снимок переживает только перезапуск процесса.
+ *
+ * <pre>
+ * magic "PBSF" (4 байта), версия хранилища (int), отметка журнала (long),
+ * время построения в мс (long), количество контактов (int), длина имени арендатора (int),
+ * имя арендатора (UTF-8), длина снимка (int), снимок
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "phonebook.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotFileStore {
+
+    private static final byte[] MAGIC = {'P', 'B', 'S', 'F'};
+    private static final int STORE_VERSION = 1;
+    private static final int FIXED_HEADER_BYTES = MAGIC.length + Integer.BYTES + Long.BYTES
+                                                  + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final String FILE_SUFFIX = ".snapshot";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final DirectorySnapshotProperties properties;
+
+    /**
+     * Сохраняет снимок арендатора. Ошибка записи не прерывает работу: снимок остается в памяти,
+     * а при следующем старте будет построен заново.
+     *
+     * @param tenant   арендатор
+     * @param snapshot снимок
+     */
+    public void save(String tenant, SnapshotFile snapshot) {
+        byte[] tenantBytes = tenant.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_BYTES + tenantBytes.length
+                                                + Integer.BYTES);
+        header.put(MAGIC)
+            .putInt(STORE_VERSION)
+            .putLong(snapshot.highWaterMark())
+            .putLong(snapshot.generatedAt().toEpochMilli())
+            .putInt(snapshot.contactCount())
+            .putInt(tenantBytes.length)
+            .put(tenantBytes)
+            .putInt(snapshot.data().length)
+            .flip();
+        Path target = fileOf(tenant);
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), target.getFileName().toString(),
+                TEMP_SUFFIX);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer[] buffers = {header, ByteBuffer.wrap(snapshot.data())};
+                while (buffers[1].hasRemaining()) {
+                    channel.write(buffers);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist directory snapshot for tenant {} to {}", tenant, target, e);
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Загружает сохраненный снимок арендатора. Файл другой версии хранилища, другого
+     * арендатора или поврежденный файл игнорируется.
+     *
+     * @param tenant арендатор
+     * @return снимок или пустой Optional, если подходящего файла нет
+     */
+    public Optional<SnapshotFile> load(String tenant) {
+        Path file = fileOf(tenant);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (DataInputStream input = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file)))) {
+            return Optional.ofNullable(read(input, Files.size(file), tenant));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable directory snapshot file {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private SnapshotFile read(DataInputStream input, long fileSize, String tenant)
+        throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        input.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC) || input.readInt() != STORE_VERSION) {
+            log.info("Directory snapshot file for tenant {} has an unsupported format", tenant);
+            return null;
+        }
+        long highWaterMark = input.readLong();
+        Instant generatedAt = Instant.ofEpochMilli(input.readLong());
+        int contactCount = input.readInt();
+        byte[] tenantBytes = readBytes(input, fileSize);
+        if (!tenant.equals(new String(tenantBytes, StandardCharsets.UTF_8))) {
+            return null;
+        }
+        byte[] data = readBytes(input, fileSize);
+        // Проверяет сигнатуру и версию формата снимка до того, как снимок начнет отдаваться
+        DirectorySnapshotDecoder.checkHeader(data);
+        return SnapshotFile.restore(data, contactCount, highWaterMark, generatedAt);
+    }
+
+    private static byte[] readBytes(DataInputStream input, long fileSize) throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > fileSize) {
+            throw new IllegalArgumentException("Corrupted snapshot file: length " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete temporary snapshot file {}", file, e);
+        }
+    }
+
+    private Path fileOf(String tenant) {
+        return Path.of(properties.getStorageDir()).resolve(tenant + FILE_SUFFIX);
+    }
+}
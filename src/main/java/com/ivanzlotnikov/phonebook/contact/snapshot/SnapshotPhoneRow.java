@@ -0,0 +1,28 @@
+package com.ivanzlotnikov.phonebook.contact.snapshot;
+
+/**
+ * Проекция строки телефона для построения снимка.
+ */
+public interface SnapshotPhoneRow {
+
+    /**
+     * Вид телефона: служебный.
+     */
+    int WORK = 0;
+
+    /**
+     * Вид телефона: служебный мобильный.
+     */
+    int WORK_MOBILE = 1;
+
+    /**
+     * Вид телефона: личный.
+     */
+    int PERSONAL = 2;
+
+    Long getContactId();
+
+    int getKind();
+
+    String getPhoneNumber();
+}
@@ -0,0 +1,100 @@
+package com.ivanzlotnikov.phonebook.contact.store;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Однобайтовое кодирование строк для хранилища контактов. ASCII и русский алфавит кодируются
+ * одним байтом так же, как в windows-1251, поэтому ФИО на кириллице занимает вдвое меньше
+ * места, чем в UTF-8 или в char[]. Строки с другими символами хранятся в UTF-8.
+ */
+final class CompactText {
+
+    private static final int CYRILLIC_A = 0x0410;
+    private static final int CYRILLIC_YA_SMALL = 0x044F;
+    private static final int CYRILLIC_YO = 0x0401;
+    private static final int CYRILLIC_YO_SMALL = 0x0451;
+    private static final int BYTE_A = 0xC0;
+    private static final int BYTE_YO = 0xA8;
+    private static final int BYTE_YO_SMALL = 0xB8;
+    private static final int ASCII_LIMIT = 0x80;
+
+    private CompactText() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Проверяет, можно ли закодировать строку одним байтом на символ.
+     *
+     * @param value строка
+     * @return true, если все символы — ASCII или буквы русского алфавита
+     */
+    static boolean isSingleByte(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (toByte(value.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Кодирует строку: однобайтово, если возможно, иначе в UTF-8.
+     *
+     * @param value      строка
+     * @param singleByte результат {@link #isSingleByte(String)}
+     * @return байты строки
+     */
+    static byte[] encode(String value, boolean singleByte) {
+        if (!singleByte) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) toByte(value.charAt(i));
+        }
+        return bytes;
+    }
+
+    /**
+     * Декодирует строку из участка массива.
+     *
+     * @param arena      массив байтов
+     * @param offset     начало строки
+     * @param length     длина строки в байтах
+     * @param singleByte закодирована ли строка однобайтово
+     * @return строка
+     */
+    static String decode(byte[] arena, int offset, int length, boolean singleByte) {
+        if (!singleByte) {
+            return new String(arena, offset, length, StandardCharsets.UTF_8);
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = toChar(arena[offset + i] & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    private static int toByte(char ch) {
+        if (ch < ASCII_LIMIT) {
+            return ch;
+        }
+        if (ch >= CYRILLIC_A && ch <= CYRILLIC_YA_SMALL) {
+            return BYTE_A + (ch - CYRILLIC_A);
+        }
+        if (ch == CYRILLIC_YO) {
+            return BYTE_YO;
+        }
+        return ch == CYRILLIC_YO_SMALL ? BYTE_YO_SMALL : -1;
+    }
+
+    private static char toChar(int b) {
+        if (b < ASCII_LIMIT) {
+            return (char) b;
+        }
+        if (b >= BYTE_A) {
+            return (char) (CYRILLIC_A + (b - BYTE_A));
+        }
+        return b == BYTE_YO ? (char) CYRILLIC_YO : (char) CYRILLIC_YO_SMALL;
+    }
+}
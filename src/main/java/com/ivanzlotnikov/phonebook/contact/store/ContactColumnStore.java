@@ -0,0 +1,517 @@
+package com.ivanzlotnikov.phonebook.contact.store;
+
+import com.ivanzlotnikov.phonebook.contact.snapshot.DirectorySnapshotDecoder;
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotContact;
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotDepartment;
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotPhoneRow;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Неизменяемое колоночное хранилище контактов в памяти. Вместо объекта на каждый контакт
+ * (с десятком строк и списков) данные разложены по примитивным массивам:
+ * <ul>
+ *   <li>идентификаторы — {@code long[]} по возрастанию, поиск двоичный;</li>
+ *   <li>должности и департаменты — порядковые номера {@code int[]} в словарях;</li>
+ *   <li>ФИО — общий байтовый массив со смещениями, русский текст по байту на символ
+ *       ({@link CompactText});</li>
+ *   <li>телефоны — цифры в {@code long[]} и номер шаблона оформления в {@code short[]}
+ *       ({@link PackedPhone}), нестандартные номера — отдельной таблицей строк.</li>
+ * </ul>
+ * Контакт занимает порядка 80 байт против 1–1,5 КБ у ContactDTO, поэтому 5 млн контактов
+ * помещаются в куче меньше 1 ГБ. Объекты создаются только при чтении через
+ * {@link ContactRecord}.
+ */
+public final class ContactColumnStore {
+
+    private static final int NO_ORDINAL = -1;
+    private static final short RAW_PHONE = -1;
+    private static final int PHONE_KINDS = 3;
+
+    private final int size;
+    private final long[] ids;
+    private final int[] nameOffsets;
+    private final byte[] nameArena;
+    private final BitSet utf8Names;
+    private final int[] positionOrdinals;
+    private final String[] positions;
+    private final int[] departmentOrdinals;
+    private final List<SnapshotDepartment> departments;
+    private final int[] phoneOffsets;
+    private final byte[] phoneKinds;
+    private final long[] phoneDigits;
+    private final short[] phoneTemplates;
+    private final String[] templates;
+    private final String[] rawPhones;
+
+    private ContactColumnStore(Builder builder) {
+        this.size = builder.size;
+        this.ids = trim(builder.ids, size);
+        this.nameOffsets = trim(builder.nameOffsets, size + 1);
+        this.nameArena = trim(builder.nameArena, builder.nameLength);
+        this.utf8Names = builder.utf8Names;
+        this.positionOrdinals = trim(builder.positionOrdinals, size);
+        this.positions = builder.positions.toArray(String[]::new);
+        this.departmentOrdinals = trim(builder.departmentOrdinals, size);
+        this.departments = builder.departments;
+        this.phoneOffsets = trim(builder.phoneOffsets, size + 1);
+        this.phoneKinds = trim(builder.phoneKinds, builder.phoneCount);
+        this.phoneDigits = trim(builder.phoneDigits, builder.phoneCount);
+        this.phoneTemplates = trim(builder.phoneTemplates, builder.phoneCount);
+        this.templates = builder.templates.toArray(String[]::new);
+        this.rawPhones = builder.rawPhones.toArray(String[]::new);
+    }
+
+    /**
+     * Создает построитель хранилища.
+     *
+     * @param departments  департаменты справочника
+     * @param expectedSize ожидаемое количество контактов
+     * @return построитель
+     */
+    public static Builder builder(List<SnapshotDepartment> departments, int expectedSize) {
+        return new Builder(departments, expectedSize);
+    }
+
+    /**
+     * Строит хранилище из контактов в произвольном порядке.
+     *
+     * @param departments департаменты справочника
+     * @param contacts    контакты
+     * @return хранилище
+     */
+    public static ContactColumnStore of(List<SnapshotDepartment> departments,
+        List<SnapshotContact> contacts) {
+        List<SnapshotContact> sorted = new ArrayList<>(contacts);
+        sorted.sort(Comparator.comparing(SnapshotContact::id));
+        Builder builder = builder(departments, sorted.size());
+        sorted.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Строит хранилище из двоичного снимка справочника, декодируя его потоком.
+     *
+     * @param snapshot байты снимка
+     * @return хранилище
+     * @throws IllegalArgumentException если снимок поврежден
+     */
+    public static ContactColumnStore decode(byte[] snapshot) {
+        SnapshotLoader loader = new SnapshotLoader();
+        DirectorySnapshotDecoder.decode(snapshot, loader);
+        return loader.builder.build();
+    }
+
+    /**
+     * Строит новое хранилище из текущего, заменяя измененные контакты. Неизмененные контакты
+     * копируются по колонкам без создания объектов.
+     *
+     * @param departments  актуальные департаменты справочника
+     * @param changedIds   идентификаторы измененных и удаленных контактов
+     * @param replacements актуальные версии измененных контактов; их идентификаторы входят в
+     *                     changedIds, удаленных контактов среди них нет
+     * @return новое хранилище
+     */
+    public ContactColumnStore merge(List<SnapshotDepartment> departments,
+        Set<Long> changedIds, List<SnapshotContact> replacements) {
+        List<SnapshotContact> sorted = new ArrayList<>(replacements);
+        sorted.sort(Comparator.comparing(SnapshotContact::id));
+        Builder builder = builder(departments, size + sorted.size());
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            long id = ids[i];
+            while (next < sorted.size() && sorted.get(next).id() < id) {
+                builder.add(sorted.get(next++));
+            }
+            if (!changedIds.contains(id)) {
+                builder.addFrom(this, i);
+            }
+        }
+        while (next < sorted.size()) {
+            builder.add(sorted.get(next++));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Возвращает количество контактов.
+     *
+     * @return количество контактов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает департаменты справочника, упорядоченные по идентификатору.
+     *
+     * @return департаменты
+     */
+    public List<SnapshotDepartment> departments() {
+        return departments;
+    }
+
+    /**
+     * Возвращает представление контакта по позиции в хранилище.
+     *
+     * @param index позиция от 0 до {@link #size()} - 1
+     * @return представление контакта
+     */
+    public ContactRecord record(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new ContactRecord(this, index);
+    }
+
+    /**
+     * Ищет контакт по идентификатору.
+     *
+     * @param id идентификатор контакта
+     * @return представление контакта или пустой Optional
+     */
+    public Optional<ContactRecord> find(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 ? Optional.of(new ContactRecord(this, index)) : Optional.empty();
+    }
+
+    /**
+     * Возвращает контакты в виде записей снимка, упорядоченных по идентификатору. Записи
+     * создаются при обращении и не удерживаются.
+     *
+     * @return список-представление контактов
+     */
+    public List<SnapshotContact> asSnapshotContacts() {
+        return new SnapshotContactView();
+    }
+
+    /**
+     * Оценивает объем кучи, занимаемый колонками (без словарей).
+     *
+     * @return размер в байтах
+     */
+    public long footprintBytes() {
+        return (long) ids.length * Long.BYTES
+            + (long) nameOffsets.length * Integer.BYTES
+            + nameArena.length
+            + utf8Names.size() / Byte.SIZE
+            + (long) positionOrdinals.length * Integer.BYTES
+            + (long) departmentOrdinals.length * Integer.BYTES
+            + (long) phoneOffsets.length * Integer.BYTES
+            + phoneKinds.length
+            + (long) phoneDigits.length * Long.BYTES
+            + (long) phoneTemplates.length * Short.BYTES;
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    String fullName(int index) {
+        int offset = nameOffsets[index];
+        return CompactText.decode(nameArena, offset, nameOffsets[index + 1] - offset,
+            !utf8Names.get(index));
+    }
+
+    String position(int index) {
+        int ordinal = positionOrdinals[index];
+        return ordinal == NO_ORDINAL ? null : positions[ordinal];
+    }
+
+    SnapshotDepartment department(int index) {
+        int ordinal = departmentOrdinals[index];
+        return ordinal == NO_ORDINAL ? null : departments.get(ordinal);
+    }
+
+    List<String> phones(int index, int kind) {
+        List<String> result = null;
+        for (int i = phoneOffsets[index]; i < phoneOffsets[index + 1]; i++) {
+            if (phoneKinds[i] == kind) {
+                if (result == null) {
+                    result = new ArrayList<>(2);
+                }
+                result.add(phone(i));
+            }
+        }
+        return result == null ? List.of() : result;
+    }
+
+    private String phone(int phoneIndex) {
+        short template = phoneTemplates[phoneIndex];
+        return template == RAW_PHONE
+            ? rawPhones[(int) phoneDigits[phoneIndex]]
+            : PackedPhone.format(templates[template], phoneDigits[phoneIndex]);
+    }
+
+    private static long[] trim(long[] array, int length) {
+        return array.length == length ? array : Arrays.copyOf(array, length);
+    }
+
+    private static int[] trim(int[] array, int length) {
+        return array.length == length ? array : Arrays.copyOf(array, length);
+    }
+
+    private static short[] trim(short[] array, int length) {
+        return array.length == length ? array : Arrays.copyOf(array, length);
+    }
+
+    private static byte[] trim(byte[] array, int length) {
+        return array.length == length ? array : Arrays.copyOf(array, length);
+    }
+
+    private static int grow(int capacity, int required) {
+        return Math.max(required, capacity + (capacity >> 1) + 16);
+    }
+
+    /**
+     * Список-представление контактов хранилища в виде записей снимка.
+     */
+    private final class SnapshotContactView extends AbstractList<SnapshotContact>
+        implements RandomAccess {
+
+        @Override
+        public SnapshotContact get(int index) {
+            return record(index).toSnapshotContact();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Обработчик потокового декодирования снимка, заполняющий построитель.
+     */
+    private static final class SnapshotLoader implements DirectorySnapshotDecoder.Visitor {
+
+        private Builder builder;
+
+        @Override
+        public void start(List<SnapshotDepartment> departments, int contactCount) {
+            builder = builder(departments, contactCount);
+        }
+
+        @Override
+        public void contact(SnapshotContact contact) {
+            builder.add(contact);
+        }
+    }
+
+    /**
+     * Построитель хранилища. Контакты добавляются по возрастанию идентификатора; построитель
+     * не потокобезопасен и используется один раз.
+     */
+    public static final class Builder {
+
+        private final List<SnapshotDepartment> departments;
+        private final Map<Long, Integer> departmentIndex;
+        private final Map<String, Integer> positionIndex = new HashMap<>();
+        private final List<String> positions = new ArrayList<>();
+        private final Map<String, Integer> templateIndex = new HashMap<>();
+        private final List<String> templates = new ArrayList<>();
+        private final List<String> rawPhones = new ArrayList<>();
+        private final BitSet utf8Names = new BitSet();
+        private int size;
+        private long[] ids;
+        private int[] nameOffsets;
+        private byte[] nameArena;
+        private int nameLength;
+        private int[] positionOrdinals;
+        private int[] departmentOrdinals;
+        private int[] phoneOffsets;
+        private int phoneCount;
+        private byte[] phoneKinds;
+        private long[] phoneDigits;
+        private short[] phoneTemplates;
+
+        private Builder(List<SnapshotDepartment> departments, int expectedSize) {
+            List<SnapshotDepartment> sorted = new ArrayList<>(departments);
+            sorted.sort(Comparator.comparing(SnapshotDepartment::id));
+            this.departments = List.copyOf(sorted);
+            this.departmentIndex = new HashMap<>(sorted.size() * 2);
+            for (int i = 0; i < sorted.size(); i++) {
+                departmentIndex.put(sorted.get(i).id(), i);
+            }
+            int capacity = Math.max(expectedSize, 16);
+            this.ids = new long[capacity];
+            this.nameOffsets = new int[capacity + 1];
+            this.nameArena = new byte[capacity * 24];
+            this.positionOrdinals = new int[capacity];
+            this.departmentOrdinals = new int[capacity];
+            this.phoneOffsets = new int[capacity + 1];
+            this.phoneKinds = new byte[capacity * 2];
+            this.phoneDigits = new long[capacity * 2];
+            this.phoneTemplates = new short[capacity * 2];
+        }
+
+        /**
+         * Добавляет контакт.
+         *
+         * @param contact контакт с идентификатором больше всех ранее добавленных
+         * @return этот построитель
+         * @throws IllegalArgumentException если нарушен порядок идентификаторов
+         */
+        public Builder add(SnapshotContact contact) {
+            startContact(contact.id());
+            String fullName = contact.fullName() == null ? "" : contact.fullName();
+            boolean singleByte = CompactText.isSingleByte(fullName);
+            byte[] name = CompactText.encode(fullName, singleByte);
+            appendName(name, 0, name.length, singleByte);
+            positionOrdinals[size] = positionOrdinal(contact.position());
+            departmentOrdinals[size] = departmentOrdinal(contact.departmentId());
+            appendPhones(contact.workPhones(), SnapshotPhoneRow.WORK);
+            appendPhones(contact.workMobilePhones(), SnapshotPhoneRow.WORK_MOBILE);
+            appendPhones(contact.personalPhones(), SnapshotPhoneRow.PERSONAL);
+            return finishContact();
+        }
+
+        private Builder addFrom(ContactColumnStore source, int index) {
+            startContact(source.ids[index]);
+            int offset = source.nameOffsets[index];
+            appendName(source.nameArena, offset, source.nameOffsets[index + 1] - offset,
+                !source.utf8Names.get(index));
+            positionOrdinals[size] = positionOrdinal(source.position(index));
+            SnapshotDepartment department = source.department(index);
+            departmentOrdinals[size] = departmentOrdinal(department == null ? null : department.id());
+            for (int i = source.phoneOffsets[index]; i < source.phoneOffsets[index + 1]; i++) {
+                short template = source.phoneTemplates[i];
+                if (template == RAW_PHONE) {
+                    appendPhone(source.rawPhones[(int) source.phoneDigits[i]], source.phoneKinds[i]);
+                } else {
+                    appendPacked(source.templates[template], source.phoneDigits[i],
+                        source.phoneKinds[i]);
+                }
+            }
+            return finishContact();
+        }
+
+        /**
+         * Завершает построение.
+         *
+         * @return хранилище
+         */
+        public ContactColumnStore build() {
+            ContactColumnStore store = new ContactColumnStore(this);
+            // Колонки с запасом емкости больше не нужны построителю и не должны удерживаться им
+            ids = null;
+            nameOffsets = null;
+            nameArena = null;
+            positionOrdinals = null;
+            departmentOrdinals = null;
+            phoneOffsets = null;
+            phoneKinds = null;
+            phoneDigits = null;
+            phoneTemplates = null;
+            return store;
+        }
+
+        private void startContact(Long id) {
+            if (id == null || size > 0 && id <= ids[size - 1]) {
+                throw new IllegalArgumentException(
+                    "Contacts must be added in ascending id order: " + id);
+            }
+            if (size == ids.length) {
+                int capacity = grow(ids.length, size + 1);
+                ids = Arrays.copyOf(ids, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+                positionOrdinals = Arrays.copyOf(positionOrdinals, capacity);
+                departmentOrdinals = Arrays.copyOf(departmentOrdinals, capacity);
+                phoneOffsets = Arrays.copyOf(phoneOffsets, capacity + 1);
+            }
+            ids[size] = id;
+        }
+
+        private Builder finishContact() {
+            size++;
+            nameOffsets[size] = nameLength;
+            phoneOffsets[size] = phoneCount;
+            return this;
+        }
+
+        private void appendName(byte[] bytes, int offset, int length, boolean singleByte) {
+            if (nameLength + length > nameArena.length) {
+                nameArena = Arrays.copyOf(nameArena, grow(nameArena.length, nameLength + length));
+            }
+            System.arraycopy(bytes, offset, nameArena, nameLength, length);
+            nameLength += length;
+            if (!singleByte) {
+                utf8Names.set(size);
+            }
+        }
+
+        private int positionOrdinal(String position) {
+            if (position == null) {
+                return NO_ORDINAL;
+            }
+            return positionIndex.computeIfAbsent(position, key -> {
+                positions.add(key);
+                return positions.size() - 1;
+            });
+        }
+
+        private int departmentOrdinal(Long departmentId) {
+            Integer ordinal = departmentId == null ? null : departmentIndex.get(departmentId);
+            return ordinal == null ? NO_ORDINAL : ordinal;
+        }
+
+        private void appendPhones(List<String> phones, int kind) {
+            if (phones == null) {
+                return;
+            }
+            for (String phone : phones) {
+                appendPhone(phone, (byte) kind);
+            }
+        }
+
+        private void appendPhone(String phone, byte kind) {
+            String template = PackedPhone.templateOf(phone);
+            if (template != null) {
+                appendPacked(template, PackedPhone.digitsOf(phone), kind);
+                return;
+            }
+            rawPhones.add(phone);
+            appendSlot(kind, rawPhones.size() - 1, RAW_PHONE);
+        }
+
+        private void appendPacked(String template, long digits, byte kind) {
+            Integer ordinal = templateIndex.get(template);
+            if (ordinal == null && templates.size() <= Short.MAX_VALUE) {
+                ordinal = templates.size();
+                templates.add(template);
+                templateIndex.put(template, ordinal);
+            }
+            if (ordinal == null) {
+                rawPhones.add(PackedPhone.format(template, digits));
+                appendSlot(kind, rawPhones.size() - 1, RAW_PHONE);
+            } else {
+                appendSlot(kind, digits, ordinal.shortValue());
+            }
+        }
+
+        private void appendSlot(byte kind, long value, short template) {
+            if (kind < 0 || kind >= PHONE_KINDS) {
+                throw new IllegalArgumentException("Unknown phone kind " + kind);
+            }
+            if (phoneCount == phoneKinds.length) {
+                int capacity = grow(phoneKinds.length, phoneCount + 1);
+                phoneKinds = Arrays.copyOf(phoneKinds, capacity);
+                phoneDigits = Arrays.copyOf(phoneDigits, capacity);
+                phoneTemplates = Arrays.copyOf(phoneTemplates, capacity);
+            }
+            phoneKinds[phoneCount] = kind;
+            phoneDigits[phoneCount] = value;
+            phoneTemplates[phoneCount] = template;
+            phoneCount++;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ivanzlotnikov.phonebook.contact.store;
+
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotContact;
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotDepartment;
+import com.ivanzlotnikov.phonebook.contact.snapshot.SnapshotPhoneRow;
+import java.util.List;
+
+/**
+ * Легковесное представление контакта в {@link ContactColumnStore}: хранит только ссылку на
+ * хранилище и позицию, поля декодируются при обращении. Используется на границе вывода,
+ * где из него строится DTO.
+ */
+public final class ContactRecord {
+
+    private final ContactColumnStore store;
+    private final int index;
+
+    ContactRecord(ContactColumnStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    public long id() {
+        return store.id(index);
+    }
+
+    public String fullName() {
+        return store.fullName(index);
+    }
+
+    public String position() {
+        return store.position(index);
+    }
+
+    public Long departmentId() {
+        SnapshotDepartment department = store.department(index);
+        return department == null ? null : department.id();
+    }
+
+    public String departmentName() {
+        SnapshotDepartment department = store.department(index);
+        return department == null ? null : department.name();
+    }
+
+    public List<String> workPhones() {
+        return store.phones(index, SnapshotPhoneRow.WORK);
+    }
+
+    public List<String> workMobilePhones() {
+        return store.phones(index, SnapshotPhoneRow.WORK_MOBILE);
+    }
+
+    public List<String> personalPhones() {
+        return store.phones(index, SnapshotPhoneRow.PERSONAL);
+    }
+
+    /**
+     * Создает запись снимка для контакта.
+     *
+     * @return запись снимка
+     */
+    public SnapshotContact toSnapshotContact() {
+        return new SnapshotContact(id(), fullName(), position(), departmentId(),
+            workPhones(), workMobilePhones(), personalPhones());
+    }
+}
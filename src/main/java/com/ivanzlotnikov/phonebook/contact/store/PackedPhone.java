@@ -0,0 +1,86 @@
+package com.ivanzlotnikov.phonebook.contact.store;
+
+/**
+ * Упаковка телефонного номера в число и шаблон. Цифры номера хранятся одним long, а
+ * оформление — шаблоном, в котором каждая цифра заменена символом {@link #DIGIT}
+ * ("+7 (495) 111-11-11" → 74951111111 и "+D (DDD) DDD-DD-DD"). Шаблонов в справочнике
+ * немного, поэтому они хранятся словарем. Номера с символами вне допустимого набора или с
+ * более чем {@link #MAX_DIGITS} цифрами не упаковываются.
+ */
+final class PackedPhone {
+
+    /**
+     * Символ цифры в шаблоне.
+     */
+    static final char DIGIT = 'D';
+
+    /**
+     * Наибольшее количество цифр, гарантированно помещающееся в long.
+     */
+    static final int MAX_DIGITS = 18;
+
+    private static final String FORMAT_CHARACTERS = "+()- ";
+
+    private PackedPhone() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Строит шаблон номера.
+     *
+     * @param phone номер телефона
+     * @return шаблон или null, если номер нельзя упаковать
+     */
+    static String templateOf(String phone) {
+        int digits = 0;
+        char[] template = new char[phone.length()];
+        for (int i = 0; i < template.length; i++) {
+            char ch = phone.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                template[i] = DIGIT;
+                digits++;
+            } else if (FORMAT_CHARACTERS.indexOf(ch) >= 0) {
+                template[i] = ch;
+            } else {
+                return null;
+            }
+        }
+        return digits <= MAX_DIGITS ? new String(template) : null;
+    }
+
+    /**
+     * Извлекает цифры номера в виде числа.
+     *
+     * @param phone номер телефона, для которого построен шаблон
+     * @return цифры номера
+     */
+    static long digitsOf(String phone) {
+        long value = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char ch = phone.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                value = value * 10 + (ch - '0');
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Восстанавливает номер по шаблону и цифрам.
+     *
+     * @param template шаблон номера
+     * @param digits   цифры номера
+     * @return номер телефона
+     */
+    static String format(String template, long digits) {
+        char[] chars = template.toCharArray();
+        long remaining = digits;
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (chars[i] == DIGIT) {
+                chars[i] = (char) ('0' + remaining % 10);
+                remaining /= 10;
+            }
+        }
+        return new String(chars);
+    }
+}
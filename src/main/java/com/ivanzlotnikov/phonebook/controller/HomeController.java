@@ -1,8 +1,9 @@
 package com.ivanzlotnikov.phonebook.controller;
 
-import com.ivanzlotnikov.phonebook.auth.service.UserService;
-import com.ivanzlotnikov.phonebook.contact.service.ContactService;
-import com.ivanzlotnikov.phonebook.department.service.DepartmentService;
+import com.ivanzlotnikov.phonebook.config.audit.AuditProperties;
+import com.ivanzlotnikov.phonebook.config.tracing.TracingProperties;
+import com.ivanzlotnikov.phonebook.statistics.dto.DirectoryStatistics;
+import com.ivanzlotnikov.phonebook.statistics.service.DirectoryStatisticsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -16,26 +17,31 @@ import org.springframework.web.bind.annotation.GetMapping;
 @RequiredArgsConstructor
 public class HomeController {
 
-    private final ContactService contactService;
-    private final DepartmentService departmentService;
-    private final UserService userService;
+    private final DirectoryStatisticsService directoryStatisticsService;
+    private final AuditProperties auditProperties;
+    private final TracingProperties tracingProperties;
 
     /**
      * Отображает главную страницу с общей информацией.
      * Для неавторизованных - приглашение войти
      * Для пользователей - статистика контактов и подразделений
      * Для администраторов - расширенная статистика и панель управления
+     * Статистика берется из снимка в памяти, без запросов подсчета к базе.
      *
      * @param model модель для передачи данных в представление
      * @return имя шаблона главной страницы
      */
     @GetMapping({"/","/home"})
     public String home(Model model) {
-            model.addAttribute("totalContacts", contactService.count());
-            model.addAttribute("totalDepartments", departmentService.count());
-            model.addAttribute("totalAdmins", userService.countAdmins());
-            model.addAttribute("totalUsers", userService.countUsers());
-            return "home/index";
+        DirectoryStatistics statistics = directoryStatisticsService.getCurrent();
+        model.addAttribute("statistics", statistics);
+        model.addAttribute("totalContacts", statistics.totalContacts());
+        model.addAttribute("totalDepartments", statistics.totalDepartments());
+        model.addAttribute("totalAdmins", statistics.totalAdmins());
+        model.addAttribute("totalUsers", statistics.totalUsers());
+        model.addAttribute("auditEnabled", auditProperties.isEnabled());
+        model.addAttribute("tracingEnabled", tracingProperties.isEnabled());
+        return "home/index";
     }
 
 }
@@ -1,6 +1,7 @@
 package com.ivanzlotnikov.phonebook.department.controller;
 
 import com.ivanzlotnikov.phonebook.department.dto.DepartmentDTO;
+import com.ivanzlotnikov.phonebook.department.dto.SubtreeContactPolicy;
 import com.ivanzlotnikov.phonebook.department.service.DepartmentService;
 import com.ivanzlotnikov.phonebook.exception.ResourceNotFoundException;
 import jakarta.validation.Valid;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
@@ -56,7 +58,6 @@ public class DepartmentController {
     public String newDepartmentForm(Model model) {
         log.info("Showing form for new department");
         model.addAttribute("department", new DepartmentDTO());
-        model.addAttribute("allDepartments", departmentService.findAll());
         return "departments/form";
     }
 
@@ -79,7 +80,7 @@ public class DepartmentController {
 
         if (bindingResult.hasErrors()) {
             log.warn("Validation errors while saving department: {}", bindingResult.getAllErrors());
-            model.addAttribute("allDepartments", departmentService.findAll());
+            addParentOption(model, departmentDTO);
             return "departments/form";
         }
 
@@ -102,10 +103,15 @@ public class DepartmentController {
         DepartmentDTO department = departmentService.findById(id)
             .orElseThrow(() -> ResourceNotFoundException.byId("Департамент", id));
         model.addAttribute("department", department);
-        model.addAttribute("allDepartments", departmentService.findAll());
+        addParentOption(model, department);
         return "departments/form";
     }
 
+    private void addParentOption(Model model, DepartmentDTO department) {
+        departmentService.findOption(department.getParentDepartmentId())
+            .ifPresent(option -> model.addAttribute("parentOption", option));
+    }
+
     /**
      * Удаляет департамент по идентификатору.
      *
@@ -123,4 +129,28 @@ public class DepartmentController {
 
         return "redirect:/departments";
     }
+
+    /**
+     * Удаляет департамент вместе со всеми поддепартаментами. Контакты ветки переносятся в другой
+     * департамент или в архив в зависимости от выбранной политики.
+     *
+     * @param id                 идентификатор корня удаляемой ветки
+     * @param policy             политика обработки контактов
+     * @param targetDepartmentId департамент для переноса контактов
+     * @param redirectAttributes атрибуты для редиректа
+     * @return редирект на список департаментов
+     */
+    @PostMapping("/delete-subtree")
+    public String deleteDepartmentSubtree(@RequestParam("id") Long id,
+        @RequestParam("policy") SubtreeContactPolicy policy,
+        @RequestParam(value = "targetDepartmentId", required = false) Long targetDepartmentId,
+        RedirectAttributes redirectAttributes) {
+        log.info("Deleting department subtree {} with policy {}", id, policy);
+
+        int deleted = departmentService.deleteSubtree(id, policy, targetDepartmentId);
+        redirectAttributes.addFlashAttribute("successMessage",
+            "Удалено департаментов: " + deleted);
+
+        return "redirect:/departments";
+    }
 }
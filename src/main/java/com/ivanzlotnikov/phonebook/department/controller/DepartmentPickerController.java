@@ -0,0 +1,57 @@
+package com.ivanzlotnikov.phonebook.department.controller;
+
+import com.ivanzlotnikov.phonebook.department.dto.DepartmentOptionPage;
+import com.ivanzlotnikov.phonebook.department.service.DepartmentService;
+import com.ivanzlotnikov.phonebook.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер выбора подразделения на формах контактов и департаментов. Отдает уровни иерархии
+ * по мере раскрытия и результаты поиска по названию постранично, вместо выпадающего списка со
+ * всеми департаментами.
+ */
+@RestController
+@RequestMapping("/departments/picker")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class DepartmentPickerController {
+
+    private final DepartmentService departmentService;
+
+    /**
+     * Отдает страницу дочерних департаментов раскрытого узла.
+     *
+     * @param parentId идентификатор раскрытого департамента или null для корневых
+     * @param page     номер страницы (с нуля)
+     * @return страница департаментов
+     */
+    @GetMapping("/children")
+    public DepartmentOptionPage children(
+        @RequestParam(value = "parentId", required = false) Long parentId,
+        @RequestParam(value = "page", defaultValue = "0") int page) {
+        return departmentService.findOptions(parentId, page);
+    }
+
+    /**
+     * Отдает страницу департаментов, найденных по части названия. Пустой запрос возвращает
+     * корневые департаменты.
+     *
+     * @param query часть названия
+     * @param page  номер страницы (с нуля)
+     * @return страница департаментов
+     */
+    @GetMapping("/search")
+    public DepartmentOptionPage search(
+        @RequestParam(value = "q", required = false) String query,
+        @RequestParam(value = "page", defaultValue = "0") int page) {
+        if (StringUtils.isBlank(query)) {
+            return departmentService.findOptions(null, page);
+        }
+        return departmentService.searchOptions(query, page);
+    }
+}
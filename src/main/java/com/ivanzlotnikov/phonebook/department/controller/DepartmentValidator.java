@@ -1,6 +1,7 @@
 package com.ivanzlotnikov.phonebook.department.controller;
 
 import com.ivanzlotnikov.phonebook.department.dto.DepartmentDTO;
+import com.ivanzlotnikov.phonebook.department.service.DepartmentNameIndex;
 import com.ivanzlotnikov.phonebook.department.service.DepartmentService;
 import com.ivanzlotnikov.phonebook.exception.DuplicateResourceException;
 import lombok.RequiredArgsConstructor;
@@ -8,13 +9,16 @@ import org.springframework.stereotype.Component;
 
 /**
  * Валидатор для проверки департаментов на дубликаты.
- * Проверяет уникальность названия при создании нового департамента.
+ * Проверяет уникальность названия при создании нового департамента. Сначала используется
+ * индекс названий в памяти, и только если он не может исключить дубликат, выполняется
+ * запрос к базе.
  */
 @Component
 @RequiredArgsConstructor
 public class DepartmentValidator {
 
     private final DepartmentService departmentService;
+    private final DepartmentNameIndex departmentNameIndex;
 
     /**
      * Проверяет, существует ли департамент с таким названием.
@@ -25,6 +29,7 @@ public class DepartmentValidator {
      */
     public void checkForDuplicate(DepartmentDTO departmentDTO) {
         if (departmentDTO.getId() == null &&
+            !departmentNameIndex.isDefinitelyAbsent(departmentDTO.getName()) &&
             departmentService.existsByName(departmentDTO.getName())) {
             throw DuplicateResourceException.of(
                 "Департамент", "название", departmentDTO.getName());
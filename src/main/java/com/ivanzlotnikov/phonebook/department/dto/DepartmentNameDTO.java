@@ -0,0 +1,11 @@
+package com.ivanzlotnikov.phonebook.department.dto;
+
+/**
+ * Идентификатор и название департамента без загрузки сущности.
+ *
+ * @param id   идентификатор департамента
+ * @param name название департамента
+ */
+public record DepartmentNameDTO(Long id, String name) {
+
+}
@@ -0,0 +1,14 @@
+package com.ivanzlotnikov.phonebook.department.dto;
+
+/**
+ * Департамент в выборе подразделения на формах.
+ * Используется в JPQL запросах, чтобы не загружать сущности.
+ *
+ * @param id          идентификатор департамента
+ * @param name        название департамента
+ * @param parentName  название родительского департамента или null для корня
+ * @param hasChildren есть ли у департамента дочерние подразделения
+ */
+public record DepartmentOptionDTO(Long id, String name, String parentName, boolean hasChildren) {
+
+}
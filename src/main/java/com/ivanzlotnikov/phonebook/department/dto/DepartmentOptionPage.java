@@ -0,0 +1,13 @@
+package com.ivanzlotnikov.phonebook.department.dto;
+
+import java.util.List;
+
+/**
+ * Страница департаментов для выбора подразделения на формах.
+ *
+ * @param items   департаменты страницы
+ * @param hasMore есть ли следующая страница
+ */
+public record DepartmentOptionPage(List<DepartmentOptionDTO> items, boolean hasMore) {
+
+}
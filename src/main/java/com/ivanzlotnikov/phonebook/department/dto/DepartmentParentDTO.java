@@ -0,0 +1,12 @@
+package com.ivanzlotnikov.phonebook.department.dto;
+
+/**
+ * Связь департамента с родителем без загрузки сущностей.
+ * Используется в JPQL запросах для построения иерархии.
+ *
+ * @param id       идентификатор департамента
+ * @param parentId идентификатор родительского департамента или null для корня
+ */
+public record DepartmentParentDTO(Long id, Long parentId) {
+
+}
@@ -0,0 +1,17 @@
+package com.ivanzlotnikov.phonebook.department.dto;
+
+/**
+ * Политика обработки контактов при удалении ветки департаментов.
+ */
+public enum SubtreeContactPolicy {
+
+    /**
+     * Перенести контакты в другой департамент.
+     */
+    REASSIGN,
+
+    /**
+     * Перенести контакты в архив и удалить из основной таблицы.
+     */
+    ARCHIVE
+}
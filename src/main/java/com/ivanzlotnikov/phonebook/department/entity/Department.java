@@ -1,6 +1,8 @@
 package com.ivanzlotnikov.phonebook.department.entity;
 
+import com.ivanzlotnikov.phonebook.config.entitycache.EntityCacheRegions;
 import com.ivanzlotnikov.phonebook.contact.entity.Contact;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -19,13 +21,26 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Сущность департамента (отдела) организации. Представляет иерархическую структуру подразделений с
  * поддержкой родительских и дочерних департаментов, а также связанных контактов.
+ *
+ * <p>Департаменты хранятся в кэше второго уровня Hibernate (чтение-запись), поиск по названию
+ * идет через кэш естественного идентификатора. Коллекции дочерних департаментов и контактов
+ * не кэшируются. Кэш локален для экземпляра: изменение департамента на другом экземпляре
+ * становится видно здесь не позже срока жизни записи
+ * ({@code phonebook.entity-cache.time-to-live-seconds}, по умолчанию 600 секунд).
  */
 @Entity
 @Table(name = "departments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheRegions.DEPARTMENT)
+@NaturalIdCache(region = EntityCacheRegions.DEPARTMENT_NATURAL_ID)
 @Getter
 @Setter
 @ToString(exclude = {"parentDepartment", "childrenDepartments", "contacts"})
@@ -44,7 +59,9 @@ public class Department {
 
     /**
      * Название департамента. Обязательное уникальное поле, максимальная длина 100 символов.
+     * Естественный идентификатор департамента; может изменяться при переименовании.
      */
+    @NaturalId(mutable = true)
     @NotBlank(message = DEPARTMENT_NAME_MANDATORY)
     @Column(nullable = false, unique = true, length = NAME_FIELD_LENGTH)
     private String name;
@@ -2,6 +2,8 @@ package com.ivanzlotnikov.phonebook.department.mapper;
 
 import com.ivanzlotnikov.phonebook.department.dto.DepartmentDTO;
 import com.ivanzlotnikov.phonebook.department.entity.Department;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.stereotype.Component;
 
 /**
@@ -32,4 +34,18 @@ public class DepartmentMapper {
         }
         return dto;
     }
+
+    /**
+     * Снимает значения полей департамента для журнала аудита.
+     *
+     * @param department сущность департамента
+     * @return значения полей по имени поля
+     */
+    public Map<String, Object> toAuditState(Department department) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("name", department.getName());
+        state.put("parentDepartmentId", department.getParentDepartment() != null
+            ? department.getParentDepartment().getId() : null);
+        return state;
+    }
 }
@@ -0,0 +1,19 @@
+package com.ivanzlotnikov.phonebook.department.repository;
+
+import com.ivanzlotnikov.phonebook.department.entity.Department;
+import java.util.Optional;
+
+/**
+ * Поиск департаментов по естественному идентификатору (названию). Поиск идет через кэш
+ * естественных идентификаторов Hibernate и кэш сущностей.
+ */
+public interface DepartmentNaturalIdRepository {
+
+    /**
+     * Находит департамент по точному названию.
+     *
+     * @param name название департамента
+     * @return Optional с департаментом или пустой Optional
+     */
+    Optional<Department> findByName(String name);
+}
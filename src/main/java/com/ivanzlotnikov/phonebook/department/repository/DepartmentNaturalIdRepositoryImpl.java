@@ -0,0 +1,26 @@
+package com.ivanzlotnikov.phonebook.department.repository;
+
+import com.ivanzlotnikov.phonebook.department.entity.Department;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+import org.hibernate.Session;
+
+/**
+ * Реализация поиска департаментов по естественному идентификатору через API Hibernate.
+ */
+public class DepartmentNaturalIdRepositoryImpl implements DepartmentNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Department> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(Department.class)
+            .loadOptional(name);
+    }
+}
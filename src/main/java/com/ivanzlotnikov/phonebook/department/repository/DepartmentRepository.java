@@ -1,11 +1,20 @@
 package com.ivanzlotnikov.phonebook.department.repository;
 
+import com.ivanzlotnikov.phonebook.department.dto.DepartmentNameDTO;
+import com.ivanzlotnikov.phonebook.department.dto.DepartmentOptionDTO;
+import com.ivanzlotnikov.phonebook.department.dto.DepartmentParentDTO;
 import com.ivanzlotnikov.phonebook.department.dto.DepartmentWithContactCountDTO;
 import com.ivanzlotnikov.phonebook.department.entity.Department;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,9 +22,11 @@ import org.springframework.stereotype.Repository;
  * Репозиторий для работы с сущностью {@link Department}.
  * Предоставляет методы для работы с иерархической структурой департаментов,
  * включая рекурсивные запросы и агрегацию данных.
+ * Поиск по точному названию реализован в {@link DepartmentNaturalIdRepository}.
  */
 @Repository
-public interface DepartmentRepository extends JpaRepository<Department, Long> {
+public interface DepartmentRepository extends JpaRepository<Department, Long>,
+    DepartmentNaturalIdRepository {
 
     /**
      * Находит все корневые департаменты (без родительского департамента).
@@ -32,14 +43,6 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
      */
     List<Department> findByParentDepartmentId(Long parentId);
 
-    /**
-     * Находит департамент по точному названию.
-     *
-     * @param name название департамента
-     * @return Optional с департаментом или пустой Optional
-     */
-    Optional<Department> findByName(String name);
-
     /**
      * Проверяет существование департамента с указанным названием.
      *
@@ -132,8 +135,152 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
      * Используется для построения иерархии департаментов в памяти.
      * Предотвращает N+1 проблему при работе с иерархией.
      *
+     * Результат хранится в кэше запросов и сбрасывается при любом изменении таблицы
+     * департаментов.
+     *
      * @return список всех департаментов с загруженными родителями
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT d FROM Department d LEFT JOIN FETCH d.parentDepartment")
     List<Department> findAllWithParent();
+
+    /**
+     * Загружает связи всех департаментов с родителями без загрузки сущностей.
+     *
+     * @return пары идентификаторов департамента и его родителя
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.department.dto.DepartmentParentDTO(d.id, p.id)
+        FROM Department d LEFT JOIN d.parentDepartment p
+        """)
+    List<DepartmentParentDTO> findAllParentLinks();
+
+    /**
+     * Находит страницу корневых департаментов для выбора подразделения, упорядоченных по
+     * названию.
+     *
+     * @param pageable параметры страницы
+     * @return срез корневых департаментов
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.department.dto.DepartmentOptionDTO(d.id, d.name,
+            CAST(NULL AS String),
+            CASE WHEN EXISTS (SELECT 1 FROM Department c WHERE c.parentDepartment = d)
+                THEN true ELSE false END)
+        FROM Department d
+        WHERE d.parentDepartment IS NULL
+        ORDER BY d.name, d.id
+        """)
+    Slice<DepartmentOptionDTO> findRootOptions(Pageable pageable);
+
+    /**
+     * Находит страницу дочерних департаментов для выбора подразделения, упорядоченных по
+     * названию.
+     *
+     * @param parentId идентификатор родительского департамента
+     * @param pageable параметры страницы
+     * @return срез дочерних департаментов
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.department.dto.DepartmentOptionDTO(d.id, d.name,
+            p.name,
+            CASE WHEN EXISTS (SELECT 1 FROM Department c WHERE c.parentDepartment = d)
+                THEN true ELSE false END)
+        FROM Department d JOIN d.parentDepartment p
+        WHERE p.id = :parentId
+        ORDER BY d.name, d.id
+        """)
+    Slice<DepartmentOptionDTO> findOptionsByParentId(@Param("parentId") Long parentId,
+        Pageable pageable);
+
+    /**
+     * Находит страницу департаментов для выбора подразделения по части названия без учета
+     * регистра.
+     *
+     * @param name     часть названия
+     * @param pageable параметры страницы
+     * @return срез найденных департаментов
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.department.dto.DepartmentOptionDTO(d.id, d.name,
+            p.name,
+            CASE WHEN EXISTS (SELECT 1 FROM Department c WHERE c.parentDepartment = d)
+                THEN true ELSE false END)
+        FROM Department d LEFT JOIN d.parentDepartment p
+        WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%'))
+        ORDER BY d.name, d.id
+        """)
+    Slice<DepartmentOptionDTO> findOptionsByName(@Param("name") String name, Pageable pageable);
+
+    /**
+     * Находит департамент для отображения выбранного значения на форме.
+     *
+     * @param id идентификатор департамента
+     * @return Optional с департаментом или пустой Optional
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.department.dto.DepartmentOptionDTO(d.id, d.name,
+            p.name,
+            CASE WHEN EXISTS (SELECT 1 FROM Department c WHERE c.parentDepartment = d)
+                THEN true ELSE false END)
+        FROM Department d LEFT JOIN d.parentDepartment p
+        WHERE d.id = :id
+        """)
+    Optional<DepartmentOptionDTO> findOptionById(@Param("id") Long id);
+
+    /**
+     * Загружает названия всех департаментов без загрузки сущностей.
+     * Используется для построения индекса дубликатов в памяти.
+     *
+     * @return список названий департаментов
+     */
+    @Query("SELECT d.name FROM Department d")
+    List<String> findAllNames();
+
+    /**
+     * Находит названия департаментов по идентификаторам без загрузки сущностей.
+     *
+     * @param ids идентификаторы департаментов
+     * @return идентификаторы и названия найденных департаментов
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.department.dto.DepartmentNameDTO(d.id, d.name)
+        FROM Department d
+        WHERE d.id IN :ids
+        """)
+    List<DepartmentNameDTO> findNamesByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Находит идентификаторы департамента и всех его поддепартаментов, упорядоченные от самых
+     * глубоких к корню. Такой порядок позволяет удалять поддерево снизу вверх пакетами без
+     * нарушения внешнего ключа на родителя. Циклы в иерархии обнаруживаются конструкцией CYCLE
+     * (PostgreSQL 14+), каждый департамент возвращается один раз.
+     *
+     * @param departmentId идентификатор корня поддерева
+     * @return идентификаторы департаментов поддерева, включая корень
+     */
+    @Query(value = """
+            WITH RECURSIVE subtree AS (
+                SELECT id, 0 AS depth
+                FROM departments
+                WHERE id = :departmentId
+                UNION ALL
+                SELECT d.id, s.depth + 1
+                FROM departments d
+                INNER JOIN subtree s ON d.parent_department_id = s.id
+            ) CYCLE id SET is_cycle USING path
+            SELECT id FROM subtree WHERE NOT is_cycle GROUP BY id ORDER BY max(depth) DESC
+        """, nativeQuery = true)
+    List<Long> findSubtreeIdsDeepestFirst(@Param("departmentId") Long departmentId);
+
+    /**
+     * Удаляет департаменты по списку идентификаторов одним запросом, без каскадной загрузки
+     * дочерних сущностей. Дочерние департаменты должны быть удалены раньше или в том же пакете.
+     *
+     * @param ids список идентификаторов департаментов
+     * @return количество удаленных записей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Department d WHERE d.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,231 @@
+package com.ivanzlotnikov.phonebook.department.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Неизменяемый индекс иерархии департаментов на примитивных массивах. Департаменты
+ * адресуются позицией во входных массивах, дочерние хранятся сжатыми списками смежности
+ * (смещения и общий массив позиций). Все обходы итеративные и не ограничены по глубине,
+ * поэтому дерево любой вложенности строится целиком, без переполнения стека.
+ *
+ * <p>Департаменты, недостижимые из корней, находятся в цикле или под ним: в дерево они не
+ * попадают и возвращаются {@link #cyclicIds()}, чтобы о них можно было сообщить.
+ */
+final class DepartmentHierarchy {
+
+    /**
+     * Значение идентификатора родителя у корневого департамента.
+     */
+    static final long NO_PARENT = 0;
+
+    private static final int NONE = -1;
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final long[] ids;
+    private final long[] sortedIds;
+    private final int[] sortedPositions;
+    private final int[] parents;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] roots;
+    private final BitSet reachable;
+
+    private DepartmentHierarchy(long[] ids, long[] parentIds) {
+        int size = ids.length;
+        this.ids = ids;
+        this.sortedPositions = IntStream.range(0, size)
+            .boxed()
+            .sorted((a, b) -> Long.compare(ids[a], ids[b]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        this.sortedIds = new long[size];
+        for (int i = 0; i < size; i++) {
+            sortedIds[i] = ids[sortedPositions[i]];
+        }
+
+        this.parents = new int[size];
+        int[] childCounts = new int[size + 1];
+        int rootCount = 0;
+        for (int i = 0; i < size; i++) {
+            // Ссылка на отсутствующего родителя делает департамент корнем
+            int parent = parentIds[i] == NO_PARENT ? NONE : indexOf(parentIds[i]);
+            parents[i] = parent;
+            if (parent == NONE) {
+                rootCount++;
+            } else {
+                childCounts[parent + 1]++;
+            }
+        }
+        this.childOffsets = childCounts;
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        this.children = new int[size - rootCount];
+        this.roots = new int[rootCount];
+        int[] fill = Arrays.copyOf(childOffsets, size);
+        int rootFill = 0;
+        // Обход по возрастанию идентификатора упорядочивает дочерние и корни по идентификатору
+        for (int position : sortedPositions) {
+            int parent = parents[position];
+            if (parent == NONE) {
+                roots[rootFill++] = position;
+            } else {
+                children[fill[parent]++] = position;
+            }
+        }
+        this.reachable = new BitSet(size);
+        traverse(roots, reachable, new int[size]);
+    }
+
+    /**
+     * Строит индекс иерархии.
+     *
+     * @param ids       идентификаторы департаментов
+     * @param parentIds идентификаторы родителей в тех же позициях ({@link #NO_PARENT} для
+     *                  корня)
+     * @return индекс иерархии
+     */
+    static DepartmentHierarchy of(long[] ids, long[] parentIds) {
+        if (ids.length != parentIds.length) {
+            throw new IllegalArgumentException("ids and parentIds must have the same length");
+        }
+        return new DepartmentHierarchy(ids, parentIds);
+    }
+
+    /**
+     * Возвращает количество департаментов.
+     *
+     * @return количество департаментов
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Возвращает позицию департамента во входных массивах.
+     *
+     * @param id идентификатор департамента
+     * @return позиция или -1, если департамента нет
+     */
+    int indexOf(long id) {
+        int sorted = Arrays.binarySearch(sortedIds, id);
+        return sorted < 0 ? NONE : sortedPositions[sorted];
+    }
+
+    /**
+     * Возвращает идентификаторы департамента и всех его поддепартаментов в порядке обхода в
+     * ширину, начиная с самого департамента. Обход безопасен для циклов.
+     *
+     * @param id идентификатор корня поддерева
+     * @return идентификаторы поддерева или пустой массив, если департамента нет
+     */
+    long[] subtreeIds(long id) {
+        int root = indexOf(id);
+        if (root == NONE) {
+            return new long[0];
+        }
+        int[] order = new int[ids.length];
+        int count = traverse(new int[] {root}, new BitSet(ids.length), order);
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ids[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, является ли департамент предком другого департамента или им самим.
+     * Подъем по родителям ограничен количеством департаментов, поэтому завершается и при
+     * наличии цикла.
+     *
+     * @param ancestorId   идентификатор предполагаемого предка
+     * @param departmentId идентификатор проверяемого департамента
+     * @return true, если ancestorId встречается на пути от departmentId к корню
+     */
+    boolean isSelfOrAncestor(long ancestorId, long departmentId) {
+        int ancestor = indexOf(ancestorId);
+        int current = indexOf(departmentId);
+        for (int steps = 0; current != NONE && steps <= ids.length; steps++) {
+            if (current == ancestor) {
+                return true;
+            }
+            current = parents[current];
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает идентификаторы департаментов, недостижимых из корней (в цикле или под ним).
+     *
+     * @return идентификаторы по возрастанию
+     */
+    long[] cyclicIds() {
+        return Arrays.stream(sortedPositions)
+            .filter(position -> !reachable.get(position))
+            .mapToLong(position -> ids[position])
+            .toArray();
+    }
+
+    /**
+     * Строит лес из готовых узлов: каждому узлу присваивается список дочерних узлов; рекурсии
+     * нет. Узлы создает вызывающий код в своем потоке, поэтому они могут строиться из
+     * управляемых сущностей. Здесь обрабатываются только сами узлы, и для больших иерархий
+     * списки дочерних присваиваются параллельно в общем пуле fork-join. Установщик должен быть
+     * потокобезопасен при вызове для разных узлов и не должен обращаться к сущностям JPA.
+     *
+     * @param nodes          узлы в позициях департаментов
+     * @param childrenSetter присваивает узлу список дочерних узлов
+     * @param <T>            тип узла
+     * @return корневые узлы, упорядоченные по идентификатору
+     */
+    <T> List<T> buildForest(List<T> nodes, BiConsumer<T, List<T>> childrenSetter) {
+        if (nodes.size() != ids.length) {
+            throw new IllegalArgumentException("nodes must have one node per department");
+        }
+        positions()
+            .filter(position -> childOffsets[position] < childOffsets[position + 1])
+            .forEach(position -> {
+                List<T> nodeChildren = new ArrayList<>(
+                    childOffsets[position + 1] - childOffsets[position]);
+                for (int i = childOffsets[position]; i < childOffsets[position + 1]; i++) {
+                    nodeChildren.add(nodes.get(children[i]));
+                }
+                childrenSetter.accept(nodes.get(position), nodeChildren);
+            });
+        List<T> forest = new ArrayList<>(roots.length);
+        for (int root : roots) {
+            forest.add(nodes.get(root));
+        }
+        return forest;
+    }
+
+    private IntStream positions() {
+        IntStream positions = IntStream.range(0, ids.length).filter(reachable::get);
+        return ids.length >= PARALLEL_THRESHOLD ? positions.parallel() : positions;
+    }
+
+    private int traverse(int[] starts, BitSet visited, int[] queue) {
+        int head = 0;
+        int tail = 0;
+        for (int start : starts) {
+            visited.set(start);
+            queue[tail++] = start;
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            for (int i = childOffsets[current]; i < childOffsets[current + 1]; i++) {
+                int child = children[i];
+                if (!visited.get(child)) {
+                    visited.set(child);
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return tail;
+    }
+}
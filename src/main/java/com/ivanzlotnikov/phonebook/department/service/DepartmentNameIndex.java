@@ -0,0 +1,70 @@
+package com.ivanzlotnikov.phonebook.department.service;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantProperties;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantTaskRunner;
+import com.ivanzlotnikov.phonebook.department.repository.DepartmentRepository;
+import com.ivanzlotnikov.phonebook.util.ConcurrentKeyIndex;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Индекс названий департаментов в памяти. Позволяет валидатору без обращения к базе
+ * определить, что название нового департамента точно свободно. Для каждого арендатора
+ * ведется отдельный индекс с ограниченным размером.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DepartmentNameIndex {
+
+    private final DepartmentRepository departmentRepository;
+    private final TenantTaskRunner tenantTaskRunner;
+    private final TenantProperties tenantProperties;
+    private final Map<String, ConcurrentKeyIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Загружает названия всех департаментов каждого арендатора после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        tenantTaskRunner.forEachTenantReadOnly(this::loadCurrentTenant);
+    }
+
+    /**
+     * Добавляет название департамента в индекс текущего арендатора.
+     *
+     * @param name название департамента
+     */
+    public void add(String name) {
+        currentIndex().add(name);
+    }
+
+    /**
+     * Проверяет, что департамента с таким названием у текущего арендатора точно нет.
+     *
+     * @param name название департамента
+     * @return true, если название точно свободно; false, если требуется проверка в базе
+     */
+    public boolean isDefinitelyAbsent(String name) {
+        return currentIndex().isDefinitelyAbsent(name);
+    }
+
+    private void loadCurrentTenant() {
+        ConcurrentKeyIndex index = currentIndex();
+        departmentRepository.findAllNames().forEach(index::add);
+        index.markLoaded();
+        log.info("Department name index for tenant {} loaded with {} keys",
+            TenantContext.getCurrentTenant(), index.size());
+    }
+
+    private ConcurrentKeyIndex currentIndex() {
+        return indexes.computeIfAbsent(TenantContext.getCurrentTenant(),
+            tenant -> new ConcurrentKeyIndex(tenantProperties.getMaxIndexKeys()));
+    }
+}
@@ -1,21 +1,42 @@
 package com.ivanzlotnikov.phonebook.department.service;
 
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEntityType;
+import com.ivanzlotnikov.phonebook.audit.dto.AuditEvent;
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import com.ivanzlotnikov.phonebook.config.events.DirectoryChangeEvent;
+import com.ivanzlotnikov.phonebook.contact.repository.ArchivedContactRepository;
 import com.ivanzlotnikov.phonebook.contact.repository.ContactRepository;
 import com.ivanzlotnikov.phonebook.department.dto.DepartmentDTO;
+import com.ivanzlotnikov.phonebook.department.dto.DepartmentOptionDTO;
+import com.ivanzlotnikov.phonebook.department.dto.DepartmentOptionPage;
+import com.ivanzlotnikov.phonebook.department.dto.DepartmentParentDTO;
 import com.ivanzlotnikov.phonebook.department.dto.DepartmentWithContactCountDTO;
+import com.ivanzlotnikov.phonebook.department.dto.SubtreeContactPolicy;
 import com.ivanzlotnikov.phonebook.department.entity.Department;
 import com.ivanzlotnikov.phonebook.department.mapper.DepartmentMapper;
 import com.ivanzlotnikov.phonebook.department.repository.DepartmentRepository;
+import com.ivanzlotnikov.phonebook.exception.DuplicateResourceException;
 import com.ivanzlotnikov.phonebook.exception.InvalidDataException;
 import com.ivanzlotnikov.phonebook.exception.ResourceNotFoundException;
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO;
+import com.ivanzlotnikov.phonebook.statistics.service.StatisticsDelta;
+import com.ivanzlotnikov.phonebook.util.CollectionUtils;
+import com.ivanzlotnikov.phonebook.util.DataIntegrityUtils;
 import com.ivanzlotnikov.phonebook.util.StringUtils;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,18 +50,22 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class DepartmentService {
 
-    private static final int MAX_HIERARCHY_DEPTH = 10;
-    private static final int MAX_TREE_DEPTH = 5;
+    private static final int SUBTREE_CHUNK_SIZE = 1000;
+    private static final int OPTION_PAGE_SIZE = 50;
 
     private final DepartmentRepository departmentRepository;
     private final ContactRepository contactRepository;
+    private final ArchivedContactRepository archivedContactRepository;
     private final DepartmentMapper departmentMapper;
+    private final DepartmentNameIndex departmentNameIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Получает все департаменты с количеством контактов.
      *
      * @return список всех департаментов с подсчетом контактов
      */
+    @Transactional(readOnly = true)
     public List<DepartmentDTO> findAll() {
         return departmentRepository.findAllWithContactCount().stream()
             .map(this::mapWithContactCount)
@@ -74,24 +99,34 @@ public class DepartmentService {
     }
 
     /**
-     * Сохраняет новый департамент или обновляет существующий.
+     * Сохраняет новый департамент или обновляет существующий. Изменения сбрасываются в базу
+     * сразу, чтобы нарушение уникальности названия при одновременных запросах было обработано
+     * как дубликат.
      *
      * @param departmentDTO данные департамента
      * @return сохраненный департамент в виде DTO
-     * @throws ResourceNotFoundException если департамент не найден
+     * @throws ResourceNotFoundException  если департамент не найден
+     * @throws DuplicateResourceException если департамент с таким названием уже существует
      */
     public DepartmentDTO save(DepartmentDTO departmentDTO) {
         Department department;
+        Map<String, Object> before = null;
         if (departmentDTO.getId() != null) {
             department = departmentRepository.findById(departmentDTO.getId())
                 .orElseThrow(
                     () -> ResourceNotFoundException.byId("Департамент", departmentDTO.getId()));
+            before = departmentMapper.toAuditState(department);
         } else {
             department = new Department();
         }
         department.setName(StringUtils.trimSafely(departmentDTO.getName()));
 
         if (departmentDTO.getParentDepartmentId() != null) {
+            if (department.getId() != null && loadHierarchy().isSelfOrAncestor(
+                department.getId(), departmentDTO.getParentDepartmentId())) {
+                throw InvalidDataException.forField("parentDepartmentId",
+                    "Нельзя сделать департамент подчиненным самому себе или своему подразделению");
+            }
             Department parent = departmentRepository.findById(
                     departmentDTO.getParentDepartmentId())
                 .orElseThrow(() -> ResourceNotFoundException.byId(
@@ -100,7 +135,25 @@ public class DepartmentService {
         } else {
             department.setParentDepartment(null);
         }
-        Department savedDepartment = departmentRepository.save(department);
+        Department savedDepartment;
+        try {
+            savedDepartment = departmentRepository.saveAndFlush(department);
+        } catch (DataIntegrityViolationException e) {
+            if (!DataIntegrityUtils.isUniqueViolation(e)) {
+                throw e;
+            }
+            throw DuplicateResourceException.of("Департамент", "название", department.getName(), e);
+        }
+        departmentNameIndex.add(savedDepartment.getName());
+        if (departmentDTO.getId() == null) {
+            eventPublisher.publishEvent(StatisticsDelta.departments(1));
+        }
+        Map<String, Object> after = departmentMapper.toAuditState(savedDepartment);
+        eventPublisher.publishEvent(before == null
+            ? AuditEvent.created(AuditEntityType.DEPARTMENT, savedDepartment.getId(), after)
+            : AuditEvent.updated(AuditEntityType.DEPARTMENT, savedDepartment.getId(), before,
+                after));
+        publishChange(List.of(savedDepartment.getId()));
         log.info("Department {} saved successfully", savedDepartment.getId());
 
         return departmentMapper.toDto(savedDepartment);
@@ -128,10 +181,108 @@ public class DepartmentService {
                 "Нельзя удалить департамент, содержащий контакты");
         }
 
+        // Удаленные, но еще не заархивированные контакты ссылаются на департамент
+        archiveSubtreeContacts(List.of(List.of(id)));
         departmentRepository.deleteById(id);
+        eventPublisher.publishEvent(StatisticsDelta.departments(-1));
+        eventPublisher.publishEvent(AuditEvent.deleted(AuditEntityType.DEPARTMENT, List.of(id)));
+        publishChange(List.of(id));
         log.info("Department {} deleted successfully", id);
     }
 
+    /**
+     * Удаляет департамент вместе со всей веткой поддепартаментов. Поддерево вычисляется одним
+     * рекурсивным запросом, контакты ветки переносятся в другой департамент или в архив
+     * множественными запросами, затем департаменты удаляются снизу вверх пакетами по
+     * {@value #SUBTREE_CHUNK_SIZE}. Число запросов зависит только от числа пакетов, а не от
+     * количества департаментов и контактов. Мягко удаленные контакты ветки архивируются при любой
+     * политике, так как они все еще ссылаются на удаляемые департаменты. Перенос и архивация
+     * действующих контактов ветки попадают в журнал аудита как изменение департамента или
+     * удаление контактов.
+     *
+     * @param id                 идентификатор корня удаляемой ветки
+     * @param policy             политика обработки контактов ветки
+     * @param targetDepartmentId департамент для переноса контактов (для политики REASSIGN)
+     * @return количество удаленных департаментов
+     * @throws ResourceNotFoundException если департамент не найден
+     * @throws InvalidDataException      если целевой департамент не указан или входит в ветку
+     */
+    @CacheEvict(cacheNames = "contactCount", allEntries = true)
+    @Bulkhead(BulkheadType.BATCH)
+    public int deleteSubtree(Long id, SubtreeContactPolicy policy, Long targetDepartmentId) {
+        if (!departmentRepository.existsById(id)) {
+            throw ResourceNotFoundException.byId("Департамент", id);
+        }
+        List<Long> subtreeIds = departmentRepository.findSubtreeIdsDeepestFirst(id);
+        List<List<Long>> chunks = CollectionUtils.partition(subtreeIds, SUBTREE_CHUNK_SIZE);
+        List<DepartmentHeadcountDTO> headcounts = new ArrayList<>();
+        List<Long> contactIds = new ArrayList<>();
+        for (List<Long> chunk : chunks) {
+            headcounts.addAll(contactRepository.countByDepartmentIdIn(chunk));
+            contactIds.addAll(contactRepository.findIdsByDepartmentIdIn(chunk));
+        }
+
+        if (policy == SubtreeContactPolicy.REASSIGN) {
+            reassignSubtreeContacts(subtreeIds, chunks, targetDepartmentId);
+            eventPublisher.publishEvent(
+                StatisticsDelta.contactsMoved(headcounts, targetDepartmentId));
+            if (!contactIds.isEmpty()) {
+                eventPublisher.publishEvent(AuditEvent.fieldChanged(AuditEntityType.CONTACT,
+                    contactIds, "departmentId", targetDepartmentId));
+            }
+        } else {
+            eventPublisher.publishEvent(StatisticsDelta.contactsRemoved(headcounts));
+            if (!contactIds.isEmpty()) {
+                eventPublisher.publishEvent(
+                    AuditEvent.deleted(AuditEntityType.CONTACT, contactIds));
+            }
+        }
+        archiveSubtreeContacts(chunks);
+        for (List<Long> chunk : chunks) {
+            departmentRepository.deleteAllByIdIn(chunk);
+        }
+        eventPublisher.publishEvent(StatisticsDelta.departments(-subtreeIds.size()));
+        eventPublisher.publishEvent(AuditEvent.deleted(AuditEntityType.DEPARTMENT, subtreeIds));
+        publishChange(subtreeIds);
+        log.info("Department subtree {} deleted: {} departments, contacts policy {}",
+            id, subtreeIds.size(), policy);
+        return subtreeIds.size();
+    }
+
+    private void publishChange(List<Long> departmentIds) {
+        eventPublisher.publishEvent(
+            DirectoryChangeEvent.of(DirectoryChangeEvent.Type.DEPARTMENT_CHANGED, departmentIds));
+    }
+
+    private void reassignSubtreeContacts(List<Long> subtreeIds, List<List<Long>> chunks,
+        Long targetDepartmentId) {
+        if (targetDepartmentId == null) {
+            throw InvalidDataException.forField("targetDepartmentId",
+                "Не указан департамент для переноса контактов");
+        }
+        if (new HashSet<>(subtreeIds).contains(targetDepartmentId)) {
+            throw InvalidDataException.forField("targetDepartmentId",
+                "Нельзя перенести контакты в удаляемое подразделение");
+        }
+        Department target = findEntityById(targetDepartmentId);
+        for (List<Long> chunk : chunks) {
+            contactRepository.updateDepartmentByDepartmentIdIn(chunk, target);
+        }
+    }
+
+    private void archiveSubtreeContacts(List<List<Long>> chunks) {
+        int archived = 0;
+        for (List<Long> chunk : chunks) {
+            archived += archivedContactRepository.archiveByDepartmentIdIn(chunk);
+            contactRepository.deleteWorkPhonesByDepartmentIdIn(chunk);
+            contactRepository.deleteWorkMobilePhonesByDepartmentIdIn(chunk);
+            contactRepository.deletePersonalPhonesByDepartmentIdIn(chunk);
+            contactRepository.deleteSearchKeysByDepartmentIdIn(chunk);
+            contactRepository.deleteByDepartmentIdIn(chunk);
+        }
+        log.info("Archived {} contacts of deleted departments", archived);
+    }
+
     /**
      * Получает все корневые департаменты (без родительского департамента).
      *
@@ -158,78 +309,71 @@ public class DepartmentService {
     }
 
     /**
-     * Получает все поддепартаменты указанного департамента на всех уровнях вложенности. Использует
-     * рекурсивный обход иерархии с ограничением глубины.
+     * Получает идентификаторы департамента и всех его поддепартаментов на всех уровнях
+     * вложенности. Иерархия строится в памяти по связям с родителями, без загрузки сущностей и
+     * без ограничения глубины; департаменты в цикле обходятся один раз.
      *
-     * @param departmentId идентификатор родительского департамента
-     * @return список всех поддепартаментов
+     * @param departmentId идентификатор департамента
+     * @return идентификаторы поддерева, начиная с самого департамента
+     * @throws ResourceNotFoundException если департамент не найден
      */
     @Transactional(readOnly = true)
-    public List<Department> getDepartmentsHierarchy(Long departmentId) {
-        Department department = departmentRepository.findById(departmentId)
-            .orElseThrow(() -> ResourceNotFoundException.byId("Департамент", departmentId));
-
-        List<Department> allDepartments = departmentRepository.findAllWithParent();
-
-        Map<Long, List<Department>> childrenMap = allDepartments.stream()
-            .filter(d -> d.getParentDepartment() != null)
-            .collect(Collectors.groupingBy(d -> d.getParentDepartment().getId()));
-
-        List<Department> result = new ArrayList<>();
-        collectChildrenFromMap(department.getId(), childrenMap, result, MAX_HIERARCHY_DEPTH);
-        return result;
-    }
-
-    private void collectChildrenFromMap(Long parentId,
-        Map<Long, List<Department>> childrenMap,
-        List<Department> result,
-        int maxDepth) {
-        if (maxDepth <= 0) {
-            log.warn("Max depth reached for department hierarchy starting from {}", parentId);
-            return;
-        }
-
-        List<Department> children = childrenMap.getOrDefault(parentId, List.of());
-        for (Department child : children) {
-            result.add(child);
-            collectChildrenFromMap(child.getId(), childrenMap, result, maxDepth - 1);
+    public List<Long> findSubtreeIds(Long departmentId) {
+        long[] subtreeIds = loadHierarchy().subtreeIds(departmentId);
+        if (subtreeIds.length == 0) {
+            throw ResourceNotFoundException.byId("Департамент", departmentId);
         }
+        return Arrays.stream(subtreeIds).boxed().toList();
     }
 
     /**
-     * Строит полное иерархическое дерево департаментов. Возвращает корневые департаменты со всеми
-     * вложенными поддепартаментами.
+     * Строит полное иерархическое дерево департаментов любой глубины. Возвращает корневые
+     * департаменты со всеми вложенными поддепартаментами. Департаменты, образующие цикл,
+     * недостижимы из корней: они не попадают в дерево, и о них пишется предупреждение.
      *
      * @return список корневых департаментов с вложенной иерархией
      */
     @Transactional(readOnly = true)
     public List<DepartmentDTO> getDepartmentTree() {
         List<Department> allDepartments = departmentRepository.findAllWithParent();
+        long[] ids = new long[allDepartments.size()];
+        long[] parentIds = new long[allDepartments.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Department department = allDepartments.get(i);
+            ids[i] = department.getId();
+            parentIds[i] = department.getParentDepartment() == null
+                ? DepartmentHierarchy.NO_PARENT : department.getParentDepartment().getId();
+        }
+        DepartmentHierarchy hierarchy = DepartmentHierarchy.of(ids, parentIds);
+        reportCycles(hierarchy);
+        // Сущности читаются только в потоке транзакции; параллельно обрабатываются готовые DTO
+        List<DepartmentDTO> nodes = new ArrayList<>(allDepartments.size());
+        for (Department department : allDepartments) {
+            nodes.add(departmentMapper.toDto(department));
+        }
+        return hierarchy.buildForest(nodes, DepartmentDTO::setChildrenDepartments);
+    }
 
-        Map<Long, List<Department>> childrenMap = allDepartments.stream()
-            .filter(d -> d.getParentDepartment() != null)
-            .collect(Collectors.groupingBy(d -> d.getParentDepartment().getId()));
-
-        List<Department> rootDepartments = allDepartments.stream()
-            .filter(d -> d.getParentDepartment() == null)
-            .toList();
-
-        return rootDepartments.stream()
-            .map(dept -> buildDepartmentTreeFromMap(dept, childrenMap, MAX_TREE_DEPTH))
-            .toList();
+    private DepartmentHierarchy loadHierarchy() {
+        List<DepartmentParentDTO> links = departmentRepository.findAllParentLinks();
+        long[] ids = new long[links.size()];
+        long[] parentIds = new long[links.size()];
+        for (int i = 0; i < ids.length; i++) {
+            DepartmentParentDTO link = links.get(i);
+            ids[i] = link.id();
+            parentIds[i] = link.parentId() == null ? DepartmentHierarchy.NO_PARENT : link.parentId();
+        }
+        DepartmentHierarchy hierarchy = DepartmentHierarchy.of(ids, parentIds);
+        reportCycles(hierarchy);
+        return hierarchy;
     }
 
-    private DepartmentDTO buildDepartmentTreeFromMap(Department department,
-        Map<Long, List<Department>> childrenMap,
-        int maxDepth) {
-        DepartmentDTO dto = departmentMapper.toDto(department);
-        if (maxDepth > 0) {
-            List<Department> children = childrenMap.getOrDefault(department.getId(), List.of());
-            dto.setChildrenDepartments(children.stream()
-                .map(child -> buildDepartmentTreeFromMap(child, childrenMap, maxDepth - 1))
-                .toList());
+    private static void reportCycles(DepartmentHierarchy hierarchy) {
+        long[] cyclicIds = hierarchy.cyclicIds();
+        if (cyclicIds.length > 0) {
+            log.warn("Departments {} form a parent cycle and are not reachable from any root",
+                Arrays.toString(cyclicIds));
         }
-        return dto;
     }
 
     /**
@@ -248,14 +392,14 @@ public class DepartmentService {
 
     /**
      * Проверяет существование департамента с указанным названием. Используется для предотвращения
-     * дублирования названий.
+     * дублирования названий. Проверка идет через кэш естественных идентификаторов.
      *
      * @param name название департамента
      * @return true, если департамент с таким названием существует
      */
     @Transactional(readOnly = true)
     public boolean existsByName(String name) {
-        return departmentRepository.existsByName(StringUtils.trimSafely(name));
+        return departmentRepository.findByName(StringUtils.trimSafely(name)).isPresent();
     }
 
     /**
@@ -269,16 +413,49 @@ public class DepartmentService {
     }
 
     /**
-     * Получает все департаменты для использования в формах (без дополнительных данных).
-     * Оптимизированный метод для заполнения выпадающих списков.
+     * Получает страницу департаментов для выбора подразделения на формах: корневые или
+     * дочерние указанного департамента, по {@value #OPTION_PAGE_SIZE} на страницу. Формы
+     * загружают уровни иерархии по мере раскрытия, поэтому их размер не зависит от количества
+     * департаментов.
      *
-     * @return список всех департаментов
+     * @param parentId идентификатор раскрываемого департамента или null для корневых
+     * @param page     номер страницы (с нуля)
+     * @return страница департаментов
      */
     @Transactional(readOnly = true)
-    public List<DepartmentDTO> findAllForForms() {
-        return departmentRepository.findAll().stream()
-            .map(departmentMapper::toDto)
-            .toList();
+    public DepartmentOptionPage findOptions(Long parentId, int page) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), OPTION_PAGE_SIZE);
+        return toOptionPage(parentId == null
+            ? departmentRepository.findRootOptions(pageRequest)
+            : departmentRepository.findOptionsByParentId(parentId, pageRequest));
+    }
+
+    /**
+     * Выполняет поиск департаментов по названию для выбора подразделения на формах.
+     *
+     * @param name часть названия
+     * @param page номер страницы (с нуля)
+     * @return страница найденных департаментов
+     */
+    @Transactional(readOnly = true)
+    public DepartmentOptionPage searchOptions(String name, int page) {
+        return toOptionPage(departmentRepository.findOptionsByName(StringUtils.trimSafely(name),
+            PageRequest.of(Math.max(page, 0), OPTION_PAGE_SIZE)));
+    }
+
+    /**
+     * Находит департамент для отображения выбранного значения на форме.
+     *
+     * @param id идентификатор департамента или null
+     * @return Optional с департаментом или пустой Optional
+     */
+    @Transactional(readOnly = true)
+    public Optional<DepartmentOptionDTO> findOption(Long id) {
+        return id == null ? Optional.empty() : departmentRepository.findOptionById(id);
+    }
+
+    private static DepartmentOptionPage toOptionPage(Slice<DepartmentOptionDTO> slice) {
+        return new DepartmentOptionPage(slice.getContent(), slice.hasNext());
     }
 
     private DepartmentDTO mapWithContactCount(DepartmentWithContactCountDTO agg) {
@@ -38,4 +38,22 @@ public class DuplicateResourceException extends PhonebookException{
             String.format("%s с %s '%s' уже существует", resourceName, fieldName, fieldValue)
         );
     }
+
+    /**
+     * Фабричный метод для создания исключения о дублирующемся ресурсе с указанием причины.
+     * Используется при нарушении уникального ограничения в базе данных.
+     *
+     * @param resourceName название типа ресурса
+     * @param fieldName название поля с дубликатом
+     * @param fieldValue значение поля
+     * @param cause причина ошибки
+     * @return новый экземпляр исключения
+     */
+    public static DuplicateResourceException of(String resourceName, String fieldName,
+        String fieldValue, Throwable cause) {
+        return new DuplicateResourceException(
+            String.format("%s с %s '%s' уже существует", resourceName, fieldName, fieldValue),
+            cause
+        );
+    }
 }
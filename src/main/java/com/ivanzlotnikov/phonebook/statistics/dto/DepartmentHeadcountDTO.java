@@ -0,0 +1,12 @@
+package com.ivanzlotnikov.phonebook.statistics.dto;
+
+/**
+ * Численность департамента без загрузки сущностей. Используется в JPQL запросах при сверке
+ * счетчиков и чтении истории.
+ *
+ * @param departmentId идентификатор департамента или null для контактов без департамента
+ * @param headcount    количество контактов
+ */
+public record DepartmentHeadcountDTO(Long departmentId, long headcount) {
+
+}
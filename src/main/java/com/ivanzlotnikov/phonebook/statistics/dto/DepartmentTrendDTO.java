@@ -0,0 +1,13 @@
+package com.ivanzlotnikov.phonebook.statistics.dto;
+
+/**
+ * Численность департамента и ее изменение за период ряда.
+ *
+ * @param departmentId идентификатор департамента
+ * @param name         название департамента
+ * @param headcount    текущее количество контактов
+ * @param change       изменение относительно первого дня ряда
+ */
+public record DepartmentTrendDTO(Long departmentId, String name, long headcount, long change) {
+
+}
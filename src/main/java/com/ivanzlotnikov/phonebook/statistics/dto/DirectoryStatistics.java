@@ -0,0 +1,38 @@
+package com.ivanzlotnikov.phonebook.statistics.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок статистики справочника для главной страницы.
+ *
+ * @param totalContacts    количество контактов
+ * @param totalDepartments количество департаментов
+ * @param totalAdmins      количество администраторов
+ * @param totalUsers       количество обычных пользователей
+ * @param topDepartments   крупнейшие департаменты по численности
+ * @param trend            общая численность по дням, последняя точка - текущая
+ * @param computedAt       время построения снимка
+ */
+public record DirectoryStatistics(long totalContacts, long totalDepartments, long totalAdmins,
+                                  long totalUsers, List<DepartmentTrendDTO> topDepartments,
+                                  List<HeadcountPoint> trend, Instant computedAt) {
+
+    /**
+     * Возвращает изменение общей численности относительно первой точки ряда.
+     *
+     * @return изменение численности или 0, если ряд пуст
+     */
+    public long trendChange() {
+        return trend.isEmpty() ? 0 : totalContacts - trend.get(0).headcount();
+    }
+
+    /**
+     * Возвращает наибольшее значение ряда для масштабирования графика.
+     *
+     * @return наибольшая численность или 0, если ряд пуст
+     */
+    public long trendMax() {
+        return trend.stream().mapToLong(HeadcountPoint::headcount).max().orElse(0);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ivanzlotnikov.phonebook.statistics.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Точка ряда общей численности справочника за день.
+ *
+ * @param date      дата снимка
+ * @param headcount количество контактов на эту дату
+ */
+public record HeadcountPoint(LocalDate date, long headcount) {
+
+}
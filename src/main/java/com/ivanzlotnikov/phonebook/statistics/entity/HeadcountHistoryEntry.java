@@ -0,0 +1,31 @@
+package com.ivanzlotnikov.phonebook.statistics.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Дневной снимок численности департамента. Одна строка на департамент в день, без внешнего
+ * ключа на департамент: история сохраняется и после удаления департамента.
+ */
+@Entity
+@Table(name = "headcount_history")
+@Getter
+@NoArgsConstructor
+public class HeadcountHistoryEntry {
+
+    /**
+     * Дата снимка и департамент.
+     */
+    @EmbeddedId
+    private HeadcountHistoryId id;
+
+    /**
+     * Количество контактов департамента на дату снимка.
+     */
+    @Column(name = "headcount", nullable = false)
+    private long headcount;
+}
@@ -0,0 +1,32 @@
+package com.ivanzlotnikov.phonebook.statistics.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Составной ключ записи истории численности: дата снимка и департамент. Дата идет первой,
+ * поэтому первичный ключ обслуживает выборку ряда за период.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadcountHistoryId implements Serializable {
+
+    /**
+     * Дата снимка.
+     */
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    /**
+     * Идентификатор департамента; 0 для контактов без департамента.
+     */
+    @Column(name = "department_id", nullable = false)
+    private Long departmentId;
+}
@@ -0,0 +1,103 @@
+package com.ivanzlotnikov.phonebook.statistics.repository;
+
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO;
+import com.ivanzlotnikov.phonebook.statistics.dto.HeadcountPoint;
+import com.ivanzlotnikov.phonebook.statistics.entity.HeadcountHistoryEntry;
+import com.ivanzlotnikov.phonebook.statistics.entity.HeadcountHistoryId;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий истории численности департаментов.
+ */
+@Repository
+public interface HeadcountHistoryRepository
+    extends JpaRepository<HeadcountHistoryEntry, HeadcountHistoryId> {
+
+    /**
+     * Записывает численность всех департаментов на дату одним запросом INSERT ... SELECT.
+     * Повторная запись той же даты перезаписывает значения.
+     *
+     * @param date дата снимка
+     * @return количество записанных строк
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "headcount_history"))
+    @Query(value = """
+        INSERT INTO headcount_history (snapshot_date, department_id, headcount)
+        SELECT :date, COALESCE(department_id, 0), COUNT(*)
+        FROM contacts
+        WHERE deleted_at IS NULL
+        GROUP BY COALESCE(department_id, 0)
+        ON CONFLICT (snapshot_date, department_id) DO UPDATE SET headcount = EXCLUDED.headcount
+        """, nativeQuery = true)
+    int recordHeadcounts(@Param("date") LocalDate date);
+
+    /**
+     * Удаляет снимки старше указанной даты.
+     *
+     * @param cutoff первая сохраняемая дата
+     * @return количество удаленных строк
+     */
+    @Modifying
+    @Query("DELETE FROM HeadcountHistoryEntry h WHERE h.id.snapshotDate < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+
+    /**
+     * Возвращает общую численность по дням начиная с указанной даты.
+     *
+     * @param from первая дата ряда
+     * @return точки ряда по возрастанию даты
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.statistics.dto.HeadcountPoint(
+            h.id.snapshotDate, SUM(h.headcount))
+        FROM HeadcountHistoryEntry h
+        WHERE h.id.snapshotDate >= :from
+        GROUP BY h.id.snapshotDate
+        ORDER BY h.id.snapshotDate
+        """)
+    List<HeadcountPoint> findDailyTotalsSince(@Param("from") LocalDate from);
+
+    /**
+     * Возвращает численность департаментов на дату.
+     *
+     * @param date дата снимка
+     * @return численность по департаментам
+     */
+    @Query("""
+        SELECT new com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO(
+            h.id.departmentId, h.headcount)
+        FROM HeadcountHistoryEntry h
+        WHERE h.id.snapshotDate = :date
+        """)
+    List<DepartmentHeadcountDTO> findByDate(@Param("date") LocalDate date);
+
+    /**
+     * Проверяет, записан ли снимок численности на дату.
+     *
+     * @param date дата снимка
+     * @return true, если на дату есть строки
+     */
+    @Query("SELECT COUNT(h) > 0 FROM HeadcountHistoryEntry h WHERE h.id.snapshotDate = :date")
+    boolean existsByDate(@Param("date") LocalDate date);
+
+    /**
+     * Пытается захватить транзакционную рекомендательную блокировку PostgreSQL с указанным
+     * именем. Блокировка освобождается при завершении транзакции.
+     *
+     * @param name имя блокировки
+     * @return true, если блокировка захвачена
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtextextended(:name, 0))",
+        nativeQuery = true)
+    boolean tryTransactionLock(@Param("name") String name);
+}
@@ -0,0 +1,56 @@
+package com.ivanzlotnikov.phonebook.statistics.service;
+
+import java.util.Arrays;
+
+/**
+ * Снимок видимости транзакций PostgreSQL (pg_current_snapshot()), в котором были прочитаны
+ * счетчики. По нему определяется, учтено ли в прочитанных счетчиках изменение транзакции с
+ * известным идентификатором.
+ */
+final class DatabaseSnapshot {
+
+    private static final String PART_SEPARATOR = ":";
+    private static final String LIST_SEPARATOR = ",";
+    private static final int PARTS = 3;
+
+    private final long xmin;
+    private final long xmax;
+    private final long[] inProgress;
+
+    private DatabaseSnapshot(long xmin, long xmax, long[] inProgress) {
+        this.xmin = xmin;
+        this.xmax = xmax;
+        this.inProgress = inProgress;
+    }
+
+    /**
+     * Разбирает текстовое представление pg_snapshot: xmin:xmax:список выполняющихся.
+     *
+     * @param text текстовое представление снимка
+     * @return снимок
+     * @throws IllegalArgumentException если формат не распознан
+     */
+    static DatabaseSnapshot parse(String text) {
+        String[] parts = text.trim().split(PART_SEPARATOR, -1);
+        if (parts.length != PARTS) {
+            throw new IllegalArgumentException("Unexpected snapshot format: " + text);
+        }
+        long[] inProgress = parts[2].isEmpty() ? new long[0]
+            : Arrays.stream(parts[2].split(LIST_SEPARATOR)).mapToLong(Long::parseLong).sorted()
+                .toArray();
+        return new DatabaseSnapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+            inProgress);
+    }
+
+    /**
+     * Проверяет, видны ли в снимке изменения зафиксированной транзакции: транзакция
+     * завершилась до создания снимка.
+     *
+     * @param transactionId идентификатор транзакции (pg_current_xact_id())
+     * @return true, если изменения транзакции учтены в прочитанных данных
+     */
+    boolean isVisible(long transactionId) {
+        return transactionId < xmin
+               || transactionId < xmax && Arrays.binarySearch(inProgress, transactionId) < 0;
+    }
+}
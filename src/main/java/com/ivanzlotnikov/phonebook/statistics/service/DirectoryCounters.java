@@ -0,0 +1,103 @@
+package com.ivanzlotnikov.phonebook.statistics.service;
+
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Счетчики статистики одного арендатора: итоги и численность по департаментам. Заполняются
+ * сверкой с базой и далее изменяются только применением {@link StatisticsDelta}. Все методы
+ * синхронизированы: изменения редки, а чтение выполняется лишь при перестроении снимка.
+ */
+final class DirectoryCounters {
+
+    private final Map<Long, Long> headcounts = new HashMap<>();
+    private long totalContacts;
+    private long totalDepartments;
+    private long totalAdmins;
+    private long totalUsers;
+
+    /**
+     * Создает счетчики по результатам сверки с базой.
+     *
+     * @param headcounts       численность по департаментам (null - контакты без департамента)
+     * @param totalDepartments количество департаментов
+     * @param totalAdmins      количество администраторов
+     * @param totalUsers       количество обычных пользователей
+     */
+    DirectoryCounters(List<DepartmentHeadcountDTO> headcounts, long totalDepartments,
+        long totalAdmins, long totalUsers) {
+        for (DepartmentHeadcountDTO headcount : headcounts) {
+            long key = headcount.departmentId() == null
+                ? StatisticsDelta.NO_DEPARTMENT : headcount.departmentId();
+            this.headcounts.merge(key, headcount.headcount(), Long::sum);
+            this.totalContacts += headcount.headcount();
+        }
+        this.totalDepartments = totalDepartments;
+        this.totalAdmins = totalAdmins;
+        this.totalUsers = totalUsers;
+    }
+
+    /**
+     * Применяет изменение счетчиков. Департаменты с нулевой численностью удаляются.
+     *
+     * @param delta изменение счетчиков
+     */
+    synchronized void apply(StatisticsDelta delta) {
+        delta.headcountChanges().forEach((departmentId, change) -> {
+            headcounts.merge(departmentId, change, (current, added) -> {
+                long updated = current + added;
+                return updated > 0 ? updated : null;
+            });
+            totalContacts += change;
+        });
+        totalDepartments += delta.departmentChange();
+        totalAdmins += delta.adminChange();
+        totalUsers += delta.userChange();
+    }
+
+    synchronized long totalContacts() {
+        return totalContacts;
+    }
+
+    synchronized long totalDepartments() {
+        return totalDepartments;
+    }
+
+    synchronized long totalAdmins() {
+        return totalAdmins;
+    }
+
+    synchronized long totalUsers() {
+        return totalUsers;
+    }
+
+    /**
+     * Возвращает крупнейшие департаменты по численности. Контакты без департамента не
+     * учитываются.
+     *
+     * @param limit количество департаментов
+     * @return департаменты по убыванию численности, при равенстве - по идентификатору
+     */
+    synchronized List<DepartmentHeadcountDTO> topDepartments(int limit) {
+        Comparator<DepartmentHeadcountDTO> order = Comparator
+            .comparingLong(DepartmentHeadcountDTO::headcount)
+            .thenComparing(DepartmentHeadcountDTO::departmentId, Comparator.reverseOrder());
+        PriorityQueue<DepartmentHeadcountDTO> top = new PriorityQueue<>(limit + 1, order);
+        headcounts.forEach((departmentId, headcount) -> {
+            if (departmentId != StatisticsDelta.NO_DEPARTMENT) {
+                top.add(new DepartmentHeadcountDTO(departmentId, headcount));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        });
+        List<DepartmentHeadcountDTO> result = new ArrayList<>(top);
+        result.sort(order.reversed());
+        return result;
+    }
+}
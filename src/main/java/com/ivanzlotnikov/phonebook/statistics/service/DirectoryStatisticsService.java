@@ -0,0 +1,257 @@
+package com.ivanzlotnikov.phonebook.statistics.service;
+
+import com.ivanzlotnikov.phonebook.config.statistics.StatisticsProperties;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantTaskRunner;
+import com.ivanzlotnikov.phonebook.department.dto.DepartmentNameDTO;
+import com.ivanzlotnikov.phonebook.department.repository.DepartmentRepository;
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO;
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentTrendDTO;
+import com.ivanzlotnikov.phonebook.statistics.dto.DirectoryStatistics;
+import com.ivanzlotnikov.phonebook.statistics.dto.HeadcountPoint;
+import com.ivanzlotnikov.phonebook.statistics.service.StatisticsLoader.LoadedStatistics;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Сервис статистики справочника для главной страницы. Итоги (контакты, департаменты,
+ * администраторы, пользователи) и численность по департаментам хранятся в памяти как счетчики
+ * каждого арендатора и изменяются событиями {@link StatisticsDelta} после фиксации пишущих
+ * транзакций. Страница строится из неизменяемого снимка, который перестраивается только после
+ * изменений, поэтому посещение главной страницы не выполняет запросов подсчета.
+ *
+ * <p>Раз в сутки численность департаментов записывается в таблицу истории, ряд которой
+ * показывается на главной странице. Изменения, выполненные другими экземплярами приложения,
+ * счетчики получают при периодической сверке с основной базой.
+ *
+ * <p>Каждое изменение помечается идентификатором своей транзакции, а сверка запоминает снимок
+ * видимости, в котором читала счетчики. Изменения, пришедшие во время сверки, откладываются и
+ * после чтения применяются к новым счетчикам, только если их транзакция не видна в снимке; так
+ * же отбрасываются уже учтенные изменения, пришедшие после сверки. Поэтому сверка не теряет
+ * и не удваивает изменения, зафиксированные одновременно с ней.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectoryStatisticsService {
+
+    private final DepartmentRepository departmentRepository;
+    private final StatisticsLoader statisticsLoader;
+    private final HeadcountHistoryRecorder headcountHistoryRecorder;
+    private final TenantTaskRunner tenantTaskRunner;
+    private final StatisticsProperties statisticsProperties;
+    private final Map<String, TenantStatistics> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * Загружает счетчики и историю каждого арендатора после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        tenantTaskRunner.forEachTenant(this::reloadCurrentTenant);
+    }
+
+    /**
+     * Запоминает идентификатор пишущей транзакции перед ее фиксацией и применяет изменение к
+     * счетчикам после фиксации.
+     *
+     * @param delta изменение счетчиков
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void track(StatisticsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        long transactionId = statisticsLoader.currentTransactionId();
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta, transactionId);
+                }
+            });
+    }
+
+    /**
+     * Возвращает снимок статистики текущего арендатора. Снимок перестраивается только после
+     * изменения счетчиков; при первом обращении до загрузки счетчики загружаются из базы.
+     *
+     * @return снимок статистики
+     */
+    public DirectoryStatistics getCurrent() {
+        TenantStatistics statistics = currentStatistics();
+        DirectoryStatistics snapshot = statistics.snapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (statistics.counters == null) {
+            synchronized (statistics.reloadLock) {
+                if (statistics.counters == null) {
+                    reloadCurrentTenant();
+                }
+            }
+        }
+        synchronized (statistics) {
+            if (statistics.snapshot == null) {
+                statistics.snapshot = buildSnapshot(statistics);
+            }
+            return statistics.snapshot;
+        }
+    }
+
+    /**
+     * Сверяет счетчики с основной базой, чтобы учесть изменения других экземпляров
+     * приложения. Запускается по расписанию.
+     */
+    @Scheduled(fixedDelayString = "${phonebook.statistics.reconcile-interval-ms:900000}",
+        initialDelayString = "${phonebook.statistics.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        tenantTaskRunner.forEachTenant(this::reloadCurrentTenant);
+    }
+
+    /**
+     * Записывает дневной снимок численности каждого арендатора и обновляет ряд истории.
+     * Запускается по расписанию раз в сутки на каждом экземпляре; снимок пишет только один из
+     * них (см. {@link HeadcountHistoryRecorder#record}).
+     */
+    @Scheduled(cron = "${phonebook.statistics.snapshot-cron:0 5 0 * * *}")
+    public void recordDailySnapshot() {
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.minusDays(statisticsProperties.getHistoryRetentionDays());
+        tenantTaskRunner.forEachTenant(() -> {
+            OptionalInt recorded = headcountHistoryRecorder.record(today, cutoff);
+            if (recorded.isPresent()) {
+                log.info("Recorded headcount snapshot for tenant {} on {}: {} departments",
+                    TenantContext.getCurrentTenant(), today, recorded.getAsInt());
+            } else {
+                log.debug("Headcount snapshot for tenant {} on {} is recorded by another instance",
+                    TenantContext.getCurrentTenant(), today);
+            }
+        });
+        tenantTaskRunner.forEachTenant(this::reloadCurrentTenant);
+    }
+
+    private void apply(StatisticsDelta delta, long transactionId) {
+        TenantStatistics statistics = tenants.get(delta.tenant());
+        if (statistics == null) {
+            return;
+        }
+        synchronized (statistics) {
+            if (statistics.pendingDeltas != null) {
+                statistics.pendingDeltas.add(new TrackedDelta(delta, transactionId));
+            }
+            // До первой загрузки изменение пропускается: загрузка прочитает его из базы
+            if (statistics.counters != null
+                && !statistics.countersSnapshot.isVisible(transactionId)) {
+                statistics.counters.apply(delta);
+                statistics.snapshot = null;
+            }
+        }
+    }
+
+    private void reloadCurrentTenant() {
+        TenantStatistics statistics = currentStatistics();
+        synchronized (statistics.reloadLock) {
+            synchronized (statistics) {
+                statistics.pendingDeltas = new ArrayList<>();
+            }
+            try {
+                LoadedStatistics loaded = statisticsLoader.load(
+                    LocalDate.now().minusDays(statisticsProperties.getTrendDays() - 1L));
+                synchronized (statistics) {
+                    DirectoryCounters counters = loaded.counters();
+                    for (TrackedDelta pending : statistics.pendingDeltas) {
+                        if (!loaded.snapshot().isVisible(pending.transactionId())) {
+                            counters.apply(pending.delta());
+                        }
+                    }
+                    statistics.history = loaded.history();
+                    statistics.baseline = loaded.baseline();
+                    statistics.countersSnapshot = loaded.snapshot();
+                    statistics.counters = counters;
+                    statistics.snapshot = null;
+                }
+                log.debug("Statistics for tenant {} loaded: {} contacts, {} history days",
+                    TenantContext.getCurrentTenant(), loaded.counters().totalContacts(),
+                    loaded.history().size());
+            } finally {
+                synchronized (statistics) {
+                    statistics.pendingDeltas = null;
+                }
+            }
+        }
+    }
+
+    private DirectoryStatistics buildSnapshot(TenantStatistics statistics) {
+        DirectoryCounters counters = statistics.counters;
+        Map<Long, Long> baseline = statistics.baseline;
+        List<DepartmentHeadcountDTO> top =
+            counters.topDepartments(statisticsProperties.getTopDepartments());
+        Map<Long, String> names = top.isEmpty() ? Map.of()
+            : departmentRepository.findNamesByIdIn(
+                    top.stream().map(DepartmentHeadcountDTO::departmentId).toList()).stream()
+                .collect(Collectors.toMap(DepartmentNameDTO::id, DepartmentNameDTO::name));
+        List<DepartmentTrendDTO> topDepartments = top.stream()
+            .map(headcount -> new DepartmentTrendDTO(headcount.departmentId(),
+                names.getOrDefault(headcount.departmentId(), ""), headcount.headcount(),
+                baseline.isEmpty() ? 0
+                    : headcount.headcount() - baseline.getOrDefault(headcount.departmentId(), 0L)))
+            .toList();
+
+        // Последняя точка ряда - текущая численность, а не утренний снимок
+        LocalDate today = LocalDate.now();
+        List<HeadcountPoint> trend = new ArrayList<>(statistics.history);
+        trend.removeIf(point -> !point.date().isBefore(today));
+        trend.add(new HeadcountPoint(today, counters.totalContacts()));
+
+        return new DirectoryStatistics(counters.totalContacts(), counters.totalDepartments(),
+            counters.totalAdmins(), counters.totalUsers(), topDepartments, List.copyOf(trend),
+            Instant.now());
+    }
+
+    private TenantStatistics currentStatistics() {
+        return tenants.computeIfAbsent(TenantContext.getCurrentTenant(),
+            tenant -> new TenantStatistics());
+    }
+
+    /**
+     * Изменение счетчиков с идентификатором зафиксировавшей его транзакции.
+     *
+     * @param delta         изменение счетчиков
+     * @param transactionId идентификатор транзакции
+     */
+    private record TrackedDelta(StatisticsDelta delta, long transactionId) {
+
+    }
+
+    /**
+     * Состояние статистики одного арендатора. Счетчики и снимок видимости, в котором они
+     * прочитаны, меняются вместе под блокировкой состояния; пока идет сверка, приходящие
+     * изменения дополнительно копятся в pendingDeltas.
+     */
+    private static final class TenantStatistics {
+
+        private final Object reloadLock = new Object();
+        private volatile DirectoryCounters counters;
+        private volatile DatabaseSnapshot countersSnapshot;
+        private List<TrackedDelta> pendingDeltas;
+        private volatile List<HeadcountPoint> history = List.of();
+        private volatile Map<Long, Long> baseline = Map.of();
+        private volatile DirectoryStatistics snapshot;
+    }
+}
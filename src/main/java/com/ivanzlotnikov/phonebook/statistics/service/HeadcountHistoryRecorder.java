@@ -0,0 +1,48 @@
+package com.ivanzlotnikov.phonebook.statistics.service;
+
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.statistics.repository.HeadcountHistoryRepository;
+import java.time.LocalDate;
+import java.util.OptionalInt;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Записывает дневные снимки численности в историю текущего арендатора.
+ */
+@Component
+@RequiredArgsConstructor
+public class HeadcountHistoryRecorder {
+
+    private static final String LOCK_PREFIX = "headcount_history:";
+
+    private final HeadcountHistoryRepository headcountHistoryRepository;
+
+    /**
+     * Записывает снимок численности на дату и удаляет снимки старше срока хранения.
+     *
+     * <p>Задача запускается по расписанию на каждом экземпляре приложения, но снимок пишет
+     * только один: запись идет под транзакционной рекомендательной блокировкой арендатора, и
+     * экземпляр, не получивший блокировку или нашедший снимок даты уже записанным, пропускает
+     * запись без сканирования контактов.
+     *
+     * @param date   дата снимка
+     * @param cutoff первая сохраняемая дата истории
+     * @return количество записанных строк или пустой OptionalInt, если запись пропущена
+     */
+    @Transactional
+    @Bulkhead(BulkheadType.BATCH)
+    public OptionalInt record(LocalDate date, LocalDate cutoff) {
+        String lockName = LOCK_PREFIX + TenantContext.getCurrentTenant();
+        if (!headcountHistoryRepository.tryTransactionLock(lockName)
+            || headcountHistoryRepository.existsByDate(date)) {
+            return OptionalInt.empty();
+        }
+        int recorded = headcountHistoryRepository.recordHeadcounts(date);
+        headcountHistoryRepository.deleteOlderThan(cutoff);
+        return OptionalInt.of(recorded);
+    }
+}
@@ -0,0 +1,144 @@
+package com.ivanzlotnikov.phonebook.statistics.service;
+
+import com.ivanzlotnikov.phonebook.config.tenant.TenantContext;
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Изменение счетчиков статистики. Публикуется сервисами внутри пишущей транзакции и
+ * применяется к счетчикам только после ее фиксации.
+ *
+ * @param tenant           арендатор, в схеме которого произошло изменение
+ * @param headcountChanges изменение численности по идентификатору департамента
+ *                         ({@link #NO_DEPARTMENT} для контактов без департамента)
+ * @param departmentChange изменение количества департаментов
+ * @param adminChange      изменение количества администраторов
+ * @param userChange       изменение количества обычных пользователей
+ */
+public record StatisticsDelta(String tenant, Map<Long, Long> headcountChanges,
+                             long departmentChange, long adminChange, long userChange) {
+
+    /**
+     * Ключ численности контактов без департамента.
+     */
+    public static final long NO_DEPARTMENT = 0;
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+    private static final String ROLE_USER = "ROLE_USER";
+
+    /**
+     * Создает изменение при добавлении контакта.
+     *
+     * @param departmentId департамент контакта или null
+     * @return изменение счетчиков
+     */
+    public static StatisticsDelta contactAdded(Long departmentId) {
+        return headcount(Map.of(key(departmentId), 1L));
+    }
+
+    /**
+     * Создает изменение при переносе контакта в другой департамент.
+     *
+     * @param fromDepartmentId прежний департамент или null
+     * @param toDepartmentId   новый департамент или null
+     * @return изменение счетчиков
+     */
+    public static StatisticsDelta contactMoved(Long fromDepartmentId, Long toDepartmentId) {
+        Map<Long, Long> changes = new HashMap<>();
+        changes.merge(key(fromDepartmentId), -1L, Long::sum);
+        changes.merge(key(toDepartmentId), 1L, Long::sum);
+        return headcount(changes);
+    }
+
+    /**
+     * Создает изменение при удалении контактов из департаментов.
+     *
+     * @param removed численность удаляемых контактов по департаментам
+     * @return изменение счетчиков
+     */
+    public static StatisticsDelta contactsRemoved(List<DepartmentHeadcountDTO> removed) {
+        return contactsMoved(removed, null, false);
+    }
+
+    /**
+     * Создает изменение при переносе контактов в департамент.
+     *
+     * @param moved              численность переносимых контактов по прежним департаментам
+     * @param targetDepartmentId целевой департамент
+     * @return изменение счетчиков
+     */
+    public static StatisticsDelta contactsMoved(List<DepartmentHeadcountDTO> moved,
+        Long targetDepartmentId) {
+        return contactsMoved(moved, targetDepartmentId, true);
+    }
+
+    /**
+     * Создает изменение количества департаментов.
+     *
+     * @param change изменение количества
+     * @return изменение счетчиков
+     */
+    public static StatisticsDelta departments(long change) {
+        return new StatisticsDelta(TenantContext.getCurrentTenant(), Map.of(), change, 0, 0);
+    }
+
+    /**
+     * Создает изменение количества пользователей с ролью. Прочие роли не учитываются.
+     *
+     * @param role   роль пользователя
+     * @param change изменение количества
+     * @return изменение счетчиков
+     */
+    public static StatisticsDelta users(String role, long change) {
+        return new StatisticsDelta(TenantContext.getCurrentTenant(), Map.of(), 0,
+            ROLE_ADMIN.equals(role) ? change : 0, ROLE_USER.equals(role) ? change : 0);
+    }
+
+    /**
+     * Создает изменение при смене роли пользователя.
+     *
+     * @param oldRole прежняя роль
+     * @param newRole новая роль
+     * @return изменение счетчиков
+     */
+    public static StatisticsDelta roleChanged(String oldRole, String newRole) {
+        StatisticsDelta removed = users(oldRole, -1);
+        StatisticsDelta added = users(newRole, 1);
+        return new StatisticsDelta(removed.tenant(), Map.of(), 0,
+            removed.adminChange() + added.adminChange(), removed.userChange() + added.userChange());
+    }
+
+    /**
+     * Проверяет, что изменение ничего не меняет.
+     *
+     * @return true, если все изменения нулевые
+     */
+    public boolean isEmpty() {
+        return departmentChange == 0 && adminChange == 0 && userChange == 0
+               && headcountChanges.values().stream().allMatch(change -> change == 0);
+    }
+
+    private static StatisticsDelta contactsMoved(List<DepartmentHeadcountDTO> moved,
+        Long targetDepartmentId, boolean toTarget) {
+        Map<Long, Long> changes = new HashMap<>();
+        long total = 0;
+        for (DepartmentHeadcountDTO headcount : moved) {
+            changes.merge(key(headcount.departmentId()), -headcount.headcount(), Long::sum);
+            total += headcount.headcount();
+        }
+        if (toTarget) {
+            changes.merge(key(targetDepartmentId), total, Long::sum);
+        }
+        return headcount(changes);
+    }
+
+    private static StatisticsDelta headcount(Map<Long, Long> changes) {
+        return new StatisticsDelta(TenantContext.getCurrentTenant(), Map.copyOf(changes), 0, 0, 0);
+    }
+
+    private static long key(Long departmentId) {
+        return departmentId == null ? NO_DEPARTMENT : departmentId;
+    }
+}
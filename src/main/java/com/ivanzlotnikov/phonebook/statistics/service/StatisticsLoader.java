@@ -0,0 +1,92 @@
+package com.ivanzlotnikov.phonebook.statistics.service;
+
+import com.ivanzlotnikov.phonebook.auth.repository.UserRepository;
+import com.ivanzlotnikov.phonebook.config.datasource.Bulkhead;
+import com.ivanzlotnikov.phonebook.config.datasource.BulkheadType;
+import com.ivanzlotnikov.phonebook.contact.repository.ContactRepository;
+import com.ivanzlotnikov.phonebook.department.repository.DepartmentRepository;
+import com.ivanzlotnikov.phonebook.statistics.dto.DepartmentHeadcountDTO;
+import com.ivanzlotnikov.phonebook.statistics.dto.HeadcountPoint;
+import com.ivanzlotnikov.phonebook.statistics.repository.HeadcountHistoryRepository;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Читает счетчики статистики текущего арендатора из базы. Все подсчеты выполняются в одной
+ * транзакции REPEATABLE READ на основной базе (транзакция не read-only, поэтому не уходит на
+ * отстающую реплику), и вместе с ними возвращается снимок видимости транзакций, по которому
+ * сервис отделяет изменения, уже учтенные в подсчетах, от пришедших позже.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatisticsLoader {
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+    private static final String ROLE_USER = "ROLE_USER";
+    private static final String CURRENT_SNAPSHOT = "SELECT CAST(pg_current_snapshot() AS text)";
+    private static final String CURRENT_TRANSACTION_ID =
+        "SELECT CAST(pg_current_xact_id() AS text)";
+
+    private final ContactRepository contactRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final HeadcountHistoryRepository headcountHistoryRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Прочитанное состояние статистики арендатора.
+     *
+     * @param snapshot снимок видимости, в котором выполнены подсчеты
+     * @param counters счетчики
+     * @param history  общая численность по дням
+     * @param baseline численность департаментов на первую дату ряда
+     */
+    record LoadedStatistics(DatabaseSnapshot snapshot, DirectoryCounters counters,
+                            List<HeadcountPoint> history, Map<Long, Long> baseline) {
+
+    }
+
+    /**
+     * Читает счетчики и историю численности текущего арендатора. Снимок видимости
+     * запрашивается первым запросом транзакции, поэтому все подсчеты видят ровно его.
+     *
+     * @param from первая дата ряда истории
+     * @return прочитанное состояние
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @Bulkhead(BulkheadType.BATCH)
+    public LoadedStatistics load(LocalDate from) {
+        DatabaseSnapshot snapshot = DatabaseSnapshot.parse(
+            (String) entityManager.createNativeQuery(CURRENT_SNAPSHOT).getSingleResult());
+        List<HeadcountPoint> history = headcountHistoryRepository.findDailyTotalsSince(from);
+        Map<Long, Long> baseline = history.isEmpty() ? Map.of()
+            : headcountHistoryRepository.findByDate(history.get(0).date()).stream()
+                .collect(Collectors.toMap(DepartmentHeadcountDTO::departmentId,
+                    DepartmentHeadcountDTO::headcount));
+        DirectoryCounters counters = new DirectoryCounters(
+            contactRepository.countAllByDepartment(),
+            departmentRepository.count(),
+            userRepository.countByRole(ROLE_ADMIN),
+            userRepository.countByRole(ROLE_USER));
+        return new LoadedStatistics(snapshot, counters, history, baseline);
+    }
+
+    /**
+     * Возвращает идентификатор текущей пишущей транзакции.
+     *
+     * @return идентификатор транзакции (pg_current_xact_id())
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long currentTransactionId() {
+        return Long.parseLong(
+            (String) entityManager.createNativeQuery(CURRENT_TRANSACTION_ID).getSingleResult());
+    }
+}
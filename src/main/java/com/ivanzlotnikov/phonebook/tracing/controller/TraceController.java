@@ -0,0 +1,70 @@
+package com.ivanzlotnikov.phonebook.tracing.controller;
+
+import com.ivanzlotnikov.phonebook.config.tracing.TracingProperties;
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanKind;
+import com.ivanzlotnikov.phonebook.tracing.service.TraceCollector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+/**
+ * Контроллер просмотра медленных запросов. Показывает последние трассы запросов дольше порога
+ * и разбивку выбранной трассы по участкам: контроллер, сервисы, репозитории, SQL-запросы и
+ * отрисовка представления. Доступен только администраторам.
+ */
+@Controller
+@RequestMapping("/traces")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@ConditionalOnProperty(prefix = "phonebook.tracing", name = "enabled", havingValue = "true")
+public class TraceController {
+
+    private final TraceCollector traceCollector;
+    private final TracingProperties tracingProperties;
+
+    /**
+     * Отображает список последних медленных запросов.
+     *
+     * @param model модель для передачи данных в представление
+     * @return имя шаблона списка
+     */
+    @GetMapping
+    public String listSlowTraces(Model model) {
+        model.addAttribute("traces", traceCollector.getSlowTraces());
+        model.addAttribute("slowRequestMs", tracingProperties.getSlowRequestMs());
+        model.addAttribute("sampleRate", tracingProperties.getSampleRate());
+        model.addAttribute("sampledTraces", traceCollector.getSampledTraces());
+        model.addAttribute("exportedTraces", traceCollector.getExportedTraces());
+        model.addAttribute("droppedTraces", traceCollector.getDroppedTraces());
+        return "traces/list";
+    }
+
+    /**
+     * Отображает разбивку медленного запроса по участкам.
+     *
+     * @param traceId            идентификатор трассы
+     * @param model              модель для передачи данных в представление
+     * @param redirectAttributes атрибуты для сообщений
+     * @return имя шаблона трассы или редирект к списку, если трасса уже вытеснена
+     */
+    @GetMapping("/{traceId}")
+    public String showTrace(@PathVariable String traceId, Model model,
+        RedirectAttributes redirectAttributes) {
+        return traceCollector.findSlowTrace(traceId)
+            .map(trace -> {
+                model.addAttribute("trace", trace);
+                model.addAttribute("kinds", SpanKind.values());
+                return "traces/detail";
+            })
+            .orElseGet(() -> {
+                redirectAttributes.addFlashAttribute("errorMessage", "Трасса не найдена");
+                return "redirect:/traces";
+            });
+    }
+}
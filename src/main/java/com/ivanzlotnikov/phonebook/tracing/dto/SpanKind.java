@@ -0,0 +1,13 @@
+package com.ivanzlotnikov.phonebook.tracing.dto;
+
+/**
+ * Уровень, на котором измерен участок запроса.
+ */
+public enum SpanKind {
+    REQUEST,
+    CONTROLLER,
+    SERVICE,
+    REPOSITORY,
+    SQL,
+    VIEW
+}
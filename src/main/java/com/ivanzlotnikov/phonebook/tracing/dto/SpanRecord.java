@@ -0,0 +1,35 @@
+package com.ivanzlotnikov.phonebook.tracing.dto;
+
+/**
+ * Завершенный участок запроса.
+ *
+ * @param index          номер участка в трассе (корневой участок - 0)
+ * @param parentIndex    номер родительского участка или -1 для корневого
+ * @param depth          глубина вложенности (корневой участок - 0)
+ * @param kind           уровень участка
+ * @param name           имя участка (метод, запрос, представление)
+ * @param offsetNanos    начало участка относительно начала запроса, в наносекундах
+ * @param durationNanos  длительность участка в наносекундах
+ * @param error          класс исключения, если участок завершился ошибкой, иначе null
+ */
+public record SpanRecord(int index, int parentIndex, int depth, SpanKind kind, String name,
+                         long offsetNanos, long durationNanos, String error) {
+
+    /**
+     * Возвращает длительность участка в миллисекундах.
+     *
+     * @return длительность с дробной частью
+     */
+    public double durationMillis() {
+        return durationNanos / 1_000_000.0;
+    }
+
+    /**
+     * Возвращает начало участка относительно начала запроса в миллисекундах.
+     *
+     * @return смещение с дробной частью
+     */
+    public double offsetMillis() {
+        return offsetNanos / 1_000_000.0;
+    }
+}
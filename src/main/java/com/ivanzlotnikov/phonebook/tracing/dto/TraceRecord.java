@@ -0,0 +1,65 @@
+package com.ivanzlotnikov.phonebook.tracing.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Завершенная трасса запроса.
+ *
+ * @param traceId       идентификатор трассы (32 шестнадцатеричных символа)
+ * @param name          метод и путь запроса
+ * @param status        HTTP-статус ответа
+ * @param tenant        арендатор запроса
+ * @param startedAt     время начала запроса
+ * @param durationNanos длительность запроса в наносекундах
+ * @param spans         участки в порядке начала; первый - весь запрос
+ * @param droppedSpans  количество участков сверх предела, не попавших в трассу
+ */
+public record TraceRecord(String traceId, String name, int status, String tenant,
+                          Instant startedAt, long durationNanos, List<SpanRecord> spans,
+                          int droppedSpans) {
+
+    /**
+     * Возвращает длительность запроса в миллисекундах.
+     *
+     * @return длительность с дробной частью
+     */
+    public double durationMillis() {
+        return durationNanos / 1_000_000.0;
+    }
+
+    /**
+     * Суммирует собственное время участков одного уровня: длительность участка за вычетом
+     * вложенных участков. Показывает, на каком уровне (контроллер, сервисы, запросы к базе,
+     * отрисовка) провел время запрос.
+     *
+     * @param kind уровень участков
+     * @return собственное время участков уровня в наносекундах
+     */
+    public long selfTimeNanos(SpanKind kind) {
+        long[] self = new long[spans.size()];
+        for (SpanRecord span : spans) {
+            self[span.index()] += span.durationNanos();
+            if (span.parentIndex() >= 0) {
+                self[span.parentIndex()] -= span.durationNanos();
+            }
+        }
+        long total = 0;
+        for (SpanRecord span : spans) {
+            if (span.kind() == kind) {
+                total += Math.max(0, self[span.index()]);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Подсчитывает участки одного уровня.
+     *
+     * @param kind уровень участков
+     * @return количество участков
+     */
+    public long count(SpanKind kind) {
+        return spans.stream().filter(span -> span.kind() == kind).count();
+    }
+}
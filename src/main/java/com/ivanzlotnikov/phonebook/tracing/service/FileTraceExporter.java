@@ -0,0 +1,46 @@
+package com.ivanzlotnikov.phonebook.tracing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivanzlotnikov.phonebook.tracing.dto.TraceRecord;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Дописывает трассы в локальный файл, по одной трассе JSON в строке.
+ */
+public class FileTraceExporter implements TraceExporter {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Создает выгрузку в файл.
+     *
+     * @param file         файл трасс
+     * @param objectMapper преобразователь в JSON
+     */
+    public FileTraceExporter(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void export(List<TraceRecord> traces) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (TraceRecord trace : traces) {
+                writer.write(objectMapper.writeValueAsString(trace));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ivanzlotnikov.phonebook.tracing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanKind;
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanRecord;
+import com.ivanzlotnikov.phonebook.tracing.dto.TraceRecord;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Отправляет трассы сборщику по протоколу OTLP/HTTP в JSON-кодировке
+ * (POST на адрес вида http://collector:4318/v1/traces). Участки всех трасс пакета
+ * отправляются одним запросом.
+ */
+public class OtlpTraceExporter implements TraceExporter {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String SCOPE_NAME = "com.ivanzlotnikov.phonebook.tracing";
+    private static final int KIND_INTERNAL = 1;
+    private static final int KIND_SERVER = 2;
+    private static final int KIND_CLIENT = 3;
+    private static final int STATUS_ERROR = 2;
+
+    private final URI endpoint;
+    private final String serviceName;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    /**
+     * Создает выгрузку в сборщик OTLP.
+     *
+     * @param endpoint     адрес приема трасс
+     * @param serviceName  имя сервиса
+     * @param objectMapper преобразователь в JSON
+     */
+    public OtlpTraceExporter(String endpoint, String serviceName, ObjectMapper objectMapper) {
+        this.endpoint = URI.create(endpoint);
+        this.serviceName = serviceName;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    @Override
+    public void export(List<TraceRecord> traces) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+            .timeout(TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(
+                objectMapper.writeValueAsBytes(toRequest(traces))))
+            .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Trace export interrupted", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Collector responded with status " + response.statusCode());
+        }
+    }
+
+    private ObjectNode toRequest(List<TraceRecord> traces) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode resourceSpans = root.putArray("resourceSpans").addObject();
+        addAttribute(resourceSpans.putObject("resource").putArray("attributes"),
+            "service.name", serviceName);
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", SCOPE_NAME);
+        ArrayNode spans = scopeSpans.putArray("spans");
+        for (TraceRecord trace : traces) {
+            long startNanos = ChronoUnit.NANOS.between(Instant.EPOCH, trace.startedAt());
+            for (SpanRecord span : trace.spans()) {
+                ObjectNode node = spans.addObject();
+                node.put("traceId", trace.traceId());
+                node.put("spanId", spanId(trace, span.index()));
+                if (span.parentIndex() >= 0) {
+                    node.put("parentSpanId", spanId(trace, span.parentIndex()));
+                }
+                node.put("name", span.name());
+                node.put("kind", kindOf(span.kind()));
+                // 64-битные целые в OTLP JSON передаются строками
+                node.put("startTimeUnixNano", Long.toString(startNanos + span.offsetNanos()));
+                node.put("endTimeUnixNano",
+                    Long.toString(startNanos + span.offsetNanos() + span.durationNanos()));
+                ArrayNode attributes = node.putArray("attributes");
+                addAttribute(attributes, "phonebook.span.kind", span.kind().name());
+                if (span.index() == 0) {
+                    addAttribute(attributes, "phonebook.tenant", trace.tenant());
+                    attributes.addObject().put("key", "http.response.status_code")
+                        .putObject("value").put("intValue", Integer.toString(trace.status()));
+                }
+                if (span.error() != null) {
+                    node.putObject("status").put("code", STATUS_ERROR)
+                        .put("message", span.error());
+                }
+            }
+        }
+        return root;
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, String value) {
+        attributes.addObject().put("key", key).putObject("value").put("stringValue", value);
+    }
+
+    private static String spanId(TraceRecord trace, int index) {
+        // Идентификатор участка уникален в пределах трассы: префикс трассы и номер участка
+        return trace.traceId().substring(0, 8) + String.format("%08x", index + 1);
+    }
+
+    private static int kindOf(SpanKind kind) {
+        return switch (kind) {
+            case REQUEST -> KIND_SERVER;
+            case SQL -> KIND_CLIENT;
+            default -> KIND_INTERNAL;
+        };
+    }
+}
@@ -0,0 +1,182 @@
+package com.ivanzlotnikov.phonebook.tracing.service;
+
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanKind;
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanRecord;
+import com.ivanzlotnikov.phonebook.tracing.dto.TraceRecord;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Трасса одного запроса, собираемая в потоке запроса. Участки хранятся в примитивных массивах
+ * в порядке начала, открытые участки образуют стек: новый участок становится дочерним
+ * последнего открытого. Класс не потокобезопасен и используется только через
+ * {@link TraceContext}.
+ */
+public final class RequestTrace {
+
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int MAX_STATEMENT_LENGTH = 200;
+
+    private final String traceId;
+    private final String name;
+    private final String tenant;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final int maxSpans;
+
+    private SpanKind[] kinds = new SpanKind[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] errors = new String[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] depths = new int[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private int size;
+    private int current = -1;
+    private int droppedSpans;
+    private int statementSpan = -1;
+    private String pendingStatement;
+
+    RequestTrace(String name, String tenant, int maxSpans) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.traceId = String.format("%016x%016x", random.nextLong(), random.nextLong());
+        this.name = name;
+        this.tenant = tenant;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+        this.maxSpans = Math.max(1, maxSpans);
+        start(SpanKind.REQUEST, name);
+        starts[0] = startNanos;
+    }
+
+    /**
+     * Открывает участок, дочерний последнему открытому. Участки сверх предела не
+     * записываются, а только подсчитываются.
+     *
+     * @param kind     уровень участка
+     * @param spanName имя участка
+     * @return номер участка или -1, если участок не записывается
+     */
+    int start(SpanKind kind, String spanName) {
+        if (size == maxSpans) {
+            droppedSpans++;
+            return -1;
+        }
+        if (size == kinds.length) {
+            grow();
+        }
+        int index = size++;
+        kinds[index] = kind;
+        names[index] = spanName;
+        parents[index] = current;
+        depths[index] = current < 0 ? 0 : depths[current] + 1;
+        starts[index] = System.nanoTime();
+        current = index;
+        return index;
+    }
+
+    /**
+     * Закрывает участок и все открытые внутри него участки.
+     *
+     * @param index номер участка
+     * @param error исключение, которым завершился участок, или null
+     */
+    void end(int index, Throwable error) {
+        if (index < 0 || ends[index] != 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        while (current >= index) {
+            ends[current] = now;
+            current = parents[current];
+        }
+        if (error != null) {
+            errors[index] = error.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * Запоминает текст SQL-запроса, который будет выполнен следующим.
+     *
+     * @param sql текст запроса
+     */
+    void setPendingStatement(String sql) {
+        this.pendingStatement = sql;
+    }
+
+    /**
+     * Возвращает и сбрасывает текст SQL-запроса, который будет выполнен следующим.
+     *
+     * @return текст запроса или null
+     */
+    String takePendingStatement() {
+        String sql = pendingStatement;
+        pendingStatement = null;
+        return sql;
+    }
+
+    /**
+     * Открывает участок выполнения SQL-запроса с текстом, запомненным перед его подготовкой.
+     *
+     * @param fallbackName имя участка, если текст запроса неизвестен
+     */
+    void startStatement(String fallbackName) {
+        String sql = takePendingStatement();
+        statementSpan = start(SpanKind.SQL, sql != null ? abbreviate(sql) : fallbackName);
+    }
+
+    /**
+     * Закрывает участок выполнения SQL-запроса.
+     */
+    void endStatement() {
+        end(statementSpan, null);
+        statementSpan = -1;
+    }
+
+    /**
+     * Завершает трассу: закрывает все открытые участки.
+     *
+     * @param status HTTP-статус ответа
+     * @param error  исключение запроса или null
+     * @return неизменяемая трасса
+     */
+    TraceRecord finish(int status, Throwable error) {
+        end(0, error);
+        List<SpanRecord> spans = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            spans.add(new SpanRecord(i, parents[i], depths[i], kinds[i], names[i],
+                starts[i] - startNanos, ends[i] - starts[i], errors[i]));
+        }
+        return new TraceRecord(traceId, name, status, tenant, startedAt, ends[0] - startNanos,
+            List.copyOf(spans), droppedSpans);
+    }
+
+    /**
+     * Возвращает идентификатор трассы.
+     *
+     * @return идентификатор
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    private static String abbreviate(String sql) {
+        String compact = sql.strip().replaceAll("\\s+", " ");
+        return compact.length() <= MAX_STATEMENT_LENGTH
+            ? compact : compact.substring(0, MAX_STATEMENT_LENGTH) + "...";
+    }
+
+    private void grow() {
+        int capacity = Math.min(maxSpans, kinds.length * 2);
+        kinds = Arrays.copyOf(kinds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        errors = Arrays.copyOf(errors, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ivanzlotnikov.phonebook.tracing.service;
+
+import com.ivanzlotnikov.phonebook.config.tracing.TracingProperties;
+import com.ivanzlotnikov.phonebook.tracing.dto.TraceRecord;
+import com.ivanzlotnikov.phonebook.util.MpscRingBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Принимает завершенные трассы запросов. Медленные трассы сохраняются в памяти для страницы
+ * медленных запросов (последние {@code slow-request-capacity}), трассы для выгрузки кладутся
+ * в неблокирующий кольцевой буфер, который отдельный поток выгружает пакетами. Поток запроса
+ * никогда не ждет выгрузки: при заполненном буфере трасса отбрасывается.
+ */
+@Slf4j
+public class TraceCollector implements DisposableBean {
+
+    private final TracingProperties properties;
+    private final TraceExporter exporter;
+    private final Deque<TraceRecord> slowTraces = new ArrayDeque<>();
+    private final MpscRingBuffer<TraceRecord> exportBuffer;
+    private final ExecutorService exportExecutor;
+    private final AtomicLong sampledTraces = new AtomicLong();
+    private final AtomicLong exportedTraces = new AtomicLong();
+    private final AtomicLong droppedTraces = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Создает приемник трасс и, если задана выгрузка, запускает поток выгрузки.
+     *
+     * @param properties настройки трассировки
+     * @param exporter   выгрузка трасс или null, если трассы не выгружаются
+     */
+    public TraceCollector(TracingProperties properties, TraceExporter exporter) {
+        this.properties = properties;
+        this.exporter = exporter;
+        if (exporter == null) {
+            this.exportBuffer = null;
+            this.exportExecutor = null;
+            return;
+        }
+        this.exportBuffer = new MpscRingBuffer<>(properties.getExportBufferSize());
+        this.exportExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trace-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.exportExecutor.execute(this::runExporter);
+    }
+
+    /**
+     * Принимает завершенную трассу.
+     *
+     * @param trace трасса запроса
+     */
+    public void complete(TraceRecord trace) {
+        sampledTraces.incrementAndGet();
+        boolean slow = trace.durationNanos()
+                       >= TimeUnit.MILLISECONDS.toNanos(properties.getSlowRequestMs());
+        if (slow) {
+            synchronized (slowTraces) {
+                slowTraces.addFirst(trace);
+                while (slowTraces.size() > properties.getSlowRequestCapacity()) {
+                    slowTraces.removeLast();
+                }
+            }
+        }
+        if (exportBuffer != null && (slow || !properties.isExportSlowOnly())
+            && exportBuffer.offer(trace) < 0) {
+            droppedTraces.incrementAndGet();
+        }
+    }
+
+    /**
+     * Возвращает сохраненные медленные трассы, начиная с последней.
+     *
+     * @return медленные трассы
+     */
+    public List<TraceRecord> getSlowTraces() {
+        synchronized (slowTraces) {
+            return List.copyOf(slowTraces);
+        }
+    }
+
+    /**
+     * Находит сохраненную медленную трассу.
+     *
+     * @param traceId идентификатор трассы
+     * @return трасса или пустой Optional, если она не сохранена или уже вытеснена
+     */
+    public Optional<TraceRecord> findSlowTrace(String traceId) {
+        synchronized (slowTraces) {
+            return slowTraces.stream()
+                .filter(trace -> trace.traceId().equals(traceId))
+                .findFirst();
+        }
+    }
+
+    /**
+     * Возвращает количество трассированных запросов.
+     *
+     * @return количество трасс
+     */
+    public long getSampledTraces() {
+        return sampledTraces.get();
+    }
+
+    /**
+     * Возвращает количество выгруженных трасс.
+     *
+     * @return количество трасс
+     */
+    public long getExportedTraces() {
+        return exportedTraces.get();
+    }
+
+    /**
+     * Возвращает количество трасс, отброшенных при заполненном буфере или ошибке выгрузки.
+     *
+     * @return количество трасс
+     */
+    public long getDroppedTraces() {
+        return droppedTraces.get();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (exportExecutor == null) {
+            return;
+        }
+        running = false;
+        exportExecutor.shutdown();
+        if (!exportExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Trace exporter did not finish, {} traces lost", exportBuffer.size());
+        }
+        exporter.close();
+    }
+
+    private void runExporter() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getExportIntervalMs());
+        List<TraceRecord> batch = new ArrayList<>(properties.getExportBatchSize());
+        while (running || !exportBuffer.isEmpty()) {
+            batch.clear();
+            if (exportBuffer.drainTo(batch, properties.getExportBatchSize()) == 0) {
+                LockSupport.parkNanos(this, idleNanos);
+                continue;
+            }
+            try {
+                exporter.export(batch);
+                exportedTraces.addAndGet(batch.size());
+            } catch (Exception e) {
+                droppedTraces.addAndGet(batch.size());
+                log.warn("Failed to export {} traces: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+}
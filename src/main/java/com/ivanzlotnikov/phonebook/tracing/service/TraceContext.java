@@ -0,0 +1,121 @@
+package com.ivanzlotnikov.phonebook.tracing.service;
+
+import com.ivanzlotnikov.phonebook.tracing.dto.SpanKind;
+import com.ivanzlotnikov.phonebook.tracing.dto.TraceRecord;
+
+/**
+ * Хранит трассу запроса, обрабатываемого потоком. Если запрос не попал в выборку, трассы нет
+ * и все методы сводятся к чтению ThreadLocal, поэтому измерение не трассируемых запросов
+ * почти ничего не стоит.
+ */
+public final class TraceContext {
+
+    /**
+     * Номер участка, который не записывается.
+     */
+    public static final int NO_SPAN = -1;
+
+    private static final ThreadLocal<RequestTrace> CURRENT_TRACE = new ThreadLocal<>();
+
+    private TraceContext() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Начинает трассу запроса в текущем потоке.
+     *
+     * @param name     метод и путь запроса
+     * @param tenant   арендатор запроса
+     * @param maxSpans предел количества участков
+     * @return начатая трасса
+     */
+    public static RequestTrace begin(String name, String tenant, int maxSpans) {
+        RequestTrace trace = new RequestTrace(name, tenant, maxSpans);
+        CURRENT_TRACE.set(trace);
+        return trace;
+    }
+
+    /**
+     * Завершает трассу текущего потока и отвязывает ее от потока.
+     *
+     * @param status HTTP-статус ответа
+     * @param error  исключение запроса или null
+     * @return завершенная трасса или null, если трассы нет
+     */
+    public static TraceRecord end(int status, Throwable error) {
+        RequestTrace trace = CURRENT_TRACE.get();
+        if (trace == null) {
+            return null;
+        }
+        CURRENT_TRACE.remove();
+        return trace.finish(status, error);
+    }
+
+    /**
+     * Проверяет, трассируется ли запрос текущего потока.
+     *
+     * @return true, если у потока есть трасса
+     */
+    public static boolean isActive() {
+        return CURRENT_TRACE.get() != null;
+    }
+
+    /**
+     * Открывает участок в трассе текущего потока.
+     *
+     * @param kind уровень участка
+     * @param name имя участка
+     * @return номер участка или {@link #NO_SPAN}, если запрос не трассируется
+     */
+    public static int startSpan(SpanKind kind, String name) {
+        RequestTrace trace = CURRENT_TRACE.get();
+        return trace != null ? trace.start(kind, name) : NO_SPAN;
+    }
+
+    /**
+     * Закрывает участок в трассе текущего потока.
+     *
+     * @param span  номер участка
+     * @param error исключение, которым завершился участок, или null
+     */
+    public static void endSpan(int span, Throwable error) {
+        RequestTrace trace = CURRENT_TRACE.get();
+        if (trace != null) {
+            trace.end(span, error);
+        }
+    }
+
+    /**
+     * Запоминает текст SQL-запроса, который будет выполнен следующим.
+     *
+     * @param sql текст запроса
+     */
+    public static void prepareStatement(String sql) {
+        RequestTrace trace = CURRENT_TRACE.get();
+        if (trace != null) {
+            trace.setPendingStatement(sql);
+        }
+    }
+
+    /**
+     * Открывает участок выполнения SQL-запроса.
+     *
+     * @param fallbackName имя участка, если текст запроса неизвестен
+     */
+    public static void startStatement(String fallbackName) {
+        RequestTrace trace = CURRENT_TRACE.get();
+        if (trace != null) {
+            trace.startStatement(fallbackName);
+        }
+    }
+
+    /**
+     * Закрывает участок выполнения SQL-запроса.
+     */
+    public static void endStatement() {
+        RequestTrace trace = CURRENT_TRACE.get();
+        if (trace != null) {
+            trace.endStatement();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ivanzlotnikov.phonebook.tracing.service;
+
+import com.ivanzlotnikov.phonebook.tracing.dto.TraceRecord;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Выгрузка завершенных трасс во внешнее хранилище. Вызывается только потоком выгрузки
+ * {@link TraceCollector}.
+ */
+public interface TraceExporter {
+
+    /**
+     * Выгружает пакет трасс.
+     *
+     * @param traces трассы
+     * @throws IOException если выгрузка не удалась
+     */
+    void export(List<TraceRecord> traces) throws IOException;
+
+    /**
+     * Освобождает ресурсы выгрузки при остановке приложения.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,31 @@
+package com.ivanzlotnikov.phonebook.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Утилитный класс для работы с коллекциями.
+ */
+public final class CollectionUtils {
+
+    private CollectionUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Разбивает список на последовательные части не больше указанного размера.
+     * Используется для пакетных запросов с ограниченным числом параметров.
+     *
+     * @param values исходный список
+     * @param size   максимальный размер части
+     * @param <T>    тип элементов
+     * @return список частей (представлений исходного списка)
+     */
+    public static <T> List<List<T>> partition(List<T> values, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += size) {
+            chunks.add(values.subList(from, Math.min(from + size, values.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ivanzlotnikov.phonebook.util;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Потокобезопасный набор нормализованных ключей в памяти для предварительной проверки
+ * дубликатов без обращения к базе данных.
+ * Индекс отвечает только "ключа точно нет" или "ключ, возможно, есть": удаленные записи
+ * и записи, созданные другими экземплярами приложения, могут отсутствовать или оставаться
+ * в наборе. Поэтому положительный ответ всегда перепроверяется в базе, а окончательную
+ * корректность обеспечивает уникальное ограничение в таблице.
+ * Размер индекса ограничен: при превышении лимита индекс очищается и перестает отвечать
+ * "ключа точно нет", так что все проверки уходят в базу.
+ */
+public class ConcurrentKeyIndex {
+
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+    private final int maxKeys;
+    private volatile boolean loaded;
+    private volatile boolean overflowed;
+
+    /**
+     * Создает индекс без ограничения размера.
+     */
+    public ConcurrentKeyIndex() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Создает индекс с ограничением размера.
+     *
+     * @param maxKeys максимальное количество ключей
+     */
+    public ConcurrentKeyIndex(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Нормализует ключ: обрезает пробелы и приводит к нижнему регистру.
+     *
+     * @param key исходный ключ
+     * @return нормализованный ключ
+     */
+    public static String normalize(String key) {
+        return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Добавляет ключ в индекс.
+     *
+     * @param key исходный ключ
+     */
+    public void add(String key) {
+        if (overflowed) {
+            return;
+        }
+        keys.add(normalize(key));
+        if (keys.size() > maxKeys) {
+            overflowed = true;
+            loaded = false;
+            keys.clear();
+        }
+    }
+
+    /**
+     * Отмечает индекс как полностью загруженный. До этого момента индекс ничего не
+     * утверждает об отсутствии ключей. Переполненный индекс загруженным не считается.
+     */
+    public void markLoaded() {
+        loaded = !overflowed;
+    }
+
+    /**
+     * Проверяет, что ключа точно нет среди известных записей.
+     *
+     * @param key исходный ключ
+     * @return true, если индекс загружен и ключ в нем отсутствует
+     */
+    public boolean isDefinitelyAbsent(String key) {
+        return loaded && !keys.contains(normalize(key));
+    }
+
+    /**
+     * Возвращает количество ключей в индексе.
+     *
+     * @return размер индекса
+     */
+    public int size() {
+        return keys.size();
+    }
+}
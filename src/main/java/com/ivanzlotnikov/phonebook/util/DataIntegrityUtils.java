@@ -0,0 +1,34 @@
+package com.ivanzlotnikov.phonebook.util;
+
+import java.sql.SQLException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Утилитный класс для разбора ошибок целостности данных.
+ */
+public final class DataIntegrityUtils {
+
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    private DataIntegrityUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Проверяет, вызвана ли ошибка нарушением уникального ограничения.
+     *
+     * @param e исключение целостности данных
+     * @return true, если SQLSTATE причины равен 23505 (unique_violation)
+     */
+    public static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof SQLException sqlException
+                && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+}
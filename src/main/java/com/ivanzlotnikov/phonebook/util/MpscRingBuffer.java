@@ -0,0 +1,139 @@
+package com.ivanzlotnikov.phonebook.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный неблокирующий кольцевой буфер для многих производителей и одного потребителя.
+ * Каждая ячейка хранит номер последовательности: производитель занимает позицию одним CAS по
+ * общему курсору и публикует элемент, записывая в ячейку номер следующей позиции; потребитель
+ * забирает элементы строго по порядку позиций и освобождает ячейку для следующего круга.
+ * Заполненный буфер не ждет, а сразу отказывает, поэтому политику противодавления выбирает
+ * вызывающий код.
+ *
+ * <p>Методы {@link #drainTo(Collection, int)} и {@link #isEmpty()} должен вызывать только
+ * один поток-потребитель.
+ *
+ * @param <T> тип элементов
+ */
+public final class MpscRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * Создает буфер. Емкость округляется вверх до степени двойки.
+     *
+     * @param requestedCapacity минимальная емкость буфера
+     */
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        this.capacity = Integer.bitCount(requestedCapacity) == 1
+            ? requestedCapacity : Integer.highestOneBit(requestedCapacity) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Кладет элемент в буфер, не блокируясь.
+     *
+     * @param item элемент (не null)
+     * @return позиция элемента в общей последовательности или -1, если буфер заполнен
+     */
+    public long offer(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item must not be null");
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, item);
+                    sequences.set(index, position + 1);
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // Ячейка еще не освобождена потребителем с прошлого круга
+                return -1;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Забирает опубликованные элементы по порядку позиций.
+     *
+     * @param target   коллекция для забранных элементов
+     * @param maxItems максимальное количество элементов
+     * @return количество забранных элементов
+     */
+    public int drainTo(Collection<? super T> target, int maxItems) {
+        long position = head;
+        int drained = 0;
+        while (drained < maxItems) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            target.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Проверяет, что опубликованных элементов нет.
+     *
+     * @return true, если буфер пуст
+     */
+    public boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    /**
+     * Возвращает приблизительное количество элементов в буфере.
+     *
+     * @return количество занятых позиций
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head));
+    }
+
+    /**
+     * Возвращает позицию, до которой потребитель забрал элементы (не включительно).
+     *
+     * @return позиция потребителя
+     */
+    public long consumedPosition() {
+        return head;
+    }
+
+    /**
+     * Возвращает емкость буфера.
+     *
+     * @return емкость
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -36,4 +36,17 @@ public final class StringUtils {
     public static boolean isBlank(String value) {
         return !isNotBlank(value);
     }
+    
+    /**
+     * Экранирует символы шаблона LIKE (обратную косую черту, % и _) обратной косой чертой.
+     * Запрос должен объявлять ее символом экранирования: LIKE ... ESCAPE '\'
+     * @param value строка для подстановки в шаблон
+     * @return экранированная строка или null, если входная строка null
+     */
+    public static String escapeLike(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
@@ -0,0 +1,151 @@
+package com.ivanzlotnikov.phonebook.util;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Утилитный класс для построения поисковых ключей по ФИО.
+ * Нормализует строку (нижний регистр, ё→е, только буквы и цифры) и строит варианты
+ * транслитерации по ГОСТ Р 52535.1-2006 и по распространенной бытовой схеме,
+ * чтобы пользователи без русской раскладки находили контакты латиницей.
+ */
+public final class TransliterationUtils {
+
+    /**
+     * Максимальная длина поискового ключа (совпадает с длиной колонки search_key).
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final Map<Character, String> GOST = Map.ofEntries(
+        Map.entry('а', "a"), Map.entry('б', "b"), Map.entry('в', "v"), Map.entry('г', "g"),
+        Map.entry('д', "d"), Map.entry('е', "e"), Map.entry('ж', "zh"), Map.entry('з', "z"),
+        Map.entry('и', "i"), Map.entry('й', "i"), Map.entry('к', "k"), Map.entry('л', "l"),
+        Map.entry('м', "m"), Map.entry('н', "n"), Map.entry('о', "o"), Map.entry('п', "p"),
+        Map.entry('р', "r"), Map.entry('с', "s"), Map.entry('т', "t"), Map.entry('у', "u"),
+        Map.entry('ф', "f"), Map.entry('х', "kh"), Map.entry('ц', "tc"), Map.entry('ч', "ch"),
+        Map.entry('ш', "sh"), Map.entry('щ', "shch"), Map.entry('ъ', "ie"), Map.entry('ы', "y"),
+        Map.entry('ь', ""), Map.entry('э', "e"), Map.entry('ю', "iu"), Map.entry('я', "ia"));
+
+    private static final Map<Character, String> INFORMAL = Map.ofEntries(
+        Map.entry('а', "a"), Map.entry('б', "b"), Map.entry('в', "v"), Map.entry('г', "g"),
+        Map.entry('д', "d"), Map.entry('е', "e"), Map.entry('ж', "zh"), Map.entry('з', "z"),
+        Map.entry('и', "i"), Map.entry('й', "y"), Map.entry('к', "k"), Map.entry('л', "l"),
+        Map.entry('м', "m"), Map.entry('н', "n"), Map.entry('о', "o"), Map.entry('п', "p"),
+        Map.entry('р', "r"), Map.entry('с', "s"), Map.entry('т', "t"), Map.entry('у', "u"),
+        Map.entry('ф', "f"), Map.entry('х', "h"), Map.entry('ц', "ts"), Map.entry('ч', "ch"),
+        Map.entry('ш', "sh"), Map.entry('щ', "sch"), Map.entry('ъ', ""), Map.entry('ы', "y"),
+        Map.entry('ь', ""), Map.entry('э', "e"), Map.entry('ю', "yu"), Map.entry('я', "ya"));
+
+    private TransliterationUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Нормализует строку для поиска: нижний регистр, ё→е, все символы кроме букв и цифр
+     * заменяются пробелом, повторяющиеся пробелы схлопываются.
+     *
+     * @param value исходная строка
+     * @return нормализованная строка или пустая строка, если входная строка null
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String lower = value.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        StringBuilder sb = new StringBuilder(lower.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char ch = lower.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                if (pendingSpace && !sb.isEmpty()) {
+                    sb.append(' ');
+                }
+                sb.append(ch);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Транслитерирует нормализованную строку по ГОСТ Р 52535.1-2006 (загранпаспорта).
+     *
+     * @param normalized нормализованная строка
+     * @return строка латиницей
+     */
+    public static String toGost(String normalized) {
+        return transliterate(normalized, GOST);
+    }
+
+    /**
+     * Транслитерирует нормализованную строку по распространенной бытовой схеме
+     * (й→y, х→h, ц→ts, ю→yu, я→ya).
+     *
+     * @param normalized нормализованная строка
+     * @return строка латиницей
+     */
+    public static String toInformal(String normalized) {
+        return transliterate(normalized, INFORMAL);
+    }
+
+    /**
+     * Строит набор поисковых ключей для ФИО. Для каждого варианта написания (кириллица, ГОСТ,
+     * бытовая транслитерация) ключами становятся все хвосты строки, начинающиеся с границы
+     * слова. Поиск по префиксу ключа находит контакт по любому слову ФИО и по любой
+     * последовательности слов, начиная с него.
+     *
+     * @param fullName полное имя сотрудника
+     * @return набор поисковых ключей (пустой, если имя пустое)
+     */
+    public static Set<String> buildSearchKeys(String fullName) {
+        String normalized = normalize(fullName);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        for (String variant : List.of(normalized, toGost(normalized), toInformal(normalized))) {
+            addWordSuffixes(variant, keys);
+        }
+        return keys;
+    }
+
+    /**
+     * Преобразует поисковый запрос в префикс для LIKE-поиска по ключам.
+     * Нормализация удаляет символы '%' и '_', поэтому экранирование не требуется.
+     *
+     * @param query поисковый запрос пользователя
+     * @return шаблон вида "префикс%"
+     */
+    public static String toSearchPrefix(String query) {
+        String normalized = normalize(query);
+        if (normalized.length() > MAX_KEY_LENGTH) {
+            normalized = normalized.substring(0, MAX_KEY_LENGTH);
+        }
+        return normalized + "%";
+    }
+
+    private static void addWordSuffixes(String variant, Set<String> keys) {
+        int start = 0;
+        while (start >= 0 && start < variant.length()) {
+            String suffix = variant.substring(start);
+            keys.add(suffix.length() > MAX_KEY_LENGTH ? suffix.substring(0, MAX_KEY_LENGTH) : suffix);
+            int space = variant.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+    }
+
+    private static String transliterate(String normalized, Map<Character, String> table) {
+        StringBuilder sb = new StringBuilder(normalized.length() * 2);
+        for (int i = 0; i < normalized.length(); i++) {
+            char ch = normalized.charAt(i);
+            String replacement = table.get(ch);
+            sb.append(replacement != null ? replacement : String.valueOf(ch));
+        }
+        return sb.toString();
+    }
+}
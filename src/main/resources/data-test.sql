@@ -61,7 +61,7 @@ DO $$
                 -- Выбираем случайную должность
                 position_val := positions[1 + floor(random() * array_length(positions, 1))];
 
-                -- Выбираем случайный ID подразделения (от 1 до 6, как в data.sql)
+                -- Выбираем случайный ID подразделения (от 1 до 6, как в db/demo/R__demo_data.sql)
                 department_id_val := floor(random() * 6 + 1);
 
                 -- Вставляем сгенерированную запись и получаем её ID
@@ -71,21 +71,21 @@ DO $$
 
                 -- Добавляем рабочий телефон (с вероятностью 90%)
                 IF random() < 0.9 THEN
-                    INSERT INTO contact_work_phones (contact_id, phone_number) VALUES (new_contact_id, generate_phone());
+                    INSERT INTO contact_work_phones (contact_id, phone_order, phone_number) VALUES (new_contact_id, 0, generate_phone());
                     -- Иногда добавляем второй рабочий телефон (с вероятностью 15%)
                     IF random() < 0.15 THEN
-                        INSERT INTO contact_work_phones (contact_id, phone_number) VALUES (new_contact_id, generate_phone());
+                        INSERT INTO contact_work_phones (contact_id, phone_order, phone_number) VALUES (new_contact_id, 1, generate_phone());
                     END IF;
                 END IF;
 
                 -- Добавляем мобильный рабочий телефон (с вероятностью 70%)
                 IF random() < 0.7 THEN
-                    INSERT INTO contact_work_mobile_phones (contact_id, phone_number) VALUES (new_contact_id, generate_phone());
+                    INSERT INTO contact_work_mobile_phones (contact_id, phone_order, phone_number) VALUES (new_contact_id, 0, generate_phone());
                 END IF;
 
                 -- Добавляем личный телефон (с вероятностью 25%, делаем его более редким)
                 IF random() < 0.25 THEN
-                    INSERT INTO contact_personal_phones (contact_id, phone_number) VALUES (new_contact_id, generate_phone());
+                    INSERT INTO contact_personal_phones (contact_id, phone_order, phone_number) VALUES (new_contact_id, 0, generate_phone());
                 END IF;
 
             END LOOP;
@@ -1,3 +1,6 @@
+-- Демонстрационные данные (профиль docker). Повторяемая миграция выполняется заново при
+-- изменении файла, поэтому все вставки идемпотентны (ON CONFLICT DO NOTHING).
+
 -- Подразделения
 INSERT INTO departments (name, parent_department_id)
 VALUES ('Руководство', NULL),
@@ -59,52 +62,52 @@ ON CONFLICT DO NOTHING;
 -- ▲▲▲ ДОБАВЛЕНО: Телефоны для контактов ▲▲▲
 
 -- Телефоны для руководства
-INSERT INTO contact_work_phones (contact_id, phone_number) VALUES
-                                                               (1, '+7 (495) 111-11-11'),
-                                                               (1, '+7 (495) 111-11-12'),
-                                                               (2, '+7 (495) 111-11-13')
+INSERT INTO contact_work_phones (contact_id, phone_order, phone_number) VALUES
+                                                               (1, 0, '+7 (495) 111-11-11'),
+                                                               (1, 1, '+7 (495) 111-11-12'),
+                                                               (2, 0, '+7 (495) 111-11-13')
 ON CONFLICT DO NOTHING;
 
-INSERT INTO contact_work_mobile_phones (contact_id, phone_number) VALUES
-                                                                      (1, '+7 (916) 111-11-11'),
-                                                                      (2, '+7 (916) 111-11-12')
+INSERT INTO contact_work_mobile_phones (contact_id, phone_order, phone_number) VALUES
+                                                                      (1, 0, '+7 (916) 111-11-11'),
+                                                                      (2, 0, '+7 (916) 111-11-12')
 ON CONFLICT DO NOTHING;
 
-INSERT INTO contact_personal_phones (contact_id, phone_number) VALUES
-    (1, '+7 (925) 111-11-11')
+INSERT INTO contact_personal_phones (contact_id, phone_order, phone_number) VALUES
+    (1, 0, '+7 (925) 111-11-11')
 ON CONFLICT DO NOTHING;
 
 -- Телефоны для разработчиков
-INSERT INTO contact_work_phones (contact_id, phone_number) VALUES
-                                                               (3, '+7 (495) 222-22-21'),
-                                                               (4, '+7 (495) 222-22-22'),
-                                                               (5, '+7 (495) 222-22-23')
+INSERT INTO contact_work_phones (contact_id, phone_order, phone_number) VALUES
+                                                               (3, 0, '+7 (495) 222-22-21'),
+                                                               (4, 0, '+7 (495) 222-22-22'),
+                                                               (5, 0, '+7 (495) 222-22-23')
 ON CONFLICT DO NOTHING;
 
-INSERT INTO contact_work_mobile_phones (contact_id, phone_number) VALUES
-                                                                      (3, '+7 (916) 222-22-21'),
-                                                                      (4, '+7 (916) 222-22-22')
+INSERT INTO contact_work_mobile_phones (contact_id, phone_order, phone_number) VALUES
+                                                                      (3, 0, '+7 (916) 222-22-21'),
+                                                                      (4, 0, '+7 (916) 222-22-22')
 ON CONFLICT DO NOTHING;
 
 -- Телефоны для тестировщиков
-INSERT INTO contact_work_phones (contact_id, phone_number) VALUES
-                                                               (6, '+7 (495) 333-33-31'),
-                                                               (7, '+7 (495) 333-33-32')
+INSERT INTO contact_work_phones (contact_id, phone_order, phone_number) VALUES
+                                                               (6, 0, '+7 (495) 333-33-31'),
+                                                               (7, 0, '+7 (495) 333-33-32')
 ON CONFLICT DO NOTHING;
 
 -- Телефоны для сисадминов
-INSERT INTO contact_work_phones (contact_id, phone_number) VALUES
-                                                               (8, '+7 (495) 444-44-41'),
-                                                               (9, '+7 (495) 444-44-42')
+INSERT INTO contact_work_phones (contact_id, phone_order, phone_number) VALUES
+                                                               (8, 0, '+7 (495) 444-44-41'),
+                                                               (9, 0, '+7 (495) 444-44-42')
 ON CONFLICT DO NOTHING;
 
-INSERT INTO contact_work_mobile_phones (contact_id, phone_number) VALUES
-                                                                      (8, '+7 (916) 444-44-41'),
-                                                                      (9, '+7 (916) 444-44-42')
+INSERT INTO contact_work_mobile_phones (contact_id, phone_order, phone_number) VALUES
+                                                                      (8, 0, '+7 (916) 444-44-41'),
+                                                                      (9, 0, '+7 (916) 444-44-42')
 ON CONFLICT DO NOTHING;
 
 -- Телефоны для бухгалтерии
-INSERT INTO contact_work_phones (contact_id, phone_number) VALUES
-                                                               (10, '+7 (495) 555-55-51'),
-                                                               (11, '+7 (495) 555-55-52')
+INSERT INTO contact_work_phones (contact_id, phone_order, phone_number) VALUES
+                                                               (10, 0, '+7 (495) 555-55-51'),
+                                                               (11, 0, '+7 (495) 555-55-52')
 ON CONFLICT DO NOTHING;
\ No newline at end of file
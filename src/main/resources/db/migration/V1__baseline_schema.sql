@@ -0,0 +1,49 @@
+-- Исходная схема справочника (совпадает со схемой, которую создавал ddl-auto=update до
+-- перехода на миграции). Существующие базы помечаются этой версией (baseline-on-migrate) и
+-- скрипт не выполняют, поэтому все последующие изменения схемы вносятся только скриптами V2+.
+
+CREATE TABLE departments (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                 varchar(100) NOT NULL,
+    parent_department_id bigint,
+    CONSTRAINT uk_departments_name UNIQUE (name),
+    CONSTRAINT fk_departments_parent FOREIGN KEY (parent_department_id) REFERENCES departments (id)
+);
+
+CREATE TABLE contacts (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    full_name     varchar(100) NOT NULL,
+    position      varchar(100) NOT NULL,
+    department_id bigint,
+    CONSTRAINT fk_contacts_department FOREIGN KEY (department_id) REFERENCES departments (id)
+);
+
+-- Телефоны хранились неупорядоченными наборами строк без первичного ключа
+CREATE TABLE contact_work_phones (
+    contact_id   bigint NOT NULL,
+    phone_number varchar(20),
+    CONSTRAINT fk_contact_work_phones_contact FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
+
+CREATE TABLE contact_work_mobile_phones (
+    contact_id   bigint NOT NULL,
+    phone_number varchar(255),
+    CONSTRAINT fk_contact_work_mobile_phones_contact
+        FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
+
+CREATE TABLE contact_personal_phones (
+    contact_id   bigint NOT NULL,
+    phone_number varchar(255),
+    CONSTRAINT fk_contact_personal_phones_contact
+        FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
+
+CREATE TABLE users (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username varchar(50)  NOT NULL,
+    password varchar(100) NOT NULL,
+    role     varchar(255) NOT NULL,
+    enabled  boolean      NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
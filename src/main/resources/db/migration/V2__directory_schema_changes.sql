@@ -0,0 +1,91 @@
+-- Изменения исходной схемы: порядок телефонов, поисковые ключи, уникальность контактов, мягкое
+-- удаление с архивом, журнал изменений справочника и история численности. Скрипт выполняется
+-- в одной транзакции и в существующих базах работает с уже накопленными данными.
+
+-- Телефоны: списки в порядке ввода с ключом (contact_id, phone_order). Порядок существующих
+-- строк неизвестен, поэтому номера нумеруются в физическом порядке строк
+DELETE FROM contact_work_phones WHERE phone_number IS NULL;
+ALTER TABLE contact_work_phones ADD COLUMN phone_order integer;
+UPDATE contact_work_phones p
+SET phone_order = o.phone_order
+FROM (SELECT ctid, ROW_NUMBER() OVER (PARTITION BY contact_id ORDER BY ctid) - 1 AS phone_order
+      FROM contact_work_phones) o
+WHERE p.ctid = o.ctid;
+ALTER TABLE contact_work_phones
+    ALTER COLUMN phone_order SET NOT NULL,
+    ALTER COLUMN phone_number SET NOT NULL,
+    ADD PRIMARY KEY (contact_id, phone_order);
+
+DELETE FROM contact_work_mobile_phones WHERE phone_number IS NULL;
+ALTER TABLE contact_work_mobile_phones ADD COLUMN phone_order integer;
+UPDATE contact_work_mobile_phones p
+SET phone_order = o.phone_order
+FROM (SELECT ctid, ROW_NUMBER() OVER (PARTITION BY contact_id ORDER BY ctid) - 1 AS phone_order
+      FROM contact_work_mobile_phones) o
+WHERE p.ctid = o.ctid;
+ALTER TABLE contact_work_mobile_phones
+    ALTER COLUMN phone_order SET NOT NULL,
+    ALTER COLUMN phone_number SET NOT NULL,
+    ADD PRIMARY KEY (contact_id, phone_order);
+
+DELETE FROM contact_personal_phones WHERE phone_number IS NULL;
+ALTER TABLE contact_personal_phones ADD COLUMN phone_order integer;
+UPDATE contact_personal_phones p
+SET phone_order = o.phone_order
+FROM (SELECT ctid, ROW_NUMBER() OVER (PARTITION BY contact_id ORDER BY ctid) - 1 AS phone_order
+      FROM contact_personal_phones) o
+WHERE p.ctid = o.ctid;
+ALTER TABLE contact_personal_phones
+    ALTER COLUMN phone_order SET NOT NULL,
+    ALTER COLUMN phone_number SET NOT NULL,
+    ADD PRIMARY KEY (contact_id, phone_order);
+
+-- Поисковые ключи контактов; ключи существующих контактов заполняет приложение
+-- (ContactSearchKeyBackfill)
+CREATE TABLE contact_search_keys (
+    contact_id bigint       NOT NULL,
+    search_key varchar(255) NOT NULL,
+    PRIMARY KEY (contact_id, search_key),
+    CONSTRAINT fk_contact_search_keys_contact FOREIGN KEY (contact_id) REFERENCES contacts (id)
+);
+
+-- Мягкое удаление контактов и архив: строки архива только добавляются и удаляются
+ALTER TABLE contacts ADD COLUMN deleted_at timestamp(6);
+
+-- Уникальность контакта по ФИО и должности среди неудаленных контактов: мягко удаленный
+-- контакт до переноса в архив не мешает создать или восстановить контакт с теми же данными.
+-- Если в базе уже есть дубликаты, миграция прерывается с указанием повторяющейся пары;
+-- дубликаты нужно объединить вручную:
+-- SELECT full_name, position, count(*) FROM contacts GROUP BY 1, 2 HAVING count(*) > 1
+CREATE UNIQUE INDEX uk_contacts_full_name_position ON contacts (full_name, position)
+    WHERE deleted_at IS NULL;
+
+CREATE TABLE archived_contacts (
+    id                 bigint       PRIMARY KEY,
+    full_name          varchar(100) NOT NULL,
+    position           varchar(100) NOT NULL,
+    department_id      bigint,
+    department_name    varchar(100),
+    work_phones        varchar(1000),
+    work_mobile_phones varchar(1000),
+    personal_phones    varchar(1000),
+    archived_at        timestamp(6) NOT NULL
+) WITH (fillfactor = 100);
+
+-- Журнал изменений справочника для догоняющего обновления снимка
+CREATE TABLE directory_change_log (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    change_type varchar(32)    NOT NULL,
+    entity_ids  bigint[]       NOT NULL,
+    changed_at  timestamptz(6) NOT NULL
+);
+
+CREATE INDEX idx_directory_change_log_changed_at ON directory_change_log (changed_at);
+
+-- Дневная история численности департаментов
+CREATE TABLE headcount_history (
+    snapshot_date date   NOT NULL,
+    department_id bigint NOT NULL,
+    headcount     bigint NOT NULL,
+    PRIMARY KEY (snapshot_date, department_id)
+);
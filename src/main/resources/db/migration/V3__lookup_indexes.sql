@@ -0,0 +1,36 @@
+-- Индексы поиска и выборок. Строятся с CONCURRENTLY, чтобы не блокировать запись в большие
+-- таблицы, поэтому скрипт выполняется вне транзакции. Прерванное построение оставляет
+-- невалидный индекс: перед следующим запуском он перестраивается, и скрипт выполняется
+-- повторно, так что все операторы должны быть повторяемыми (IF NOT EXISTS).
+--
+-- Поиск по ФИО и должности обслуживает частичный уникальный индекс uk_contacts_full_name_position
+-- (V2), а выборку ключей контакта - первичный ключ (contact_id, search_key), поэтому отдельные
+-- индексы для них не создаются.
+
+-- Индексы для таблицы contacts
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_full_name ON contacts (full_name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_department_id ON contacts (department_id);
+
+-- Индексы для таблицы departments
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_departments_name ON departments (name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_departments_parent_id
+    ON departments (parent_department_id);
+
+-- Индексы для таблицы users
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username ON users (username);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_role ON users (role);
+-- Поиск пользователей по началу логина без учета регистра (LOWER(username) LIKE 'префикс%')
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_lower
+    ON users (lower(username) text_pattern_ops);
+
+-- Индексы для таблицы поисковых ключей контактов (поиск по префиксу)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contact_search_keys_key
+    ON contact_search_keys (search_key text_pattern_ops);
+
+-- Частичный индекс для фоновой архивации мягко удаленных контактов
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_deleted_at
+    ON contacts (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Архив контактов: поиск по началу ФИО
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_archived_contacts_full_name
+    ON archived_contacts (lower(full_name) text_pattern_ops);
@@ -0,0 +1,18 @@
+-- Журнал аудита, секционированный по месяцам. Месячные секции создает приложение при первой
+-- записи в месяц. Индексы секционированной таблицы нельзя строить с CONCURRENTLY; на пустой
+-- таблице они создаются сразу, а в базах, где журнал уже был создан приложением, пропускаются.
+
+CREATE TABLE IF NOT EXISTS audit_log (
+    id          bigserial    NOT NULL,
+    occurred_at timestamptz  NOT NULL,
+    actor       varchar(255) NOT NULL,
+    entity_type varchar(32)  NOT NULL,
+    entity_id   bigint       NOT NULL,
+    action      varchar(16)  NOT NULL,
+    changes     jsonb        NOT NULL,
+    PRIMARY KEY (occurred_at, id)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE INDEX IF NOT EXISTS idx_audit_log_entity
+    ON audit_log (entity_type, entity_id, occurred_at, id);
+CREATE INDEX IF NOT EXISTS idx_audit_log_actor ON audit_log (actor, occurred_at, id);
@@ -0,0 +1,8 @@
+-- Работающие экземпляры приложения: каждый экземпляр периодически обновляет свою строку, а
+-- число свежих строк используется для деления глобальных лимитов частоты запросов. Приложение
+-- обращается только к таблице схемы арендатора по умолчанию.
+
+CREATE TABLE IF NOT EXISTS app_instances (
+    instance_id varchar(64) PRIMARY KEY,
+    last_seen   timestamptz NOT NULL
+);
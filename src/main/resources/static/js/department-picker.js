@@ -0,0 +1,145 @@
+/*
+ * Выбор подразделения на формах. Корневые департаменты загружаются при открытии формы,
+ * дочерние — при раскрытии узла, результаты поиска — по мере ввода; длинные уровни
+ * догружаются страницами по кнопке «Показать ещё».
+ */
+(function () {
+  'use strict';
+
+  const SEARCH_DELAY_MS = 300;
+
+  function initPicker(picker) {
+    const baseUrl = picker.dataset.pickerUrl;
+    const excludeId = picker.dataset.excludeId;
+    const valueInput = picker.querySelector('[data-picker-value]');
+    const label = picker.querySelector('[data-picker-label]');
+    const search = picker.querySelector('[data-picker-search]');
+    const tree = picker.querySelector('[data-picker-tree]');
+    let searchTimer = null;
+    let generation = 0;
+
+    function select(option) {
+      valueInput.value = option ? option.id : '';
+      label.textContent = option ? option.name : label.dataset.placeholder;
+    }
+
+    function load(list, url, page, currentGeneration) {
+      const separator = url.includes('?') ? '&' : '?';
+      fetch(url + separator + 'page=' + page, {headers: {'Accept': 'application/json'}})
+        .then(function (response) {
+          if (!response.ok) {
+            throw new Error('HTTP ' + response.status);
+          }
+          return response.json();
+        })
+        .then(function (result) {
+          if (currentGeneration !== generation && list === tree) {
+            return;
+          }
+          result.items
+            .filter(function (option) {
+              return String(option.id) !== excludeId;
+            })
+            .forEach(function (option) {
+              list.appendChild(renderNode(option));
+            });
+          if (result.hasMore) {
+            const more = document.createElement('li');
+            const button = document.createElement('button');
+            button.type = 'button';
+            button.className = 'btn btn-link btn-sm p-0';
+            button.textContent = 'Показать ещё';
+            button.addEventListener('click', function () {
+              more.remove();
+              load(list, url, page + 1, currentGeneration);
+            });
+            more.appendChild(button);
+            list.appendChild(more);
+          }
+        })
+        .catch(function () {
+          const error = document.createElement('li');
+          error.className = 'text-danger small';
+          error.textContent = 'Не удалось загрузить подразделения';
+          list.appendChild(error);
+        });
+    }
+
+    function renderNode(option) {
+      const item = document.createElement('li');
+      const row = document.createElement('div');
+      row.className = 'd-flex align-items-center';
+
+      const toggle = document.createElement('button');
+      toggle.type = 'button';
+      toggle.className = 'btn btn-sm btn-link p-0 me-1';
+      toggle.style.visibility = option.hasChildren ? 'visible' : 'hidden';
+      toggle.innerHTML = '<i class="fas fa-caret-right"></i>';
+      toggle.setAttribute('aria-label', 'Раскрыть');
+
+      const name = document.createElement('button');
+      name.type = 'button';
+      name.className = 'btn btn-sm btn-link text-start text-decoration-none p-0';
+      name.textContent = option.name;
+      if (option.parentName && search.value.trim()) {
+        name.title = option.parentName;
+        const parent = document.createElement('span');
+        parent.className = 'text-muted small ms-1';
+        parent.textContent = '(' + option.parentName + ')';
+        row.append(toggle, name, parent);
+      } else {
+        row.append(toggle, name);
+      }
+      name.addEventListener('click', function () {
+        select(option);
+      });
+
+      const children = document.createElement('ul');
+      children.className = 'list-unstyled ms-3';
+      children.hidden = true;
+      let loaded = false;
+      toggle.addEventListener('click', function () {
+        children.hidden = !children.hidden;
+        toggle.innerHTML = children.hidden
+          ? '<i class="fas fa-caret-right"></i>' : '<i class="fas fa-caret-down"></i>';
+        if (!loaded) {
+          loaded = true;
+          load(children, baseUrl + '/children?parentId=' + encodeURIComponent(option.id), 0,
+            generation);
+        }
+      });
+
+      item.append(row, children);
+      return item;
+    }
+
+    function reload() {
+      generation++;
+      tree.replaceChildren();
+      const query = search.value.trim();
+      const url = query
+        ? baseUrl + '/search?q=' + encodeURIComponent(query)
+        : baseUrl + '/children';
+      load(tree, url, 0, generation);
+    }
+
+    picker.querySelector('[data-picker-clear]').addEventListener('click', function () {
+      select(null);
+    });
+    search.addEventListener('input', function () {
+      clearTimeout(searchTimer);
+      searchTimer = setTimeout(reload, SEARCH_DELAY_MS);
+    });
+    // Enter в поле поиска не должен отправлять форму
+    search.addEventListener('keydown', function (event) {
+      if (event.key === 'Enter') {
+        event.preventDefault();
+      }
+    });
+    reload();
+  }
+
+  document.addEventListener('DOMContentLoaded', function () {
+    document.querySelectorAll('.department-picker').forEach(initPicker);
+  });
+})();
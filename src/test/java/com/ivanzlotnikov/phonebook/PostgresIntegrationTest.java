@@ -0,0 +1,40 @@
+package com.ivanzlotnikov.phonebook;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Основа интеграционных тестов с полным контекстом приложения на PostgreSQL: схема создается
+ * миграциями Flyway, как в рабочей базе. Контейнер общий для всех наследников и запускается один
+ * раз; фоновые задачи (архивация, снимок, сверка статистики) отложены, чтобы не выполнять
+ * запросы во время теста, а кэш сущностей отключен, чтобы тесты видели все чтения из базы.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "phonebook.entity-cache.enabled=false",
+    "phonebook.archive.interval-ms=3600000",
+    "phonebook.snapshot.enabled=true",
+    "phonebook.snapshot.initial-delay-ms=3600000",
+    "phonebook.snapshot.storage-dir=${java.io.tmpdir}/phonebook-test-snapshot",
+    "phonebook.statistics.reconcile-interval-ms=3600000"
+})
+public abstract class PostgresIntegrationTest {
+
+    private static final PostgreSQLContainer<?> POSTGRES =
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ivanzlotnikov.phonebook.audit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ivanzlotnikov.phonebook.PostgresIntegrationTest;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactFormDTO;
+import com.ivanzlotnikov.phonebook.contact.service.ContactService;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Проверяет режим журнала аудита SYNC: событие записывается в транзакции изменения, и к
+ * возврату из сервиса оно уже есть в журнале, а ошибка записи события откатывает изменение и
+ * доходит до вызывающего кода.
+ */
+@TestPropertySource(properties = {
+    "phonebook.audit.enabled=true",
+    "phonebook.audit.durability=SYNC"
+})
+class AuditJournalSyncDurabilityTest extends PostgresIntegrationTest {
+
+    private static final String FULL_NAME = "Кузнецов Кузьма Кузьмич";
+    private static final String POSITION = "Кладовщик";
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE IF EXISTS audit_log_unavailable RENAME TO audit_log");
+        jdbcTemplate.execute("TRUNCATE TABLE contacts, directory_change_log, audit_log"
+            + " RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void eventIsWrittenBeforeServiceCallReturns() {
+        long id = contactService.save(form()).getId();
+
+        Integer entries = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM audit_log WHERE entity_type = 'CONTACT' AND entity_id = ?"
+                + " AND action = 'CREATE'", Integer.class, id);
+        assertThat(entries).isEqualTo(1);
+    }
+
+    @Test
+    void failedWriteRollsBackChangeAndReachesCaller() {
+        jdbcTemplate.execute("ALTER TABLE audit_log RENAME TO audit_log_unavailable");
+
+        assertThatThrownBy(() -> contactService.save(form()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Audit event was not written to the journal");
+
+        Integer contacts = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM contacts WHERE full_name = ? AND position = ?", Integer.class,
+            FULL_NAME, POSITION);
+        Integer changes = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM directory_change_log", Integer.class);
+        assertThat(contacts).isZero();
+        assertThat(changes).isZero();
+    }
+
+    private static ContactFormDTO form() {
+        ContactFormDTO form = new ContactFormDTO();
+        form.setFullName(FULL_NAME);
+        form.setPosition(POSITION);
+        form.setWorkPhones(new ArrayList<>(List.of("+7 (495) 333-33-33")));
+        form.setWorkMobilePhones(new ArrayList<>());
+        form.setPersonalPhones(new ArrayList<>());
+        return form;
+    }
+}
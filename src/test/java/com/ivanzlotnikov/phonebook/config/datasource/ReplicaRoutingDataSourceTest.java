@@ -0,0 +1,214 @@
+package com.ivanzlotnikov.phonebook.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Проверяет маршрутизацию на реальной паре PostgreSQL с потоковой репликацией: реплика
+ * создается через pg_basebackup с основной базы и применяет ее журнал.
+ */
+@Testcontainers
+class ReplicaRoutingDataSourceTest {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("postgres:16-alpine");
+    private static final Network NETWORK = Network.newNetwork();
+    private static final String REPLICA_KEY = "replica-0";
+    private static final long MAX_LAG_MS = 1000;
+    private static final long AWAIT_TIMEOUT_MS = 15_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>(IMAGE)
+        .withNetwork(NETWORK)
+        .withNetworkAliases("primary")
+        .withCopyToContainer(Transferable.of(
+                "echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\"\n"),
+            "/docker-entrypoint-initdb.d/replication.sh");
+
+    @Container
+    private static final GenericContainer<?> REPLICA = new GenericContainer<>(IMAGE)
+        .dependsOn(PRIMARY)
+        .withNetwork(NETWORK)
+        .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+        .withCommand("sh", "-c", "chmod 700 \"$PGDATA\""
+            + " && pg_basebackup -d 'host=primary user=test password=test'"
+            + " -D \"$PGDATA\" -R -X stream && exec postgres")
+        .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+        .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\n", 1));
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private ReplicaHealthMonitor monitor;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeAll
+    static void createTable() throws SQLException {
+        try (HikariDataSource primary = pool(PRIMARY.getJdbcUrl())) {
+            execute(primary, "CREATE TABLE probe (id bigserial PRIMARY KEY)");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        primaryPool = pool(PRIMARY.getJdbcUrl());
+        replicaPool = pool("jdbc:postgresql://" + REPLICA.getHost() + ":"
+            + REPLICA.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/"
+            + PRIMARY.getDatabaseName());
+        monitor = new ReplicaHealthMonitor(Map.of(REPLICA_KEY, replicaPool),
+            pool(PRIMARY.getJdbcUrl()), MAX_LAG_MS);
+        routing = new ReplicaRoutingDataSource(monitor);
+        routing.setTargetDataSources(Map.<Object, Object>of(
+            REPLICA_KEY, replicaPool, ReplicaRoutingDataSource.PRIMARY_KEY, primaryPool));
+        routing.setDefaultTargetDataSource(primaryPool);
+        routing.afterPropertiesSet();
+        RequestContextHolder.setRequestAttributes(
+            new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute(replicaPool, "SELECT pg_wal_replay_resume()");
+        RequestContextHolder.resetRequestAttributes();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        monitor.destroy();
+        primaryPool.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToCaughtUpReplicaAndWritesToPrimary() {
+        awaitRoute(REPLICA_KEY);
+
+        assertThat(route(false)).isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+    }
+
+    @Test
+    void sessionReadsStayOnPrimaryUntilReplicaReplaysTheWrite() throws SQLException {
+        awaitRoute(REPLICA_KEY);
+        execute(replicaPool, "SELECT pg_wal_replay_pause()");
+
+        long id = commitWrite();
+        monitor.checkReplicas();
+
+        assertThat(route(true)).isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+        assertThat(countProbe(replicaPool, id)).isZero();
+
+        execute(replicaPool, "SELECT pg_wal_replay_resume()");
+        awaitRoute(REPLICA_KEY);
+        assertThat(countProbe(replicaPool, id)).isEqualTo(1);
+    }
+
+    @Test
+    void replicaLaggingBeyondLimitIsExcludedForEveryone() throws Exception {
+        awaitRoute(REPLICA_KEY);
+        execute(replicaPool, "SELECT pg_wal_replay_pause()");
+        insertProbe();
+        RequestContextHolder.resetRequestAttributes();
+
+        Thread.sleep(MAX_LAG_MS + 500);
+        monitor.checkReplicas();
+
+        assertThat(monitor.eligibleReplicas(0L)).isEmpty();
+        assertThat(route(true)).isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+    }
+
+    private long commitWrite() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(route(false)).isEqualTo(ReplicaRoutingDataSource.PRIMARY_KEY);
+            long id = insertProbe();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            return id;
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private String route(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        return (String) routing.determineCurrentLookupKey();
+    }
+
+    private void awaitRoute(String expected) {
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+        String key;
+        do {
+            monitor.checkReplicas();
+            key = route(true);
+        } while (!expected.equals(key) && System.currentTimeMillis() < deadline
+            && sleepQuietly());
+        assertThat(key).isEqualTo(expected);
+    }
+
+    private static boolean sleepQuietly() {
+        try {
+            Thread.sleep(100);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private long insertProbe() throws SQLException {
+        try (Connection connection = primaryPool.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery(
+                "INSERT INTO probe DEFAULT VALUES RETURNING id")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long countProbe(HikariDataSource dataSource, long id) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement(
+                "SELECT count(*) FROM probe WHERE id = ?")) {
+            statement.setLong(1, id);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static void execute(HikariDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static HikariDataSource pool(String jdbcUrl) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(jdbcUrl);
+        pool.setUsername(PRIMARY.getUsername());
+        pool.setPassword(PRIMARY.getPassword());
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+}
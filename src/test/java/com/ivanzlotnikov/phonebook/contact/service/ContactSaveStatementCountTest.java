@@ -0,0 +1,149 @@
+package com.ivanzlotnikov.phonebook.contact.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ivanzlotnikov.phonebook.PostgresIntegrationTest;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactDTO;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactFormDTO;
+import com.ivanzlotnikov.phonebook.util.TransliterationUtils;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Считает SQL-запросы, которые выполняет {@link ContactService#save} при изменении
+ * существующего контакта, включая фиксацию транзакции: чтение контакта, его телефонов и
+ * поисковых ключей, запись изменившихся строк и запись журнала изменений справочника перед
+ * фиксацией. Однотипные операторы над несколькими строками уходят одним пакетом JDBC и
+ * считаются один раз. Уведомление других экземпляров (pg_notify) отправляется через JDBC мимо
+ * Hibernate и в подсчет не входит.
+ */
+class ContactSaveStatementCountTest extends PostgresIntegrationTest {
+
+    private static final String FULL_NAME = "Иванов Иван Иванович";
+    private static final String NEW_FULL_NAME = "Петров Петр Петрович";
+    private static final String POSITION = "Инженер";
+    private static final String WORK_1 = "+7 (495) 111-11-11";
+    private static final String WORK_2 = "+7 (495) 111-11-12";
+    private static final String WORK_3 = "+7 (495) 111-11-13";
+    private static final String PERSONAL = "+7 (925) 111-11-11";
+
+    /**
+     * Контакт, три списка телефонов и поисковые ключи.
+     */
+    private static final long READS = 5;
+    private static final long CHANGE_LOG_INSERT = 1;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Long contactId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ContactFormDTO form = new ContactFormDTO();
+        form.setFullName(FULL_NAME);
+        form.setPosition(POSITION);
+        form.setWorkPhones(new ArrayList<>(List.of(WORK_1, WORK_2)));
+        form.setWorkMobilePhones(new ArrayList<>());
+        form.setPersonalPhones(new ArrayList<>(List.of(PERSONAL)));
+        contactId = contactService.save(form).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute(
+            "TRUNCATE TABLE contacts, directory_change_log RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void unchangedSaveWritesOnlyChangeLog() {
+        assertThat(statementsForEdit(form -> { })).isEqualTo(READS + CHANGE_LOG_INSERT);
+    }
+
+    @Test
+    void renameUpdatesContactRowAndReplacesSearchKeys() {
+        long contactUpdate = 1;
+        long searchKeyDeleteBatch = 1;
+        long searchKeyInsertBatch = 1;
+
+        assertThat(statementsForEdit(form -> form.setFullName(NEW_FULL_NAME)))
+            .isEqualTo(READS + contactUpdate + searchKeyDeleteBatch + searchKeyInsertBatch
+                + CHANGE_LOG_INSERT);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT search_key FROM contact_search_keys WHERE contact_id = ?", String.class,
+                contactId))
+            .containsExactlyInAnyOrderElementsOf(TransliterationUtils.buildSearchKeys(
+                NEW_FULL_NAME));
+    }
+
+    @Test
+    void changedPhoneUpdatesOnlyItsRow() {
+        assertThat(statementsForEdit(form -> form.getWorkPhones().set(1, WORK_3)))
+            .isEqualTo(READS + 1 + CHANGE_LOG_INSERT);
+        assertThat(load().getWorkPhones()).containsExactly(WORK_1, WORK_3);
+    }
+
+    @Test
+    void addedPhoneInsertsOneRow() {
+        assertThat(statementsForEdit(form -> form.getWorkPhones().add(WORK_3)))
+            .isEqualTo(READS + 1 + CHANGE_LOG_INSERT);
+        assertThat(load().getWorkPhones()).containsExactly(WORK_1, WORK_2, WORK_3);
+    }
+
+    @Test
+    void removedLastPhoneDeletesOneRow() {
+        assertThat(statementsForEdit(form -> form.getPersonalPhones().clear()))
+            .isEqualTo(READS + 1 + CHANGE_LOG_INSERT);
+        assertThat(load().getPersonalPhones()).isEmpty();
+    }
+
+    @Test
+    void entryOrderAndDuplicatesArePreserved() {
+        statementsForEdit(form -> form.setWorkPhones(new ArrayList<>(List.of(WORK_2, WORK_1,
+            WORK_2))));
+
+        assertThat(load().getWorkPhones()).containsExactly(WORK_2, WORK_1, WORK_2);
+    }
+
+    private long statementsForEdit(Consumer<ContactFormDTO> edit) {
+        ContactFormDTO form = toForm(load());
+        edit.accept(form);
+
+        statistics.clear();
+        contactService.save(form);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private ContactDTO load() {
+        return contactService.findById(contactId);
+    }
+
+    private static ContactFormDTO toForm(ContactDTO contact) {
+        ContactFormDTO form = new ContactFormDTO();
+        form.setId(contact.getId());
+        form.setFullName(contact.getFullName());
+        form.setPosition(contact.getPosition());
+        form.setDepartmentId(contact.getDepartmentId());
+        form.setWorkPhones(new ArrayList<>(contact.getWorkPhones()));
+        form.setWorkMobilePhones(new ArrayList<>(contact.getWorkMobilePhones()));
+        form.setPersonalPhones(new ArrayList<>(contact.getPersonalPhones()));
+        return form;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ivanzlotnikov.phonebook.contact.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ivanzlotnikov.phonebook.PostgresIntegrationTest;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactDTO;
+import com.ivanzlotnikov.phonebook.contact.dto.ContactFormDTO;
+import com.ivanzlotnikov.phonebook.contact.repository.ContactRepository;
+import com.ivanzlotnikov.phonebook.exception.DuplicateResourceException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Проверяет уникальность пары (ФИО, должность) вместе с мягким удалением: удаленный контакт,
+ * еще не перенесенный в архив, не мешает создать контакт заново или восстановить архивную
+ * запись, а активный контакт с теми же данными по-прежнему считается дубликатом.
+ */
+class ContactSoftDeleteUniquenessTest extends PostgresIntegrationTest {
+
+    private static final String FULL_NAME = "Сидоров Сидор Сидорович";
+    private static final String POSITION = "Бухгалтер";
+    private static final String PHONE = "+7 (495) 222-22-22";
+    private static final long AWAIT_TIMEOUT_MS = 10_000;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactArchiveService contactArchiveService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE contacts, archived_contacts, directory_change_log"
+            + " RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void deletedContactCanBeCreatedAgain() {
+        long deletedId = contactService.save(form()).getId();
+        delete(deletedId);
+
+        ContactDTO recreated = contactService.save(form());
+
+        assertThat(recreated.getId()).isNotEqualTo(deletedId);
+        assertThat(countRows()).isEqualTo(2);
+    }
+
+    @Test
+    void activeDuplicateIsStillRejected() {
+        contactService.save(form());
+
+        assertThatThrownBy(() -> contactService.save(form()))
+            .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void archivedContactIsRestoredWhileItsSuccessorAwaitsArchiving() {
+        long archivedId = contactService.save(form()).getId();
+        delete(archivedId);
+        assertThat(contactArchiveService.archiveDeletedBatch(100)).isEqualTo(1);
+        long successorId = contactService.save(form()).getId();
+        delete(successorId);
+
+        ContactDTO restored = contactArchiveService.restore(archivedId);
+
+        assertThat(restored.getFullName()).isEqualTo(FULL_NAME);
+        assertThat(restored.getWorkPhones()).containsExactly(PHONE);
+        assertThat(countRows()).isEqualTo(2);
+    }
+
+    @Test
+    void restoreIsRejectedWhileActiveDuplicateExists() {
+        long archivedId = contactService.save(form()).getId();
+        delete(archivedId);
+        contactArchiveService.archiveDeletedBatch(100);
+        contactService.save(form());
+
+        assertThatThrownBy(() -> contactArchiveService.restore(archivedId))
+            .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    /**
+     * Удаляет контакт и ждет завершения асинхронного мягкого удаления.
+     */
+    private void delete(long id) {
+        contactService.deleteById(id);
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+        boolean visible;
+        do {
+            visible = contactRepository.existsById(id);
+        } while (visible && System.currentTimeMillis() < deadline && sleepQuietly());
+        assertThat(visible).isFalse();
+    }
+
+    private static boolean sleepQuietly() {
+        try {
+            Thread.sleep(50);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Integer countRows() {
+        return jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM contacts WHERE full_name = ? AND position = ?", Integer.class,
+            FULL_NAME, POSITION);
+    }
+
+    private static ContactFormDTO form() {
+        ContactFormDTO form = new ContactFormDTO();
+        form.setFullName(FULL_NAME);
+        form.setPosition(POSITION);
+        form.setWorkPhones(new ArrayList<>(List.of(PHONE)));
+        form.setWorkMobilePhones(new ArrayList<>());
+        form.setPersonalPhones(new ArrayList<>());
+        return form;
+    }
+}